@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.benchmark.cluster;
+
+import org.apache.dubbo.benchmark.support.BenchmarkInvoker;
+import org.apache.dubbo.benchmark.support.DemoService;
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.extension.ExtensionLoader;
+import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.RpcInvocation;
+import org.apache.dubbo.rpc.cluster.LoadBalance;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link LoadBalance#select} of every load balance extension, with uneven weights so that the weighted
+ * branches are exercised.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class LoadBalanceBenchmark {
+
+    @Param({"random", "roundrobin", "leastactive", "consistenthash", "maglev", "p2c"})
+    public String loadbalance;
+
+    @Param({"10", "100"})
+    public int providers;
+
+    private LoadBalance instance;
+
+    private List<Invoker<DemoService>> invokers;
+
+    private URL consumerUrl;
+
+    private RpcInvocation invocation;
+
+    @Setup
+    public void setup() {
+        instance = ExtensionLoader.getExtensionLoader(LoadBalance.class).getExtension(loadbalance);
+        consumerUrl = URL.valueOf("consumer://10.20.30.40/" + DemoService.class.getName()
+                + "?application=benchmark-consumer&side=consumer");
+        invokers = new ArrayList<Invoker<DemoService>>(providers);
+        for (int i = 0; i < providers; i++) {
+            URL url = URL.valueOf("dubbo://10.0.0." + (i + 1) + ":20880/" + DemoService.class.getName())
+                    .addParameter(Constants.WEIGHT_KEY, 100 + (i % 3) * 50);
+            invokers.add(new BenchmarkInvoker(url));
+        }
+        invocation = new RpcInvocation("sayHello", new Class<?>[]{String.class}, new Object[]{"world"});
+    }
+
+    @Benchmark
+    public Invoker<DemoService> select() {
+        return instance.select(invokers, consumerUrl, invocation);
+    }
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.benchmark.cluster;
+
+import org.apache.dubbo.benchmark.support.BenchmarkInvoker;
+import org.apache.dubbo.benchmark.support.DemoService;
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.RpcInvocation;
+import org.apache.dubbo.rpc.cluster.Router;
+import org.apache.dubbo.rpc.cluster.RouterChain;
+import org.apache.dubbo.rpc.cluster.router.condition.ConditionRouter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link RouterChain#route(URL, org.apache.dubbo.rpc.Invocation)} with the activated builtin routers plus
+ * a condition rule, over clusters of growing size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouterChainBenchmark {
+
+    @Param({"10", "100", "1000", "3000"})
+    public int providers;
+
+    private RouterChain<DemoService> chain;
+
+    private URL consumerUrl;
+
+    private RpcInvocation invocation;
+
+    @Setup
+    public void setup() {
+        consumerUrl = URL.valueOf("consumer://10.20.30.40/" + DemoService.class.getName()
+                + "?application=benchmark-consumer&side=consumer");
+        chain = RouterChain.buildChain(consumerUrl);
+
+        URL ruleUrl = URL.valueOf("condition://0.0.0.0/" + DemoService.class.getName())
+                .addParameterAndEncoded(Constants.RULE_KEY, "method = sayHello => host != 10.0.0.1");
+        List<Router> routers = new ArrayList<Router>();
+        routers.add(new ConditionRouter(ruleUrl));
+        chain.addRouters(routers);
+
+        List<Invoker<DemoService>> invokers = new ArrayList<Invoker<DemoService>>(providers);
+        for (int i = 0; i < providers; i++) {
+            String host = "10.0." + (i / 250) + "." + (i % 250 + 1);
+            invokers.add(new BenchmarkInvoker(URL.valueOf("dubbo://" + host + ":20880/" + DemoService.class.getName()
+                    + "?side=provider&remote.application=benchmark-provider")));
+        }
+        chain.setInvokers(Collections.unmodifiableList(invokers));
+
+        invocation = new RpcInvocation("sayHello", new Class<?>[]{String.class}, new Object[]{"world"});
+    }
+
+    @Benchmark
+    public List<Invoker<DemoService>> route() {
+        return chain.route(consumerUrl, invocation);
+    }
+
+}
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.benchmark.codec;
+
+import org.apache.dubbo.benchmark.support.BenchmarkChannel;
+import org.apache.dubbo.benchmark.support.BenchmarkPayload;
+import org.apache.dubbo.benchmark.support.DemoService;
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.io.UnsafeByteArrayInputStream;
+import org.apache.dubbo.common.io.UnsafeByteArrayOutputStream;
+import org.apache.dubbo.common.serialize.ObjectOutput;
+import org.apache.dubbo.remoting.Channel;
+import org.apache.dubbo.remoting.buffer.ChannelBuffer;
+import org.apache.dubbo.remoting.buffer.ChannelBuffers;
+import org.apache.dubbo.remoting.exchange.Request;
+import org.apache.dubbo.remoting.transport.CodecSupport;
+import org.apache.dubbo.rpc.RpcInvocation;
+import org.apache.dubbo.rpc.protocol.dubbo.DubboCodec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the dubbo protocol body codec: {@link DubboCodec#encodeRequestData} and {@link DubboCodec#decodeBody}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DubboCodecBenchmark {
+
+    private static final int HEADER_LENGTH = 16;
+
+    @Param({"16", "1024", "102400"})
+    public int payloadSize;
+
+    @Param({"hessian2", "fastjson", "kryo"})
+    public String serialization;
+
+    private ExposedDubboCodec codec;
+
+    private Channel channel;
+
+    private RpcInvocation invocation;
+
+    private UnsafeByteArrayOutputStream output;
+
+    private byte[] header;
+
+    private byte[] body;
+
+    @Setup
+    public void setup() throws IOException {
+        URL url = URL.valueOf("dubbo://127.0.0.1:20880/" + DemoService.class.getName())
+                .addParameter(Constants.SERIALIZATION_KEY, serialization)
+                .addParameter(Constants.DECODE_IN_IO_THREAD_KEY, true);
+        codec = new ExposedDubboCodec();
+        channel = new BenchmarkChannel(url);
+        invocation = new RpcInvocation("echo", new Class<?>[]{BenchmarkPayload.class},
+                new Object[]{BenchmarkPayload.create(payloadSize)});
+        invocation.setAttachment(Constants.PATH_KEY, DemoService.class.getName());
+        invocation.setAttachment(Constants.VERSION_KEY, "1.0.0");
+        output = new UnsafeByteArrayOutputStream(payloadSize + 1024);
+
+        Request request = new Request();
+        request.setVersion(DubboCodec.DUBBO_VERSION);
+        request.setTwoWay(true);
+        request.setData(invocation);
+        ChannelBuffer buffer = ChannelBuffers.dynamicBuffer(payloadSize + 1024);
+        codec.encode(channel, buffer, request);
+        byte[] frame = new byte[buffer.readableBytes()];
+        buffer.readBytes(frame);
+        header = new byte[HEADER_LENGTH];
+        System.arraycopy(frame, 0, header, 0, HEADER_LENGTH);
+        body = new byte[frame.length - HEADER_LENGTH];
+        System.arraycopy(frame, HEADER_LENGTH, body, 0, body.length);
+    }
+
+    @Benchmark
+    public int encodeRequestData() throws IOException {
+        output.reset();
+        ObjectOutput out = CodecSupport.getSerialization(channel.getUrl()).serialize(channel.getUrl(), output);
+        codec.encodeRequestData(channel, out, invocation);
+        out.flushBuffer();
+        return output.size();
+    }
+
+    @Benchmark
+    public Object decodeBody() throws IOException {
+        Request request = (Request) codec.decodeBody(channel, new UnsafeByteArrayInputStream(body), header);
+        return request.getData();
+    }
+
+    /**
+     * Opens up the protected codec steps so they can be measured in isolation.
+     */
+    private static class ExposedDubboCodec extends DubboCodec {
+
+        @Override
+        public void encodeRequestData(Channel channel, ObjectOutput out, Object data) throws IOException {
+            super.encodeRequestData(channel, out, data);
+        }
+
+        @Override
+        public Object decodeBody(Channel channel, InputStream is, byte[] header) throws IOException {
+            return super.decodeBody(channel, is, header);
+        }
+    }
+
+}
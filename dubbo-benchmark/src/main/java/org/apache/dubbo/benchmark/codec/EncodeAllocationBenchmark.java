@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.benchmark.codec;
+
+import org.apache.dubbo.benchmark.support.BenchmarkChannel;
+import org.apache.dubbo.benchmark.support.BenchmarkPayload;
+import org.apache.dubbo.benchmark.support.DemoService;
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.remoting.Channel;
+import org.apache.dubbo.remoting.buffer.ChannelBuffer;
+import org.apache.dubbo.remoting.buffer.ChannelBuffers;
+import org.apache.dubbo.remoting.exchange.Request;
+import org.apache.dubbo.remoting.exchange.Response;
+import org.apache.dubbo.rpc.RpcInvocation;
+import org.apache.dubbo.rpc.RpcResult;
+import org.apache.dubbo.rpc.protocol.dubbo.DubboCodec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes whole dubbo frames into a reused buffer, so that the <code>gc.alloc.rate.norm</code> counter of the gc
+ * profiler is the number of bytes the codec and the serialization allocate per encoded message.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncodeAllocationBenchmark {
+
+    @Param({"16", "1024"})
+    public int payloadSize;
+
+    @Param({"hessian2", "fastjson", "fst", "kryo"})
+    public String serialization;
+
+    private DubboCodec codec;
+
+    private Channel channel;
+
+    private Request request;
+
+    private Response response;
+
+    private ChannelBuffer buffer;
+
+    @Setup
+    public void setup() {
+        URL url = URL.valueOf("dubbo://127.0.0.1:20880/" + DemoService.class.getName())
+                .addParameter(Constants.SERIALIZATION_KEY, serialization);
+        codec = new DubboCodec();
+        channel = new BenchmarkChannel(url);
+        BenchmarkPayload payload = BenchmarkPayload.create(payloadSize);
+
+        RpcInvocation invocation = new RpcInvocation("echo", new Class<?>[]{BenchmarkPayload.class},
+                new Object[]{payload});
+        invocation.setAttachment(Constants.PATH_KEY, DemoService.class.getName());
+        invocation.setAttachment(Constants.VERSION_KEY, "1.0.0");
+        request = new Request();
+        request.setVersion(DubboCodec.DUBBO_VERSION);
+        request.setTwoWay(true);
+        request.setData(invocation);
+
+        response = new Response(request.getId(), DubboCodec.DUBBO_VERSION);
+        response.setResult(new RpcResult(payload));
+
+        buffer = ChannelBuffers.dynamicBuffer(payloadSize + 1024);
+    }
+
+    @Benchmark
+    public int encodeRequest() throws IOException {
+        buffer.clear();
+        codec.encode(channel, buffer, request);
+        return buffer.writerIndex();
+    }
+
+    @Benchmark
+    public int encodeResponse() throws IOException {
+        buffer.clear();
+        codec.encode(channel, buffer, response);
+        return buffer.writerIndex();
+    }
+
+}
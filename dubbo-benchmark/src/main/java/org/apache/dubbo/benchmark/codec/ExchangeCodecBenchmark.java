@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.benchmark.codec;
+
+import org.apache.dubbo.benchmark.support.BenchmarkChannel;
+import org.apache.dubbo.benchmark.support.BenchmarkPayload;
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.remoting.Channel;
+import org.apache.dubbo.remoting.buffer.ChannelBuffer;
+import org.apache.dubbo.remoting.buffer.ChannelBuffers;
+import org.apache.dubbo.remoting.exchange.Request;
+import org.apache.dubbo.remoting.exchange.Response;
+import org.apache.dubbo.remoting.exchange.codec.ExchangeCodec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a whole frame, header included, through {@link ExchangeCodec#encode} and {@link ExchangeCodec#decode}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExchangeCodecBenchmark {
+
+    @Param({"16", "1024", "102400"})
+    public int payloadSize;
+
+    private ExchangeCodec codec;
+
+    private Channel channel;
+
+    private Request request;
+
+    private Response response;
+
+    private ChannelBuffer encodeBuffer;
+
+    private byte[] encodedRequest;
+
+    private byte[] encodedResponse;
+
+    @Setup
+    public void setup() throws IOException {
+        URL url = URL.valueOf("exchange://127.0.0.1:20880/benchmark")
+                .addParameter(Constants.SERIALIZATION_KEY, Constants.DEFAULT_REMOTING_SERIALIZATION);
+        codec = new ExchangeCodec();
+        channel = new BenchmarkChannel(url);
+        BenchmarkPayload payload = BenchmarkPayload.create(payloadSize);
+
+        request = new Request();
+        request.setTwoWay(true);
+        request.setData(payload);
+        response = new Response(request.getId());
+        response.setResult(payload);
+        encodeBuffer = ChannelBuffers.dynamicBuffer(payloadSize + 1024);
+
+        encodedRequest = encode(request);
+        encodedResponse = encode(response);
+    }
+
+    private byte[] encode(Object message) throws IOException {
+        ChannelBuffer buffer = ChannelBuffers.dynamicBuffer(payloadSize + 1024);
+        codec.encode(channel, buffer, message);
+        byte[] bytes = new byte[buffer.readableBytes()];
+        buffer.readBytes(bytes);
+        return bytes;
+    }
+
+    @Benchmark
+    public int encodeRequest() throws IOException {
+        encodeBuffer.clear();
+        codec.encode(channel, encodeBuffer, request);
+        return encodeBuffer.writerIndex();
+    }
+
+    @Benchmark
+    public int encodeResponse() throws IOException {
+        encodeBuffer.clear();
+        codec.encode(channel, encodeBuffer, response);
+        return encodeBuffer.writerIndex();
+    }
+
+    @Benchmark
+    public Object decodeRequest() throws IOException {
+        return codec.decode(channel, ChannelBuffers.wrappedBuffer(encodedRequest));
+    }
+
+    @Benchmark
+    public Object decodeResponse() throws IOException {
+        return codec.decode(channel, ChannelBuffers.wrappedBuffer(encodedResponse));
+    }
+
+}
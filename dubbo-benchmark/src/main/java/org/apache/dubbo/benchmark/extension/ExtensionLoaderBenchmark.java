@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.benchmark.extension;
+
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.extension.ExtensionLoader;
+import org.apache.dubbo.rpc.Filter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ExtensionLoader#getActivateExtension(URL, String, String)} for the provider and consumer filter
+ * chains, which is what every export and refer pays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExtensionLoaderBenchmark {
+
+    private ExtensionLoader<Filter> loader;
+
+    private URL providerUrl;
+
+    private URL consumerUrl;
+
+    @Setup
+    public void setup() {
+        loader = ExtensionLoader.getExtensionLoader(Filter.class);
+        providerUrl = URL.valueOf("dubbo://127.0.0.1:20880/org.apache.dubbo.benchmark.support.DemoService"
+                + "?side=provider&accesslog=true&token=secret&tps=1000&executes=100");
+        consumerUrl = URL.valueOf("consumer://127.0.0.1/org.apache.dubbo.benchmark.support.DemoService"
+                + "?side=consumer&actives=100&cache=lru&validation=true&reference.filter=-monitor");
+    }
+
+    @Benchmark
+    public List<Filter> providerFilters() {
+        return loader.getActivateExtension(providerUrl, Constants.SERVICE_FILTER_KEY, Constants.PROVIDER);
+    }
+
+    @Benchmark
+    public List<Filter> consumerFilters() {
+        return loader.getActivateExtension(consumerUrl, Constants.REFERENCE_FILTER_KEY, Constants.CONSUMER);
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.benchmark.generic;
+
+import org.apache.dubbo.benchmark.support.BenchmarkPayload;
+import org.apache.dubbo.benchmark.support.DemoService;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.beanutil.JavaBeanAccessor;
+import org.apache.dubbo.common.beanutil.JavaBeanDescriptor;
+import org.apache.dubbo.common.beanutil.JavaBeanSerializeUtil;
+import org.apache.dubbo.common.extension.ExtensionLoader;
+import org.apache.dubbo.common.io.UnsafeByteArrayInputStream;
+import org.apache.dubbo.common.io.UnsafeByteArrayOutputStream;
+import org.apache.dubbo.common.serialize.ObjectInput;
+import org.apache.dubbo.common.serialize.ObjectOutput;
+import org.apache.dubbo.common.serialize.Serialization;
+import org.apache.dubbo.common.utils.PojoUtils;
+import org.apache.dubbo.metadata.definition.ServiceDefinitionBuilder;
+import org.apache.dubbo.metadata.definition.TypeSchemaBuilder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carries a generic argument received as a map from the consumer's hessian2 output to the provider's
+ * parameter type, once for each generic serialization: <code>true</code>, <code>bean</code> and
+ * <code>schema</code>. The payload goes without its byte array, which a {@link JavaBeanDescriptor} cannot
+ * carry over hessian2.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GenericSerializationBenchmark {
+
+    private Serialization serialization;
+
+    private URL url;
+
+    private Map<?, ?> argument;
+
+    private TypeSchemaBuilder schemas;
+
+    private UnsafeByteArrayOutputStream output;
+
+    @Setup
+    public void setup() {
+        serialization = ExtensionLoader.getExtensionLoader(Serialization.class).getExtension("hessian2");
+        url = URL.valueOf("dubbo://127.0.0.1:20880/benchmark?serialization=hessian2");
+        Map<?, ?> generalized = (Map<?, ?>) PojoUtils.generalize(BenchmarkPayload.create(16));
+        generalized.remove("data");
+        argument = generalized;
+        schemas = new TypeSchemaBuilder(ServiceDefinitionBuilder.build(DemoService.class));
+        output = new UnsafeByteArrayOutputStream(1024);
+    }
+
+    @Benchmark
+    public Object defaultGeneric() throws IOException, ClassNotFoundException {
+        Map<?, ?> received = (Map<?, ?>) roundTrip(argument, Map.class);
+        return PojoUtils.realize(received, BenchmarkPayload.class);
+    }
+
+    @Benchmark
+    public Object beanGeneric() throws IOException, ClassNotFoundException {
+        JavaBeanDescriptor descriptor = JavaBeanSerializeUtil.serialize(
+                PojoUtils.realize(argument, BenchmarkPayload.class), JavaBeanAccessor.METHOD);
+        return JavaBeanSerializeUtil.deserialize((JavaBeanDescriptor) roundTrip(descriptor, JavaBeanDescriptor.class));
+    }
+
+    @Benchmark
+    public Object schemaGeneric() throws IOException, ClassNotFoundException {
+        Object[] values = schemas.toSchemaValues("echo", null, new Object[]{argument});
+        return roundTrip(values[0], BenchmarkPayload.class);
+    }
+
+    private Object roundTrip(Object value, Class<?> type) throws IOException, ClassNotFoundException {
+        output.reset();
+        ObjectOutput out = serialization.serialize(url, output);
+        out.writeObject(value);
+        out.flushBuffer();
+        ObjectInput in = serialization.deserialize(url, new UnsafeByteArrayInputStream(output.toByteArray()));
+        return in.readObject(type);
+    }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.benchmark.generic;
+
+import org.apache.dubbo.benchmark.support.BenchmarkPayload;
+import org.apache.dubbo.common.utils.PojoUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link PojoUtils#generalize(Object)} and {@link PojoUtils#realize(Object, Class)} as paid by every
+ * generic call, with the generated pojo accessors and, in a separate fork, with reflection only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PojoUtilsBenchmark {
+
+    private static final String REFLECTIVE = "-Ddubbo.pojo.generated.accessor=false";
+
+    private BenchmarkPayload payload;
+
+    private Object generalized;
+
+    @Setup
+    public void setup() {
+        payload = BenchmarkPayload.create(16);
+        generalized = PojoUtils.generalize(payload);
+    }
+
+    @Benchmark
+    public Object generalize() {
+        return PojoUtils.generalize(payload);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = REFLECTIVE)
+    public Object generalizeReflective() {
+        return PojoUtils.generalize(payload);
+    }
+
+    @Benchmark
+    public Object realize() {
+        return PojoUtils.realize(generalized, BenchmarkPayload.class);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = REFLECTIVE)
+    public Object realizeReflective() {
+        return PojoUtils.realize(generalized, BenchmarkPayload.class);
+    }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.benchmark.monitor;
+
+import org.apache.dubbo.benchmark.support.BenchmarkInvoker;
+import org.apache.dubbo.benchmark.support.DemoService;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.monitor.metrics.MeterFilter;
+import org.apache.dubbo.monitor.metrics.MetricsRegistry;
+import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.Result;
+import org.apache.dubbo.rpc.RpcInvocation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead of {@link MeterFilter} on a call, against the bare invoker, with the threads all calling
+ * the same method.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class MeterFilterBenchmark {
+
+    private final MeterFilter filter = new MeterFilter();
+
+    private Invoker<DemoService> invoker;
+
+    private RpcInvocation invocation;
+
+    @Setup
+    public void setup() {
+        URL url = URL.valueOf("dubbo://127.0.0.1:20880/" + DemoService.class.getName()
+                + "?application=benchmark&side=provider&metrics=true");
+        invoker = new BenchmarkInvoker(url);
+        MetricsRegistry.register(invoker);
+        invocation = new RpcInvocation("sayHello", new Class<?>[]{String.class}, new Object[]{"world"});
+    }
+
+    @Benchmark
+    public Result bare() {
+        return invoker.invoke(invocation);
+    }
+
+    @Benchmark
+    public Result metered() {
+        return filter.invoke(invoker, invocation);
+    }
+
+}
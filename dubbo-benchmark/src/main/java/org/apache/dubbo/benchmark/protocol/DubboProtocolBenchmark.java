@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.benchmark.protocol;
+
+import org.apache.dubbo.benchmark.support.BenchmarkPayload;
+import org.apache.dubbo.benchmark.support.DemoService;
+import org.apache.dubbo.benchmark.support.DemoServiceImpl;
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.extension.ExtensionLoader;
+import org.apache.dubbo.common.utils.NetUtils;
+import org.apache.dubbo.rpc.Exporter;
+import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.Protocol;
+import org.apache.dubbo.rpc.ProxyFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exports a service over the dubbo protocol on the loopback interface and refers it back, so a call goes through
+ * the proxy, the filter chains, the codec and the netty transport on both sides.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class DubboProtocolBenchmark {
+
+    @Param({"16", "1024", "102400"})
+    public int payloadSize;
+
+    private Exporter<DemoService> exporter;
+
+    private Invoker<DemoService> invoker;
+
+    private DemoService service;
+
+    private BenchmarkPayload payload;
+
+    @Setup
+    public void setup() {
+        Protocol protocol = ExtensionLoader.getExtensionLoader(Protocol.class).getAdaptiveExtension();
+        ProxyFactory proxyFactory = ExtensionLoader.getExtensionLoader(ProxyFactory.class).getAdaptiveExtension();
+        URL url = URL.valueOf("dubbo://127.0.0.1:" + NetUtils.getAvailablePort() + "/" + DemoService.class.getName())
+                .addParameter(Constants.TIMEOUT_KEY, 10000)
+                .addParameter(Constants.CONNECTIONS_KEY, 1);
+
+        exporter = protocol.export(proxyFactory.getInvoker(new DemoServiceImpl(), DemoService.class, url));
+        invoker = protocol.refer(DemoService.class, url);
+        service = proxyFactory.getProxy(invoker);
+        payload = BenchmarkPayload.create(payloadSize);
+    }
+
+    @TearDown
+    public void tearDown() {
+        invoker.destroy();
+        exporter.unexport();
+    }
+
+    @Benchmark
+    public String sayHello() {
+        return service.sayHello("world");
+    }
+
+    @Benchmark
+    public BenchmarkPayload echo() {
+        return service.echo(payload);
+    }
+
+}
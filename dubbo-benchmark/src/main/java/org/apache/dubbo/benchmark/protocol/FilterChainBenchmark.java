@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.benchmark.protocol;
+
+import org.apache.dubbo.benchmark.support.BenchmarkInvoker;
+import org.apache.dubbo.benchmark.support.DemoService;
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.rpc.AsyncRpcResult;
+import org.apache.dubbo.rpc.Exporter;
+import org.apache.dubbo.rpc.Invocation;
+import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.Protocol;
+import org.apache.dubbo.rpc.Result;
+import org.apache.dubbo.rpc.RpcContext;
+import org.apache.dubbo.rpc.RpcInvocation;
+import org.apache.dubbo.rpc.protocol.AbstractExporter;
+import org.apache.dubbo.rpc.protocol.ProtocolFilterWrapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a call through the filter chain built by {@link ProtocolFilterWrapper}, the nested default one against
+ * <code>filter.chain=compiled</code>, for the activated provider and consumer filters of the benchmark classpath
+ * plus the ones switched on by the usual limits.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterChainBenchmark {
+
+    @Param({"default", "compiled"})
+    public String chain;
+
+    @Param({"provider", "consumer"})
+    public String side;
+
+    @Param({"false", "true"})
+    public boolean async;
+
+    private Invoker<DemoService> invoker;
+
+    private RpcInvocation invocation;
+
+    @Setup
+    public void setup() {
+        URL url = URL.valueOf("dubbo://127.0.0.1:20880/" + DemoService.class.getName()
+                + "?application=benchmark&interface=" + DemoService.class.getName()
+                + "&executes=100000&tps=100000000&actives=100000&loadbalance=p2c&deprecated=false"
+                + "&side=" + side + "&" + Constants.FILTER_CHAIN_KEY + "=" + chain);
+        final CompletableFuture<Object> done = CompletableFuture.completedFuture("hello");
+        final Invoker<DemoService> target = new BenchmarkInvoker(url) {
+            @Override
+            public Result invoke(Invocation invocation) {
+                return async ? new AsyncRpcResult(done) : super.invoke(invocation);
+            }
+        };
+        Protocol protocol = new ProtocolFilterWrapper(new LocalProtocol(target));
+        if ("provider".equals(side)) {
+            invoker = protocol.export(target).getInvoker();
+        } else {
+            invoker = protocol.refer(DemoService.class, url);
+        }
+        invocation = new RpcInvocation("sayHello", new Class<?>[]{String.class}, new Object[]{"world"});
+        invocation.setInvoker(invoker);
+    }
+
+    @Benchmark
+    public Object invoke() throws Exception {
+        RpcContext.getContext().setRemoteAddress("127.0.0.1", 20881);
+        Result result = invoker.invoke(invocation);
+        if (result instanceof AsyncRpcResult) {
+            return ((AsyncRpcResult) result).getResultFuture().get();
+        }
+        return result;
+    }
+
+    /**
+     * exports and refers the given invoker as is, the filters are the only thing on the path
+     */
+    private static class LocalProtocol implements Protocol {
+
+        private final Invoker<DemoService> target;
+
+        LocalProtocol(Invoker<DemoService> target) {
+            this.target = target;
+        }
+
+        @Override
+        public int getDefaultPort() {
+            return 20880;
+        }
+
+        @Override
+        public <T> Exporter<T> export(Invoker<T> invoker) {
+            return new AbstractExporter<T>(invoker) {
+            };
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> Invoker<T> refer(Class<T> type, URL url) {
+            return (Invoker<T>) target;
+        }
+
+        @Override
+        public void destroy() {
+        }
+    }
+}
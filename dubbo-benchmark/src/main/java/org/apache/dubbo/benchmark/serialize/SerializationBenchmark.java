@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.benchmark.serialize;
+
+import org.apache.dubbo.benchmark.support.BenchmarkPayload;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.extension.ExtensionLoader;
+import org.apache.dubbo.common.io.UnsafeByteArrayInputStream;
+import org.apache.dubbo.common.io.UnsafeByteArrayOutputStream;
+import org.apache.dubbo.common.serialize.ObjectInput;
+import org.apache.dubbo.common.serialize.ObjectOutput;
+import org.apache.dubbo.common.serialize.Serialization;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trips the same payload through every {@link Serialization} extension.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"hessian2", "fastjson", "fst", "kryo", "protostuff", "java", "compactedjava", "nativejava"})
+    public String serialization;
+
+    @Param({"16", "1024", "102400"})
+    public int payloadSize;
+
+    private Serialization instance;
+
+    private URL url;
+
+    private BenchmarkPayload payload;
+
+    private UnsafeByteArrayOutputStream output;
+
+    private byte[] serialized;
+
+    @Setup
+    public void setup() throws Exception {
+        instance = ExtensionLoader.getExtensionLoader(Serialization.class).getExtension(serialization);
+        url = URL.valueOf("dubbo://127.0.0.1:20880/benchmark?serialization=" + serialization);
+        payload = BenchmarkPayload.create(payloadSize);
+        output = new UnsafeByteArrayOutputStream(payloadSize + 1024);
+        serialize();
+        serialized = output.toByteArray();
+    }
+
+    @Benchmark
+    public int serialize() throws IOException {
+        output.reset();
+        ObjectOutput out = instance.serialize(url, output);
+        out.writeObject(payload);
+        out.flushBuffer();
+        return output.size();
+    }
+
+    @Benchmark
+    public Object deserialize() throws IOException, ClassNotFoundException {
+        ObjectInput in = instance.deserialize(url, new UnsafeByteArrayInputStream(serialized));
+        return in.readObject(BenchmarkPayload.class);
+    }
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.benchmark.support;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.rpc.Invocation;
+import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.Result;
+import org.apache.dubbo.rpc.RpcResult;
+import org.apache.dubbo.rpc.RpcStatus;
+
+/**
+ * An always available invoker which answers every call locally, used to feed routers and load balances. Like a
+ * protocol invoker, it holds the {@link RpcStatus} of its url until destroyed.
+ */
+public class BenchmarkInvoker implements Invoker<DemoService> {
+
+    private final URL url;
+
+    public BenchmarkInvoker(URL url) {
+        this.url = url;
+        RpcStatus.retainStatus(url);
+    }
+
+    @Override
+    public Class<DemoService> getInterface() {
+        return DemoService.class;
+    }
+
+    @Override
+    public URL getUrl() {
+        return url;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public Result invoke(Invocation invocation) {
+        return new RpcResult();
+    }
+
+    @Override
+    public void destroy() {
+        RpcStatus.releaseStatus(url);
+    }
+
+}
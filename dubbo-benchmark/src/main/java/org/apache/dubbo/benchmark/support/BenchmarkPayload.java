@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.benchmark.support;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A small object graph used as request and response body, the <code>data</code> field controls the payload size.
+ */
+public class BenchmarkPayload implements Serializable {
+
+    private static final long serialVersionUID = -4306455582536346893L;
+
+    private long id;
+
+    private String name;
+
+    private List<String> tags;
+
+    private Map<String, Integer> counters;
+
+    private byte[] data;
+
+    public BenchmarkPayload() {
+    }
+
+    public static BenchmarkPayload create(int size) {
+        BenchmarkPayload payload = new BenchmarkPayload();
+        payload.setId(System.nanoTime());
+        payload.setName("payload-" + size);
+        List<String> tags = new ArrayList<String>();
+        Map<String, Integer> counters = new HashMap<String, Integer>();
+        for (int i = 0; i < 4; i++) {
+            tags.add("tag" + i);
+            counters.put("counter" + i, i);
+        }
+        payload.setTags(tags);
+        payload.setCounters(counters);
+        byte[] data = new byte[size];
+        Arrays.fill(data, (byte) 'x');
+        payload.setData(data);
+        return payload;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+
+    public Map<String, Integer> getCounters() {
+        return counters;
+    }
+
+    public void setCounters(Map<String, Integer> counters) {
+        this.counters = counters;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    public void setData(byte[] data) {
+        this.data = data;
+    }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.cluster;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.rpc.Invocation;
+import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.RpcException;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A router which precomputes its address pools, bitmaps over the full invoker list, when the invokers or its rule
+ * change, so that routing an invocation only intersects cached bitmaps.
+ * <p>
+ * {@link RouterChain} routes through the pools of consecutive AddressPoolRouters and only builds the invoker list
+ * once, before the first router which is not an AddressPoolRouter, or at the end of the chain.
+ *
+ * @see org.apache.dubbo.rpc.cluster.router.AddressPools
+ */
+public interface AddressPoolRouter extends Router {
+
+    /**
+     * Filter the pool with current routing rule, with the same outcome as {@link #route(List, URL, Invocation)} on
+     * the invokers of the pool.
+     *
+     * @param invokers   the full invoker list of the chain, the bits of a pool are indexes into it
+     * @param pool       the invokers left by the previous routers, must not be modified
+     * @param url        refer url
+     * @param invocation invocation
+     * @return routed pool, may be the given pool itself, or null where {@link #route(List, URL, Invocation)} returns null
+     * @throws RpcException
+     */
+    <T> BitSet route(List<Invoker<T>> invokers, BitSet pool, URL url, Invocation invocation) throws RpcException;
+
+    /**
+     * Notify the router of an invoker list which only differs from the previous one at the changed indexes, so that
+     * the pools built for the previous list can be patched rather than rebuilt.
+     *
+     * @param invokers the new full invoker list
+     * @param previous the full invoker list of the previous notification
+     * @param changed  the indexes holding another invoker than in the previous list, bits past the end of the new
+     *                 list are to be ignored
+     * @see RouterChain#updateInvokers(java.util.Collection, java.util.Collection)
+     */
+    default <T> void notify(List<Invoker<T>> invokers, List<Invoker<T>> previous, BitSet changed) {
+        notify(invokers);
+    }
+
+}
@@ -21,9 +21,16 @@ import org.apache.dubbo.common.extension.ExtensionLoader;
 import org.apache.dubbo.common.utils.CollectionUtils;
 import org.apache.dubbo.rpc.Invocation;
 import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.cluster.router.AddressPools;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
@@ -88,17 +95,32 @@ public class RouterChain<T> {
     }
 
     /**
+     * Consecutive {@link AddressPoolRouter}s route on address pools over the full invoker list, the invoker list is
+     * only built before the first router which is not an AddressPoolRouter, or at the end of the chain.
      *
      * @param url
      * @param invocation
      * @return
      */
     public List<Invoker<T>> route(URL url, Invocation invocation) {
-        List<Invoker<T>> finalInvokers = invokers;
+        List<Invoker<T>> allInvokers = invokers;
+        List<Invoker<T>> finalInvokers = allInvokers;
+        BitSet pool = allInvokers.isEmpty() ? null : AddressPools.all(allInvokers);
         for (Router router : routers) {
+            if (pool != null) {
+                if (router instanceof AddressPoolRouter) {
+                    pool = ((AddressPoolRouter) router).route(allInvokers, pool, url, invocation);
+                    if (pool == null) {
+                        finalInvokers = null;
+                    }
+                    continue;
+                }
+                finalInvokers = AddressPools.toList(allInvokers, pool);
+                pool = null;
+            }
             finalInvokers = router.route(finalInvokers, url, invocation);
         }
-        return finalInvokers;
+        return pool == null ? finalInvokers : AddressPools.toList(allInvokers, pool);
     }
 
     /**
@@ -109,4 +131,63 @@ public class RouterChain<T> {
         this.invokers = (invokers == null ? Collections.emptyList() : invokers);
         routers.forEach(router -> router.notify(this.invokers));
     }
+
+    /**
+     * Notify router chain of the invokers added and removed since the last notification.
+     * <p>
+     * The invokers left keep their indexes: an added invoker takes the index of a removed one or goes at the end,
+     * and the last invokers move to the indexes still free. {@link AddressPoolRouter}s are told which indexes
+     * changed, so that they patch their pools instead of matching every invoker again.
+     *
+     * @param added   invokers not in the current list
+     * @param removed invokers of the current list
+     * @return the new full invoker list
+     */
+    public List<Invoker<T>> updateInvokers(Collection<Invoker<T>> added, Collection<Invoker<T>> removed) {
+        List<Invoker<T>> previous = this.invokers;
+        Set<Invoker<T>> removedSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        removedSet.addAll(removed);
+        List<Invoker<T>> current = new ArrayList<>(previous.size() + added.size());
+        BitSet changed = new BitSet();
+        BitSet free = new BitSet();
+        Iterator<Invoker<T>> adding = added.iterator();
+        for (Invoker<T> invoker : previous) {
+            if (removedSet.contains(invoker)) {
+                if (adding.hasNext()) {
+                    invoker = adding.next();
+                    changed.set(current.size());
+                } else {
+                    free.set(current.size());
+                }
+            }
+            current.add(invoker);
+        }
+        while (adding.hasNext()) {
+            changed.set(current.size());
+            current.add(adding.next());
+        }
+        for (int i = free.nextSetBit(0); i >= 0 && i < current.size(); i = free.nextSetBit(i + 1)) {
+            int last = current.size() - 1;
+            while (last > i && free.get(last)) {
+                current.remove(last--);
+            }
+            if (last == i) {
+                current.remove(last);
+                break;
+            }
+            current.set(i, current.remove(last));
+            changed.set(i);
+        }
+
+        List<Invoker<T>> invokers = Collections.unmodifiableList(current);
+        this.invokers = invokers;
+        for (Router router : routers) {
+            if (router instanceof AddressPoolRouter) {
+                ((AddressPoolRouter) router).notify(invokers, previous, changed);
+            } else {
+                router.notify(invokers);
+            }
+        }
+        return invokers;
+    }
 }
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.cluster.loadbalance;
+
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.extension.Activate;
+import org.apache.dubbo.rpc.AsyncRpcResult;
+import org.apache.dubbo.rpc.Filter;
+import org.apache.dubbo.rpc.Invocation;
+import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.Result;
+import org.apache.dubbo.rpc.RpcException;
+
+/**
+ * LatencyFilter records the {@link LatencyStatus} of the invokers balanced by {@link P2CLoadBalance}, including the
+ * responses of asynchronous calls.
+ */
+@Activate(group = Constants.CONSUMER, value = Constants.LOADBALANCE_KEY)
+public class LatencyFilter implements Filter {
+
+    @Override
+    public Result invoke(Invoker<?> invoker, Invocation invocation) throws RpcException {
+        String loadbalance = invoker.getUrl().getMethodParameter(invocation.getMethodName(),
+                Constants.LOADBALANCE_KEY, Constants.DEFAULT_LOADBALANCE);
+        if (!P2CLoadBalance.NAME.equals(loadbalance)) {
+            return invoker.invoke(invocation);
+        }
+
+        LatencyStatus status = LatencyStatus.getStatus(invoker.getUrl());
+        status.begin();
+        long begin = System.nanoTime();
+        Result result;
+        try {
+            result = invoker.invoke(invocation);
+        } catch (RuntimeException t) {
+            status.end(System.nanoTime() - begin);
+            throw t;
+        }
+        if (result instanceof AsyncRpcResult) {
+            ((AsyncRpcResult) result).getResultFuture().whenComplete((r, t) -> status.end(System.nanoTime() - begin));
+        } else {
+            status.end(System.nanoTime() - begin);
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.cluster.loadbalance;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.rpc.RpcStatus;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Latency statistics of an invoker, a peak exponentially weighted moving average of the response time together with
+ * the number of pending calls. (API, Cached, ThreadSafe)
+ * <p>
+ * The average jumps to any response time above it and decays with the time elapsed otherwise, so one slow response
+ * is enough to route around a paused provider and the provider is tried again once the average has decayed.
+ * <p>
+ * The status is kept as a value of the {@link RpcStatus} of the url, so it is removed with it when the invoker is
+ * destroyed.
+ *
+ * @see LatencyFilter
+ * @see P2CLoadBalance
+ */
+public class LatencyStatus {
+
+    private static final String STATUS_KEY = LatencyStatus.class.getName();
+
+    private static final AtomicIntegerFieldUpdater<LatencyStatus> PENDING_UPDATER =
+            AtomicIntegerFieldUpdater.newUpdater(LatencyStatus.class, "pending");
+
+    private static final AtomicLongFieldUpdater<LatencyStatus> EWMA_UPDATER =
+            AtomicLongFieldUpdater.newUpdater(LatencyStatus.class, "ewma");
+
+    private static final double DECAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    // cost of an invoker which has pending calls but no response yet
+    private static final double PENALTY = Integer.MAX_VALUE;
+
+    private volatile int pending;
+
+    // raw bits of the average in nanoseconds
+    private volatile long ewma;
+
+    private volatile long stamp = System.nanoTime();
+
+    private LatencyStatus() {
+    }
+
+    /**
+     * @param url
+     * @return status
+     */
+    public static LatencyStatus getStatus(URL url) {
+        RpcStatus rpcStatus = RpcStatus.getStatus(url);
+        Object status = rpcStatus.get(STATUS_KEY);
+        if (status == null) {
+            status = rpcStatus.setIfAbsent(STATUS_KEY, new LatencyStatus());
+        }
+        return (LatencyStatus) status;
+    }
+
+    /**
+     * @param url
+     */
+    public static void removeStatus(URL url) {
+        RpcStatus.getStatus(url).remove(STATUS_KEY);
+    }
+
+    /**
+     * Count a call sent to the invoker.
+     */
+    public void begin() {
+        PENDING_UPDATER.incrementAndGet(this);
+    }
+
+    /**
+     * Count the response of a call and update the average.
+     *
+     * @param elapsed response time in nanoseconds
+     */
+    public void end(long elapsed) {
+        PENDING_UPDATER.decrementAndGet(this);
+        long now = System.nanoTime();
+        for (; ; ) {
+            long bits = ewma;
+            double average = Double.longBitsToDouble(bits);
+            double next;
+            if (elapsed > average) {
+                next = elapsed;
+            } else {
+                double weight = Math.exp(-Math.max(now - stamp, 0) / DECAY_NANOS);
+                next = average * weight + elapsed * (1 - weight);
+            }
+            if (EWMA_UPDATER.compareAndSet(this, bits, Double.doubleToRawLongBits(next))) {
+                stamp = now;
+                return;
+            }
+        }
+    }
+
+    /**
+     * get pending.
+     *
+     * @return pending calls
+     */
+    public int getPending() {
+        return pending;
+    }
+
+    /**
+     * get the average decayed to now.
+     *
+     * @return average response time in nanoseconds
+     */
+    public double getAverage() {
+        double average = Double.longBitsToDouble(ewma);
+        return average * Math.exp(-Math.max(System.nanoTime() - stamp, 0) / DECAY_NANOS);
+    }
+
+    /**
+     * get the expected cost of one more call, the average scaled by the pending calls.
+     *
+     * @return cost
+     */
+    public double getCost() {
+        int pending = this.pending;
+        double average = getAverage();
+        if (average == 0 && pending != 0) {
+            return PENALTY + pending;
+        }
+        return average * (pending + 1);
+    }
+
+}
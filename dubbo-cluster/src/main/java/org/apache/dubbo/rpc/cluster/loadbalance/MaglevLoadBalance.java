@@ -0,0 +1,300 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.cluster.loadbalance;
+
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.rpc.Invocation;
+import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.support.RpcUtils;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * MaglevLoadBalance
+ * <p>
+ * Consistent hashing through a Maglev lookup table (Eisenbud et al., Maglev: A Fast and Reliable Software Network Load
+ * Balancer). Every invoker fills the slots of the table along its own permutation, the invokers taking turns, so that
+ * each one owns an even share of the slots, and an invoker coming or going only moves a small part of the slots of the
+ * others. The invokers are ordered by address, so that every consumer builds the same table.
+ * <p>
+ * As with {@link ConsistentHashLoadBalance}, the arguments picked by the <b>hash.arguments</b> method parameter select
+ * the invoker, and weights are not considered. The arguments are hashed as they are, without building their string,
+ * and the invoker is looked up in the table. The table is only rebuilt when the invokers change, not when the same
+ * invokers come in another list. A list holding only some of the invokers, as when reselecting after a failure, uses
+ * the table as it is, the slots of the invokers left out falling to the next slot of an invoker of the list.
+ */
+public class MaglevLoadBalance extends AbstractLoadBalance {
+
+    public static final String NAME = "maglev";
+
+    // slots per invoker, each invoker owns its share of the table within 1%
+    private static final int SLOTS_PER_INVOKER = 100;
+
+    private static final int MIN_TABLE_SIZE = 1009;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    // service key and method name -> selector of the last full list of invokers
+    private final ConcurrentMap<String, MaglevSelector<?>> selectors = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected <T> Invoker<T> doSelect(List<Invoker<T>> invokers, URL url, Invocation invocation) {
+        String methodName = RpcUtils.getMethodName(invocation);
+        String key = invokers.get(0).getUrl().getServiceKey() + "." + methodName;
+        int identityHashCode = System.identityHashCode(invokers);
+        MaglevSelector<T> selector = (MaglevSelector<T>) selectors.get(key);
+        if (selector != null && selector.identityHashCode != identityHashCode) {
+            int compared = selector.compare(invokers);
+            if (compared == MaglevSelector.SAME) {
+                selector.identityHashCode = identityHashCode;
+            } else if (compared == MaglevSelector.SUBSET && selector.subsetIdentityHashCode != identityHashCode) {
+                // a reselect excluding some invokers, a list found twice is the new list of the invokers instead
+                selector.subsetIdentityHashCode = identityHashCode;
+                return selector.select(invocation, invokers);
+            } else {
+                selector = null;
+            }
+        }
+        if (selector == null) {
+            selector = new MaglevSelector<>(invokers, methodName, identityHashCode);
+            selectors.put(key, selector);
+        }
+        return selector.select(invocation);
+    }
+
+    MaglevSelector<?> getSelector(String serviceKey, String methodName) {
+        return selectors.get(serviceKey + "." + methodName);
+    }
+
+    static final class MaglevSelector<T> {
+
+        static final int SAME = 0;
+
+        static final int SUBSET = 1;
+
+        static final int OTHER = 2;
+
+        private final Invoker<T>[] invokers;
+
+        private final Map<Invoker<T>, Integer> indexes;
+
+        private final int[] table;
+
+        private final int[] argumentIndex;
+
+        // the last list found with the same invokers
+        private volatile int identityHashCode;
+
+        // the last list found with only some of the invokers
+        private volatile int subsetIdentityHashCode;
+
+        @SuppressWarnings("unchecked")
+        MaglevSelector(List<Invoker<T>> invokers, String methodName, int identityHashCode) {
+            this.identityHashCode = identityHashCode;
+            this.invokers = invokers.toArray(new Invoker[0]);
+            Arrays.sort(this.invokers, Comparator.comparing(invoker -> invoker.getUrl().getAddress()));
+            this.indexes = new IdentityHashMap<>(this.invokers.length);
+            for (int i = 0; i < this.invokers.length; i++) {
+                indexes.put(this.invokers[i], i);
+            }
+            URL url = this.invokers[0].getUrl();
+            String[] index = Constants.COMMA_SPLIT_PATTERN.split(url.getMethodParameter(methodName, "hash.arguments", "0"));
+            argumentIndex = new int[index.length];
+            for (int i = 0; i < index.length; i++) {
+                argumentIndex[i] = Integer.parseInt(index[i]);
+            }
+            this.table = populate(this.invokers, nextPrime(Math.max(MIN_TABLE_SIZE, this.invokers.length * SLOTS_PER_INVOKER)));
+        }
+
+        /**
+         * @return {@link #SAME} if the list holds the invokers of the table, {@link #SUBSET} if it holds only some of
+         * them, {@link #OTHER} if it holds others
+         */
+        int compare(List<Invoker<T>> invokers) {
+            if (invokers.size() > this.invokers.length) {
+                return OTHER;
+            }
+            for (int i = 0; i < invokers.size(); i++) {
+                if (!indexes.containsKey(invokers.get(i))) {
+                    return OTHER;
+                }
+            }
+            return invokers.size() == this.invokers.length ? SAME : SUBSET;
+        }
+
+        Invoker<T> select(Invocation invocation) {
+            return invokers[table[slot(invocation)]];
+        }
+
+        /**
+         * Select among some of the invokers of the table, the slots of the others fall to the next slot of the table
+         * owned by one of them.
+         */
+        Invoker<T> select(Invocation invocation, List<Invoker<T>> subset) {
+            boolean[] selectable = new boolean[invokers.length];
+            for (Invoker<T> invoker : subset) {
+                selectable[indexes.get(invoker)] = true;
+            }
+            int slot = slot(invocation);
+            for (int i = 0; i < table.length; i++) {
+                int index = table[(slot + i) % table.length];
+                if (selectable[index]) {
+                    return invokers[index];
+                }
+            }
+            return subset.get(0);
+        }
+
+        private int slot(Invocation invocation) {
+            long hash = fmix64(hashArguments(invocation.getArguments()));
+            return (int) ((hash >>> 1) % table.length);
+        }
+
+        int[] getTable() {
+            return table;
+        }
+
+        Invoker<T>[] getInvokers() {
+            return invokers;
+        }
+
+        private long hashArguments(Object[] args) {
+            long h = FNV_OFFSET;
+            for (int i : argumentIndex) {
+                if (args != null && i >= 0 && i < args.length) {
+                    h = hash(h, args[i]);
+                }
+            }
+            return h;
+        }
+
+        /**
+         * Fill the table, the invokers taking turns to take the next free slot of their permutation, defined by an
+         * offset and a skip hashed from their address.
+         */
+        private static int[] populate(Invoker<?>[] invokers, int size) {
+            int[] table = new int[size];
+            Arrays.fill(table, -1);
+            long[] offsets = new long[invokers.length];
+            long[] skips = new long[invokers.length];
+            long[] next = new long[invokers.length];
+            for (int i = 0; i < invokers.length; i++) {
+                String address = invokers[i].getUrl().getAddress();
+                offsets[i] = (fmix64(hash(FNV_OFFSET, address)) >>> 1) % size;
+                skips[i] = (fmix64(hash(~FNV_OFFSET, address)) >>> 1) % (size - 1) + 1;
+            }
+            int filled = 0;
+            while (true) {
+                for (int i = 0; i < invokers.length; i++) {
+                    int slot = (int) ((offsets[i] + next[i] * skips[i]) % size);
+                    while (table[slot] >= 0) {
+                        next[i]++;
+                        slot = (int) ((offsets[i] + next[i] * skips[i]) % size);
+                    }
+                    table[slot] = i;
+                    next[i]++;
+                    if (++filled == size) {
+                        return table;
+                    }
+                }
+            }
+        }
+
+        private static int nextPrime(int n) {
+            for (int candidate = n | 1; ; candidate += 2) {
+                boolean prime = true;
+                for (int d = 3; (long) d * d <= candidate; d += 2) {
+                    if (candidate % d == 0) {
+                        prime = false;
+                        break;
+                    }
+                }
+                if (prime) {
+                    return candidate;
+                }
+            }
+        }
+    }
+
+    /**
+     * FNV-1a over the chars the argument is appended as to a {@link StringBuilder}, without building them for strings,
+     * characters, booleans and integral numbers.
+     */
+    static long hash(long h, Object arg) {
+        if (arg instanceof String) {
+            return hash(h, (String) arg);
+        } else if (arg instanceof Integer || arg instanceof Long || arg instanceof Short || arg instanceof Byte) {
+            return hash(h, ((Number) arg).longValue());
+        } else if (arg instanceof Character) {
+            return hash(h, ((Character) arg).charValue());
+        } else if (arg instanceof Boolean) {
+            return hash(h, ((Boolean) arg) ? "true" : "false");
+        }
+        return hash(h, String.valueOf(arg));
+    }
+
+    static long hash(long h, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            h = hash(h, value.charAt(i));
+        }
+        return h;
+    }
+
+    static long hash(long h, long value) {
+        // decimal digits, computed on the negative value so that Long.MIN_VALUE needs no special case
+        if (value < 0) {
+            h = hash(h, '-');
+        } else {
+            value = -value;
+        }
+        long divisor = 1;
+        while (value / divisor <= -10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            h = hash(h, (char) ('0' - (value / divisor) % 10));
+        }
+        return h;
+    }
+
+    static long hash(long h, char c) {
+        return (h ^ c) * FNV_PRIME;
+    }
+
+    /**
+     * The finalization mix of MurmurHash3, spreading every bit of the FNV hash.
+     */
+    static long fmix64(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+}
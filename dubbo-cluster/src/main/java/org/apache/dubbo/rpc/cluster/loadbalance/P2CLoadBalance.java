@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.cluster.loadbalance;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.rpc.Invocation;
+import org.apache.dubbo.rpc.Invoker;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * P2CLoadBalance
+ * <p>
+ * Pick two distinct invokers at random and choose the one with the lower cost, the peak EWMA response time of the
+ * invoker times its pending calls, divided by its weight. The statistics are recorded by {@link LatencyFilter}, which
+ * is activated together with the <b>loadbalance</b> parameter.
+ *
+ * @see LatencyStatus
+ */
+public class P2CLoadBalance extends AbstractLoadBalance {
+
+    public static final String NAME = "p2c";
+
+    @Override
+    protected <T> Invoker<T> doSelect(List<Invoker<T>> invokers, URL url, Invocation invocation) {
+        int length = invokers.size();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(length);
+        int second = random.nextInt(length - 1);
+        if (second >= first) {
+            second++;
+        }
+        Invoker<T> invoker1 = invokers.get(first);
+        Invoker<T> invoker2 = invokers.get(second);
+        int weight1 = getWeight(invoker1, invocation);
+        int weight2 = getWeight(invoker2, invocation);
+        if (weight1 == 0 || weight2 == 0) {
+            return weight1 >= weight2 ? invoker1 : invoker2;
+        }
+        double cost1 = LatencyStatus.getStatus(invoker1.getUrl()).getCost() / weight1;
+        double cost2 = LatencyStatus.getStatus(invoker2.getUrl()).getCost() / weight2;
+        return cost1 <= cost2 ? invoker1 : invoker2;
+    }
+
+}
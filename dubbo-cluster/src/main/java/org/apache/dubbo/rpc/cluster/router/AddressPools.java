@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.cluster.router;
+
+import org.apache.dubbo.rpc.Invoker;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Helpers for the address pools of {@link org.apache.dubbo.rpc.cluster.AddressPoolRouter}.
+ */
+public final class AddressPools {
+
+    private AddressPools() {
+    }
+
+    /**
+     * @return the pool of all the invokers
+     */
+    public static BitSet all(List<?> invokers) {
+        BitSet pool = new BitSet(invokers.size());
+        pool.set(0, invokers.size());
+        return pool;
+    }
+
+    /**
+     * @return the pool of the invokers matching the predicate
+     */
+    public static <T> BitSet match(List<Invoker<T>> invokers, Predicate<Invoker<T>> predicate) {
+        BitSet pool = new BitSet(invokers.size());
+        for (int i = 0; i < invokers.size(); i++) {
+            if (predicate.test(invokers.get(i))) {
+                pool.set(i);
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * @return a new pool of the invokers matching the predicate, for invokers which only differ from the ones the
+     * given pool was built for at the changed indexes
+     */
+    public static <T> BitSet update(BitSet pool, List<Invoker<T>> invokers, BitSet changed, Predicate<Invoker<T>> predicate) {
+        BitSet result = (BitSet) pool.clone();
+        if (result.length() > invokers.size()) {
+            result.clear(invokers.size(), result.length());
+        }
+        for (int i = changed.nextSetBit(0); i >= 0 && i < invokers.size(); i = changed.nextSetBit(i + 1)) {
+            result.set(i, predicate.test(invokers.get(i)));
+        }
+        return result;
+    }
+
+    /**
+     * @return a new pool of the invokers in both pools
+     */
+    public static BitSet and(BitSet pool, BitSet other) {
+        BitSet result = (BitSet) pool.clone();
+        result.and(other);
+        return result;
+    }
+
+    /**
+     * @return the invokers of the pool, the list itself if the pool holds all of them
+     */
+    public static <T> List<Invoker<T>> toList(List<Invoker<T>> invokers, BitSet pool) {
+        int size = pool.cardinality();
+        if (size == invokers.size()) {
+            return invokers;
+        }
+        List<Invoker<T>> result = new ArrayList<>(size);
+        for (int i = pool.nextSetBit(0); i >= 0; i = pool.nextSetBit(i + 1)) {
+            result.add(invokers.get(i));
+        }
+        return result;
+    }
+
+}
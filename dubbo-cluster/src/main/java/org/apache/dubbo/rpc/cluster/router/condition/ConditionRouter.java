@@ -27,15 +27,20 @@ import org.apache.dubbo.common.utils.UrlUtils;
 import org.apache.dubbo.rpc.Invocation;
 import org.apache.dubbo.rpc.Invoker;
 import org.apache.dubbo.rpc.RpcException;
+import org.apache.dubbo.rpc.cluster.AddressPoolRouter;
 import org.apache.dubbo.rpc.cluster.router.AbstractRouter;
+import org.apache.dubbo.rpc.cluster.router.AddressPools;
 
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -43,7 +48,7 @@ import java.util.regex.Pattern;
  * ConditionRouter
  *
  */
-public class ConditionRouter extends AbstractRouter {
+public class ConditionRouter extends AbstractRouter implements AddressPoolRouter {
     public static final String NAME = "condition";
 
     private static final Logger logger = LoggerFactory.getLogger(ConditionRouter.class);
@@ -53,6 +58,16 @@ public class ConditionRouter extends AbstractRouter {
 
     private boolean enabled;
 
+    // the when and then conditions compiled into matchers, the when condition on the invoked method is kept apart
+    private Condition[] whenConditions;
+    private Condition[] whenMethodConditions;
+    private Condition[] thenConditions;
+
+    // whether the then condition refers to the consumer url by '$' parameters
+    private boolean thenWithParam;
+    private volatile ThenPool thenPool;
+    private volatile WhenResult whenResult;
+
     public ConditionRouter(String rule, boolean force, boolean enabled) {
         this.force = force;
         this.enabled = enabled;
@@ -81,6 +96,12 @@ public class ConditionRouter extends AbstractRouter {
             // NOTE: It should be determined on the business level whether the `When condition` can be empty or not.
             this.whenCondition = when;
             this.thenCondition = then;
+            this.whenConditions = compile(when, key -> !isMethodKey(key));
+            this.whenMethodConditions = compile(when, ConditionRouter::isMethodKey);
+            this.thenConditions = compile(then, key -> true);
+            this.thenWithParam = then != null && then.values().stream().anyMatch(MatchPair::hasParam);
+            this.thenPool = null;
+            this.whenResult = null;
         } catch (ParseException e) {
             throw new IllegalStateException(e.getMessage(), e);
         }
@@ -153,9 +174,28 @@ public class ConditionRouter extends AbstractRouter {
                         + matcher.start() + " before \"" + content + "\".", matcher.start());
             }
         }
+        for (MatchPair matchPair : condition.values()) {
+            matchPair.compile();
+        }
         return condition;
     }
 
+    private static Condition[] compile(Map<String, MatchPair> condition, Predicate<String> filter) {
+        List<Condition> conditions = new ArrayList<Condition>();
+        if (condition != null) {
+            for (Map.Entry<String, MatchPair> matchPair : condition.entrySet()) {
+                if (filter.test(matchPair.getKey())) {
+                    conditions.add(new Condition(matchPair.getKey(), matchPair.getValue()));
+                }
+            }
+        }
+        return conditions.toArray(new Condition[0]);
+    }
+
+    private static boolean isMethodKey(String key) {
+        return Constants.METHOD_KEY.equals(key) || Constants.METHODS_KEY.equals(key);
+    }
+
     @Override
     public <T> List<Invoker<T>> route(List<Invoker<T>> invokers, URL url, Invocation invocation)
             throws RpcException {
@@ -175,10 +215,9 @@ public class ConditionRouter extends AbstractRouter {
                 logger.warn("The current consumer in the service blacklist. consumer: " + NetUtils.getLocalHost() + ", service: " + url.getServiceKey());
                 return result;
             }
-            for (Invoker<T> invoker : invokers) {
-                if (matchThen(invoker.getUrl(), url)) {
-                    result.add(invoker);
-                }
+            BitSet pool = getThenPool(invokers, url);
+            for (int i = pool.nextSetBit(0); i >= 0; i = pool.nextSetBit(i + 1)) {
+                result.add(invokers.get(i));
             }
             if (!result.isEmpty()) {
                 return result;
@@ -192,6 +231,65 @@ public class ConditionRouter extends AbstractRouter {
         return invokers;
     }
 
+    @Override
+    public <T> BitSet route(List<Invoker<T>> invokers, BitSet pool, URL url, Invocation invocation)
+            throws RpcException {
+        if (!enabled || pool.isEmpty()) {
+            return pool;
+        }
+        try {
+            if (!matchWhen(url, invocation)) {
+                return pool;
+            }
+            if (thenCondition == null) {
+                logger.warn("The current consumer in the service blacklist. consumer: " + NetUtils.getLocalHost() + ", service: " + url.getServiceKey());
+                return new BitSet();
+            }
+            BitSet result = AddressPools.and(pool, getThenPool(invokers, url));
+            if (!result.isEmpty()) {
+                return result;
+            } else if (force) {
+                logger.warn("The route result is empty and force execute. consumer: " + NetUtils.getLocalHost() + ", service: " + url.getServiceKey() + ", router: " + url.getParameterAndDecoded(Constants.RULE_KEY));
+                return result;
+            }
+        } catch (Throwable t) {
+            logger.error("Failed to execute condition router rule: " + getUrl() + ", invokers: " + AddressPools.toList(invokers, pool) + ", cause: " + t.getMessage(), t);
+        }
+        return pool;
+    }
+
+    @Override
+    public <T> void notify(List<Invoker<T>> invokers) {
+        // the then pool of a rule without '$' parameters only depends on the invokers, build it ahead of routing
+        if (enabled && thenCondition != null && !thenWithParam && CollectionUtils.isNotEmpty(invokers)) {
+            getThenPool(invokers, null);
+        }
+    }
+
+    @Override
+    public <T> void notify(List<Invoker<T>> invokers, List<Invoker<T>> previous, BitSet changed) {
+        ThenPool cached = thenPool;
+        if (enabled && thenCondition != null && !thenWithParam && cached != null && cached.invokers == previous
+                && cached.size == previous.size() && cached.param == null) {
+            BitSet pool = AddressPools.update(cached.pool, invokers, changed, invoker -> matchThen(invoker.getUrl(), null));
+            thenPool = new ThenPool(invokers, null, pool);
+        } else {
+            notify(invokers);
+        }
+    }
+
+    private <T> BitSet getThenPool(List<Invoker<T>> invokers, URL url) {
+        URL param = thenWithParam ? url : null;
+        ThenPool cached = thenPool;
+        if (cached != null && cached.invokers == invokers && cached.size == invokers.size()
+                && Objects.equals(cached.param, param)) {
+            return cached.pool;
+        }
+        BitSet pool = AddressPools.match(invokers, invoker -> matchThen(invoker.getUrl(), param));
+        thenPool = new ThenPool(invokers, param, pool);
+        return pool;
+    }
+
     @Override
     public boolean isRuntime() {
         // We always return true for previously defined Router, that is, old Router doesn't support cache anymore.
@@ -205,87 +303,259 @@ public class ConditionRouter extends AbstractRouter {
     }
 
     boolean matchWhen(URL url, Invocation invocation) {
-        return CollectionUtils.isEmptyMap(whenCondition) || matchCondition(whenCondition, url, null, invocation);
+        if (CollectionUtils.isEmptyMap(whenCondition)) {
+            return true;
+        }
+        // the consumer url rarely changes, only the conditions on the invoked method are matched per call
+        WhenResult cached = whenResult;
+        if (cached == null || cached.url != url) {
+            cached = new WhenResult(url, matchConditions(whenConditions, url, null));
+            whenResult = cached;
+        }
+        if (!cached.matched) {
+            return false;
+        }
+        for (Condition condition : whenMethodConditions) {
+            //get real invoked method name from invocation
+            String sampleValue = invocation != null ? invocation.getMethodName() : condition.getSampleValue(url);
+            if (!condition.isMatch(sampleValue, null)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     private boolean matchThen(URL url, URL param) {
-        return CollectionUtils.isNotEmptyMap(thenCondition) && matchCondition(thenCondition, url, param, null);
+        return CollectionUtils.isNotEmptyMap(thenCondition) && matchConditions(thenConditions, url, param);
     }
 
-    private boolean matchCondition(Map<String, MatchPair> condition, URL url, URL param, Invocation invocation) {
-        Map<String, String> sample = url.toMap();
-        boolean result = false;
-        for (Map.Entry<String, MatchPair> matchPair : condition.entrySet()) {
-            String key = matchPair.getKey();
-            String sampleValue;
-            //get real invoked method name from invocation
-            if (invocation != null && (Constants.METHOD_KEY.equals(key) || Constants.METHODS_KEY.equals(key))) {
-                sampleValue = invocation.getMethodName();
-            } else if (Constants.ADDRESS_KEY.equals(key)) {
-                sampleValue = url.getAddress();
+    private static boolean matchConditions(Condition[] conditions, URL url, URL param) {
+        for (Condition condition : conditions) {
+            if (!condition.isMatch(condition.getSampleValue(url), param)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The match result of the when conditions not on the invoked method, for one consumer url.
+     */
+    private static final class WhenResult {
+        final URL url;
+        final boolean matched;
+
+        WhenResult(URL url, boolean matched) {
+            this.url = url;
+            this.matched = matched;
+        }
+    }
+
+    /**
+     * A condition key with its match pair, reading the sample value the same way as {@link URL#toMap()} without copying
+     * the url parameters.
+     */
+    private static final class Condition {
+        private static final int PARAMETER = 0;
+        private static final int ADDRESS = 1;
+        private static final int HOST = 2;
+        private static final int PROTOCOL = 3;
+        private static final int USERNAME = 4;
+        private static final int PORT = 5;
+        private static final int PATH = 6;
+
+        final String key;
+        final String defaultKey;
+        final MatchPair matchPair;
+        final int type;
+
+        Condition(String key, MatchPair matchPair) {
+            this.key = key;
+            this.defaultKey = Constants.DEFAULT_KEY_PREFIX + key;
+            this.matchPair = matchPair;
+            if (Constants.ADDRESS_KEY.equals(key)) {
+                type = ADDRESS;
             } else if (Constants.HOST_KEY.equals(key)) {
-                sampleValue = url.getHost();
+                type = HOST;
+            } else if (Constants.PROTOCOL_KEY.equals(key)) {
+                type = PROTOCOL;
+            } else if (Constants.USERNAME_KEY.equals(key)) {
+                type = USERNAME;
+            } else if (Constants.PORT_KEY.equals(key)) {
+                type = PORT;
+            } else if (Constants.PATH_KEY.equals(key)) {
+                type = PATH;
             } else {
-                sampleValue = sample.get(key);
-                if (sampleValue == null) {
-                    sampleValue = sample.get(Constants.DEFAULT_KEY_PREFIX + key);
+                type = PARAMETER;
+            }
+        }
+
+        String getSampleValue(URL url) {
+            String value = null;
+            switch (type) {
+                case ADDRESS:
+                    return url.getAddress();
+                case HOST:
+                    return url.getHost();
+                case PROTOCOL:
+                    value = url.getProtocol();
+                    break;
+                case USERNAME:
+                    value = url.getPassword() != null ? url.getPassword() : url.getUsername();
+                    break;
+                case PORT:
+                    value = url.getPort() > 0 ? String.valueOf(url.getPort()) : null;
+                    break;
+                case PATH:
+                    value = url.getPath();
+                    break;
+                default:
+                    break;
+            }
+            if (value == null) {
+                Map<String, String> parameters = url.getParameters();
+                value = parameters.get(key);
+                if (value == null) {
+                    value = parameters.get(defaultKey);
                 }
             }
+            return value;
+        }
+
+        boolean isMatch(String sampleValue, URL param) {
             if (sampleValue != null) {
-                if (!matchPair.getValue().isMatch(sampleValue, param)) {
-                    return false;
-                } else {
-                    result = true;
-                }
-            } else {
-                //not pass the condition
-                if (!matchPair.getValue().matches.isEmpty()) {
-                    return false;
-                } else {
-                    result = true;
-                }
+                return matchPair.isMatch(sampleValue, param);
             }
+            //not pass the condition
+            return matchPair.matches.isEmpty();
+        }
+    }
+
+    /**
+     * The invokers matching the then condition, for one invoker list and consumer url.
+     */
+    private static final class ThenPool {
+        final List<?> invokers;
+        final int size;
+        final URL param;
+        final BitSet pool;
+
+        ThenPool(List<?> invokers, URL param, BitSet pool) {
+            this.invokers = invokers;
+            this.size = invokers.size();
+            this.param = param;
+            this.pool = pool;
         }
-        return result;
     }
 
     protected static final class MatchPair {
         final Set<String> matches = new HashSet<String>();
         final Set<String> mismatches = new HashSet<String>();
 
+        private GlobMatcher matcher;
+        private GlobMatcher mismatcher;
+
+        private void compile() {
+            matcher = new GlobMatcher(matches);
+            mismatcher = new GlobMatcher(mismatches);
+        }
+
+        private boolean hasParam() {
+            return matches.stream().anyMatch(value -> value.startsWith("$"))
+                    || mismatches.stream().anyMatch(value -> value.startsWith("$"));
+        }
+
         private boolean isMatch(String value, URL param) {
             if (!matches.isEmpty() && mismatches.isEmpty()) {
-                for (String match : matches) {
-                    if (UrlUtils.isMatchGlobPattern(match, value, param)) {
-                        return true;
-                    }
-                }
-                return false;
+                return matcher.isMatch(value, param);
             }
 
             if (!mismatches.isEmpty() && matches.isEmpty()) {
-                for (String mismatch : mismatches) {
-                    if (UrlUtils.isMatchGlobPattern(mismatch, value, param)) {
-                        return false;
-                    }
-                }
-                return true;
+                return !mismatcher.isMatch(value, param);
             }
 
             if (!matches.isEmpty() && !mismatches.isEmpty()) {
                 //when both mismatches and matches contain the same value, then using mismatches first
-                for (String mismatch : mismatches) {
-                    if (UrlUtils.isMatchGlobPattern(mismatch, value, param)) {
-                        return false;
-                    }
+                return !mismatcher.isMatch(value, param) && matcher.isMatch(value, param);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * A set of glob patterns compiled for {@link UrlUtils#isMatchGlobPattern(String, String, URL)}: exact values are
+     * looked up in a hash set, '*' patterns are split into prefix and suffix, only '$' patterns are evaluated per call.
+     */
+    static final class GlobMatcher {
+        private final boolean any;
+        private final Set<String> exacts = new HashSet<String>();
+        private final List<String> prefixes = new ArrayList<String>();
+        private final List<String> suffixes = new ArrayList<String>();
+        // prefix and suffix of the patterns with one '*' in the middle
+        private final List<String[]> infixes = new ArrayList<String[]>();
+        // patterns with several '*', left to UrlUtils
+        private final List<String> globs = new ArrayList<String>();
+        // patterns referring to the consumer url
+        private final List<String> params = new ArrayList<String>();
+
+        GlobMatcher(Set<String> patterns) {
+            boolean any = false;
+            for (String pattern : patterns) {
+                int i = pattern.lastIndexOf('*');
+                if (pattern.startsWith("$")) {
+                    params.add(pattern);
+                } else if ("*".equals(pattern)) {
+                    any = true;
+                } else if (i == -1) {
+                    exacts.add(pattern);
+                } else if (pattern.indexOf('*') != i) {
+                    globs.add(pattern);
+                } else if (i == pattern.length() - 1) {
+                    prefixes.add(pattern.substring(0, i));
+                } else if (i == 0) {
+                    suffixes.add(pattern.substring(1));
+                } else {
+                    infixes.add(new String[]{pattern.substring(0, i), pattern.substring(i + 1)});
                 }
-                for (String match : matches) {
-                    if (UrlUtils.isMatchGlobPattern(match, value, param)) {
-                        return true;
-                    }
+            }
+            this.any = any;
+        }
+
+        boolean isMatch(String value, URL param) {
+            if (any) {
+                return true;
+            }
+            for (String pattern : params) {
+                if (UrlUtils.isMatchGlobPattern(pattern, value, param)) {
+                    return true;
                 }
+            }
+            if (StringUtils.isEmpty(value)) {
                 return false;
             }
+            if (exacts.contains(value)) {
+                return true;
+            }
+            for (String prefix : prefixes) {
+                if (value.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            for (String suffix : suffixes) {
+                if (value.endsWith(suffix)) {
+                    return true;
+                }
+            }
+            for (String[] infix : infixes) {
+                if (value.startsWith(infix[0]) && value.endsWith(infix[1])) {
+                    return true;
+                }
+            }
+            for (String pattern : globs) {
+                if (UrlUtils.isMatchGlobPattern(pattern, value)) {
+                    return true;
+                }
+            }
             return false;
         }
     }
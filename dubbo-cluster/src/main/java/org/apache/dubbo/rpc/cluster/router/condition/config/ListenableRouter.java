@@ -28,12 +28,14 @@ import org.apache.dubbo.configcenter.DynamicConfiguration;
 import org.apache.dubbo.rpc.Invocation;
 import org.apache.dubbo.rpc.Invoker;
 import org.apache.dubbo.rpc.RpcException;
+import org.apache.dubbo.rpc.cluster.AddressPoolRouter;
 import org.apache.dubbo.rpc.cluster.Router;
 import org.apache.dubbo.rpc.cluster.router.AbstractRouter;
 import org.apache.dubbo.rpc.cluster.router.condition.ConditionRouter;
 import org.apache.dubbo.rpc.cluster.router.condition.config.model.ConditionRouterRule;
 import org.apache.dubbo.rpc.cluster.router.condition.config.model.ConditionRuleParser;
 
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -41,7 +43,7 @@ import java.util.stream.Collectors;
 /**
  * Abstract router which listens to dynamic configuration
  */
-public abstract class ListenableRouter extends AbstractRouter implements ConfigurationListener {
+public abstract class ListenableRouter extends AbstractRouter implements ConfigurationListener, AddressPoolRouter {
     public static final String NAME = "LISTENABLE_ROUTER";
     private static final String RULE_SUFFIX = ".condition-router";
 
@@ -90,6 +92,31 @@ public abstract class ListenableRouter extends AbstractRouter implements Configu
         return invokers;
     }
 
+    @Override
+    public <T> BitSet route(List<Invoker<T>> invokers, BitSet pool, URL url, Invocation invocation)
+            throws RpcException {
+        if (pool.isEmpty() || conditionRouters.size() == 0) {
+            return pool;
+        }
+
+        // We will check enabled status inside each router.
+        for (ConditionRouter router : conditionRouters) {
+            pool = router.route(invokers, pool, url, invocation);
+        }
+
+        return pool;
+    }
+
+    @Override
+    public <T> void notify(List<Invoker<T>> invokers) {
+        conditionRouters.forEach(router -> router.notify(invokers));
+    }
+
+    @Override
+    public <T> void notify(List<Invoker<T>> invokers, List<Invoker<T>> previous, BitSet changed) {
+        conditionRouters.forEach(router -> router.notify(invokers, previous, changed));
+    }
+
     @Override
     public int getPriority() {
         return DEFAULT_PRIORITY;
@@ -22,20 +22,25 @@ import org.apache.dubbo.common.utils.CollectionUtils;
 import org.apache.dubbo.rpc.Invocation;
 import org.apache.dubbo.rpc.Invoker;
 import org.apache.dubbo.rpc.RpcException;
+import org.apache.dubbo.rpc.cluster.AddressPoolRouter;
 import org.apache.dubbo.rpc.cluster.router.AbstractRouter;
+import org.apache.dubbo.rpc.cluster.router.AddressPools;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 
 /**
  * A specific Router designed to realize mock feature.
  * If a request is configured to use mock, then this router guarantees that only the invokers with protocol MOCK appear in final the invoker list, all other invokers will be excluded.
  */
-public class MockInvokersSelector extends AbstractRouter {
+public class MockInvokersSelector extends AbstractRouter implements AddressPoolRouter {
 
     public static final String NAME = "MOCK_ROUTER";
     private static final int MOCK_INVOKERS_DEFAULT_PRIORITY = Integer.MIN_VALUE;
 
+    private volatile MockPool mockPool;
+
     public MockInvokersSelector() {
         this.priority = MOCK_INVOKERS_DEFAULT_PRIORITY;
     }
@@ -60,6 +65,60 @@ public class MockInvokersSelector extends AbstractRouter {
         return invokers;
     }
 
+    @Override
+    public <T> BitSet route(List<Invoker<T>> invokers, BitSet pool, URL url, Invocation invocation)
+            throws RpcException {
+        if (pool.isEmpty()) {
+            return pool;
+        }
+
+        String value = invocation.getAttachments() == null ? null
+                : invocation.getAttachments().get(Constants.INVOCATION_NEED_MOCK);
+        if (value == null) {
+            BitSet mock = getMockPool(invokers);
+            if (!pool.intersects(mock)) {
+                return pool;
+            }
+            BitSet result = (BitSet) pool.clone();
+            result.andNot(mock);
+            return result;
+        } else if (Boolean.TRUE.toString().equalsIgnoreCase(value)) {
+            BitSet mock = getMockPool(invokers);
+            if (!pool.intersects(mock)) {
+                return null;
+            }
+            return AddressPools.and(pool, mock);
+        }
+        return pool;
+    }
+
+    @Override
+    public <T> void notify(List<Invoker<T>> invokers) {
+        if (CollectionUtils.isNotEmpty(invokers)) {
+            getMockPool(invokers);
+        }
+    }
+
+    @Override
+    public <T> void notify(List<Invoker<T>> invokers, List<Invoker<T>> previous, BitSet changed) {
+        MockPool cached = mockPool;
+        if (cached != null && cached.invokers == previous && cached.size == previous.size()) {
+            mockPool = new MockPool(invokers, AddressPools.update(cached.pool, invokers, changed, MockInvokersSelector::isMock));
+        } else {
+            notify(invokers);
+        }
+    }
+
+    private <T> BitSet getMockPool(List<Invoker<T>> invokers) {
+        MockPool cached = mockPool;
+        if (cached != null && cached.invokers == invokers && cached.size == invokers.size()) {
+            return cached.pool;
+        }
+        BitSet pool = AddressPools.match(invokers, MockInvokersSelector::isMock);
+        mockPool = new MockPool(invokers, pool);
+        return pool;
+    }
+
     private <T> List<Invoker<T>> getMockedInvokers(final List<Invoker<T>> invokers) {
         if (!hasMockProviders(invokers)) {
             return null;
@@ -98,4 +157,23 @@ public class MockInvokersSelector extends AbstractRouter {
         return hasMockProvider;
     }
 
+    private static boolean isMock(Invoker<?> invoker) {
+        return invoker.getUrl().getProtocol().equals(Constants.MOCK_PROTOCOL);
+    }
+
+    /**
+     * The invokers with protocol MOCK, for one invoker list.
+     */
+    private static final class MockPool {
+        final List<?> invokers;
+        final int size;
+        final BitSet pool;
+
+        MockPool(List<?> invokers, BitSet pool) {
+            this.invokers = invokers;
+            this.size = invokers.size();
+            this.pool = pool;
+        }
+    }
+
 }
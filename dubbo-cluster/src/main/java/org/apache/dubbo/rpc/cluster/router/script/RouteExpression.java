@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.cluster.router.script;
+
+import org.apache.dubbo.rpc.Invocation;
+import org.apache.dubbo.rpc.RpcContext;
+
+import java.util.List;
+
+/**
+ * The route rule of the <code>java</code> script type. The rule is the body of {@link #route(List, Invocation, RpcContext)},
+ * compiled by the {@link org.apache.dubbo.common.compiler.Compiler} extension.
+ */
+public interface RouteExpression {
+
+    /**
+     * @param invokers   a copy of the invokers to route
+     * @param invocation the invocation
+     * @param context    the rpc context, null when the route result is cached
+     * @return the routed invokers, as a list or an array
+     */
+    Object route(List invokers, Invocation invocation, RpcContext context);
+
+}
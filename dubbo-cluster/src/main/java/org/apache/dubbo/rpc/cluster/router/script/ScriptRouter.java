@@ -18,8 +18,11 @@ package org.apache.dubbo.rpc.cluster.router.script;
 
 import org.apache.dubbo.common.Constants;
 import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.compiler.Compiler;
+import org.apache.dubbo.common.extension.ExtensionLoader;
 import org.apache.dubbo.common.logger.Logger;
 import org.apache.dubbo.common.logger.LoggerFactory;
+import org.apache.dubbo.common.utils.ClassHelper;
 import org.apache.dubbo.common.utils.StringUtils;
 import org.apache.dubbo.rpc.Invocation;
 import org.apache.dubbo.rpc.Invoker;
@@ -35,33 +38,67 @@ import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
  * ScriptRouter
+ * <p>
+ * Besides the JSR-223 engines, the <code>java</code> type compiles the rule as the body of
+ * {@link RouteExpression#route(List, Invocation, RpcContext)}. With <code>cached=true</code> the script is evaluated
+ * once per invoker list and per values of the invocation attributes it reads, it gets no <code>context</code> then
+ * and should only depend on the invokers and the invocation.
  */
 public class ScriptRouter extends AbstractRouter {
     public static final String NAME = "SCRIPT_ROUTER";
+    public static final String JAVA_TYPE = "java";
     private static final int SCRIPT_ROUTER_DEFAULT_PRIORITY = 0;
     private static final Logger logger = LoggerFactory.getLogger(ScriptRouter.class);
 
     private static final Map<String, ScriptEngine> engines = new ConcurrentHashMap<>();
 
+    private static final AtomicInteger EXPRESSION_CLASS_COUNTER = new AtomicInteger();
+
     private final ScriptEngine engine;
 
     private final String rule;
 
     private CompiledScript function;
 
+    private RouteExpression expression;
+
+    // bindings are reused by the evaluations on the same thread
+    private final ThreadLocal<Bindings> bindings;
+
+    private final boolean cached;
+
+    private volatile RouteCache routeCache;
+
     public ScriptRouter(URL url) {
         this.url = url;
         this.priority = url.getParameter(Constants.PRIORITY_KEY, SCRIPT_ROUTER_DEFAULT_PRIORITY);
+        this.cached = url.getParameter(Constants.SCRIPT_CACHED_KEY, false);
 
-        engine = getEngine(url);
         rule = getRule(url);
+        if (JAVA_TYPE.equals(url.getParameter(Constants.TYPE_KEY))) {
+            engine = null;
+            bindings = null;
+            try {
+                expression = compileExpression(rule);
+            } catch (RuntimeException e) {
+                logger.error("route error, rule has been ignored. rule: " + rule +
+                        ", url: " + RpcContext.getContext().getUrl(), e);
+            }
+            return;
+        }
+
+        engine = getEngine(url);
+        bindings = ThreadLocal.withInitial(engine::createBindings);
         try {
             Compilable compilable = (Compilable) engine;
             function = compilable.compile(rule);
@@ -99,14 +136,40 @@ public class ScriptRouter extends AbstractRouter {
         });
     }
 
+    /**
+     * compile the rule of the java type into a {@link RouteExpression} class by the compiler extension
+     */
+    private RouteExpression compileExpression(String rule) {
+        String className = RouteExpression.class.getSimpleName() + "$" + EXPRESSION_CLASS_COUNTER.getAndIncrement();
+        StringBuilder code = new StringBuilder();
+        code.append("package ").append(RouteExpression.class.getPackage().getName()).append(";\n");
+        code.append("import java.util.*;\n");
+        code.append("import org.apache.dubbo.common.URL;\n");
+        code.append("import org.apache.dubbo.rpc.*;\n");
+        code.append("public class ").append(className).append(" implements ").append(RouteExpression.class.getName()).append(" {\n");
+        code.append("public Object route(java.util.List invokers, org.apache.dubbo.rpc.Invocation invocation, org.apache.dubbo.rpc.RpcContext context) {\n");
+        code.append(rule).append("\n");
+        code.append("}\n");
+        code.append("}");
+        Compiler compiler = ExtensionLoader.getExtensionLoader(Compiler.class).getAdaptiveExtension();
+        Class<?> cls = compiler.compile(code.toString(), ClassHelper.getClassLoader(ScriptRouter.class));
+        try {
+            return (RouteExpression) cls.newInstance();
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
     @Override
     public <T> List<Invoker<T>> route(List<Invoker<T>> invokers, URL url, Invocation invocation) throws RpcException {
         try {
-            Bindings bindings = createBindings(invokers, invocation);
-            if (function == null) {
+            if (function == null && expression == null) {
                 return invokers;
             }
-            return getRoutedInvokers(function.eval(bindings));
+            if (cached) {
+                return routeCached(invokers, invocation);
+            }
+            return evaluate(invokers, invocation, RpcContext.getContext());
         } catch (ScriptException e) {
             logger.error("route error, rule has been ignored. rule: " + rule + ", method:" +
                     invocation.getMethodName() + ", url: " + RpcContext.getContext().getUrl(), e);
@@ -114,6 +177,41 @@ public class ScriptRouter extends AbstractRouter {
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private <T> List<Invoker<T>> routeCached(List<Invoker<T>> invokers, Invocation invocation) throws ScriptException {
+        RouteCache cache = routeCache;
+        if (cache == null || cache.invokers != invokers || cache.size != invokers.size()) {
+            cache = new RouteCache(invokers, cache);
+            routeCache = cache;
+        }
+        List<?> routed = cache.get(invocation);
+        if (routed != null) {
+            return (List<Invoker<T>>) routed;
+        }
+        RecordingInvocation recording = new RecordingInvocation(invocation);
+        List<Invoker<T>> result = evaluate(invokers, recording, null);
+        return cache.put(recording, result);
+    }
+
+    private <T> List<Invoker<T>> evaluate(List<Invoker<T>> invokers, Invocation invocation, RpcContext context) throws ScriptException {
+        if (expression != null) {
+            try {
+                return getRoutedInvokers(expression.route(new ArrayList<>(invokers), invocation, context));
+            } catch (RuntimeException e) {
+                throw new ScriptException(e);
+            }
+        }
+        Bindings bindings = createBindings(invokers, invocation, context);
+        try {
+            return getRoutedInvokers(function.eval(bindings));
+        } finally {
+            // don't hold the invokers and invocation in the pooled bindings
+            bindings.remove("invokers");
+            bindings.remove("invocation");
+            bindings.remove("context");
+        }
+    }
+
     /**
      * get routed invokers from result of script rule evaluation
      */
@@ -129,14 +227,14 @@ public class ScriptRouter extends AbstractRouter {
     }
 
     /**
-     * create bindings for script engine
+     * fill the bindings of the current thread for script engine
      */
-    private <T> Bindings createBindings(List<Invoker<T>> invokers, Invocation invocation) {
-        Bindings bindings = engine.createBindings();
+    private <T> Bindings createBindings(List<Invoker<T>> invokers, Invocation invocation, RpcContext context) {
+        Bindings bindings = this.bindings.get();
         // create a new List of invokers
         bindings.put("invokers", new ArrayList<>(invokers));
         bindings.put("invocation", invocation);
-        bindings.put("context", RpcContext.getContext());
+        bindings.put("context", context);
         return bindings;
     }
 
@@ -150,4 +248,131 @@ public class ScriptRouter extends AbstractRouter {
         return url.getParameter(Constants.FORCE_KEY, false);
     }
 
-}
+    /**
+     * The route results for one invoker list, keyed by the values of the invocation attributes the script has read.
+     * Lookups take no lock, the results are all dropped once there are too many of them.
+     */
+    private static final class RouteCache {
+        private static final int MAX_RESULTS = 1000;
+
+        final List<?> invokers;
+        final int size;
+        // the attributes read by the script so far, null if the script reads what can't be a key
+        private volatile String[] attributes;
+        private final Map<List<Object>, List<?>> results = new ConcurrentHashMap<>();
+
+        RouteCache(List<?> invokers, RouteCache previous) {
+            this.invokers = invokers;
+            this.size = invokers.size();
+            this.attributes = previous != null ? previous.attributes : new String[0];
+        }
+
+        List<?> get(Invocation invocation) {
+            String[] attributes = this.attributes;
+            return attributes != null ? results.get(getKey(attributes, invocation)) : null;
+        }
+
+        <T> List<Invoker<T>> put(RecordingInvocation recording, List<Invoker<T>> routed) {
+            if (recording.uncacheable || routed == null) {
+                attributes = null;
+                return routed;
+            }
+            List<Invoker<T>> result = Collections.unmodifiableList(routed);
+            synchronized (this) {
+                String[] attributes = this.attributes;
+                if (attributes == null) {
+                    return result;
+                }
+                if (!Arrays.asList(attributes).containsAll(recording.attributes)) {
+                    // a new attribute is read, the results keyed by the previous attributes are incomplete
+                    TreeSet<String> union = new TreeSet<>(recording.attributes);
+                    union.addAll(Arrays.asList(attributes));
+                    attributes = union.toArray(new String[0]);
+                    results.clear();
+                    this.attributes = attributes;
+                } else if (results.size() >= MAX_RESULTS) {
+                    results.clear();
+                }
+                results.put(getKey(attributes, recording.invocation), result);
+            }
+            return result;
+        }
+
+        private static List<Object> getKey(String[] attributes, Invocation invocation) {
+            Object[] values = new Object[attributes.length];
+            for (int i = 0; i < attributes.length; i++) {
+                String attribute = attributes[i];
+                if (RecordingInvocation.METHOD_NAME.equals(attribute)) {
+                    values[i] = invocation.getMethodName();
+                } else if (RecordingInvocation.PARAMETER_TYPES.equals(attribute)) {
+                    Class<?>[] types = invocation.getParameterTypes();
+                    values[i] = types != null ? Arrays.asList(types) : null;
+                } else {
+                    values[i] = invocation.getAttachment(attribute.substring(RecordingInvocation.ATTACHMENT.length()));
+                }
+            }
+            return Arrays.asList(values);
+        }
+    }
+
+    /**
+     * Records the invocation attributes read by the script.
+     */
+    private static final class RecordingInvocation implements Invocation {
+        static final String METHOD_NAME = "methodName";
+        static final String PARAMETER_TYPES = "parameterTypes";
+        static final String ATTACHMENT = "attachment.";
+
+        final Invocation invocation;
+        final TreeSet<String> attributes = new TreeSet<>();
+        // the arguments, all the attachments or the invoker are read
+        volatile boolean uncacheable;
+
+        RecordingInvocation(Invocation invocation) {
+            this.invocation = invocation;
+        }
+
+        @Override
+        public String getMethodName() {
+            attributes.add(METHOD_NAME);
+            return invocation.getMethodName();
+        }
+
+        @Override
+        public Class<?>[] getParameterTypes() {
+            attributes.add(PARAMETER_TYPES);
+            return invocation.getParameterTypes();
+        }
+
+        @Override
+        public Object[] getArguments() {
+            uncacheable = true;
+            return invocation.getArguments();
+        }
+
+        @Override
+        public Map<String, String> getAttachments() {
+            uncacheable = true;
+            return invocation.getAttachments();
+        }
+
+        @Override
+        public String getAttachment(String key) {
+            attributes.add(ATTACHMENT + key);
+            return invocation.getAttachment(key);
+        }
+
+        @Override
+        public String getAttachment(String key, String defaultValue) {
+            attributes.add(ATTACHMENT + key);
+            return invocation.getAttachment(key, defaultValue);
+        }
+
+        @Override
+        public Invoker<?> getInvoker() {
+            uncacheable = true;
+            return invocation.getInvoker();
+        }
+    }
+
+}
\ No newline at end of file
@@ -30,12 +30,18 @@ import org.apache.dubbo.configcenter.DynamicConfiguration;
 import org.apache.dubbo.rpc.Invocation;
 import org.apache.dubbo.rpc.Invoker;
 import org.apache.dubbo.rpc.RpcException;
+import org.apache.dubbo.rpc.cluster.AddressPoolRouter;
 import org.apache.dubbo.rpc.cluster.router.AbstractRouter;
+import org.apache.dubbo.rpc.cluster.router.AddressPools;
 import org.apache.dubbo.rpc.cluster.router.tag.model.TagRouterRule;
 import org.apache.dubbo.rpc.cluster.router.tag.model.TagRuleParser;
 
 import java.net.UnknownHostException;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -45,7 +51,7 @@ import static org.apache.dubbo.common.Constants.TAG_KEY;
 /**
  * TagRouter, "application.tag-router"
  */
-public class TagRouter extends AbstractRouter implements ConfigurationListener {
+public class TagRouter extends AbstractRouter implements ConfigurationListener, AddressPoolRouter {
     public static final String NAME = "TAG_ROUTER";
     private static final int TAG_ROUTER_DEFAULT_PRIORITY = 100;
     private static final Logger logger = LoggerFactory.getLogger(TagRouter.class);
@@ -54,6 +60,9 @@ public class TagRouter extends AbstractRouter implements ConfigurationListener {
     private TagRouterRule tagRouterRule;
     private String application;
 
+    private volatile StaticTagPools staticTagPools;
+    private volatile DynamicTagPools dynamicTagPools;
+
     public TagRouter(DynamicConfiguration configuration, URL url) {
         super(configuration, url);
         this.priority = TAG_ROUTER_DEFAULT_PRIORITY;
@@ -145,6 +154,88 @@ public class TagRouter extends AbstractRouter implements ConfigurationListener {
         }
     }
 
+    @Override
+    public <T> BitSet route(List<Invoker<T>> invokers, BitSet pool, URL url, Invocation invocation)
+            throws RpcException {
+        if (pool.isEmpty()) {
+            return pool;
+        }
+
+        final TagRouterRule tagRouterRuleCopy = tagRouterRule;
+        StaticTagPools staticPools = getStaticTagPools(invokers);
+        String tag = StringUtils.isEmpty(invocation.getAttachment(TAG_KEY)) ? url.getParameter(TAG_KEY) :
+                invocation.getAttachment(TAG_KEY);
+        if (tagRouterRuleCopy == null || !tagRouterRuleCopy.isValid() || !tagRouterRuleCopy.isEnabled()) {
+            if (StringUtils.isEmpty(tag)) {
+                return AddressPools.and(pool, staticPools.untagged);
+            }
+            BitSet result = AddressPools.and(pool, staticPools.withTag(tag));
+            if (result.isEmpty() && !isForceUseTag(invocation)) {
+                result = AddressPools.and(pool, staticPools.untagged);
+            }
+            return result;
+        }
+
+        DynamicTagPools dynamicPools = getDynamicTagPools(invokers, tagRouterRuleCopy);
+        if (StringUtils.isNotEmpty(tag)) {
+            BitSet result;
+            List<String> addresses = tagRouterRuleCopy.getTagnameToAddresses().get(tag);
+            if (CollectionUtils.isNotEmpty(addresses)) {
+                result = AddressPools.and(pool, dynamicPools.matching(invokers, tag, addresses));
+                if (!result.isEmpty() || tagRouterRuleCopy.isForce()) {
+                    return result;
+                }
+            } else {
+                result = AddressPools.and(pool, staticPools.withTag(tag));
+            }
+            if (!result.isEmpty() || isForceUseTag(invocation)) {
+                return result;
+            }
+            result = AddressPools.and(pool, dynamicPools.notInAddresses);
+            result.and(staticPools.untagged);
+            return result;
+        } else {
+            BitSet result = pool;
+            if (CollectionUtils.isNotEmpty(tagRouterRuleCopy.getAddresses())) {
+                result = AddressPools.and(pool, dynamicPools.notInAddresses);
+                if (result.isEmpty()) {
+                    return result;
+                }
+            }
+            return AddressPools.and(result, dynamicPools.notInTagNames);
+        }
+    }
+
+    private <T> StaticTagPools getStaticTagPools(List<Invoker<T>> invokers) {
+        StaticTagPools cached = staticTagPools;
+        if (cached != null && cached.invokers == invokers && cached.size == invokers.size()) {
+            return cached;
+        }
+        StaticTagPools pools = new StaticTagPools(invokers);
+        for (int i = 0; i < invokers.size(); i++) {
+            pools.add(i, invokers.get(i));
+        }
+        staticTagPools = pools;
+        return pools;
+    }
+
+    private <T> DynamicTagPools getDynamicTagPools(List<Invoker<T>> invokers, TagRouterRule rule) {
+        DynamicTagPools cached = dynamicTagPools;
+        if (cached != null && cached.invokers == invokers && cached.size == invokers.size() && cached.rule == rule) {
+            return cached;
+        }
+        DynamicTagPools pools = new DynamicTagPools(invokers, rule,
+                AddressPools.match(invokers, invoker -> addressNotMatches(invoker.getUrl(), rule.getAddresses())),
+                AddressPools.match(invokers, invoker -> notInTagNames(invoker, rule)));
+        dynamicTagPools = pools;
+        return pools;
+    }
+
+    private boolean notInTagNames(Invoker<?> invoker, TagRouterRule rule) {
+        String localTag = invoker.getUrl().getParameter(TAG_KEY);
+        return StringUtils.isEmpty(localTag) || !rule.getTagNames().contains(localTag);
+    }
+
     /**
      * If there's no dynamic tag rule being set, use static tag in URL.
      * <p>
@@ -229,6 +320,7 @@ public class TagRouter extends AbstractRouter implements ConfigurationListener {
         if (CollectionUtils.isEmpty(invokers)) {
             return;
         }
+        getStaticTagPools(invokers);
 
         Invoker<T> invoker = invokers.get(0);
         URL url = invoker.getUrl();
@@ -256,4 +348,89 @@ public class TagRouter extends AbstractRouter implements ConfigurationListener {
         }
     }
 
+    @Override
+    public <T> void notify(List<Invoker<T>> invokers, List<Invoker<T>> previous, BitSet changed) {
+        StaticTagPools staticPools = staticTagPools;
+        if (staticPools != null && staticPools.invokers == previous && staticPools.size == previous.size()) {
+            StaticTagPools pools = new StaticTagPools(invokers);
+            pools.untagged.or(staticPools.untagged);
+            staticPools.tagged.forEach((tag, pool) -> pools.tagged.put(tag, (BitSet) pool.clone()));
+            pools.clear(invokers.size(), Math.max(invokers.size(), previous.size()));
+            for (int i = changed.nextSetBit(0); i >= 0 && i < invokers.size(); i = changed.nextSetBit(i + 1)) {
+                pools.clear(i, i + 1);
+                pools.add(i, invokers.get(i));
+            }
+            staticTagPools = pools;
+        }
+        DynamicTagPools dynamicPools = dynamicTagPools;
+        if (dynamicPools != null && dynamicPools.invokers == previous && dynamicPools.size == previous.size()) {
+            TagRouterRule rule = dynamicPools.rule;
+            dynamicTagPools = new DynamicTagPools(invokers, rule,
+                    AddressPools.update(dynamicPools.notInAddresses, invokers, changed,
+                            invoker -> addressNotMatches(invoker.getUrl(), rule.getAddresses())),
+                    AddressPools.update(dynamicPools.notInTagNames, invokers, changed,
+                            invoker -> notInTagNames(invoker, rule)));
+        }
+        notify(invokers);
+    }
+
+    /**
+     * The invokers by their static tag, for one invoker list.
+     */
+    private static final class StaticTagPools {
+        final List<?> invokers;
+        final int size;
+        final BitSet untagged = new BitSet();
+        final Map<String, BitSet> tagged = new HashMap<>();
+
+        StaticTagPools(List<?> invokers) {
+            this.invokers = invokers;
+            this.size = invokers.size();
+        }
+
+        BitSet withTag(String tag) {
+            BitSet pool = tagged.get(tag);
+            return pool == null ? new BitSet() : pool;
+        }
+
+        void add(int index, Invoker<?> invoker) {
+            String localTag = invoker.getUrl().getParameter(TAG_KEY);
+            if (StringUtils.isEmpty(localTag)) {
+                untagged.set(index);
+            } else {
+                tagged.computeIfAbsent(localTag, key -> new BitSet()).set(index);
+            }
+        }
+
+        void clear(int from, int to) {
+            untagged.clear(from, to);
+            tagged.values().forEach(pool -> pool.clear(from, to));
+        }
+    }
+
+    /**
+     * The invokers by the address groups of a dynamic tag rule, for one invoker list.
+     */
+    private final class DynamicTagPools {
+        final List<?> invokers;
+        final int size;
+        final TagRouterRule rule;
+        final BitSet notInAddresses;
+        final BitSet notInTagNames;
+        final Map<String, BitSet> addressMatches = new ConcurrentHashMap<>();
+
+        DynamicTagPools(List<?> invokers, TagRouterRule rule, BitSet notInAddresses, BitSet notInTagNames) {
+            this.invokers = invokers;
+            this.size = invokers.size();
+            this.rule = rule;
+            this.notInAddresses = notInAddresses;
+            this.notInTagNames = notInTagNames;
+        }
+
+        <T> BitSet matching(List<Invoker<T>> invokers, String tag, List<String> addresses) {
+            return addressMatches.computeIfAbsent(tag, key ->
+                    AddressPools.match(invokers, invoker -> addressMatches(invoker.getUrl(), addresses)));
+        }
+    }
+
 }
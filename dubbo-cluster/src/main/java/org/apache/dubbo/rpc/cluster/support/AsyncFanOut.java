@@ -0,0 +1,309 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.cluster.support;
+
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.timer.HashedWheelTimer;
+import org.apache.dubbo.common.timer.Timeout;
+import org.apache.dubbo.common.timer.Timer;
+import org.apache.dubbo.common.utils.NamedThreadFactory;
+import org.apache.dubbo.rpc.AsyncRpcResult;
+import org.apache.dubbo.rpc.Invocation;
+import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.Result;
+import org.apache.dubbo.rpc.RpcContext;
+import org.apache.dubbo.rpc.RpcException;
+import org.apache.dubbo.rpc.RpcInvocation;
+import org.apache.dubbo.rpc.RpcResult;
+import org.apache.dubbo.rpc.SimpleAsyncRpcResult;
+import org.apache.dubbo.rpc.support.RpcUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Send one invocation to several invokers at once through the async invoke path, and collect the outcomes as the
+ * responses arrive. No thread waits for the responses, the reducer runs on the thread completing the last one.
+ * <p>
+ * A cluster invoker called through the async invoke path gets its failures as futures and does not retry them, so the
+ * fan-out may send the call of an invoker again itself, through the same invoker.
+ */
+class AsyncFanOut<T> {
+
+    private static final Timer DEADLINE_TIMER = new HashedWheelTimer(
+            new NamedThreadFactory("fanout-cluster-deadline", true),
+            10,
+            TimeUnit.MILLISECONDS);
+
+    private final List<Invoker<T>> invokers;
+
+    /**
+     * the {@link Result} or the {@link Failure} of every invoker, null until it ends
+     */
+    private final AtomicReferenceArray<Object> outcomes;
+
+    private final CompletableFuture<?>[] inFlight;
+
+    private final AtomicIntegerArray retriesLeft;
+
+    private final AtomicInteger remaining;
+
+    private final CompletableFuture<AsyncFanOut<T>> done = new CompletableFuture<>();
+
+    private volatile Timeout deadline;
+
+    AsyncFanOut(List<Invoker<T>> invokers) {
+        this.invokers = invokers;
+        this.outcomes = new AtomicReferenceArray<>(invokers.size());
+        this.inFlight = new CompletableFuture<?>[invokers.size()];
+        this.retriesLeft = new AtomicIntegerArray(invokers.size());
+        this.remaining = new AtomicInteger(invokers.size());
+    }
+
+    /**
+     * copy of the invocation for one invoker, the calls run concurrently and each invoker changes its invocation
+     */
+    static RpcInvocation copy(Invocation invocation) {
+        return new RpcInvocation(invocation.getMethodName(), invocation.getParameterTypes(), invocation.getArguments(),
+                invocation.getAttachments() == null ? new HashMap<>() : new HashMap<>(invocation.getAttachments()),
+                invocation.getInvoker());
+    }
+
+    /**
+     * @param invocations  the invocation to send to an invoker, must not be shared between invokers
+     * @param deadlineMillis the calls not ended by then are given up, no deadline if not positive
+     */
+    AsyncFanOut<T> send(Function<Invoker<T>, RpcInvocation> invocations, long deadlineMillis) {
+        return send(invocations, deadlineMillis, invoker -> 0);
+    }
+
+    /**
+     * @param invocations  the invocation to send to an invoker, must not be shared between invokers
+     * @param deadlineMillis the calls not ended by then are given up, no deadline if not positive
+     * @param retries      how many times the call of an invoker is sent again after a failure other than a
+     *                     business exception
+     */
+    AsyncFanOut<T> send(Function<Invoker<T>, RpcInvocation> invocations, long deadlineMillis,
+                        ToIntFunction<Invoker<T>> retries) {
+        if (invokers.isEmpty()) {
+            done.complete(this);
+            return this;
+        }
+        for (int i = 0; i < invokers.size(); i++) {
+            retriesLeft.set(i, retries.applyAsInt(invokers.get(i)));
+        }
+        if (deadlineMillis > 0) {
+            deadline = DEADLINE_TIMER.newTimeout(timeout -> expire(), deadlineMillis, TimeUnit.MILLISECONDS);
+        }
+        for (int i = 0; i < invokers.size(); i++) {
+            send(i, invocations);
+        }
+        return this;
+    }
+
+    private void send(final int i, Function<Invoker<T>, RpcInvocation> invocations) {
+        Invoker<T> invoker = invokers.get(i);
+        Result result;
+        try {
+            RpcInvocation invocation = invocations.apply(invoker);
+            invocation.setAttachment(Constants.ASYNC_KEY, Boolean.TRUE.toString());
+            result = invoker.invoke(invocation);
+        } catch (Throwable e) {
+            if (!retry(i, invocations, e)) {
+                end(i, new Failure(e));
+            }
+            return;
+        }
+        if (!(result instanceof AsyncRpcResult)) {
+            end(i, result);
+            return;
+        }
+        AsyncRpcResult asyncResult = (AsyncRpcResult) result;
+        inFlight[i] = asyncResult.getValueFuture();
+        AtomicBoolean ended = new AtomicBoolean();
+        asyncResult.whenComplete((r, t) -> {
+            if (!ended.compareAndSet(false, true)) {
+                return;
+            }
+            if (t != null) {
+                if (!retry(i, invocations, t)) {
+                    end(i, new Failure(t));
+                }
+            } else if (!(r.getException() instanceof RpcException) || !retry(i, invocations, r.getException())) {
+                // a failed future given to AsyncRpcResult ends as the exception of its result, retried like above
+                end(i, r);
+            }
+        });
+    }
+
+    /**
+     * Send the call again if the failure is not a business exception and the invoker has retries left.
+     */
+    private boolean retry(int i, Function<Invoker<T>, RpcInvocation> invocations, Throwable t) {
+        if (outcomes.get(i) != null || !isRetriable(t) || retriesLeft.getAndDecrement(i) <= 0) {
+            return false;
+        }
+        send(i, invocations);
+        return true;
+    }
+
+    private static boolean isRetriable(Throwable t) {
+        if (t instanceof CompletionException && t.getCause() != null) {
+            t = t.getCause();
+        }
+        return !(t instanceof RpcException) || !((RpcException) t).isBiz();
+    }
+
+    private void end(int i, Object outcome) {
+        if (!outcomes.compareAndSet(i, null, outcome == null ? new RpcResult() : outcome)) {
+            return;
+        }
+        if (remaining.decrementAndGet() == 0) {
+            Timeout t = deadline;
+            if (t != null) {
+                t.cancel();
+            }
+            done.complete(this);
+        }
+    }
+
+    /**
+     * give up the calls still in flight, they end with a timeout and their responses will be dropped
+     */
+    void expire() {
+        for (int i = 0; i < invokers.size(); i++) {
+            if (outcomes.get(i) == null) {
+                end(i, new Failure(new RpcException(RpcException.TIMEOUT_EXCEPTION,
+                        "No response from " + invokers.get(i).getUrl() + " before the deadline.")));
+                CompletableFuture<?> future = inFlight[i];
+                if (future != null) {
+                    future.cancel(false);
+                }
+            }
+        }
+    }
+
+    int size() {
+        return invokers.size();
+    }
+
+    Invoker<T> getInvoker(int i) {
+        return invokers.get(i);
+    }
+
+    /**
+     * @return the result of the invoker, null if the call failed
+     */
+    Result getResult(int i) {
+        Object outcome = outcomes.get(i);
+        return outcome instanceof Failure ? null : (Result) outcome;
+    }
+
+    /**
+     * @return why the call of the invoker failed, null if a result arrived
+     */
+    RpcException getFailure(int i) {
+        Object outcome = outcomes.get(i);
+        if (!(outcome instanceof Failure)) {
+            return null;
+        }
+        Throwable e = ((Failure) outcome).cause;
+        if (e instanceof CompletionException && e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e instanceof RpcException ? (RpcException) e : new RpcException(e.getMessage(), e);
+    }
+
+    /**
+     * Reduce the outcomes to one result once all the calls ended. Async callers get an {@link AsyncRpcResult} at once,
+     * sync callers wait for at most waitMillis before the calls in flight are given up.
+     */
+    Result reduce(Invocation invocation, URL url, long waitMillis, Function<AsyncFanOut<T>, Result> reducer) {
+        CompletableFuture<Result> resultFuture = new CompletableFuture<>();
+        CompletableFuture<Object> valueFuture = new CompletableFuture<>();
+        done.whenComplete((fanOut, t) -> {
+            Result result;
+            try {
+                result = reducer.apply(this);
+            } catch (Throwable e) {
+                RpcException exception = e instanceof RpcException ? (RpcException) e : new RpcException(e.getMessage(), e);
+                resultFuture.complete(new Failure(exception));
+                valueFuture.completeExceptionally(exception);
+                return;
+            }
+            resultFuture.complete(result);
+            if (result.hasException()) {
+                valueFuture.completeExceptionally(result.getException());
+            } else {
+                valueFuture.complete(result.getValue());
+            }
+        });
+
+        if (RpcUtils.isReturnTypeFuture(invocation)) {
+            RpcContext.getContext().setFuture(valueFuture);
+            return new AsyncRpcResult(valueFuture, resultFuture, false);
+        }
+        if (RpcUtils.isAsync(url, invocation)) {
+            RpcContext.getContext().setFuture(valueFuture);
+            return new SimpleAsyncRpcResult(valueFuture, resultFuture, false);
+        }
+        RpcContext.getContext().setFuture(null);
+        Result result;
+        try {
+            try {
+                result = resultFuture.get(waitMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                expire();
+                result = resultFuture.get();
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            expire();
+            throw new RpcException(e.getMessage(), e);
+        }
+        if (result instanceof Failure) {
+            throw (RpcException) ((Failure) result).cause;
+        }
+        return result;
+    }
+
+    /**
+     * a call which ended without a result, or a reducer which threw
+     */
+    private static class Failure extends RpcResult {
+
+        private static final long serialVersionUID = 5474219744218046374L;
+
+        private final Throwable cause;
+
+        Failure(Throwable cause) {
+            super(cause);
+            this.cause = cause;
+        }
+    }
+}
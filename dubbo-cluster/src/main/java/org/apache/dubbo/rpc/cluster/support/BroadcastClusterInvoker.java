@@ -16,6 +16,7 @@
  */
 package org.apache.dubbo.rpc.cluster.support;
 
+import org.apache.dubbo.common.Constants;
 import org.apache.dubbo.common.logger.Logger;
 import org.apache.dubbo.common.logger.LoggerFactory;
 import org.apache.dubbo.rpc.Invocation;
@@ -45,17 +46,25 @@ public class BroadcastClusterInvoker<T> extends AbstractClusterInvoker<T> {
     public Result doInvoke(final Invocation invocation, List<Invoker<T>> invokers, LoadBalance loadbalance) throws RpcException {
         checkInvokers(invokers, invocation);
         RpcContext.getContext().setInvokers((List) invokers);
+        // all the providers are called at once, the slowest one decides the latency
+        AsyncFanOut<T> fanOut = new AsyncFanOut<T>(invokers).send(invoker -> AsyncFanOut.copy(invocation), 0);
+        int timeout = getUrl().getMethodParameter(invocation.getMethodName(), Constants.TIMEOUT_KEY, Constants.DEFAULT_TIMEOUT);
+        return fanOut.reduce(invocation, getUrl(), timeout, this::lastResult);
+    }
+
+    /**
+     * the result of the last provider, or the last failure if any provider failed
+     */
+    private Result lastResult(AsyncFanOut<T> results) {
         RpcException exception = null;
         Result result = null;
-        for (Invoker<T> invoker : invokers) {
-            try {
-                result = invoker.invoke(invocation);
-            } catch (RpcException e) {
+        for (int i = 0; i < results.size(); i++) {
+            RpcException e = results.getFailure(i);
+            if (e != null) {
                 exception = e;
                 logger.warn(e.getMessage(), e);
-            } catch (Throwable e) {
-                exception = new RpcException(e.getMessage(), e);
-                logger.warn(e.getMessage(), e);
+            } else {
+                result = results.getResult(i);
             }
         }
         if (exception != null) {
@@ -0,0 +1,391 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.cluster.support;
+
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.logger.Logger;
+import org.apache.dubbo.common.logger.LoggerFactory;
+import org.apache.dubbo.common.timer.HashedWheelTimer;
+import org.apache.dubbo.common.timer.Timeout;
+import org.apache.dubbo.common.timer.Timer;
+import org.apache.dubbo.common.timer.TimerTask;
+import org.apache.dubbo.common.utils.NamedThreadFactory;
+import org.apache.dubbo.common.utils.SlidingWindowHistogram;
+import org.apache.dubbo.rpc.AsyncRpcResult;
+import org.apache.dubbo.rpc.Invocation;
+import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.Result;
+import org.apache.dubbo.rpc.RpcContext;
+import org.apache.dubbo.rpc.RpcException;
+import org.apache.dubbo.rpc.RpcInvocation;
+import org.apache.dubbo.rpc.RpcResult;
+import org.apache.dubbo.rpc.SimpleAsyncRpcResult;
+import org.apache.dubbo.rpc.cluster.Directory;
+import org.apache.dubbo.rpc.cluster.LoadBalance;
+import org.apache.dubbo.rpc.support.RpcUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Send the request to one invoker, and if no response arrives within a delay, send a backup request to another invoker.
+ * The first response wins and the other request is cancelled. Unlike {@link ForkingClusterInvoker}, the requests go
+ * through the async invoke path, so no thread is spent per request and the second provider is only bothered for the
+ * slowest calls.
+ * <p>
+ * The delay is {@link Constants#HEDGING_DELAY_KEY} if configured, otherwise the {@link Constants#HEDGING_PERCENTILE_KEY}
+ * percentile of the latencies of the method seen in the last minute. Until enough calls have been seen no backup is
+ * sent unless the primary request fails.
+ *
+ * <a href="https://research.google/pubs/pub40801/">The Tail at Scale</a>
+ */
+public class HedgingClusterInvoker<T> extends AbstractClusterInvoker<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(HedgingClusterInvoker.class);
+
+    private static final Timer HEDGING_TIMER = new HashedWheelTimer(
+            new NamedThreadFactory("hedging-cluster-timer", true),
+            10,
+            TimeUnit.MILLISECONDS);
+
+    private static final long WINDOW_MILLIS = 60 * 1000;
+
+    private static final int WINDOW_SLICES = 6;
+
+    /**
+     * the percentile is not trusted with fewer latencies than this in the window
+     */
+    private static final int MIN_SAMPLES = 50;
+
+    private final ConcurrentMap<String, SlidingWindowHistogram> latencies = new ConcurrentHashMap<>();
+
+    public HedgingClusterInvoker(Directory<T> directory) {
+        super(directory);
+    }
+
+    @Override
+    protected Result doInvoke(Invocation invocation, List<Invoker<T>> invokers, LoadBalance loadbalance) throws RpcException {
+        try {
+            checkInvokers(invokers, invocation);
+            if (invokers.size() < 2 || RpcUtils.isOneway(getUrl(), invocation)) {
+                return select(loadbalance, invocation, invokers, null).invoke(invocation);
+            }
+            String methodName = RpcUtils.getMethodName(invocation);
+            long delay = getHedgingDelay(methodName);
+            HedgedCall call = new HedgedCall(invocation, invokers, loadbalance, methodName);
+            call.start(delay);
+
+            if (RpcUtils.isReturnTypeFuture(invocation)) {
+                RpcContext.getContext().setFuture(call.valueFuture);
+                return new AsyncRpcResult(call.valueFuture, call.resultFuture, false);
+            }
+            if (RpcUtils.isAsync(getUrl(), invocation)) {
+                RpcContext.getContext().setFuture(call.valueFuture);
+                return new SimpleAsyncRpcResult(call.valueFuture, call.resultFuture, false);
+            }
+            RpcContext.getContext().setFuture(null);
+            int timeout = getUrl().getMethodParameter(methodName, Constants.TIMEOUT_KEY, Constants.DEFAULT_TIMEOUT);
+            try {
+                Result result = call.resultFuture.get(timeout + Math.max(delay, 0), TimeUnit.MILLISECONDS);
+                RpcException failure = call.failure;
+                if (failure != null && result.getException() == failure) {
+                    throw failure;
+                }
+                return result;
+            } catch (TimeoutException e) {
+                throw call.fail(new RpcException(RpcException.TIMEOUT_EXCEPTION, "Failed to hedging invoke method "
+                        + methodName + " in the service " + getInterface().getName() + ", no response from "
+                        + call.sent() + " within " + timeout + "ms.", e));
+            } catch (InterruptedException | ExecutionException e) {
+                throw call.fail(new RpcException("Failed to hedging invoke method " + methodName + " in the service "
+                        + getInterface().getName() + ", providers " + call.sent() + ". Last error is: " + e.getMessage(), e));
+            }
+        } finally {
+            // clear attachments which is binding to current thread.
+            RpcContext.getContext().clearAttachments();
+        }
+    }
+
+    /**
+     * @return the milliseconds to wait for the primary request before sending the backup, -1 for no backup
+     */
+    long getHedgingDelay(String methodName) {
+        long delay = getUrl().getMethodParameter(methodName, Constants.HEDGING_DELAY_KEY, 0L);
+        if (delay > 0) {
+            return delay;
+        }
+        SlidingWindowHistogram histogram = latencies.get(methodName);
+        if (histogram == null || histogram.getCount() < MIN_SAMPLES) {
+            return -1;
+        }
+        double percentile = getUrl().getMethodParameter(methodName, Constants.HEDGING_PERCENTILE_KEY, Constants.DEFAULT_HEDGING_PERCENTILE);
+        return Math.max(1, histogram.getValueAtQuantile(percentile / 100));
+    }
+
+    private void recordLatency(String methodName, long elapsed) {
+        SlidingWindowHistogram histogram = latencies.get(methodName);
+        if (histogram == null) {
+            latencies.putIfAbsent(methodName, new SlidingWindowHistogram(WINDOW_MILLIS, WINDOW_SLICES));
+            histogram = latencies.get(methodName);
+        }
+        histogram.record(elapsed);
+    }
+
+    private static boolean isFailure(Result result) {
+        Throwable t = result.getException();
+        return t instanceof RpcException && !((RpcException) t).isBiz();
+    }
+
+    /**
+     * One call of the cluster: the primary request and at most one backup request.
+     */
+    private class HedgedCall implements TimerTask {
+
+        private final Invocation invocation;
+
+        private final Map<String, String> attachments;
+
+        private final List<Invoker<T>> invokers;
+
+        private final LoadBalance loadbalance;
+
+        private final String methodName;
+
+        private final long start = System.currentTimeMillis();
+
+        private final CompletableFuture<Result> resultFuture = new CompletableFuture<>();
+
+        private final CompletableFuture<Object> valueFuture = new CompletableFuture<>();
+
+        private final List<Invoker<T>> sent = new ArrayList<>(2);
+
+        private final List<CompletableFuture<?>> inFlight = new ArrayList<>(2);
+
+        private boolean hedged;
+
+        private int attempts;
+
+        private int failed;
+
+        private Throwable lastError;
+
+        private volatile Timeout timeout;
+
+        private volatile RpcException failure;
+
+        HedgedCall(Invocation invocation, List<Invoker<T>> invokers, LoadBalance loadbalance, String methodName) {
+            this.invocation = invocation;
+            this.invokers = invokers;
+            this.loadbalance = loadbalance;
+            this.methodName = methodName;
+            // the backup may be sent from the timer thread, so the attachments of the caller's context are taken now
+            this.attachments = new HashMap<>();
+            if (invocation.getAttachments() != null) {
+                this.attachments.putAll(invocation.getAttachments());
+            }
+            this.attachments.putAll(RpcContext.getContext().getAttachments());
+            this.attachments.put(Constants.ASYNC_KEY, Boolean.TRUE.toString());
+        }
+
+        void start(long delay) {
+            Invoker<T> primary = select(loadbalance, invocation, invokers, null);
+            synchronized (this) {
+                sent.add(primary);
+                attempts = 1;
+            }
+            if (delay >= 0) {
+                try {
+                    timeout = HEDGING_TIMER.newTimeout(this, delay, TimeUnit.MILLISECONDS);
+                } catch (Throwable e) {
+                    logger.warn("Failed to schedule the backup request of " + methodName + ", " + e.getMessage(), e);
+                }
+            }
+            send(primary);
+        }
+
+        /**
+         * the delay elapsed without a response, send the backup request
+         */
+        @Override
+        public void run(Timeout timeout) {
+            try {
+                hedge();
+            } finally {
+                RpcContext.removeContext();
+            }
+        }
+
+        private void hedge() {
+            List<Invoker<T>> selected;
+            synchronized (this) {
+                if (hedged || resultFuture.isDone()) {
+                    return;
+                }
+                hedged = true;
+                attempts++;
+                selected = new ArrayList<>(sent);
+            }
+            Invoker<T> backup;
+            try {
+                backup = select(loadbalance, invocation, invokers, selected);
+            } catch (Throwable e) {
+                backup = null;
+            }
+            if (backup == null || selected.contains(backup)) {
+                // no other provider to hedge on, the primary request is the only chance
+                boolean exhausted;
+                synchronized (this) {
+                    attempts--;
+                    exhausted = failed >= attempts;
+                }
+                if (exhausted) {
+                    fail();
+                }
+                return;
+            }
+            synchronized (this) {
+                sent.add(backup);
+            }
+            send(backup);
+        }
+
+        private void send(Invoker<T> invoker) {
+            Result result;
+            try {
+                result = invoker.invoke(new RpcInvocation(invocation.getMethodName(), invocation.getParameterTypes(),
+                        invocation.getArguments(), new HashMap<>(attachments), invocation.getInvoker()));
+            } catch (Throwable e) {
+                onFailure(e);
+                return;
+            }
+            if (!(result instanceof AsyncRpcResult)) {
+                onResult(result);
+                return;
+            }
+            AsyncRpcResult asyncResult = (AsyncRpcResult) result;
+            CompletableFuture<?> future = asyncResult.getValueFuture();
+            synchronized (this) {
+                inFlight.add(future);
+            }
+            if (resultFuture.isDone()) {
+                future.cancel(false);
+                return;
+            }
+            asyncResult.whenComplete((r, t) -> {
+                if (t != null) {
+                    onFailure(t);
+                } else {
+                    onResult(r);
+                }
+            });
+        }
+
+        private void onResult(Result result) {
+            if (result == null || isFailure(result)) {
+                onFailure(result == null ? new RpcException("No result returned.") : result.getException());
+                return;
+            }
+            if (!resultFuture.complete(result)) {
+                return;
+            }
+            recordLatency(methodName, System.currentTimeMillis() - start);
+            if (result.hasException()) {
+                valueFuture.completeExceptionally(result.getException());
+            } else {
+                valueFuture.complete(result.getValue());
+            }
+            cancel();
+        }
+
+        private void onFailure(Throwable e) {
+            if (resultFuture.isDone()) {
+                return;
+            }
+            boolean exhausted;
+            synchronized (this) {
+                failed++;
+                lastError = e;
+                exhausted = hedged && failed >= attempts;
+            }
+            if (exhausted) {
+                fail();
+            } else {
+                // no need to wait for the delay any more
+                Timeout t = timeout;
+                if (t != null) {
+                    t.cancel();
+                }
+                hedge();
+            }
+        }
+
+        private void fail() {
+            Throwable e;
+            synchronized (this) {
+                e = lastError;
+            }
+            fail(new RpcException(e instanceof RpcException ? ((RpcException) e).getCode() : 0,
+                    "Failed to hedging invoke method " + methodName + " in the service " + getInterface().getName()
+                            + ", providers " + sent() + ". Last error is: " + (e == null ? null : e.getMessage()),
+                    e != null && e.getCause() != null ? e.getCause() : e));
+        }
+
+        /**
+         * end the call with the exception unless it has ended already
+         */
+        RpcException fail(RpcException e) {
+            failure = e;
+            if (resultFuture.complete(new RpcResult(e))) {
+                valueFuture.completeExceptionally(e);
+            }
+            cancel();
+            return e;
+        }
+
+        /**
+         * stop the timer and cancel the requests still in flight, their responses will be dropped
+         */
+        private void cancel() {
+            Timeout t = timeout;
+            if (t != null) {
+                t.cancel();
+            }
+            List<CompletableFuture<?>> futures;
+            synchronized (this) {
+                futures = new ArrayList<>(inFlight);
+            }
+            for (CompletableFuture<?> future : futures) {
+                if (!future.isDone()) {
+                    future.cancel(false);
+                }
+            }
+        }
+
+        synchronized List<Invoker<T>> sent() {
+            return Collections.unmodifiableList(new ArrayList<>(sent));
+        }
+    }
+}
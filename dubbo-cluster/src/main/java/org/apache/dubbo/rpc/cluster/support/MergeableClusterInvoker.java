@@ -22,7 +22,6 @@ import org.apache.dubbo.common.extension.ExtensionLoader;
 import org.apache.dubbo.common.logger.Logger;
 import org.apache.dubbo.common.logger.LoggerFactory;
 import org.apache.dubbo.common.utils.ConfigUtils;
-import org.apache.dubbo.common.utils.NamedThreadFactory;
 import org.apache.dubbo.rpc.Invocation;
 import org.apache.dubbo.rpc.Invoker;
 import org.apache.dubbo.rpc.Result;
@@ -38,27 +37,19 @@ import java.lang.reflect.Array;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
 
 @SuppressWarnings("unchecked")
 public class MergeableClusterInvoker<T> extends AbstractClusterInvoker<T> {
 
     private static final Logger log = LoggerFactory.getLogger(MergeableClusterInvoker.class);
-    private ExecutorService executor = Executors.newCachedThreadPool(new NamedThreadFactory("mergeable-cluster-executor", true));
 
     public MergeableClusterInvoker(Directory<T> directory) {
         super(directory);
     }
 
     @Override
-    protected Result doInvoke(Invocation invocation, List<Invoker<T>> invokers, LoadBalance loadbalance) throws RpcException {
+    protected Result doInvoke(final Invocation invocation, List<Invoker<T>> invokers, LoadBalance loadbalance) throws RpcException {
         checkInvokers(invokers, invocation);
         String merger = getUrl().getMethodParameter(invocation.getMethodName(), Constants.MERGER_KEY);
         if (ConfigUtils.isEmpty(merger)) { // If a method doesn't have a merger, only invoke one Group
@@ -86,38 +77,54 @@ public class MergeableClusterInvoker<T> extends AbstractClusterInvoker<T> {
             returnType = null;
         }
 
-        Map<String, Future<Result>> results = new HashMap<String, Future<Result>>();
-        for (final Invoker<T> invoker : invokers) {
-            Future<Result> future = executor.submit(new Callable<Result>() {
-                @Override
-                public Result call() throws Exception {
-                    return invoker.invoke(new RpcInvocation(invocation, invoker));
-                }
-            });
-            results.put(invoker.getUrl().getServiceKey(), future);
-        }
+        final String methodName = invocation.getMethodName();
+        final Class<?> type = returnType;
+        final String mergerName = merger;
+        final boolean partial = getUrl().getMethodParameter(methodName, Constants.MERGER_PARTIAL_KEY, false);
+        int timeout = getUrl().getMethodParameter(methodName, Constants.TIMEOUT_KEY, Constants.DEFAULT_TIMEOUT);
+        int deadline = getUrl().getMethodParameter(methodName, Constants.MERGER_DEADLINE_KEY, 0);
+
+        AsyncFanOut<T> fanOut = new AsyncFanOut<T>(invokers)
+                .send(invoker -> new RpcInvocation(invocation, invoker), deadline, invoker -> getRetries(invoker, methodName));
+        return fanOut.reduce(invocation, getUrl(), deadline > 0 ? deadline : timeout,
+                results -> merge(results, mergerName, type, partial));
+    }
 
-        Object result = null;
+    /**
+     * The invoker of a group is a cluster invoker, which only retries the failures of sync invocations. The retries of
+     * a failover group are thus made by the fan-out, by calling the group again.
+     */
+    private int getRetries(Invoker<T> invoker, String methodName) {
+        URL url = invoker.getUrl();
+        if (!FailoverCluster.NAME.equals(url.getParameter(Constants.CLUSTER_KEY, Constants.DEFAULT_CLUSTER))) {
+            return 0;
+        }
+        return Math.max(url.getMethodParameter(methodName, Constants.RETRIES_KEY, Constants.DEFAULT_RETRIES), 0);
+    }
 
+    private Result merge(AsyncFanOut<T> results, String merger, Class<?> returnType, boolean partial) {
         List<Result> resultList = new ArrayList<Result>(results.size());
-
-        int timeout = getUrl().getMethodParameter(invocation.getMethodName(), Constants.TIMEOUT_KEY, Constants.DEFAULT_TIMEOUT);
-        for (Map.Entry<String, Future<Result>> entry : results.entrySet()) {
-            Future<Result> future = entry.getValue();
-            try {
-                Result r = future.get(timeout, TimeUnit.MILLISECONDS);
-                if (r.hasException()) {
-                    log.error("Invoke " + getGroupDescFromServiceKey(entry.getKey()) +
-                                    " failed: " + r.getException().getMessage(),
-                            r.getException());
-                } else {
-                    resultList.add(r);
+        for (int i = 0; i < results.size(); i++) {
+            String serviceKey = results.getInvoker(i).getUrl().getServiceKey();
+            RpcException failure = results.getFailure(i);
+            if (failure != null) {
+                if (!partial) {
+                    throw new RpcException(failure.getCode(), "Failed to invoke service " + serviceKey + ": " + failure.getMessage(), failure);
                 }
-            } catch (Exception e) {
-                throw new RpcException("Failed to invoke service " + entry.getKey() + ": " + e.getMessage(), e);
+                log.warn("Invoke " + getGroupDescFromServiceKey(serviceKey) + " failed, merge without it: " + failure.getMessage(), failure);
+                continue;
+            }
+            Result r = results.getResult(i);
+            if (r.hasException()) {
+                log.error("Invoke " + getGroupDescFromServiceKey(serviceKey) +
+                                " failed: " + r.getException().getMessage(),
+                        r.getException());
+            } else {
+                resultList.add(r);
             }
         }
 
+        Object result = null;
         if (resultList.isEmpty()) {
             return new RpcResult((Object) null);
         } else if (resultList.size() == 1) {
@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.cluster;
+
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.configcenter.ConfigChangeEvent;
+import org.apache.dubbo.rpc.Invocation;
+import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.RpcInvocation;
+import org.apache.dubbo.rpc.cluster.router.AbstractRouter;
+import org.apache.dubbo.rpc.cluster.router.MockInvoker;
+import org.apache.dubbo.rpc.cluster.router.condition.ConditionRouter;
+import org.apache.dubbo.rpc.cluster.router.mock.MockInvokersSelector;
+import org.apache.dubbo.rpc.cluster.router.tag.TagRouter;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class RouterChainTest {
+
+    private static final URL CONSUMER_URL = URL.valueOf("consumer://1.1.1.1/com.foo.BarService?application=foo");
+
+    private List<Invoker<String>> invokers;
+
+    @BeforeEach
+    public void setUp() {
+        invokers = new ArrayList<>();
+        invokers.add(new MockInvoker<>(URL.valueOf("dubbo://10.20.3.1:20880/com.foo.BarService")));
+        invokers.add(new MockInvoker<>(URL.valueOf("dubbo://10.20.3.2:20880/com.foo.BarService?dubbo.tag=red")));
+        invokers.add(new MockInvoker<>(URL.valueOf("dubbo://10.20.3.3:20880/com.foo.BarService?dubbo.tag=blue")));
+        invokers.add(new MockInvoker<>(URL.valueOf("dubbo://10.20.4.1:20880/com.foo.BarService?application=foo")));
+        invokers.add(new MockInvoker<>(URL.valueOf("dubbo://10.20.4.2:20880/com.foo.BarService?dubbo.tag=red")));
+        invokers.add(new MockInvoker<>(URL.valueOf("mock://10.20.5.1:20880/com.foo.BarService")));
+    }
+
+    @Test
+    public void testRouteConditionRouters() {
+        assertSameAsListRouting(Arrays.asList(
+                new ConditionRouter("host = 1.1.1.1 => host = 10.20.3.*", false, true),
+                new ConditionRouter("method = sayHello => host != 10.20.3.2", true, true)));
+        assertSameAsListRouting(Arrays.asList(
+                new ConditionRouter("method = sayHello => host = 10.20.9.*", true, true)));
+        assertSameAsListRouting(Arrays.asList(
+                new ConditionRouter("method = sayHello => host = 10.20.9.*", false, true)));
+        assertSameAsListRouting(Arrays.asList(
+                new ConditionRouter("method = sayHello => false", false, true)));
+        assertSameAsListRouting(Arrays.asList(
+                new ConditionRouter("=> application = $application", false, true)));
+    }
+
+    @Test
+    public void testRouteTagRouter() {
+        TagRouter staticTagRouter = new TagRouter(null, CONSUMER_URL);
+        assertSameAsListRouting(Arrays.asList(staticTagRouter, new MockInvokersSelector()));
+
+        TagRouter dynamicTagRouter = new TagRouter(null, CONSUMER_URL);
+        dynamicTagRouter.process(new ConfigChangeEvent("foo.tag-router", "---\n" +
+                "force: false\n" +
+                "runtime: true\n" +
+                "enabled: true\n" +
+                "key: foo\n" +
+                "tags:\n" +
+                "  - name: red\n" +
+                "    addresses: [\"10.20.3.1:20880\"]\n" +
+                "  - name: green\n" +
+                "    addresses: [\"10.20.9.9:20880\"]\n" +
+                "..."));
+        assertSameAsListRouting(Arrays.asList(dynamicTagRouter, new MockInvokersSelector()));
+    }
+
+    @Test
+    public void testRouteMixedRouters() {
+        Router legacy = new AbstractRouter() {
+            @Override
+            public <T> List<Invoker<T>> route(List<Invoker<T>> invokers, URL url, Invocation invocation) {
+                return invokers.stream()
+                        .filter(invoker -> !invoker.getUrl().getHost().equals("10.20.3.3"))
+                        .collect(Collectors.toList());
+            }
+        };
+        ConditionRouter first = new ConditionRouter("=> host != 10.20.4.2", false, true);
+        first.setPriority(1);
+        ((AbstractRouter) legacy).setPriority(2);
+        ConditionRouter last = new ConditionRouter("=> host = 10.20.3.*,10.20.4.*", false, true);
+        last.setPriority(3);
+        assertSameAsListRouting(Arrays.asList(first, legacy, last));
+    }
+
+    @Test
+    public void testRouteAfterInvokersChange() {
+        RouterChain<String> chain = RouterChain.buildChain(CONSUMER_URL);
+        chain.initWithRouters(Arrays.asList(new ConditionRouter("=> host = 10.20.3.*", false, true)));
+        chain.setInvokers(invokers);
+        Assertions.assertEquals(invokers.subList(0, 3), chain.route(CONSUMER_URL, new RpcInvocation()));
+
+        List<Invoker<String>> newInvokers = new ArrayList<>(invokers.subList(2, 6));
+        chain.setInvokers(newInvokers);
+        Assertions.assertEquals(newInvokers.subList(0, 1), chain.route(CONSUMER_URL, new RpcInvocation()));
+
+        chain.setInvokers(null);
+        Assertions.assertTrue(chain.route(CONSUMER_URL, new RpcInvocation()).isEmpty());
+    }
+
+    @Test
+    public void testUpdateInvokers() {
+        TagRouter dynamicTagRouter = new TagRouter(null, CONSUMER_URL);
+        dynamicTagRouter.process(new ConfigChangeEvent("foo.tag-router", "---\n" +
+                "force: false\n" +
+                "runtime: true\n" +
+                "enabled: true\n" +
+                "key: foo\n" +
+                "tags:\n" +
+                "  - name: red\n" +
+                "    addresses: [\"10.20.3.1:20880\"]\n" +
+                "..."));
+        ConditionRouter conditionRouter = new ConditionRouter("=> host = 10.20.3.*,10.20.5.*", false, true);
+        conditionRouter.setPriority(-1);
+        List<Router> routers = Arrays.asList(conditionRouter, dynamicTagRouter, new MockInvokersSelector());
+        RouterChain<String> chain = RouterChain.buildChain(CONSUMER_URL);
+        chain.initWithRouters(routers);
+        chain.setInvokers(Collections.unmodifiableList(new ArrayList<>(invokers.subList(0, 4))));
+        assertSameAsListRouting(chain, routers, invokers.subList(0, 4));
+
+        // more added than removed: the removed index is reused, the others are appended
+        List<Invoker<String>> current = chain.updateInvokers(invokers.subList(4, 6), invokers.subList(1, 2));
+        Assertions.assertEquals(Arrays.asList(invokers.get(0), invokers.get(4), invokers.get(2), invokers.get(3), invokers.get(5)), current);
+        assertSameAsListRouting(chain, routers, current);
+
+        // more removed than added: the last invokers fill the free indexes
+        current = chain.updateInvokers(invokers.subList(1, 2), Arrays.asList(invokers.get(0), invokers.get(2), invokers.get(5)));
+        Assertions.assertEquals(Arrays.asList(invokers.get(1), invokers.get(4), invokers.get(3)), current);
+        assertSameAsListRouting(chain, routers, current);
+
+        // removing the tail
+        current = chain.updateInvokers(Collections.emptyList(), Arrays.asList(invokers.get(4), invokers.get(3)));
+        Assertions.assertEquals(Collections.singletonList(invokers.get(1)), current);
+        assertSameAsListRouting(chain, routers, current);
+
+        current = chain.updateInvokers(invokers, current);
+        Assertions.assertEquals(invokers, current);
+        assertSameAsListRouting(chain, routers, current);
+    }
+
+    private void assertSameAsListRouting(List<Router> routers) {
+        RouterChain<String> chain = RouterChain.buildChain(CONSUMER_URL);
+        chain.initWithRouters(routers);
+        chain.setInvokers(invokers);
+        assertSameAsListRouting(chain, routers, invokers);
+    }
+
+    private void assertSameAsListRouting(RouterChain<String> chain, List<Router> routers, List<Invoker<String>> invokers) {
+        List<Router> sorted = new ArrayList<>(routers);
+        Collections.sort(sorted);
+        for (Invocation invocation : invocations()) {
+            List<Invoker<String>> expected = invokers;
+            for (Router router : sorted) {
+                expected = router.route(expected, CONSUMER_URL, invocation);
+            }
+            Assertions.assertEquals(expected, chain.route(CONSUMER_URL, invocation), "attachments: "
+                    + invocation.getAttachments() + ", method: " + invocation.getMethodName());
+        }
+    }
+
+    private List<Invocation> invocations() {
+        List<Invocation> invocations = new ArrayList<>();
+        for (String method : new String[]{"sayHello", "sayBye"}) {
+            for (String tag : new String[]{null, "red", "blue", "green", "black"}) {
+                for (String forceTag : new String[]{null, "true"}) {
+                    for (String mock : new String[]{null, "true"}) {
+                        RpcInvocation invocation = new RpcInvocation(method, new Class<?>[0], new Object[0]);
+                        if (tag != null) {
+                            invocation.setAttachment(Constants.TAG_KEY, tag);
+                        }
+                        if (forceTag != null) {
+                            invocation.setAttachment(Constants.FORCE_USE_TAG, forceTag);
+                        }
+                        if (mock != null) {
+                            invocation.setAttachment(Constants.INVOCATION_NEED_MOCK, mock);
+                        }
+                        invocations.add(invocation);
+                    }
+                }
+            }
+        }
+        return invocations;
+    }
+}
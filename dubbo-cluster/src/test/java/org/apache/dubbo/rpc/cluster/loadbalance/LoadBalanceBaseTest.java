@@ -24,6 +24,7 @@ import org.apache.dubbo.rpc.Invoker;
 import org.apache.dubbo.rpc.RpcInvocation;
 import org.apache.dubbo.rpc.RpcStatus;
 import org.apache.dubbo.rpc.cluster.LoadBalance;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -114,6 +115,21 @@ public class LoadBalanceBaseTest {
         invokers.add(invoker3);
         invokers.add(invoker4);
         invokers.add(invoker5);
+        // the statistics of a url are kept while an invoker holds them, as AbstractInvoker does
+        for (Invoker<LoadBalanceBaseTest> invoker : invokers) {
+            RpcStatus.retainStatus(invoker.getUrl());
+        }
+    }
+
+    @AfterEach
+    public void releaseStatus() {
+        for (Invoker<LoadBalanceBaseTest> invoker : invokers) {
+            RpcStatus.releaseStatus(invoker.getUrl());
+        }
+        for (Invoker<LoadBalanceBaseTest> invoker : weightInvokers) {
+            RpcStatus.releaseStatus(invoker.getUrl());
+        }
+        RpcStatus.releaseStatus(weightInvokerTmp.getUrl());
     }
 
     public Map<Invoker, AtomicLong> getInvokeCounter(int runs, String loadbalanceName) {
@@ -243,6 +259,10 @@ public class LoadBalanceBaseTest {
         weightInvokers.add(weightInvoker1);
         weightInvokers.add(weightInvoker2);
         weightInvokers.add(weightInvoker3);
+        for (Invoker<LoadBalanceBaseTest> invoker : weightInvokers) {
+            RpcStatus.retainStatus(invoker.getUrl());
+        }
+        RpcStatus.retainStatus(weightInvokerTmp.getUrl());
 
         weightTestRpcStatus1 = RpcStatus.getStatus(weightInvoker1.getUrl(), weightTestInvocation.getMethodName());
         weightTestRpcStatus2 = RpcStatus.getStatus(weightInvoker2.getUrl(), weightTestInvocation.getMethodName());
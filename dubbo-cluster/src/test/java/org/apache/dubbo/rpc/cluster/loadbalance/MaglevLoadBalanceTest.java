@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.cluster.loadbalance;
+
+import org.apache.dubbo.rpc.Invoker;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.BDDMockito.given;
+
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class MaglevLoadBalanceTest extends LoadBalanceBaseTest {
+
+    @Test
+    public void testMaglevLoadBalance() {
+        int runs = 10000;
+        Map<Invoker, AtomicLong> counter = getInvokeCounter(runs, MaglevLoadBalance.NAME);
+        long hited = counter.values().stream().filter(count -> count.get() > 0).count();
+        Assertions.assertEquals(1, hited, "the same arguments should always select the same invoker");
+        Assertions.assertEquals(runs, counter.values().stream().mapToLong(AtomicLong::get).sum());
+    }
+
+    @Test
+    public void testSelectWithInvokersInAnotherList() {
+        MaglevLoadBalance lb = (MaglevLoadBalance) getLoadBalance(MaglevLoadBalance.NAME);
+        Invoker selected = lb.select(invokers, invokers.get(0).getUrl(), invocation);
+        List<Invoker<LoadBalanceBaseTest>> shuffled = new ArrayList<>(invokers);
+        Collections.reverse(shuffled);
+        Assertions.assertSame(selected, lb.select(shuffled, invokers.get(0).getUrl(), invocation));
+
+        List<Invoker<LoadBalanceBaseTest>> others = new ArrayList<>(invokers);
+        others.remove(selected);
+        Invoker other = lb.select(others, invokers.get(0).getUrl(), invocation);
+        Assertions.assertNotSame(selected, other);
+        Assertions.assertSame(selected, lb.select(invokers, invokers.get(0).getUrl(), invocation));
+    }
+
+    @Test
+    public void testReselectKeepsTable() {
+        MaglevLoadBalance lb = (MaglevLoadBalance) getLoadBalance(MaglevLoadBalance.NAME);
+        Invoker selected = lb.select(invokers, invokers.get(0).getUrl(), invocation);
+        MaglevLoadBalance.MaglevSelector selector = lb.getSelector(invokers.get(0).getUrl().getServiceKey(), invocation.getMethodName());
+        for (int i = 0; i < 3; i++) {
+            List<Invoker<LoadBalanceBaseTest>> reselect = new ArrayList<>(invokers);
+            reselect.remove(selected);
+            Assertions.assertNotSame(selected, lb.select(reselect, invokers.get(0).getUrl(), invocation));
+        }
+        Assertions.assertSame(selector, lb.getSelector(invokers.get(0).getUrl().getServiceKey(), invocation.getMethodName()));
+
+        // the same smaller list found again is the new list of the invokers
+        List<Invoker<LoadBalanceBaseTest>> removed = new ArrayList<>(invokers);
+        removed.remove(selected);
+        lb.select(removed, invokers.get(0).getUrl(), invocation);
+        lb.select(removed, invokers.get(0).getUrl(), invocation);
+        MaglevLoadBalance.MaglevSelector rebuilt = lb.getSelector(invokers.get(0).getUrl().getServiceKey(), invocation.getMethodName());
+        Assertions.assertNotSame(selector, rebuilt);
+        Assertions.assertEquals(removed.size(), rebuilt.getInvokers().length);
+    }
+
+    @Test
+    public void testSelectByArguments() {
+        MaglevLoadBalance lb = (MaglevLoadBalance) getLoadBalance(MaglevLoadBalance.NAME);
+        Map<Invoker, AtomicLong> counter = new HashMap<>();
+        for (int i = 0; i < 10000; i++) {
+            given(invocation.getArguments()).willReturn(new Object[]{"key" + i});
+            counter.computeIfAbsent(lb.select(invokers, invokers.get(0).getUrl(), invocation), k -> new AtomicLong()).incrementAndGet();
+        }
+        Assertions.assertEquals(invokers.size(), counter.size());
+        for (AtomicLong count : counter.values()) {
+            Assertions.assertTrue(count.get() > 1500 && count.get() < 2500, "uneven selection " + counter.values());
+        }
+    }
+
+    @Test
+    public void testTableBalanceAndDisruption() {
+        MaglevLoadBalance.MaglevSelector selector = new MaglevLoadBalance.MaglevSelector(invokers, "method1", 0);
+        int[] table = selector.getTable();
+        int[] owned = new int[invokers.size()];
+        for (int slot : table) {
+            owned[slot]++;
+        }
+        for (int count : owned) {
+            Assertions.assertTrue(Math.abs(count - table.length / invokers.size()) <= 1);
+        }
+
+        List<Invoker<LoadBalanceBaseTest>> others = new ArrayList<>(invokers);
+        others.remove(invoker3);
+        MaglevLoadBalance.MaglevSelector otherSelector = new MaglevLoadBalance.MaglevSelector(others, "method1", 0);
+        Assertions.assertEquals(table.length, otherSelector.getTable().length);
+        int moved = 0;
+        for (int i = 0; i < table.length; i++) {
+            Invoker owner = selector.getInvokers()[table[i]];
+            if (owner != invoker3 && owner != otherSelector.getInvokers()[otherSelector.getTable()[i]]) {
+                moved++;
+            }
+        }
+        Assertions.assertTrue(moved < table.length / 10, moved + " slots of the remaining invokers moved");
+    }
+
+    @Test
+    public void testHashAsString() {
+        long offset = 0xcbf29ce484222325L;
+        Assertions.assertEquals(MaglevLoadBalance.hash(offset, "12345"), MaglevLoadBalance.hash(offset, 12345L));
+        Assertions.assertEquals(MaglevLoadBalance.hash(offset, "-7"), MaglevLoadBalance.hash(offset, (Object) (-7)));
+        Assertions.assertEquals(MaglevLoadBalance.hash(offset, "0"), MaglevLoadBalance.hash(offset, (Object) (short) 0));
+        Assertions.assertEquals(MaglevLoadBalance.hash(offset, String.valueOf(Long.MIN_VALUE)), MaglevLoadBalance.hash(offset, Long.MIN_VALUE));
+        Assertions.assertEquals(MaglevLoadBalance.hash(offset, String.valueOf(Long.MAX_VALUE)), MaglevLoadBalance.hash(offset, Long.MAX_VALUE));
+        Assertions.assertEquals(MaglevLoadBalance.hash(offset, "true"), MaglevLoadBalance.hash(offset, (Object) Boolean.TRUE));
+        Assertions.assertEquals(MaglevLoadBalance.hash(offset, "null"), MaglevLoadBalance.hash(offset, (Object) null));
+    }
+
+}
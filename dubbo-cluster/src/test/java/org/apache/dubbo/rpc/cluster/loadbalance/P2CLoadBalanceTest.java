@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.cluster.loadbalance;
+
+import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.RpcStatus;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * P2CLoadBalance Test
+ */
+public class P2CLoadBalanceTest extends LoadBalanceBaseTest {
+
+    @AfterEach
+    public void tearDown() {
+        for (Invoker<LoadBalanceBaseTest> invoker : invokers) {
+            LatencyStatus.removeStatus(invoker.getUrl());
+        }
+    }
+
+    @Test
+    public void testP2CLoadBalanceSelect() {
+        int runs = 1000;
+        Map<Invoker, AtomicLong> counter = getInvokeCounter(runs, P2CLoadBalance.NAME);
+        for (Map.Entry<Invoker, AtomicLong> entry : counter.entrySet()) {
+            Long count = entry.getValue().get();
+            Assertions.assertTrue(Math.abs(count - runs / (0f + invokers.size())) < runs / (0f + invokers.size()), "abs diff should < avg");
+        }
+    }
+
+    @Test
+    public void testSelectAroundSlowInvoker() {
+        for (Invoker<LoadBalanceBaseTest> invoker : invokers) {
+            LatencyStatus status = LatencyStatus.getStatus(invoker.getUrl());
+            status.begin();
+            status.end(invoker == invoker3 ? 1000_000_000L : 1000_000L);
+        }
+        Map<Invoker, AtomicLong> counter = getInvokeCounter(1000, P2CLoadBalance.NAME);
+        Assertions.assertEquals(0, counter.get(invoker3).intValue());
+    }
+
+    @Test
+    public void testSelectAroundPendingInvoker() {
+        for (Invoker<LoadBalanceBaseTest> invoker : invokers) {
+            LatencyStatus status = LatencyStatus.getStatus(invoker.getUrl());
+            status.begin();
+            status.end(1000_000L);
+        }
+        LatencyStatus.getStatus(invoker2.getUrl()).begin();
+        Map<Invoker, AtomicLong> counter = getInvokeCounter(1000, P2CLoadBalance.NAME);
+        Assertions.assertEquals(0, counter.get(invoker2).intValue());
+    }
+
+    @Test
+    public void testRemovedWithRpcStatus() {
+        LatencyStatus status = LatencyStatus.getStatus(invoker1.getUrl());
+        Assertions.assertSame(status, LatencyStatus.getStatus(invoker1.getUrl()));
+        RpcStatus.removeAllStatus(invoker1.getUrl());
+        Assertions.assertNotSame(status, LatencyStatus.getStatus(invoker1.getUrl()));
+    }
+
+    @Test
+    public void testPeakAverage() {
+        LatencyStatus status = LatencyStatus.getStatus(invoker1.getUrl());
+        Assertions.assertEquals(0, status.getCost());
+
+        status.begin();
+        Assertions.assertEquals(1, status.getPending());
+        Assertions.assertTrue(status.getCost() > 1000_000_000L, "no response yet should cost a penalty");
+
+        status.end(1000L);
+        Assertions.assertEquals(0, status.getPending());
+        status.begin();
+        status.end(1000_000L);
+        // the average jumps to a slower response
+        Assertions.assertTrue(status.getAverage() > 900_000L);
+
+        status.begin();
+        status.end(1000L);
+        // and only decays with time towards a faster one
+        Assertions.assertTrue(status.getAverage() > 900_000L);
+    }
+}
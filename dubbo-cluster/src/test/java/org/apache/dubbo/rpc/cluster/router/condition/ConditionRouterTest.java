@@ -20,6 +20,7 @@ package org.apache.dubbo.rpc.cluster.router.condition;
 import org.apache.dubbo.common.Constants;
 import org.apache.dubbo.common.URL;
 import org.apache.dubbo.common.utils.NetUtils;
+import org.apache.dubbo.common.utils.UrlUtils;
 import org.apache.dubbo.rpc.Invocation;
 import org.apache.dubbo.rpc.Invoker;
 import org.apache.dubbo.rpc.RpcInvocation;
@@ -32,6 +33,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 public class ConditionRouterTest {
@@ -305,4 +308,67 @@ public class ConditionRouterTest {
         Assertions.assertEquals(0, filteredInvokers.size());
     }
 
+    @Test
+    public void testGlobMatcher() {
+        URL param = URL.valueOf("consumer://1.1.1.1/com.foo.BarService?application=foo&group=");
+        List<String> patterns = Arrays.asList("*", "foo", "foo*", "*bar", "f*r", "fo*o*r", "$application", "$group", "$absent");
+        List<String> values = Arrays.asList("", "foo", "foobar", "bar", "fr", "fooor", "for", "baz", "f");
+        for (String pattern : patterns) {
+            ConditionRouter.GlobMatcher matcher = new ConditionRouter.GlobMatcher(Collections.singleton(pattern));
+            for (String value : values) {
+                Assertions.assertEquals(UrlUtils.isMatchGlobPattern(pattern, value, param), matcher.isMatch(value, param),
+                        "pattern: " + pattern + ", value: " + value);
+            }
+        }
+    }
+
+    @Test
+    public void testGlobMatcherMultiStar() {
+        URL param = URL.valueOf("consumer://1.1.1.1/com.foo.BarService");
+        List<String> patterns = Arrays.asList("a*b*c", "*a*", "a**", "**c", "10.*.3.*", "*.20.*.4");
+        List<String> values = Arrays.asList("abc", "abbc", "ac", "axc", "abcx", "xabc", "a*b*c", "a", "c",
+                "10.20.3.4", "10.20.4.3", "10.3.20.4");
+        for (String pattern : patterns) {
+            ConditionRouter.GlobMatcher matcher = new ConditionRouter.GlobMatcher(Collections.singleton(pattern));
+            for (String value : values) {
+                Assertions.assertEquals(UrlUtils.isMatchGlobPattern(pattern, value, param), matcher.isMatch(value, param),
+                        "pattern: " + pattern + ", value: " + value);
+            }
+        }
+
+        Router router = new ConditionRouterFactory().getRouter(getRouteUrl("=> host = 10.*.3.*").addParameter(Constants.FORCE_KEY, true));
+        List<Invoker<String>> invokers = new ArrayList<Invoker<String>>();
+        invokers.add(new MockInvoker<String>(URL.valueOf("dubbo://10.20.3.4:20880/com.foo.BarService")));
+        invokers.add(new MockInvoker<String>(URL.valueOf("dubbo://10.20.4.3:20880/com.foo.BarService")));
+        invokers.add(new MockInvoker<String>(URL.valueOf("dubbo://10.3.20.4:20880/com.foo.BarService")));
+        List<Invoker<String>> filteredInvokers = router.route(invokers,
+                URL.valueOf("consumer://" + NetUtils.getLocalHost() + "/com.foo.BarService"), new RpcInvocation());
+        for (Invoker<String> invoker : invokers) {
+            Assertions.assertEquals(UrlUtils.isMatchGlobPattern("10.*.3.*", invoker.getUrl().getHost()),
+                    filteredInvokers.contains(invoker), invoker.getUrl().getHost());
+        }
+    }
+
+    @Test
+    public void testRoute_ThenCachedAcrossCalls() {
+        Router router = new ConditionRouterFactory().getRouter(getRouteUrl("methods = getFoo => host = 10.20.3.*"));
+        List<Invoker<String>> invokers = new ArrayList<Invoker<String>>();
+        invokers.add(new MockInvoker<String>(URL.valueOf("dubbo://10.20.3.3:20880/com.foo.BarService")));
+        invokers.add(new MockInvoker<String>(URL.valueOf("dubbo://10.20.4.3:20880/com.foo.BarService")));
+        invokers.add(new MockInvoker<String>(URL.valueOf("dubbo://10.20.3.4:20880/com.foo.BarService")));
+        URL consumer = URL.valueOf("consumer://" + NetUtils.getLocalHost() + "/com.foo.BarService");
+        for (int i = 0; i < 3; i++) {
+            List<Invoker<String>> filteredInvokers = router.route(invokers, consumer,
+                    new RpcInvocation("getFoo", new Class<?>[0], new Object[0]));
+            Assertions.assertEquals(Arrays.asList(invokers.get(0), invokers.get(2)), filteredInvokers);
+            // the when condition on the method is matched per call
+            Assertions.assertEquals(invokers, router.route(invokers, consumer,
+                    new RpcInvocation("setFoo", new Class<?>[0], new Object[0])));
+        }
+        // a changed invoker list is matched again
+        List<Invoker<String>> changed = new ArrayList<Invoker<String>>(invokers.subList(1, 3));
+        Assertions.assertEquals(Collections.singletonList(invokers.get(2)), router.route(changed, consumer,
+                new RpcInvocation("getFoo", new Class<?>[0], new Object[0])));
+    }
+
 }
\ No newline at end of file
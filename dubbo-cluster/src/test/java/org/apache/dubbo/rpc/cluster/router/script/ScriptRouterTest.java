@@ -31,9 +31,12 @@ import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class ScriptRouterTest {
 
+    public static final AtomicInteger EVALUATIONS = new AtomicInteger();
+
     private URL SCRIPT_URL = URL.valueOf("script://javascript?type=javascript");
 
     @BeforeAll
@@ -128,4 +131,73 @@ public class ScriptRouterTest {
         List<Invoker<String>> routeResult = router.route(invokers, invokers.get(0).getUrl(), new RpcInvocation());
         Assertions.assertEquals(3, routeResult.size());
     }
+
+    @Test
+    public void testRouteJavaExpression() {
+        List<Invoker<String>> invokers = new ArrayList<Invoker<String>>();
+        MockInvoker<String> invoker1 = new MockInvoker<String>(URL.valueOf("dubbo://10.134.108.1:20880/com.dubbo.HelloService"));
+        MockInvoker<String> invoker2 = new MockInvoker<String>(URL.valueOf("dubbo://10.134.108.2:20880/com.dubbo.HelloService"));
+        invokers.add(invoker1);
+        invokers.add(invoker2);
+
+        String rule = "List result = new ArrayList();\n" +
+                "for (int i = 0; i < invokers.size(); i++) {\n" +
+                "    Invoker invoker = (Invoker) invokers.get(i);\n" +
+                "    if (\"10.134.108.2\".equals(invoker.getUrl().getHost())) {\n" +
+                "        result.add(invoker);\n" +
+                "    }\n" +
+                "}\n" +
+                "return result;";
+        URL url = URL.valueOf("script://java?type=java").addParameterAndEncoded(Constants.RULE_KEY, rule);
+        Router router = new ScriptRouterFactory().getRouter(url);
+        List<Invoker<String>> routeResult = router.route(invokers, invokers.get(0).getUrl(), new RpcInvocation());
+        Assertions.assertEquals(1, routeResult.size());
+        Assertions.assertEquals(invoker2, routeResult.get(0));
+
+        // a rule failed to compile is ignored
+        url = URL.valueOf("script://java?type=java").addParameterAndEncoded(Constants.RULE_KEY, "return ;;(");
+        router = new ScriptRouterFactory().getRouter(url);
+        Assertions.assertEquals(invokers, router.route(invokers, invokers.get(0).getUrl(), new RpcInvocation()));
+    }
+
+    @Test
+    public void testRouteCachedJavaExpression() {
+        String rule = ScriptRouterTest.class.getName() + ".EVALUATIONS.incrementAndGet();\n" +
+                "if (\"sayHello\".equals(invocation.getMethodName())) {\n" +
+                "    return invokers.subList(0, 1);\n" +
+                "}\n" +
+                "return invokers;";
+        URL url = URL.valueOf("script://java?type=java&cached=true").addParameterAndEncoded(Constants.RULE_KEY, rule);
+        assertRouteCached(new ScriptRouterFactory().getRouter(url));
+    }
+
+    @Test
+    public void testRouteCachedJavascript() {
+        String script = "function route(invokers, invocation) { " +
+                "	Java.type('" + ScriptRouterTest.class.getName() + "').EVALUATIONS.incrementAndGet(); " +
+                "	return invocation.getMethodName() == 'sayHello' ? invokers.subList(0, 1) : invokers; " +
+                "} " +
+                "route(invokers, invocation) ";
+        assertRouteCached(new ScriptRouterFactory().getRouter(getRouteUrl(script).addParameter(Constants.SCRIPT_CACHED_KEY, true)));
+    }
+
+    private void assertRouteCached(Router router) {
+        List<Invoker<String>> invokers = new ArrayList<Invoker<String>>();
+        invokers.add(new MockInvoker<String>(URL.valueOf("dubbo://10.134.108.1:20880/com.dubbo.HelloService")));
+        invokers.add(new MockInvoker<String>(URL.valueOf("dubbo://10.134.108.2:20880/com.dubbo.HelloService")));
+        EVALUATIONS.set(0);
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals(invokers.subList(0, 1), router.route(invokers, invokers.get(0).getUrl(),
+                    new RpcInvocation("sayHello", new Class<?>[0], new Object[0])));
+            Assertions.assertEquals(invokers, router.route(invokers, invokers.get(0).getUrl(),
+                    new RpcInvocation("sayBye", new Class<?>[0], new Object[0])));
+        }
+        Assertions.assertEquals(2, EVALUATIONS.get());
+
+        // the script is evaluated again for a changed invoker list
+        List<Invoker<String>> changed = new ArrayList<Invoker<String>>(invokers.subList(1, 2));
+        Assertions.assertEquals(changed, router.route(changed, changed.get(0).getUrl(),
+                new RpcInvocation("sayHello", new Class<?>[0], new Object[0])));
+        Assertions.assertEquals(3, EVALUATIONS.get());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.cluster.support;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.rpc.AsyncRpcResult;
+import org.apache.dubbo.rpc.Invocation;
+import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.Result;
+import org.apache.dubbo.rpc.RpcContext;
+import org.apache.dubbo.rpc.RpcException;
+import org.apache.dubbo.rpc.RpcInvocation;
+import org.apache.dubbo.rpc.RpcResult;
+import org.apache.dubbo.rpc.cluster.Directory;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * BroadcastClusterInvokerTest
+ */
+@SuppressWarnings("unchecked")
+public class BroadcastClusterInvokerTest {
+
+    private URL url = URL.valueOf("test://test:11/test?timeout=1000");
+    private List<Invoker<BroadcastClusterInvokerTest>> invokers = new ArrayList<Invoker<BroadcastClusterInvokerTest>>();
+    private Invoker<BroadcastClusterInvokerTest> invoker1 = mock(Invoker.class);
+    private Invoker<BroadcastClusterInvokerTest> invoker2 = mock(Invoker.class);
+    private RpcInvocation invocation = new RpcInvocation();
+    private Directory<BroadcastClusterInvokerTest> dic;
+    private CompletableFuture<Object> future1 = new CompletableFuture<>();
+    private CompletableFuture<Object> future2 = new CompletableFuture<>();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        dic = mock(Directory.class);
+        given(dic.getUrl()).willReturn(url);
+        given(dic.list(invocation)).willReturn(invokers);
+        given(dic.getInterface()).willReturn(BroadcastClusterInvokerTest.class);
+
+        invocation.setMethodName("method1");
+
+        invokers.add(invoker1);
+        invokers.add(invoker2);
+        for (Invoker<BroadcastClusterInvokerTest> invoker : invokers) {
+            given(invoker.getUrl()).willReturn(url);
+            given(invoker.isAvailable()).willReturn(true);
+            given(invoker.getInterface()).willReturn(BroadcastClusterInvokerTest.class);
+        }
+        given(invoker1.invoke(any(Invocation.class))).willAnswer(invocationOnMock -> new AsyncRpcResult(future1));
+        given(invoker2.invoke(any(Invocation.class))).willAnswer(invocationOnMock -> new AsyncRpcResult(future2));
+        RpcContext.removeContext();
+    }
+
+    @Test
+    public void testAllCalledAtOnce() throws Exception {
+        BroadcastClusterInvoker<BroadcastClusterInvokerTest> invoker = new BroadcastClusterInvoker<BroadcastClusterInvokerTest>(dic);
+        invocation.setAttachment("async", "true");
+
+        Result result = invoker.invoke(invocation);
+        Assertions.assertTrue(result instanceof AsyncRpcResult);
+        CompletableFuture<Object> future = RpcContext.getContext().getCompletableFuture();
+
+        // the second provider is called before the first one answers
+        future2.complete("second");
+        Assertions.assertFalse(future.isDone());
+        future1.complete("first");
+        Assertions.assertEquals("second", future.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testFailure() {
+        BroadcastClusterInvoker<BroadcastClusterInvokerTest> invoker = new BroadcastClusterInvoker<BroadcastClusterInvokerTest>(dic);
+        given(invoker1.invoke(any(Invocation.class))).willThrow(new RpcException("first is down"));
+        future2.complete("second");
+
+        try {
+            invoker.invoke(invocation);
+            Assertions.fail();
+        } catch (RpcException expected) {
+            Assertions.assertEquals("first is down", expected.getMessage());
+        }
+    }
+
+    @Test
+    public void testSyncInvoke() {
+        BroadcastClusterInvoker<BroadcastClusterInvokerTest> invoker = new BroadcastClusterInvoker<BroadcastClusterInvokerTest>(dic);
+        given(invoker1.invoke(any(Invocation.class))).willReturn(new RpcResult("first"));
+        future2.complete("second");
+
+        Assertions.assertEquals("second", invoker.invoke(invocation).getValue());
+    }
+}
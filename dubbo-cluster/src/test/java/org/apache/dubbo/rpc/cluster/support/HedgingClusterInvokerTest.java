@@ -0,0 +1,229 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.cluster.support;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.rpc.AsyncRpcResult;
+import org.apache.dubbo.rpc.Invocation;
+import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.Result;
+import org.apache.dubbo.rpc.RpcContext;
+import org.apache.dubbo.rpc.RpcException;
+import org.apache.dubbo.rpc.RpcInvocation;
+import org.apache.dubbo.rpc.RpcResult;
+import org.apache.dubbo.rpc.cluster.Directory;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * HedgingClusterInvokerTest
+ */
+@SuppressWarnings("unchecked")
+public class HedgingClusterInvokerTest {
+
+    private List<Invoker<HedgingClusterInvokerTest>> invokers = new ArrayList<Invoker<HedgingClusterInvokerTest>>();
+    private Invoker<HedgingClusterInvokerTest> invoker1 = mock(Invoker.class);
+    private Invoker<HedgingClusterInvokerTest> invoker2 = mock(Invoker.class);
+    private RpcInvocation invocation = new RpcInvocation();
+    private Directory<HedgingClusterInvokerTest> dic;
+    private List<CompletableFuture<Object>> futures = new CopyOnWriteArrayList<>();
+    private List<CompletableFuture<Result>> resultFutures = new CopyOnWriteArrayList<>();
+    private AtomicInteger calls = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        dic = mock(Directory.class);
+        given(dic.list(invocation)).willReturn(invokers);
+        given(dic.getInterface()).willReturn(HedgingClusterInvokerTest.class);
+
+        invocation.setMethodName("method1");
+
+        invokers.add(invoker1);
+        invokers.add(invoker2);
+        RpcContext.removeContext();
+    }
+
+    private HedgingClusterInvoker<HedgingClusterInvokerTest> newClusterInvoker(String url) {
+        URL u = URL.valueOf(url);
+        given(dic.getUrl()).willReturn(u);
+        for (Invoker<HedgingClusterInvokerTest> invoker : invokers) {
+            given(invoker.getUrl()).willReturn(u);
+            given(invoker.isAvailable()).willReturn(true);
+            given(invoker.getInterface()).willReturn(HedgingClusterInvokerTest.class);
+        }
+        return new HedgingClusterInvoker<HedgingClusterInvokerTest>(dic);
+    }
+
+    /**
+     * every request of the invokers is answered by the next supplier, null for no answer at all
+     */
+    private void answer(Supplier<Object>... answers) {
+        for (Invoker<HedgingClusterInvokerTest> invoker : invokers) {
+            given(invoker.invoke(any(Invocation.class))).willAnswer(invocationOnMock -> {
+                Invocation inv = invocationOnMock.getArgument(0);
+                Assertions.assertEquals("true", inv.getAttachment("async"));
+                Supplier<Object> answer = answers[calls.getAndIncrement()];
+                CompletableFuture<Object> future = new CompletableFuture<>();
+                CompletableFuture<Result> resultFuture = new CompletableFuture<>();
+                futures.add(future);
+                resultFutures.add(resultFuture);
+                Object value = answer == null ? null : answer.get();
+                if (value instanceof RpcException) {
+                    throw (RpcException) value;
+                } else if (value instanceof Throwable) {
+                    future.completeExceptionally((Throwable) value);
+                } else if (value != null) {
+                    resultFuture.complete(new RpcResult(value));
+                    future.complete(value);
+                }
+                return new AsyncRpcResult(future, resultFuture, false);
+            });
+        }
+    }
+
+    @Test
+    public void testNoBackupWhenPrimaryIsFast() {
+        HedgingClusterInvoker<HedgingClusterInvokerTest> invoker = newClusterInvoker("test://test:11/test?hedging.delay=50");
+        answer(() -> "primary", () -> "backup");
+
+        Result ret = invoker.invoke(invocation);
+        Assertions.assertEquals("primary", ret.getValue());
+        Assertions.assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testBackupAfterDelay() throws Exception {
+        HedgingClusterInvoker<HedgingClusterInvokerTest> invoker = newClusterInvoker("test://test:11/test?hedging.delay=20");
+        answer(null, () -> "backup");
+
+        long start = System.currentTimeMillis();
+        Result ret = invoker.invoke(invocation);
+        Assertions.assertEquals("backup", ret.getValue());
+        Assertions.assertTrue(System.currentTimeMillis() - start >= 20);
+        Assertions.assertEquals(2, calls.get());
+        // the loser is cancelled by the thread which completed the call
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!futures.get(0).isDone() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        Assertions.assertTrue(futures.get(0).isCancelled());
+    }
+
+    @Test
+    public void testBackupWhenPrimaryFails() {
+        HedgingClusterInvoker<HedgingClusterInvokerTest> invoker = newClusterInvoker("test://test:11/test");
+        answer(() -> new IllegalStateException("connection reset"), () -> "backup");
+
+        Result ret = invoker.invoke(invocation);
+        Assertions.assertEquals("backup", ret.getValue());
+        Assertions.assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testNoBackupWithoutLatencies() {
+        HedgingClusterInvoker<HedgingClusterInvokerTest> invoker = newClusterInvoker("test://test:11/test?timeout=100");
+        Assertions.assertEquals(-1, invoker.getHedgingDelay("method1"));
+        answer(null, () -> "backup");
+
+        try {
+            invoker.invoke(invocation);
+            Assertions.fail();
+        } catch (RpcException expected) {
+            Assertions.assertTrue(expected.isTimeout());
+        }
+        Assertions.assertEquals(1, calls.get());
+        Assertions.assertTrue(futures.get(0).isCancelled());
+    }
+
+    @Test
+    public void testDelayFromLatencies() {
+        HedgingClusterInvoker<HedgingClusterInvokerTest> invoker = newClusterInvoker("test://test:11/test?hedging.percentile=99");
+        Supplier<Object>[] answers = new Supplier[100];
+        for (int i = 0; i < answers.length; i++) {
+            answers[i] = () -> "primary";
+        }
+        answer(answers);
+        for (int i = 0; i < 50; i++) {
+            invoker.invoke(invocation);
+        }
+        Assertions.assertTrue(invoker.getHedgingDelay("method1") >= 1);
+        Assertions.assertEquals(50, calls.get());
+    }
+
+    @Test
+    public void testInvokeException() {
+        HedgingClusterInvoker<HedgingClusterInvokerTest> invoker = newClusterInvoker("test://test:11/test");
+        answer(() -> new RpcException("primary down"), () -> new IllegalStateException("backup down"));
+
+        try {
+            invoker.invoke(invocation);
+            Assertions.fail();
+        } catch (RpcException expected) {
+            Assertions.assertTrue(expected.getMessage().contains("Failed to hedging invoke method"));
+            Assertions.assertTrue(expected.getMessage().contains("backup down"));
+        }
+        Assertions.assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testAsyncInvoke() throws Exception {
+        HedgingClusterInvoker<HedgingClusterInvokerTest> invoker = newClusterInvoker("test://test:11/test?hedging.delay=10");
+        answer(null, null);
+        invocation.setAttachment("async", "true");
+
+        Result ret = invoker.invoke(invocation);
+        Assertions.assertTrue(ret instanceof AsyncRpcResult);
+        CompletableFuture<Object> future = RpcContext.getContext().getCompletableFuture();
+        Assertions.assertFalse(future.isDone());
+
+        // the backup is sent from the timer
+        long deadline = System.currentTimeMillis() + 5000;
+        while (calls.get() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        Assertions.assertEquals(2, calls.get());
+        resultFutures.get(0).complete(new RpcResult("primary"));
+        futures.get(0).complete("primary");
+        Assertions.assertEquals("primary", future.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testClearRpcContext() {
+        HedgingClusterInvoker<HedgingClusterInvokerTest> invoker = newClusterInvoker("test://test:11/test");
+        answer(() -> "primary");
+        RpcContext.getContext().setAttachment("attach", "value");
+
+        invoker.invoke(invocation);
+        Map<String, String> afterInvoke = RpcContext.getContext().getAttachments();
+        Assertions.assertTrue(afterInvoke != null && afterInvoke.size() == 0, "clear attachment failed!");
+    }
+}
@@ -18,11 +18,15 @@ package org.apache.dubbo.rpc.cluster.support;
 
 import org.apache.dubbo.common.Constants;
 import org.apache.dubbo.common.URL;
+import org.apache.dubbo.rpc.AsyncRpcResult;
 import org.apache.dubbo.rpc.Invocation;
 import org.apache.dubbo.rpc.Invoker;
 import org.apache.dubbo.rpc.Result;
+import org.apache.dubbo.rpc.RpcContext;
+import org.apache.dubbo.rpc.RpcException;
 import org.apache.dubbo.rpc.RpcResult;
 import org.apache.dubbo.rpc.cluster.Directory;
+import org.apache.dubbo.rpc.cluster.directory.StaticDirectory;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -37,6 +41,9 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.BDDMockito.given;
@@ -223,4 +230,141 @@ public class MergeableClusterInvokerTest {
 
     }
 
+    private Invoker groupInvoker(String group, InvocationHandler invoke) {
+        return (Invoker) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Invoker.class}, new InvocationHandler() {
+
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if ("getUrl".equals(method.getName())) {
+                    return url.addParameter(Constants.GROUP_KEY, group);
+                }
+                if ("getInterface".equals(method.getName())) {
+                    return MenuService.class;
+                }
+                if ("invoke".equals(method.getName())) {
+                    return invoke.invoke(proxy, method, args);
+                }
+                return null;
+            }
+        });
+    }
+
+    private MergeableClusterInvoker<MenuService> newGetMenuInvoker(URL url, Invoker... invokers) {
+        given(invocation.getMethodName()).willReturn("getMenu");
+        given(invocation.getParameterTypes()).willReturn(new Class<?>[]{});
+        given(invocation.getArguments()).willReturn(new Object[]{});
+        given(invocation.getAttachments()).willReturn(new HashMap<String, String>());
+        given(directory.list(invocation)).willReturn(new ArrayList(Arrays.asList(invokers)));
+        given(directory.getUrl()).willReturn(url);
+        given(directory.getInterface()).willReturn(MenuService.class);
+        return new MergeableClusterInvoker<MenuService>(directory);
+    }
+
+    @Test
+    public void testFailedGroup() throws Exception {
+        firstInvoker = groupInvoker("first", (proxy, method, args) -> new RpcResult(firstMenu));
+        secondInvoker = groupInvoker("second", (proxy, method, args) -> {
+            throw new RpcException("second is down");
+        });
+
+        mergeableClusterInvoker = newGetMenuInvoker(url.addParameter(Constants.MERGER_KEY, ".merge"), firstInvoker, secondInvoker);
+        try {
+            mergeableClusterInvoker.invoke(invocation);
+            Assertions.fail();
+        } catch (RpcException expected) {
+            Assertions.assertTrue(expected.getMessage().contains("second is down"));
+        }
+
+        mergeableClusterInvoker = newGetMenuInvoker(url.addParameter(Constants.MERGER_KEY, ".merge")
+                .addParameter(Constants.MERGER_PARTIAL_KEY, true), firstInvoker, secondInvoker);
+        Result result = mergeableClusterInvoker.invoke(invocation);
+        assertEquals(firstMenuMap, ((Menu) result.getValue()).getMenus());
+    }
+
+    @Test
+    public void testDeadline() throws Exception {
+        CompletableFuture<Object> pending = new CompletableFuture<>();
+        firstInvoker = groupInvoker("first", (proxy, method, args) -> new RpcResult(firstMenu));
+        secondInvoker = groupInvoker("second", (proxy, method, args) -> new AsyncRpcResult(pending));
+
+        mergeableClusterInvoker = newGetMenuInvoker(url.addParameter(Constants.MERGER_KEY, ".merge")
+                .addParameter(Constants.MERGER_PARTIAL_KEY, true)
+                .addParameter(Constants.MERGER_DEADLINE_KEY, 50), firstInvoker, secondInvoker);
+        long start = System.currentTimeMillis();
+        Result result = mergeableClusterInvoker.invoke(invocation);
+        Assertions.assertTrue(System.currentTimeMillis() - start >= 50);
+        assertEquals(firstMenuMap, ((Menu) result.getValue()).getMenus());
+        Assertions.assertTrue(pending.isCancelled());
+    }
+
+    @Test
+    public void testAsyncMerge() throws Exception {
+        CompletableFuture<Object> first = new CompletableFuture<>();
+        CompletableFuture<Object> second = new CompletableFuture<>();
+        firstInvoker = groupInvoker("first", (proxy, method, args) -> new AsyncRpcResult(first));
+        secondInvoker = groupInvoker("second", (proxy, method, args) -> new AsyncRpcResult(second));
+        given(invocation.getAttachment(Constants.ASYNC_KEY)).willReturn("true");
+
+        mergeableClusterInvoker = newGetMenuInvoker(url.addParameter(Constants.MERGER_KEY, ".merge"), firstInvoker, secondInvoker);
+        Result result = mergeableClusterInvoker.invoke(invocation);
+        Assertions.assertTrue(result instanceof AsyncRpcResult);
+        CompletableFuture<Object> future = RpcContext.getContext().getCompletableFuture();
+        Assertions.assertFalse(future.isDone());
+
+        second.complete(secondMenu);
+        Assertions.assertFalse(future.isDone());
+        first.complete(firstMenu);
+        Menu menu = (Menu) future.get(1, TimeUnit.SECONDS);
+        assertEquals(firstMenuMap.keySet().size() + 1, menu.getMenus().size());
+    }
+
+    @Test
+    public void testRetryInGroup() throws Exception {
+        URL groupUrl = url.addParameter(Constants.GROUP_KEY, "second");
+        AtomicInteger calls = new AtomicInteger();
+        Invoker provider = (Invoker) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Invoker.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getUrl":
+                    return groupUrl;
+                case "getInterface":
+                    return MenuService.class;
+                case "isAvailable":
+                    return true;
+                case "invoke":
+                    if (calls.incrementAndGet() == 1) {
+                        // like a remote invoker, an async invocation fails through its future
+                        CompletableFuture<Object> failed = new CompletableFuture<>();
+                        failed.completeExceptionally(new RpcException("first try fails"));
+                        return new AsyncRpcResult(failed);
+                    }
+                    return new RpcResult(secondMenu);
+                default:
+                    return null;
+            }
+        });
+        firstInvoker = groupInvoker("first", (proxy, method, args) -> new RpcResult(firstMenu));
+        secondInvoker = new FailoverClusterInvoker<MenuService>(
+                new StaticDirectory<MenuService>(groupUrl, Collections.singletonList(provider)));
+
+        mergeableClusterInvoker = newGetMenuInvoker(url.addParameter(Constants.MERGER_KEY, ".merge"), firstInvoker, secondInvoker);
+        Result result = mergeableClusterInvoker.invoke(invocation);
+        Assertions.assertEquals(2, calls.get());
+        assertEquals(firstMenuMap.keySet().size() + 1, ((Menu) result.getValue()).getMenus().size());
+    }
+
+    @Test
+    public void testAsyncGroupInvocation() throws Exception {
+        firstInvoker = groupInvoker("first", (proxy, method, args) -> {
+            Assertions.assertEquals("true", ((Invocation) args[0]).getAttachment(Constants.ASYNC_KEY));
+            return new RpcResult(firstMenu);
+        });
+        secondInvoker = groupInvoker("second", (proxy, method, args) -> {
+            Assertions.assertEquals("true", ((Invocation) args[0]).getAttachment(Constants.ASYNC_KEY));
+            return new RpcResult(secondMenu);
+        });
+
+        mergeableClusterInvoker = newGetMenuInvoker(url.addParameter(Constants.MERGER_KEY, ".merge"), firstInvoker, secondInvoker);
+        Result result = mergeableClusterInvoker.invoke(invocation);
+        assertEquals(firstMenuMap.keySet().size() + 1, ((Menu) result.getValue()).getMenus().size());
+    }
+
 }
@@ -77,6 +77,11 @@ public class Constants {
 
     public static final String CACHE_KEY = "cache";
 
+    /**
+     * identical concurrent calls of a method with this key are sent once and share the result
+     */
+    public static final String COLLAPSE_KEY = "collapse";
+
     public static final String DYNAMIC_KEY = "dynamic";
 
     public static final String DUBBO_PROPERTIES_KEY = "dubbo.properties.file";
@@ -134,6 +139,8 @@ public class Constants {
 
     public static final int DEFAULT_FORKS = 2;
 
+    public static final double DEFAULT_HEDGING_PERCENTILE = 95;
+
     public static final String DEFAULT_THREAD_NAME = "Dubbo";
 
     public static final int DEFAULT_CORE_THREADS = 0;
@@ -257,6 +264,10 @@ public class Constants {
 
     public static final String FORKS_KEY = "forks";
 
+    public static final String HEDGING_DELAY_KEY = "hedging.delay";
+
+    public static final String HEDGING_PERCENTILE_KEY = "hedging.percentile";
+
     public static final String DEFAULT_THREADPOOL = "limited";
 
     public static final String DEFAULT_CLIENT_THREADPOOL = "cached";
@@ -281,12 +292,32 @@ public class Constants {
 
     public static final String PAYLOAD_KEY = "payload";
 
+    /**
+     * the requests of a client with this key are written in batches, which the provider runs in a single task
+     */
+    public static final String BATCH_KEY = "batch";
+
+    /**
+     * microseconds a client waits for more requests before writing a batch
+     */
+    public static final String BATCH_WINDOW_KEY = "batch.window";
+
+    public static final int DEFAULT_BATCH_WINDOW = 100;
+
+    public static final String BATCH_SIZE_KEY = "batch.size";
+
+    public static final int DEFAULT_BATCH_SIZE = 32;
+
     public static final String REFERENCE_FILTER_KEY = "reference.filter";
 
     public static final String INVOKER_LISTENER_KEY = "invoker.listener";
 
     public static final String SERVICE_FILTER_KEY = "service.filter";
 
+    public static final String FILTER_CHAIN_KEY = "filter.chain";
+
+    public static final String COMPILED_FILTER_CHAIN = "compiled";
+
     public static final String EXPORTER_LISTENER_KEY = "exporter.listener";
 
     public static final String ACCESS_LOG_KEY = "accesslog";
@@ -496,6 +527,16 @@ public class Constants {
 
     public static final String MERGER_KEY = "merger";
 
+    /**
+     * merge the results of the groups which answered, instead of failing, when some groups fail or miss the deadline
+     */
+    public static final String MERGER_PARTIAL_KEY = "merger.partial";
+
+    /**
+     * milliseconds to wait for the groups before merging, the timeout when not set
+     */
+    public static final String MERGER_DEADLINE_KEY = "merger.deadline";
+
     /**
      * simple the registry for provider.
      *
@@ -670,6 +711,11 @@ public class Constants {
 
     public static final String DEFAULT_SCRIPT_TYPE_KEY = "javascript";
 
+    /**
+     * whether a script router caches its route result per invoker list and the invocation attributes read by the script
+     */
+    public static final String SCRIPT_CACHED_KEY = "cached";
+
     public static final String STUB_EVENT_KEY = "dubbo.stub.event";
 
     public static final boolean DEFAULT_STUB_EVENT = false;
@@ -701,10 +747,30 @@ public class Constants {
 
     public static final long DEFAULT_TPS_LIMIT_INTERVAL = 60 * 1000;
 
+    public static final String TPS_LIMITER_KEY = "tps.limiter";
+
+    public static final String TPS_LIMIT_CONSUMER_KEY = "tps.consumer";
+
     public static final String DECODE_IN_IO_THREAD_KEY = "decode.in.io";
 
     public static final boolean DEFAULT_DECODE_IN_IO_THREAD = true;
 
+    public static final String DECODE_ZERO_COPY_KEY = "decode.zero.copy";
+
+    public static final boolean DEFAULT_DECODE_ZERO_COPY = false;
+
+    public static final String FLUSH_CONSOLIDATION_KEY = "flush.consolidation";
+
+    public static final boolean DEFAULT_FLUSH_CONSOLIDATION = false;
+
+    public static final String FLUSH_CONSOLIDATION_LIMIT_KEY = "flush.consolidation.limit";
+
+    public static final int DEFAULT_FLUSH_CONSOLIDATION_LIMIT = 256;
+
+    public static final String INFLIGHT_WINDOW_KEY = "inflight.window";
+
+    public static final int DEFAULT_INFLIGHT_WINDOW = 1024;
+
     public static final String INPUT_KEY = "input";
 
     public static final String OUTPUT_KEY = "output";
@@ -717,6 +783,8 @@ public class Constants {
 
     public static final String GENERIC_SERIALIZATION_BEAN = "bean";
 
+    public static final String GENERIC_SERIALIZATION_SCHEMA = "schema";
+
     public static final String DUBBO_IP_TO_REGISTRY = "DUBBO_IP_TO_REGISTRY";
 
     public static final String DUBBO_PORT_TO_REGISTRY = "DUBBO_PORT_TO_REGISTRY";
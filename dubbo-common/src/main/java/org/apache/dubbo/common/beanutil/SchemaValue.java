@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.common.beanutil;
+
+import java.io.Serializable;
+
+/**
+ * A generic argument paired with the schema of the provider's parameter type. The value is kept in the
+ * form it was received, usually parsed JSON made of {@link java.util.Map}, {@link java.util.List} and
+ * scalars, and is converted to the wire form of the real type while it is serialized.
+ */
+public final class SchemaValue implements Serializable {
+
+    private static final long serialVersionUID = -2873146254307896512L;
+
+    private final Object value;
+
+    private final TypeSchema schema;
+
+    public SchemaValue(Object value, TypeSchema schema) {
+        if (schema == null) {
+            throw new IllegalArgumentException("schema is null");
+        }
+        this.value = value;
+        this.schema = schema;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    public TypeSchema getSchema() {
+        return schema;
+    }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.common.beanutil;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Describes how a generic argument maps onto the provider's real type, so that a serializer can write
+ * plain {@link Map}, {@link java.util.List} and scalar input straight in the wire form of that type.
+ *
+ * @see SchemaValue
+ */
+public final class TypeSchema implements Serializable {
+
+    /**
+     * Primitives, their wrappers and any other type written as is, e.g. {@link String} or {@link java.util.Date}.
+     */
+    public static final int TYPE_VALUE = 1;
+    public static final int TYPE_ENUM = 2;
+    public static final int TYPE_COLLECTION = 3;
+    public static final int TYPE_MAP = 4;
+    public static final int TYPE_ARRAY = 5;
+    public static final int TYPE_BEAN = 6;
+    private static final long serialVersionUID = 4521368429185932318L;
+
+    private final String className;
+
+    private final int type;
+
+    private final Map<String, TypeSchema> properties = new LinkedHashMap<String, TypeSchema>();
+
+    private TypeSchema keySchema;
+
+    private TypeSchema itemSchema;
+
+    /**
+     * @param className binary name of the type, as returned by {@link Class#getName()}
+     */
+    public TypeSchema(String className, int type) {
+        if (className == null || className.length() == 0) {
+            throw new IllegalArgumentException("class name is empty");
+        }
+        if (type < TYPE_VALUE || type > TYPE_BEAN) {
+            throw new IllegalArgumentException("type [ " + type + " ] is unsupported");
+        }
+        this.className = className;
+        this.type = type;
+    }
+
+    public boolean isValueType() {
+        return TYPE_VALUE == type;
+    }
+
+    public boolean isEnumType() {
+        return TYPE_ENUM == type;
+    }
+
+    public boolean isCollectionType() {
+        return TYPE_COLLECTION == type;
+    }
+
+    public boolean isMapType() {
+        return TYPE_MAP == type;
+    }
+
+    public boolean isArrayType() {
+        return TYPE_ARRAY == type;
+    }
+
+    public boolean isBeanType() {
+        return TYPE_BEAN == type;
+    }
+
+    public int getType() {
+        return type;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * Properties of a bean type, in the order they are written.
+     */
+    public Map<String, TypeSchema> getProperties() {
+        return properties;
+    }
+
+    public TypeSchema setProperty(String name, TypeSchema schema) {
+        if (!isBeanType()) {
+            throw new IllegalStateException("The schema is not a bean schema");
+        }
+        if (name == null || schema == null) {
+            throw new IllegalArgumentException("Property name or schema is null");
+        }
+        return properties.put(name, schema);
+    }
+
+    /**
+     * Schema of the map keys, or null if the keys are written as is.
+     */
+    public TypeSchema getKeySchema() {
+        return keySchema;
+    }
+
+    public void setKeySchema(TypeSchema keySchema) {
+        this.keySchema = keySchema;
+    }
+
+    /**
+     * Schema of the elements of an array or collection, or of the values of a map; null if they are written as is.
+     */
+    public TypeSchema getItemSchema() {
+        return itemSchema;
+    }
+
+    public void setItemSchema(TypeSchema itemSchema) {
+        this.itemSchema = itemSchema;
+    }
+
+    @Override
+    public String toString() {
+        return "TypeSchema [className=" + className + ", type=" + type + "]";
+    }
+
+}
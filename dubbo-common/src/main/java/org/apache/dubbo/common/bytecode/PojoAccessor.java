@@ -0,0 +1,315 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.common.bytecode;
+
+import org.apache.dubbo.common.logger.Logger;
+import org.apache.dubbo.common.logger.LoggerFactory;
+import org.apache.dubbo.common.utils.ClassHelper;
+import org.apache.dubbo.common.utils.ReflectUtils;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PojoAccessor. Reads and writes the bean properties of a pojo class by generated code, the same properties
+ * {@link org.apache.dubbo.common.utils.PojoUtils} finds by reflection.
+ */
+public abstract class PojoAccessor {
+    private static final Logger logger = LoggerFactory.getLogger(PojoAccessor.class);
+    private static final Map<ClassLoader, ConcurrentMap<Class<?>, PojoAccessor>> ACCESSOR_MAP = new ConcurrentHashMap<>(); //ClassLoader - class accessor map
+    private static final AtomicLong ACCESSOR_CLASS_COUNTER = new AtomicLong(0);
+    private static final PojoAccessor NO_ACCESSOR = new PojoAccessor() {
+        @Override
+        public Object newInstance() {
+            return null;
+        }
+
+        @Override
+        public void getPropertyValues(Object instance, Object[] values) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setPropertyValue(Object instance, int index, Object value) {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    // names of the readable properties, the getters in the order of Class#getMethods() then the public fields
+    private String[] readPropertyNames;
+    private int readFieldIndex;
+    // index of the property written by an unique setter, by each map key making the setter name
+    private Map<String, Integer> writePropertyIndexes;
+    private Class<?>[] writePropertyTypes;
+    private Type[] writePropertyGenericTypes;
+
+    /**
+     * get accessor, cached by the class loader of the class.
+     *
+     * @param c pojo class.
+     * @return accessor instance, null if the class can not be accessed by generated code.
+     */
+    public static PojoAccessor getAccessor(Class<?> c) {
+        ClassLoader cl = c.getClassLoader() != null ? c.getClassLoader() : ClassHelper.getClassLoader(PojoAccessor.class);
+        ConcurrentMap<Class<?>, PojoAccessor> accessors = ACCESSOR_MAP.computeIfAbsent(cl, k -> new ConcurrentHashMap<>());
+        PojoAccessor accessor = accessors.get(c);
+        if (accessor == null) {
+            accessor = accessors.computeIfAbsent(c, k -> makeAccessor(k, cl));
+        }
+        return accessor == NO_ACCESSOR ? null : accessor;
+    }
+
+    private static PojoAccessor makeAccessor(Class<?> c, ClassLoader cl) {
+        if (c.isPrimitive() || c.isArray() || c.isInterface() || ClassGenerator.isDynamicClass(c)) {
+            return NO_ACCESSOR;
+        }
+        // a generated class in the package of a non public class can access it
+        boolean inPackage = !isPublic(c);
+        if (inPackage && (c.getName().startsWith("java.") || c.getName().startsWith("javax."))) {
+            return NO_ACCESSOR;
+        }
+        String name = c.getName();
+
+        StringBuilder c1 = new StringBuilder("public void getPropertyValues(Object o, Object[] v){ ");
+        StringBuilder c2 = new StringBuilder("public void setPropertyValue(Object o, int i, Object v){ ");
+        c1.append(name).append(" w = (").append(name).append(")$1;");
+        c2.append(name).append(" w = (").append(name).append(")$1;");
+
+        List<String> readNames = new ArrayList<>();
+        for (Method m : c.getMethods()) {
+            if (ReflectUtils.isBeanPropertyReadMethod(m)) {
+                if (!isAccessible(m.getDeclaringClass(), c, inPackage)) {
+                    return NO_ACCESSOR;
+                }
+                c1.append(" $2[").append(readNames.size()).append("] = ($w)w.").append(m.getName()).append("();");
+                readNames.add(ReflectUtils.getPropertyNameFromBeanReadMethod(m));
+            }
+        }
+        int readFieldIndex = readNames.size();
+        for (Field f : c.getFields()) {
+            if (ReflectUtils.isPublicInstanceField(f)) {
+                if (!isAccessible(f.getDeclaringClass(), c, inPackage)) {
+                    return NO_ACCESSOR;
+                }
+                c1.append(" $2[").append(readNames.size()).append("] = ($w)w.").append(f.getName()).append(";");
+                readNames.add(f.getName());
+            }
+        }
+        c1.append(" }");
+
+        // only the setters not overloaded, the others are chosen by the value class
+        Map<String, Method> setters = new LinkedHashMap<>();
+        for (Method m : c.getMethods()) {
+            if (m.getName().startsWith("set") && m.getParameterTypes().length == 1) {
+                setters.put(m.getName(), setters.containsKey(m.getName()) ? null : m);
+            }
+        }
+        Map<String, Integer> writeIndexes = new HashMap<>();
+        List<Class<?>> writeTypes = new ArrayList<>();
+        List<Type> writeGenericTypes = new ArrayList<>();
+        for (Method m : setters.values()) {
+            if (m == null || !ReflectUtils.isBeanPropertyWriteMethod(m) || !isAccessible(m.getDeclaringClass(), c, inPackage)
+                    || !isAccessible(m.getParameterTypes()[0], c, inPackage)) {
+                continue;
+            }
+            int index = writeTypes.size();
+            for (String key : getWritePropertyKeys(m.getName())) {
+                writeIndexes.put(key, index);
+            }
+            c2.append(index == 0 ? " switch($2){" : "").append(" case ").append(index).append(": w.").append(m.getName()).append("(")
+                    .append(arg(m.getParameterTypes()[0], "$3")).append("); return;");
+            writeTypes.add(m.getParameterTypes()[0]);
+            writeGenericTypes.add(m.getGenericParameterTypes()[0]);
+        }
+        c2.append(writeTypes.isEmpty() ? "" : " }").append(" throw new ").append(NoSuchPropertyException.class.getName())
+                .append("(\"Not found property index \" + $2 + \" in class ").append(name).append(".\"); }");
+
+        String c3 = "public Object newInstance(){ return null; }";
+        if (!Modifier.isAbstract(c.getModifiers()) && (c.getEnclosingClass() == null || Modifier.isStatic(c.getModifiers()))) {
+            try {
+                Constructor<?> constructor = c.getConstructor();
+                if (isAccessible(constructor.getDeclaringClass(), c, inPackage)) {
+                    c3 = "public Object newInstance(){ return new " + name + "(); }";
+                }
+            } catch (java.lang.NoSuchMethodException e) {
+                // ignore, created by PojoUtils
+            }
+        }
+
+        long id = ACCESSOR_CLASS_COUNTER.getAndIncrement();
+        ClassGenerator cc = ClassGenerator.newInstance(cl);
+        cc.setClassName((inPackage ? name + "$pa" : PojoAccessor.class.getName()) + id);
+        cc.setSuperClass(PojoAccessor.class);
+        cc.addDefaultConstructor();
+        cc.addMethod(c1.toString());
+        cc.addMethod(c2.toString());
+        cc.addMethod(c3);
+        try {
+            PojoAccessor accessor = (PojoAccessor) cc.toClass().newInstance();
+            accessor.readPropertyNames = readNames.toArray(new String[0]);
+            accessor.readFieldIndex = readFieldIndex;
+            accessor.writePropertyIndexes = writeIndexes;
+            accessor.writePropertyTypes = writeTypes.toArray(new Class<?>[0]);
+            accessor.writePropertyGenericTypes = writeGenericTypes.toArray(new Type[0]);
+            return accessor;
+        } catch (Throwable t) {
+            logger.warn("Failed to generate pojo accessor for " + name + ", use reflection instead, cause: " + t.getMessage(), t);
+            return NO_ACCESSOR;
+        } finally {
+            cc.release();
+        }
+    }
+
+    /**
+     * the map keys PojoUtils turns into the setter name, by upper casing the first char.
+     */
+    private static List<String> getWritePropertyKeys(String setterName) {
+        String suffix = setterName.substring(3);
+        List<String> keys = new ArrayList<>(2);
+        keys.add(suffix);
+        String lower = suffix.substring(0, 1).toLowerCase() + suffix.substring(1);
+        if (!lower.equals(suffix)) {
+            keys.add(lower);
+        }
+        keys.removeIf(key -> !setterName.equals("set" + key.substring(0, 1).toUpperCase() + key.substring(1)));
+        return keys;
+    }
+
+    private static boolean isPublic(Class<?> c) {
+        for (Class<?> e = c; e != null; e = e.getEnclosingClass()) {
+            if (!Modifier.isPublic(e.getModifiers())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAccessible(Class<?> type, Class<?> c, boolean inPackage) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        if (type.isPrimitive() || isPublic(type)) {
+            return true;
+        }
+        return inPackage && type.getClassLoader() == c.getClassLoader()
+                && getPackageName(type).equals(getPackageName(c));
+    }
+
+    private static String getPackageName(Class<?> c) {
+        String name = c.getName();
+        int i = name.lastIndexOf('.');
+        return i < 0 ? "" : name.substring(0, i);
+    }
+
+    private static String arg(Class<?> cl, String name) {
+        if (cl.isPrimitive()) {
+            if (cl == Boolean.TYPE) {
+                return "((Boolean)" + name + ").booleanValue()";
+            }
+            if (cl == Byte.TYPE) {
+                return "((Byte)" + name + ").byteValue()";
+            }
+            if (cl == Character.TYPE) {
+                return "((Character)" + name + ").charValue()";
+            }
+            if (cl == Double.TYPE) {
+                return "((Double)" + name + ").doubleValue()";
+            }
+            if (cl == Float.TYPE) {
+                return "((Float)" + name + ").floatValue()";
+            }
+            if (cl == Integer.TYPE) {
+                return "((Integer)" + name + ").intValue()";
+            }
+            if (cl == Long.TYPE) {
+                return "((Long)" + name + ").longValue()";
+            }
+            if (cl == Short.TYPE) {
+                return "((Short)" + name + ").shortValue()";
+            }
+            throw new RuntimeException("Unknown primitive type: " + cl.getName());
+        }
+        return "(" + ReflectUtils.getName(cl) + ")" + name;
+    }
+
+    /**
+     * @return the names of the readable properties, the getters first and then the public fields.
+     */
+    public String[] getReadPropertyNames() {
+        return readPropertyNames;
+    }
+
+    /**
+     * @return the index of the first public field in {@link #getReadPropertyNames()}.
+     */
+    public int getReadFieldIndex() {
+        return readFieldIndex;
+    }
+
+    /**
+     * @param key the map key of the property.
+     * @return the index of the property written by a setter, -1 if there is none or the setter is overloaded.
+     */
+    public int getWritePropertyIndex(String key) {
+        Integer index = writePropertyIndexes.get(key);
+        return index != null ? index : -1;
+    }
+
+    public Class<?> getWritePropertyType(int index) {
+        return writePropertyTypes[index];
+    }
+
+    public Type getWritePropertyGenericType(int index) {
+        return writePropertyGenericTypes[index];
+    }
+
+    /**
+     * create an instance by the public default constructor.
+     *
+     * @return instance, null if there is no accessible default constructor.
+     */
+    public abstract Object newInstance();
+
+    /**
+     * get the values of the readable properties.
+     *
+     * @param instance instance.
+     * @param values   values in the order of {@link #getReadPropertyNames()}.
+     */
+    public abstract void getPropertyValues(Object instance, Object[] values);
+
+    /**
+     * set property value by the setter.
+     *
+     * @param instance instance.
+     * @param index    index from {@link #getWritePropertyIndex(String)}.
+     * @param value    value, already of the property type.
+     */
+    public abstract void setPropertyValue(Object instance, int index, Object value);
+
+}
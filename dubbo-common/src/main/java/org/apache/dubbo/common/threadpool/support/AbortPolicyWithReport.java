@@ -61,6 +61,15 @@ public class AbortPolicyWithReport extends ThreadPoolExecutor.AbortPolicy {
                 threadName, e.getPoolSize(), e.getActiveCount(), e.getCorePoolSize(), e.getMaximumPoolSize(), e.getLargestPoolSize(),
                 e.getTaskCount(), e.getCompletedTaskCount(), e.isShutdown(), e.isTerminated(), e.isTerminating(),
                 url.getProtocol(), url.getIp(), url.getPort());
+        reject(msg);
+    }
+
+    /**
+     * Rejects a task of an executor which is not a {@link ThreadPoolExecutor}, with the same warning and thread dump.
+     *
+     * @param msg the description of the exhausted executor
+     */
+    public void reject(String msg) {
         logger.warn(msg);
         dumpJStack();
         throw new RejectedExecutionException(msg);
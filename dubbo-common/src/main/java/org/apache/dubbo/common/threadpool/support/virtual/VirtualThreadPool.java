@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.common.threadpool.support.virtual;
+
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.logger.Logger;
+import org.apache.dubbo.common.logger.LoggerFactory;
+import org.apache.dubbo.common.threadpool.ThreadPool;
+import org.apache.dubbo.common.threadpool.support.AbortPolicyWithReport;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs every task on a new virtual thread when the JDK supports them, and on cached platform threads otherwise.
+ * The number of tasks running at the same time is capped by the <code>threads</code> parameter, which is unbounded by
+ * default on virtual threads and {@link Constants#DEFAULT_THREADS} on platform threads.
+ *
+ * @see VirtualThreadPoolExecutor
+ */
+public class VirtualThreadPool implements ThreadPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPool.class);
+
+    private static final AtomicBoolean FALLBACK_WARNED = new AtomicBoolean();
+
+    @Override
+    public Executor getExecutor(URL url) {
+        String name = url.getParameter(Constants.THREAD_NAME_KEY, Constants.DEFAULT_THREAD_NAME);
+        int threads;
+        if (VirtualThreadPoolExecutor.isVirtualThreadSupported()) {
+            threads = url.getParameter(Constants.THREADS_KEY, Integer.MAX_VALUE);
+        } else {
+            threads = url.getParameter(Constants.THREADS_KEY, Constants.DEFAULT_THREADS);
+            if (FALLBACK_WARNED.compareAndSet(false, true)) {
+                logger.warn("Virtual threads are not supported by this JVM, the virtual thread pools run their tasks on"
+                        + " platform threads, " + Constants.DEFAULT_THREADS + " at most unless "
+                        + Constants.THREADS_KEY + " is set.");
+            }
+        }
+        int alive = url.getParameter(Constants.ALIVE_KEY, Constants.DEFAULT_ALIVE);
+        return new VirtualThreadPoolExecutor(name, threads <= 0 ? Integer.MAX_VALUE : threads, alive,
+                new AbortPolicyWithReport(name, url));
+    }
+
+}
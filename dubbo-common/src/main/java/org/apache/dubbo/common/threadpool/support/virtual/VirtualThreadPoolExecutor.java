@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.common.threadpool.support.virtual;
+
+import org.apache.dubbo.common.threadlocal.NamedInternalThreadFactory;
+import org.apache.dubbo.common.threadpool.support.AbortPolicyWithReport;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A thread-per-task executor whose concurrency is capped by a semaphore instead of a pool size.
+ * <p>
+ * Virtual threads are looked up reflectively, so that this class still compiles and runs on Java 8, where it falls
+ * back to a cached pool of platform threads behind the same cap.
+ */
+public class VirtualThreadPoolExecutor extends AbstractExecutorService {
+
+    private static final boolean VIRTUAL_THREAD_SUPPORTED = probeVirtualThreads();
+
+    private final String name;
+
+    private final int maxConcurrency;
+
+    private final Semaphore permits;
+
+    private final AbortPolicyWithReport rejectHandler;
+
+    private final ExecutorService executor;
+
+    private final boolean virtual;
+
+    public VirtualThreadPoolExecutor(String name, int maxConcurrency, int alive, AbortPolicyWithReport rejectHandler) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency: " + maxConcurrency + " (expected: > 0)");
+        }
+        this.name = name;
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency);
+        this.rejectHandler = rejectHandler;
+        ExecutorService virtualExecutor = VIRTUAL_THREAD_SUPPORTED ? newVirtualThreadPerTaskExecutor(name) : null;
+        this.virtual = virtualExecutor != null;
+        if (virtualExecutor != null) {
+            this.executor = virtualExecutor;
+        } else {
+            this.executor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, alive, TimeUnit.MILLISECONDS,
+                    new SynchronousQueue<Runnable>(), new NamedInternalThreadFactory(name, true));
+        }
+    }
+
+    /**
+     * @return whether the tasks of the executors created on this JVM run on virtual threads
+     */
+    public static boolean isVirtualThreadSupported() {
+        return VIRTUAL_THREAD_SUPPORTED;
+    }
+
+    private static boolean probeVirtualThreads() {
+        ExecutorService executor = newVirtualThreadPerTaskExecutor("probe");
+        if (executor == null) {
+            return false;
+        }
+        executor.shutdown();
+        return true;
+    }
+
+    /**
+     * @return <code>Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-thread-", 1).factory())</code>,
+     * or null if the JVM has no virtual threads or they are a disabled preview feature
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor(String name) {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, name + "-thread-", 1L);
+            ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory);
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (command == null) {
+            throw new NullPointerException("command == null");
+        }
+        if (!permits.tryAcquire()) {
+            rejectHandler.reject(String.format("Thread pool is EXHAUSTED!" +
+                            " Thread Name: %s, Virtual: %s, Active: %d, max: %d, Executor status:(isShutdown:%s, isTerminated:%s)!",
+                    name, virtual, getActiveCount(), maxConcurrency, isShutdown(), isTerminated()));
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    command.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the number of tasks running or about to run
+     */
+    public int getActiveCount() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * @return whether the tasks run on virtual threads
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    @Override
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return executor.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return executor.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return executor.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return executor.awaitTermination(timeout, unit);
+    }
+
+}
@@ -16,6 +16,7 @@
  */
 package org.apache.dubbo.common.utils;
 
+import org.apache.dubbo.common.bytecode.PojoAccessor;
 import org.apache.dubbo.common.logger.Logger;
 import org.apache.dubbo.common.logger.LoggerFactory;
 
@@ -63,6 +64,8 @@ public class PojoUtils {
     private static final Logger logger = LoggerFactory.getLogger(PojoUtils.class);
     private static final ConcurrentMap<String, Method> NAME_METHODS_CACHE = new ConcurrentHashMap<String, Method>();
     private static final ConcurrentMap<Class<?>, ConcurrentMap<String, Field>> CLASS_FIELD_CACHE = new ConcurrentHashMap<Class<?>, ConcurrentMap<String, Field>>();
+    // whether the bean properties are accessed by generated code instead of reflection
+    private static final boolean GENERATED_ACCESSOR = Boolean.parseBoolean(System.getProperty("dubbo.pojo.generated.accessor", "true"));
 
     public static Object[] generalize(Object[] objs) {
         Object[] dests = new Object[objs.length];
@@ -164,6 +167,27 @@ public class PojoUtils {
         Map<String, Object> map = new HashMap<String, Object>();
         history.put(pojo, map);
         map.put("class", pojo.getClass().getName());
+        PojoAccessor accessor = GENERATED_ACCESSOR ? PojoAccessor.getAccessor(pojo.getClass()) : null;
+        if (accessor != null) {
+            String[] names = accessor.getReadPropertyNames();
+            Object[] values = new Object[names.length];
+            try {
+                accessor.getPropertyValues(pojo, values);
+            } catch (Exception e) {
+                throw new RuntimeException(e.getMessage(), e);
+            }
+            int fieldIndex = accessor.getReadFieldIndex();
+            for (int i = 0; i < fieldIndex; i++) {
+                map.put(names[i], generalize(values[i], history));
+            }
+            // public field
+            for (int i = fieldIndex; i < names.length; i++) {
+                if (values[i] != null && !map.containsKey(names[i])) {
+                    map.put(names[i], generalize(values[i], history));
+                }
+            }
+            return map;
+        }
         for (Method method : pojo.getClass().getMethods()) {
             if (ReflectUtils.isBeanPropertyReadMethod(method)) {
                 try {
@@ -442,13 +466,20 @@ public class PojoUtils {
                 history.put(pojo, dest);
                 return dest;
             } else {
-                Object dest = newInstance(type);
+                PojoAccessor accessor = GENERATED_ACCESSOR ? PojoAccessor.getAccessor(type) : null;
+                Object dest = accessor != null ? accessor.newInstance() : null;
+                if (dest == null) {
+                    dest = newInstance(type);
+                }
                 history.put(pojo, dest);
                 for (Map.Entry<Object, Object> entry : map.entrySet()) {
                     Object key = entry.getKey();
                     if (key instanceof String) {
                         String name = (String) key;
                         Object value = entry.getValue();
+                        if (value != null && accessor != null && setPropertyValue(accessor, dest, name, value, history)) {
+                            continue;
+                        }
                         if (value != null) {
                             Method method = getSetterMethod(dest.getClass(), name, value.getClass());
                             Field field = getField(dest.getClass(), name);
@@ -496,6 +527,33 @@ public class PojoUtils {
         return pojo;
     }
 
+    /**
+     * set the property by the generated setter, unless a primitive setter gets a value of another type, which
+     * reflection converts.
+     *
+     * @return whether the property is set
+     */
+    private static boolean setPropertyValue(PojoAccessor accessor, Object dest, String name, Object value, Map<Object, Object> history) {
+        int index = accessor.getWritePropertyIndex(name);
+        if (index < 0) {
+            return false;
+        }
+        Class<?> type = accessor.getWritePropertyType(index);
+        value = realize0(value, type, accessor.getWritePropertyGenericType(index), history);
+        if (type.isPrimitive() && (value == null || ReflectUtils.getBoxedClass(type) != value.getClass())) {
+            return false;
+        }
+        try {
+            accessor.setPropertyValue(dest, index, value);
+        } catch (Exception e) {
+            String exceptionDescription = "Failed to set pojo " + dest.getClass().getSimpleName() + " property " + name
+                    + " value " + value + "(" + (value == null ? null : value.getClass()) + "), cause: " + e.getMessage();
+            logger.error(exceptionDescription, e);
+            throw new RuntimeException(exceptionDescription, e);
+        }
+        return true;
+    }
+
     /**
      * Get parameterized type
      *
@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.common.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-memory histogram of the values recorded in a sliding time window. (ThreadSafe)
+ * <p>
+ * The window is divided into slices which are reused round robin, a slice is cleared by the first record after its
+ * time has rolled over, so the values older than the window are dropped without any background task. Values are
+ * counted in log-linear buckets, four per power of two, which bounds the relative error of a quantile to 25%.
+ * Records racing with the clearing of a slice may be lost.
+ */
+public class SlidingWindowHistogram {
+
+    private static final int SUB_BUCKET_BITS = 2;
+
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    // values are capped below 2^32
+    private static final int VALUE_BITS = 32;
+
+    static final int BUCKETS = (VALUE_BITS - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final long sliceMillis;
+
+    private final int slices;
+
+    // the time of each slice, in slice units
+    private final AtomicLongArray epochs;
+
+    private final AtomicLongArray counts;
+
+    /**
+     * @param windowMillis the length of the window
+     * @param slices       the number of slices the window rolls by
+     */
+    public SlidingWindowHistogram(long windowMillis, int slices) {
+        if (windowMillis <= 0 || slices <= 0 || windowMillis < slices) {
+            throw new IllegalArgumentException("Illegal window " + windowMillis + "ms with " + slices + " slices");
+        }
+        this.sliceMillis = windowMillis / slices;
+        this.slices = slices;
+        this.epochs = new AtomicLongArray(slices);
+        this.counts = new AtomicLongArray(slices * BUCKETS);
+    }
+
+    /**
+     * Record a value at the current time.
+     *
+     * @param value a value, negative values are counted as 0
+     */
+    public void record(long value) {
+        record(value, System.currentTimeMillis());
+    }
+
+    void record(long value, long now) {
+        long epoch = now / sliceMillis;
+        int slice = (int) (epoch % slices);
+        long current = epochs.get(slice);
+        if (current != epoch) {
+            if (current > epoch) {
+                // a late record for a slice which has been reused
+                return;
+            }
+            if (epochs.compareAndSet(slice, current, epoch)) {
+                for (int i = slice * BUCKETS, end = i + BUCKETS; i < end; i++) {
+                    counts.set(i, 0);
+                }
+            }
+        }
+        counts.incrementAndGet(slice * BUCKETS + bucket(value));
+    }
+
+    /**
+     * @return the number of values recorded in the window
+     */
+    public long getCount() {
+        return getCount(System.currentTimeMillis());
+    }
+
+    long getCount(long now) {
+        long oldest = now / sliceMillis - slices + 1;
+        long count = 0;
+        for (int slice = 0; slice < slices; slice++) {
+            if (epochs.get(slice) >= oldest) {
+                for (int i = slice * BUCKETS, end = i + BUCKETS; i < end; i++) {
+                    count += counts.get(i);
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Get the value below which the given fraction of the values recorded in the window falls, e.g. 0.99 for p99.
+     *
+     * @param quantile between 0 and 1
+     * @return the highest value of the bucket holding the quantile, 0 if nothing has been recorded in the window
+     */
+    public long getValueAtQuantile(double quantile) {
+        return getValueAtQuantile(quantile, System.currentTimeMillis());
+    }
+
+    long getValueAtQuantile(double quantile, long now) {
+        long count = getCount(now);
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(Math.max(quantile, 0), 1) * count));
+        long oldest = now / sliceMillis - slices + 1;
+        long seen = 0;
+        int last = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            long bucketCount = 0;
+            for (int slice = 0; slice < slices; slice++) {
+                if (epochs.get(slice) >= oldest) {
+                    bucketCount += counts.get(slice * BUCKETS + bucket);
+                }
+            }
+            if (bucketCount > 0) {
+                seen += bucketCount;
+                last = bucket;
+                if (seen >= rank) {
+                    return highestValue(bucket);
+                }
+            }
+        }
+        // slices were cleared while scanning
+        return highestValue(last);
+    }
+
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return value <= 0 ? 0 : (int) value;
+        }
+        if (value >= 1L << VALUE_BITS) {
+            return BUCKETS - 1;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    static long highestValue(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.common.bytecode;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PojoAccessorTest {
+    @Test
+    public void testReadAndWrite() {
+        PojoAccessor accessor = PojoAccessor.getAccessor(Bean.class);
+        assertNotNull(accessor);
+        assertSame(accessor, PojoAccessor.getAccessor(Bean.class));
+
+        Bean bean = (Bean) accessor.newInstance();
+        bean.setName("dubbo");
+        bean.setAge(7);
+        bean.tags = Arrays.asList("a", "b");
+
+        String[] names = accessor.getReadPropertyNames();
+        Object[] values = new Object[names.length];
+        accessor.getPropertyValues(bean, values);
+        assertEquals(3, accessor.getReadFieldIndex());
+        assertEquals("tags", names[3]);
+        assertEquals(bean.tags, values[3]);
+        for (int i = 0; i < 3; i++) {
+            if ("name".equals(names[i])) {
+                assertEquals("dubbo", values[i]);
+            } else if ("age".equals(names[i])) {
+                assertEquals(7, values[i]);
+            } else {
+                assertEquals("valid", names[i]);
+                assertEquals(true, values[i]);
+            }
+        }
+
+        int index = accessor.getWritePropertyIndex("age");
+        assertEquals(index, accessor.getWritePropertyIndex("Age"));
+        assertEquals(int.class, accessor.getWritePropertyType(index));
+        accessor.setPropertyValue(bean, index, 8);
+        assertEquals(8, bean.getAge());
+        index = accessor.getWritePropertyIndex("name");
+        accessor.setPropertyValue(bean, index, "changed");
+        assertEquals("changed", bean.getName());
+
+        // the overloaded setter is left to reflection
+        assertEquals(-1, accessor.getWritePropertyIndex("value"));
+        assertEquals(-1, accessor.getWritePropertyIndex("tags"));
+    }
+
+    @Test
+    public void testNonPublicClass() {
+        PojoAccessor accessor = PojoAccessor.getAccessor(PrivateBean.class);
+        assertNotNull(accessor);
+        PrivateBean bean = (PrivateBean) accessor.newInstance();
+        accessor.setPropertyValue(bean, accessor.getWritePropertyIndex("id"), 3L);
+        Object[] values = new Object[1];
+        accessor.getPropertyValues(bean, values);
+        assertEquals(3L, values[0]);
+        assertTrue(accessor.getClass().getName().startsWith(PrivateBean.class.getName()));
+    }
+
+    @Test
+    public void testNoDefaultConstructor() {
+        PojoAccessor accessor = PojoAccessor.getAccessor(NoDefaultConstructorBean.class);
+        assertNotNull(accessor);
+        assertNull(accessor.newInstance());
+        assertNull(PojoAccessor.getAccessor(List.class));
+    }
+
+    public static class Bean {
+        public List<String> tags;
+        private String name;
+        private int age;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+
+        public boolean isValid() {
+            return true;
+        }
+
+        public void setValue(String value) {
+        }
+
+        public void setValue(Integer value) {
+        }
+    }
+
+    private static class PrivateBean {
+        private long id;
+
+        public PrivateBean() {
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+    }
+
+    public static class NoDefaultConstructorBean {
+        private final String name;
+
+        public NoDefaultConstructorBean(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.common.threadpool.support.virtual;
+
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.extension.ExtensionLoader;
+import org.apache.dubbo.common.threadpool.ThreadPool;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+
+public class VirtualThreadPoolTest {
+
+    @Test
+    public void getExecutor() throws Exception {
+        URL url = URL.valueOf("dubbo://10.20.130.230:20880/context/path?" +
+                Constants.THREADPOOL_KEY + "=virtual&" +
+                Constants.THREAD_NAME_KEY + "=demo");
+        ThreadPool threadPool = ExtensionLoader.getExtensionLoader(ThreadPool.class).getAdaptiveExtension();
+        ExecutorService executor = (ExecutorService) threadPool.getExecutor(url);
+        assertThat(executor, instanceOf(VirtualThreadPoolExecutor.class));
+        // the platform threads of the fallback are capped like a fixed pool, unless the threads are set
+        assertThat(((VirtualThreadPoolExecutor) executor).getMaxConcurrency(),
+                is(VirtualThreadPoolExecutor.isVirtualThreadSupported() ? Integer.MAX_VALUE : Constants.DEFAULT_THREADS));
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        final String[] threadName = new String[1];
+        executor.execute(() -> {
+            threadName[0] = Thread.currentThread().getName();
+            latch.countDown();
+        });
+        Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertThat(threadName[0], startsWith("demo"));
+
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void rejectWhenExhausted() throws Exception {
+        URL url = URL.valueOf("dubbo://10.20.130.230:20880/context/path?" +
+                Constants.THREADS_KEY + "=1&" +
+                Constants.DUMP_DIRECTORY + "=" + System.getProperty("java.io.tmpdir"));
+        VirtualThreadPoolExecutor executor = (VirtualThreadPoolExecutor) new VirtualThreadPool().getExecutor(url);
+
+        final CountDownLatch running = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            running.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Assertions.assertTrue(running.await(5, TimeUnit.SECONDS));
+        assertThat(executor.getActiveCount(), is(1));
+        Assertions.assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {
+        }));
+
+        release.countDown();
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertThat(executor.getActiveCount(), is(0));
+    }
+}
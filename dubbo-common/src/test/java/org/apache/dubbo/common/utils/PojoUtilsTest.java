@@ -676,6 +676,21 @@ public class PojoUtilsTest {
         assertEquals(dateTimeStr, new SimpleDateFormat(dateFormat[0]).format(timestamp));
     }
 
+    @Test
+    public void testRealizePrimitiveProperty() throws Exception {
+        Map<String, Object> map = new HashMap<String, Object>();
+        map.put("name", "dubbo");
+        map.put("age", (short) 8);
+        map.put("oneByte", (byte) 3);
+        map.put("value", Arrays.asList("v1", "v2"));
+
+        Person person = (Person) PojoUtils.realize(map, Person.class);
+        assertEquals("dubbo", person.getName());
+        assertEquals(8, person.getAge());
+        assertEquals(3, person.getOneByte());
+        assertArrayEquals(new String[]{"v1", "v2"}, person.getValue());
+    }
+
     public enum Day {
         SUNDAY, MONDAY, TUESDAY, WEDNESDAY, THURSDAY, FRIDAY, SATURDAY
     }
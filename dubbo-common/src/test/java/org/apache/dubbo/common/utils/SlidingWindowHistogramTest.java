@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.common.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class SlidingWindowHistogramTest {
+
+    @Test
+    public void testBuckets() {
+        long previous = -1;
+        for (int bucket = 0; bucket < SlidingWindowHistogram.BUCKETS; bucket++) {
+            long highest = SlidingWindowHistogram.highestValue(bucket);
+            Assertions.assertEquals(bucket, SlidingWindowHistogram.bucket(previous + 1));
+            Assertions.assertEquals(bucket, SlidingWindowHistogram.bucket(highest));
+            previous = highest;
+        }
+        Assertions.assertEquals(0, SlidingWindowHistogram.bucket(-1));
+        Assertions.assertEquals(SlidingWindowHistogram.BUCKETS - 1, SlidingWindowHistogram.bucket(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testQuantile() {
+        SlidingWindowHistogram histogram = new SlidingWindowHistogram(60000, 4);
+        long now = 1000000;
+        Assertions.assertEquals(0, histogram.getValueAtQuantile(0.99, now));
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i, now);
+        }
+        Assertions.assertEquals(1000, histogram.getCount(now));
+        assertWithin(500, histogram.getValueAtQuantile(0.5, now));
+        assertWithin(990, histogram.getValueAtQuantile(0.99, now));
+        assertWithin(999, histogram.getValueAtQuantile(0.999, now));
+        Assertions.assertEquals(1, histogram.getValueAtQuantile(0, now));
+    }
+
+    @Test
+    public void testWindowRollsOff() {
+        SlidingWindowHistogram histogram = new SlidingWindowHistogram(60000, 4);
+        long now = 1000000;
+        for (int i = 0; i < 100; i++) {
+            histogram.record(1000, now);
+        }
+        now += 15000;
+        for (int i = 0; i < 100; i++) {
+            histogram.record(10, now);
+        }
+        Assertions.assertEquals(200, histogram.getCount(now));
+        assertWithin(1000, histogram.getValueAtQuantile(0.99, now));
+
+        // the first slice leaves the window
+        now += 45000;
+        Assertions.assertEquals(100, histogram.getCount(now));
+        assertWithin(10, histogram.getValueAtQuantile(0.99, now));
+
+        // and is reused
+        histogram.record(100, now);
+        Assertions.assertEquals(101, histogram.getCount(now));
+        assertWithin(100, histogram.getValueAtQuantile(1, now));
+
+        now += 60000;
+        Assertions.assertEquals(0, histogram.getCount(now));
+        Assertions.assertEquals(0, histogram.getValueAtQuantile(0.5, now));
+    }
+
+    private void assertWithin(long expected, long actual) {
+        Assertions.assertTrue(actual >= expected && actual <= expected * 1.25, "expected about " + expected + ", but " + actual);
+    }
+}
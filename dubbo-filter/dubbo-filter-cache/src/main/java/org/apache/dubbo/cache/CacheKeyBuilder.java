@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.cache;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.extension.Adaptive;
+import org.apache.dubbo.common.extension.SPI;
+import org.apache.dubbo.rpc.Invocation;
+
+/**
+ * Builds the key a method's return value is cached against from the invocation. The builder is chosen with the
+ * <b>cache.key</b> parameter of the method, an entry needs to be added in org.apache.dubbo.cache.CacheKeyBuilder file
+ * in a classpath META-INF sub directories.
+ * <pre>
+ *     e.g. &lt;dubbo:service cache="tinylfu"&gt; &lt;dubbo:parameter key="cache.key" value="arguments" /&gt;
+ * </pre>
+ *
+ * @see org.apache.dubbo.cache.support.key.StringCacheKeyBuilder
+ * @see org.apache.dubbo.cache.support.key.ArgumentsCacheKeyBuilder
+ */
+@SPI("string")
+public interface CacheKeyBuilder {
+
+    /**
+     * @param url        url of the invoker
+     * @param invocation the invocation being cached
+     * @return the key, with consistent equals and hashCode
+     */
+    @Adaptive("cache.key")
+    Object build(URL url, Invocation invocation);
+
+}
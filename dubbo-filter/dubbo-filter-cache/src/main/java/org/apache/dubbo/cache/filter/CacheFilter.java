@@ -18,6 +18,7 @@ package org.apache.dubbo.cache.filter;
 
 import org.apache.dubbo.cache.Cache;
 import org.apache.dubbo.cache.CacheFactory;
+import org.apache.dubbo.cache.CacheKeyBuilder;
 import org.apache.dubbo.common.Constants;
 import org.apache.dubbo.common.extension.Activate;
 import org.apache.dubbo.common.utils.ConfigUtils;
@@ -38,6 +39,8 @@ import java.io.Serializable;
  * <li>threadlocal</li>
  * <li>jcache</li>
  * <li>expiring</li>
+ * <li>tinylfu</li>
+ * <li>offheap</li>
  *
  * <pre>
  *   e.g. 1)&lt;dubbo:service cache="lru" /&gt;
@@ -59,6 +62,11 @@ import java.io.Serializable;
  * @see org.apache.dubbo.cache.support.threadlocal.ThreadLocalCache
  * @see org.apache.dubbo.cache.support.expiring.ExpiringCacheFactory
  * @see org.apache.dubbo.cache.support.expiring.ExpiringCache
+ * @see org.apache.dubbo.cache.support.tinylfu.TinyLfuCacheFactory
+ * @see org.apache.dubbo.cache.support.tinylfu.TinyLfuCache
+ * @see org.apache.dubbo.cache.support.offheap.OffHeapCacheFactory
+ * @see org.apache.dubbo.cache.support.offheap.OffHeapCache
+ * @see org.apache.dubbo.cache.CacheKeyBuilder
  *
  */
 @Activate(group = {Constants.CONSUMER, Constants.PROVIDER}, value = Constants.CACHE_KEY)
@@ -66,6 +74,8 @@ public class CacheFilter implements Filter {
 
     private CacheFactory cacheFactory;
 
+    private CacheKeyBuilder cacheKeyBuilder;
+
     /**
      * Dubbo will populate and set the cache factory instance based on service/method/consumer/provider configured
      * cache attribute value. Dubbo will search for the class name implementing configured <b>cache</b> in file org.apache.dubbo.cache.CacheFactory
@@ -77,6 +87,16 @@ public class CacheFilter implements Filter {
         this.cacheFactory = cacheFactory;
     }
 
+    /**
+     * Dubbo will populate and set the key builder based on the configured <b>cache.key</b> attribute value, the
+     * arguments joined into a string by default.
+     *
+     * @param cacheKeyBuilder instance of CacheKeyBuilder based on <b>cache.key</b> type
+     */
+    public void setCacheKeyBuilder(CacheKeyBuilder cacheKeyBuilder) {
+        this.cacheKeyBuilder = cacheKeyBuilder;
+    }
+
     /**
      * If cache is configured, dubbo will invoke method on each method call. If cache value is returned by cache store
      * then it will return otherwise call the remote method and return value. If remote method's return valeu has error
@@ -91,7 +111,8 @@ public class CacheFilter implements Filter {
         if (cacheFactory != null && ConfigUtils.isNotEmpty(invoker.getUrl().getMethodParameter(invocation.getMethodName(), Constants.CACHE_KEY))) {
             Cache cache = cacheFactory.getCache(invoker.getUrl(), invocation);
             if (cache != null) {
-                String key = StringUtils.toArgumentString(invocation.getArguments());
+                Object key = cacheKeyBuilder != null ? cacheKeyBuilder.build(invoker.getUrl(), invocation)
+                        : StringUtils.toArgumentString(invocation.getArguments());
                 Object value = cache.get(key);
                 if (value != null) {
                     if (value instanceof ValueWrapper) {
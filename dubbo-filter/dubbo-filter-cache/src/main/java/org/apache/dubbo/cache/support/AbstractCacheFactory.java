@@ -51,12 +51,12 @@ public abstract class AbstractCacheFactory implements CacheFactory {
      */
     @Override
     public Cache getCache(URL url, Invocation invocation) {
-        url = url.addParameter(Constants.METHOD_KEY, invocation.getMethodName());
-        String key = url.toFullString();
+        URL methodUrl = url.addParameter(Constants.METHOD_KEY, invocation.getMethodName());
+        String key = methodUrl.toFullString();
         Cache cache = caches.get(key);
         if (cache == null) {
-            caches.put(key, createCache(url));
-            cache = caches.get(key);
+            // stores may hold large buffers, never create one which is thrown away
+            cache = caches.computeIfAbsent(key, k -> createCache(methodUrl));
         }
         return cache;
     }
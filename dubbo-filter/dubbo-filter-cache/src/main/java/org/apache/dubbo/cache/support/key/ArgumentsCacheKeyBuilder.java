@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.cache.support.key;
+
+import org.apache.dubbo.cache.CacheKeyBuilder;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.rpc.Invocation;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Keys on the argument array itself, compared with {@link Arrays#deepEquals(Object[], Object[])}, so a lookup
+ * allocates a single small object. The arguments must implement equals and hashCode and must not be modified after
+ * the call.
+ */
+public class ArgumentsCacheKeyBuilder implements CacheKeyBuilder {
+
+    public static final String NAME = "arguments";
+
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+
+    @Override
+    public Object build(URL url, Invocation invocation) {
+        Object[] arguments = invocation.getArguments();
+        return new ArgumentsKey(arguments == null ? NO_ARGUMENTS : arguments);
+    }
+
+    static final class ArgumentsKey implements Serializable {
+
+        private static final long serialVersionUID = 4016382436281497620L;
+
+        private final Object[] arguments;
+
+        private final int hash;
+
+        ArgumentsKey(Object[] arguments) {
+            this.arguments = arguments;
+            this.hash = Arrays.deepHashCode(arguments);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ArgumentsKey)) {
+                return false;
+            }
+            ArgumentsKey other = (ArgumentsKey) obj;
+            return hash == other.hash && Arrays.deepEquals(arguments, other.arguments);
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.deepToString(arguments);
+        }
+    }
+}
@@ -0,0 +1,364 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.cache.support.offheap;
+
+import org.apache.dubbo.cache.Cache;
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.extension.ExtensionLoader;
+import org.apache.dubbo.common.io.UnsafeByteArrayInputStream;
+import org.apache.dubbo.common.io.UnsafeByteArrayOutputStream;
+import org.apache.dubbo.common.logger.Logger;
+import org.apache.dubbo.common.logger.LoggerFactory;
+import org.apache.dubbo.common.serialize.ObjectOutput;
+import org.apache.dubbo.common.serialize.Serialization;
+import org.apache.dubbo.common.utils.StringUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * This class stores the serialized cache values out of the java heap. If a service,method,consumer or provider is
+ * configured with key <b>cache</b> with value <b>offheap</b>, dubbo initializes the instance of this class using
+ * {@link OffHeapCacheFactory} to store method's return values.
+ * <pre>
+ *     e.g. 1) &lt;dubbo:service cache="offheap" cache.capacity="1073741824" /&gt;
+ *          2) &lt;dubbo:consumer cache="offheap" cache.directory="/data/dubbo-cache" /&gt;
+ * </pre>
+ * <li>It uses url's <b>cache.capacity</b> value as the number of bytes of the store, 64M by default.</li>
+ * <li>It allocates direct buffers, which count against -XX:MaxDirectMemorySize, unless url's <b>cache.directory</b>
+ * is set, in which case the store is a memory mapped file in that directory.</li>
+ * <li>Values are written with the url's <b>serialization</b>, hessian2 by default, and only read back on a hit.</li>
+ * <p>
+ * The store is a ring of segments written in sequence. When the ring is full the oldest segment is reclaimed like a
+ * clock hand: the entries read since they were written get a second chance and are moved to the current segment,
+ * the others are evicted. Only the keys and the location of the values are kept on the heap.
+ * <p>
+ * Reads do not lock, they copy the bytes and validate that the segment was not reclaimed meanwhile. Writes are
+ * serialized by a single lock, which is only held to copy the bytes.
+ *
+ * @see Cache
+ * @see OffHeapCacheFactory
+ * @see org.apache.dubbo.cache.support.AbstractCacheFactory
+ * @see org.apache.dubbo.cache.filter.CacheFilter
+ */
+public class OffHeapCache implements Cache {
+
+    private static final Logger logger = LoggerFactory.getLogger(OffHeapCache.class);
+
+    private static final long DEFAULT_CAPACITY = 64L * 1024 * 1024;
+
+    private static final int MAX_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private static final int SEGMENTS_PER_CAPACITY = 16;
+
+    private final URL url;
+
+    private final Serialization serialization;
+
+    private final ConcurrentHashMap<Object, Entry> index = new ConcurrentHashMap<>();
+
+    private final Segment[] segments;
+
+    private final int segmentSize;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    /**
+     * the segment being written, the next one is always empty and the one after is the oldest; guarded by writeLock
+     */
+    private int head;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    public OffHeapCache(URL url) {
+        this(url, url.getParameter("cache.capacity", DEFAULT_CAPACITY), url.getParameter("cache.directory"));
+    }
+
+    /**
+     * @param url       url of the method, giving the serialization
+     * @param capacity  the number of bytes to allocate
+     * @param directory the directory to map the store in, direct buffers if empty
+     */
+    public OffHeapCache(URL url, long capacity, String directory) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity <= 0");
+        }
+        this.url = url;
+        this.serialization = ExtensionLoader.getExtensionLoader(Serialization.class).getExtension(
+                url.getParameter(Constants.SERIALIZATION_KEY, Constants.DEFAULT_REMOTING_SERIALIZATION));
+        this.segmentSize = (int) Math.min(MAX_SEGMENT_SIZE, Math.max(1, capacity / SEGMENTS_PER_CAPACITY));
+        int count = (int) Math.max(3, (capacity + segmentSize - 1) / segmentSize);
+        ByteBuffer[] buffers = allocate(count, segmentSize, directory);
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(buffers[i]);
+        }
+    }
+
+    private static ByteBuffer[] allocate(int count, int size, String directory) {
+        ByteBuffer[] buffers = new ByteBuffer[count];
+        if (StringUtils.isEmpty(directory)) {
+            for (int i = 0; i < count; i++) {
+                buffers[i] = ByteBuffer.allocateDirect(size);
+            }
+            return buffers;
+        }
+        try {
+            File dir = new File(directory);
+            if (!dir.exists() && !dir.mkdirs()) {
+                throw new IOException("Failed to create directory " + dir);
+            }
+            File file = File.createTempFile("dubbo-cache-", ".data", dir);
+            file.deleteOnExit();
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw"); FileChannel channel = raf.getChannel()) {
+                for (int i = 0; i < count; i++) {
+                    buffers[i] = channel.map(FileChannel.MapMode.READ_WRITE, (long) i * size, size);
+                }
+            }
+            return buffers;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to map cache file in " + directory + ", cause: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * API to store value against a key. The value is serialized in the calling thread, values which fail to
+     * serialize or are larger than half a segment are not stored.
+     * @param key  Unique identifier for the object being store.
+     * @param value Value getting store
+     */
+    @Override
+    public void put(Object key, Object value) {
+        if (key == null || value == null) {
+            return;
+        }
+        UnsafeByteArrayOutputStream bytes = new UnsafeByteArrayOutputStream(256);
+        try {
+            ObjectOutput output = serialization.serialize(url, bytes);
+            output.writeObject(value);
+            output.flushBuffer();
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to serialize cache value of " + url.getServiceKey() + ", cause: " + e.getMessage(), e);
+            index.remove(key);
+            return;
+        }
+        if (bytes.size() > segmentSize / 2) {
+            index.remove(key);
+            return;
+        }
+        writeLock.lock();
+        try {
+            Entry entry = allocate(key, bytes.size());
+            entry.segment.write(entry.offset, bytes.toByteBuffer());
+            index.put(key, entry);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * API to return stored value using a key, deserialized on every hit.
+     * @param key Unique identifier for cache lookup
+     * @return Return stored object against key
+     */
+    @Override
+    public Object get(Object key) {
+        if (key == null) {
+            return null;
+        }
+        // a second attempt in case the entry moved while it was read
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Entry entry = index.get(key);
+            if (entry == null) {
+                break;
+            }
+            byte[] bytes = entry.read();
+            if (bytes == null) {
+                continue;
+            }
+            if (!entry.referenced) {
+                entry.referenced = true;
+            }
+            try {
+                Object value = serialization.deserialize(url, new UnsafeByteArrayInputStream(bytes)).readObject();
+                hits.increment();
+                return value;
+            } catch (IOException | ClassNotFoundException | RuntimeException e) {
+                logger.warn("Failed to deserialize cache value of " + url.getServiceKey() + ", cause: " + e.getMessage(), e);
+                index.remove(key, entry);
+                break;
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public long size() {
+        return index.size();
+    }
+
+    public long getCapacity() {
+        return (long) segmentSize * segments.length;
+    }
+
+    /**
+     * reserve length bytes in the head segment, moving to the next segment if needed; under the write lock
+     */
+    private Entry allocate(Object key, int length) {
+        Segment segment = segments[head];
+        if (segment.position + length > segmentSize) {
+            head = (head + 1) % segments.length;
+            segment = segments[head];
+            reclaim(segments[(head + 1) % segments.length], segment);
+        }
+        Entry entry = new Entry(key, segment, segment.generation, segment.position, length);
+        segment.position += length;
+        segment.entries.add(entry);
+        return entry;
+    }
+
+    /**
+     * empty the oldest segment, keeping the entries read since they were written while they fit in half of the
+     * head segment
+     */
+    private void reclaim(Segment victim, Segment target) {
+        int budget = segmentSize / 2;
+        for (Entry entry : victim.entries) {
+            if (index.get(entry.key) != entry) {
+                continue;
+            }
+            if (entry.referenced && target.position + entry.length <= budget) {
+                Entry moved = new Entry(entry.key, target, target.generation, target.position, entry.length);
+                target.write(moved.offset, victim.slice(entry.offset, entry.length));
+                target.position += entry.length;
+                target.entries.add(moved);
+                if (!index.replace(entry.key, entry, moved)) {
+                    target.entries.remove(target.entries.size() - 1);
+                    target.position -= entry.length;
+                }
+            } else if (index.remove(entry.key, entry)) {
+                evictions.increment();
+            }
+        }
+        victim.entries.clear();
+        victim.position = 0;
+        long stamp = victim.lock.writeLock();
+        victim.generation++;
+        victim.lock.unlockWrite(stamp);
+    }
+
+    private static final class Segment {
+
+        private final ByteBuffer buffer;
+
+        private final ByteBuffer writer;
+
+        /**
+         * taken for write when the segment is reclaimed, so that readers can detect it
+         */
+        private final StampedLock lock = new StampedLock();
+
+        private volatile int generation;
+
+        /**
+         * the fields below are guarded by the write lock of the cache
+         */
+        private final List<Entry> entries = new ArrayList<>();
+
+        private int position;
+
+        Segment(ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.writer = buffer.duplicate();
+        }
+
+        void write(int offset, ByteBuffer source) {
+            writer.clear();
+            writer.position(offset);
+            writer.put(source);
+        }
+
+        ByteBuffer slice(int offset, int length) {
+            ByteBuffer slice = buffer.duplicate();
+            slice.limit(offset + length);
+            slice.position(offset);
+            return slice;
+        }
+    }
+
+    private static final class Entry {
+
+        private final Object key;
+
+        private final Segment segment;
+
+        private final int generation;
+
+        private final int offset;
+
+        private final int length;
+
+        private volatile boolean referenced;
+
+        Entry(Object key, Segment segment, int generation, int offset, int length) {
+            this.key = key;
+            this.segment = segment;
+            this.generation = generation;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        /**
+         * @return a copy of the value, or null if the segment was reclaimed
+         */
+        byte[] read() {
+            long stamp = segment.lock.tryOptimisticRead();
+            if (generation != segment.generation) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            segment.slice(offset, length).get(bytes);
+            return segment.lock.validate(stamp) ? bytes : null;
+        }
+    }
+}
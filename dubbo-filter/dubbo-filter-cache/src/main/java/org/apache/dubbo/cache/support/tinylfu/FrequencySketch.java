@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.cache.support.tinylfu;
+
+/**
+ * Approximate access frequency of the keys in a count-min sketch of 4 bit counters, the TinyLFU admission filter.
+ * All the counters are halved once the number of increments reaches 10 times the capacity, so the frequencies follow
+ * the recent popularity of the keys. Not thread safe, it is guarded by the lock of its shard.
+ *
+ * <a href="https://arxiv.org/abs/1512.00727">TinyLFU: A Highly Efficient Cache Admission Policy</a>
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private static final int MAX_COUNT = 15;
+
+    private final long[] table;
+
+    private final int counterMask;
+
+    private final int sampleSize;
+
+    private int size;
+
+    FrequencySketch(long capacity) {
+        int counters = 16;
+        while (counters < capacity * 4 && counters < (1 << 30)) {
+            counters <<= 1;
+        }
+        this.table = new long[counters >>> 4];
+        this.counterMask = counters - 1;
+        this.sampleSize = (int) Math.min(Integer.MAX_VALUE, Math.max(10, 10 * capacity));
+    }
+
+    /**
+     * @return the estimated number of recent accesses of the key, at most 15
+     */
+    int frequency(int hash) {
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < SEEDS.length; i++) {
+            frequency = Math.min(frequency, get(indexOf(hash, i)));
+        }
+        return frequency;
+    }
+
+    void increment(int hash) {
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            added |= incrementAt(indexOf(hash, i));
+        }
+        if (added && ++size >= sampleSize) {
+            reset();
+        }
+    }
+
+    private int indexOf(int hash, int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        h += h >>> 32;
+        return (int) h & counterMask;
+    }
+
+    private int get(int counter) {
+        return (int) (table[counter >>> 4] >>> ((counter & 15) << 2)) & MAX_COUNT;
+    }
+
+    private boolean incrementAt(int counter) {
+        int offset = (counter & 15) << 2;
+        long word = table[counter >>> 4];
+        if (((word >>> offset) & MAX_COUNT) == MAX_COUNT) {
+            return false;
+        }
+        table[counter >>> 4] = word + (1L << offset);
+        return true;
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size >>>= 1;
+    }
+}
@@ -0,0 +1,500 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.cache.support.tinylfu;
+
+import org.apache.dubbo.cache.Cache;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.timer.HashedWheelTimer;
+import org.apache.dubbo.common.timer.Timeout;
+import org.apache.dubbo.common.timer.Timer;
+import org.apache.dubbo.common.utils.NamedThreadFactory;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class stores the cache values with the W-TinyLFU policy. If a service,method,consumer or provider is configured
+ * with key <b>cache</b> with value <b>tinylfu</b>, dubbo initializes the instance of this class using
+ * {@link TinyLfuCacheFactory} to store method's return values.
+ * <pre>
+ *     e.g. 1) &lt;dubbo:service cache="tinylfu" cache.size="5000" cache.seconds="60"/&gt;
+ *          2) &lt;dubbo:consumer cache="tinylfu" /&gt;
+ * </pre>
+ * <li>It uses url's <b>cache.size</b> value as its max total weight, the number of entries by default. Default value
+ * is 1000.</li>
+ * <li>It uses url's <b>cache.seconds</b> value as the time to live of an entry after it was put, 0 (the default)
+ * for no expiry. Expired entries are removed by a timer wheel shared by all the caches.</li>
+ * <p>
+ * New entries go to a small LRU window, entries leaving the window are only admitted to the main segmented LRU if
+ * their estimated access frequency is higher than the one of the entry they would evict. This keeps the popular
+ * entries against scans and one-off keys.
+ * <p>
+ * The entries are spread over shards by key hash, each shard having its own map, policy and lock. Reads never block:
+ * they look the entry up in a {@link ConcurrentHashMap} and record the access in a lossy ring buffer, which is applied
+ * to the policy by whichever thread gets the shard lock without waiting. Writes take the lock of their shard.
+ *
+ * @see Cache
+ * @see TinyLfuCacheFactory
+ * @see org.apache.dubbo.cache.support.AbstractCacheFactory
+ * @see org.apache.dubbo.cache.filter.CacheFilter
+ */
+public class TinyLfuCache implements Cache {
+
+    /**
+     * the weight of an entry in the bound of the cache
+     */
+    public interface Weigher {
+
+        int weigh(Object key, Object value);
+    }
+
+    private static final Weigher SINGLETON_WEIGHER = (key, value) -> 1;
+
+    private static final Timer EXPIRY_TIMER = new HashedWheelTimer(
+            new NamedThreadFactory("dubbo-cache-expiry", true),
+            100,
+            TimeUnit.MILLISECONDS);
+
+    private static final int MIN_SHARD_WEIGHT = 64;
+
+    private static final int READ_BUFFER_SIZE = 64;
+
+    private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+
+    private static final int READ_DRAIN_THRESHOLD = READ_BUFFER_SIZE / 2;
+
+    private static final byte WINDOW = 0;
+
+    private static final byte PROBATION = 1;
+
+    private static final byte PROTECTED = 2;
+
+    private final Shard[] shards;
+
+    private final int shardMask;
+
+    private final long expireAfterWriteMillis;
+
+    private final Weigher weigher;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final LongAdder expirations = new LongAdder();
+
+    public TinyLfuCache(URL url) {
+        this(url.getParameter("cache.size", 1000), url.getParameter("cache.seconds", 0) * 1000L, SINGLETON_WEIGHER);
+    }
+
+    /**
+     * @param maximumWeight          the bound of the total weight of the entries
+     * @param expireAfterWriteMillis time to live of an entry after it was put, no expiry if not positive
+     * @param weigher                the weight of an entry
+     */
+    public TinyLfuCache(long maximumWeight, long expireAfterWriteMillis, Weigher weigher) {
+        if (maximumWeight <= 0) {
+            throw new IllegalArgumentException("maximumWeight <= 0");
+        }
+        long target = Math.min(Runtime.getRuntime().availableProcessors() * 4L, maximumWeight / MIN_SHARD_WEIGHT);
+        int shardCount = 1;
+        while (shardCount < target) {
+            shardCount <<= 1;
+        }
+        this.shards = new Shard[shardCount];
+        this.shardMask = shardCount - 1;
+        long shardWeight = (maximumWeight + shardCount - 1) / shardCount;
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(shardWeight);
+        }
+        this.expireAfterWriteMillis = Math.max(0, expireAfterWriteMillis);
+        this.weigher = weigher;
+    }
+
+    /**
+     * API to store value against a key, a null value is not stored.
+     * @param key  Unique identifier for the object being store.
+     * @param value Value getting store
+     */
+    @Override
+    public void put(Object key, Object value) {
+        if (key == null || value == null) {
+            return;
+        }
+        int hash = spread(key.hashCode());
+        Shard shard = shards[hash & shardMask];
+        long expireAt = expireAfterWriteMillis > 0 ? System.currentTimeMillis() + expireAfterWriteMillis : 0;
+        Node node = new Node(key, value, hash, Math.max(0, weigher.weigh(key, value)), expireAt);
+        Node old = shard.data.put(key, node);
+        shard.lock.lock();
+        try {
+            shard.drainReads();
+            if (old != null) {
+                shard.unlink(old);
+            }
+            shard.add(node);
+        } finally {
+            shard.lock.unlock();
+        }
+        if (expireAt != 0 && node.alive) {
+            node.timeout = EXPIRY_TIMER.newTimeout(timeout -> shard.expire(node), expireAfterWriteMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * API to return stored value using a key.
+     * @param key Unique identifier for cache lookup
+     * @return Return stored object against key, null if absent or expired
+     */
+    @Override
+    public Object get(Object key) {
+        if (key == null) {
+            return null;
+        }
+        Shard shard = shards[spread(key.hashCode()) & shardMask];
+        Node node = shard.data.get(key);
+        if (node == null) {
+            misses.increment();
+            return null;
+        }
+        if (node.expireAt != 0 && node.expireAt - System.currentTimeMillis() <= 0) {
+            misses.increment();
+            shard.expire(node);
+            return null;
+        }
+        hits.increment();
+        shard.recordRead(node);
+        return node.value;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of entries removed to keep the cache within its bound
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public long getExpirationCount() {
+        return expirations.sum();
+    }
+
+    /**
+     * @return the number of entries, which may include some not yet evicted or expired
+     */
+    public long size() {
+        long size = 0;
+        for (Shard shard : shards) {
+            size += shard.data.size();
+        }
+        return size;
+    }
+
+    int getShardCount() {
+        return shards.length;
+    }
+
+    private static int spread(int hashCode) {
+        int h = hashCode * 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Node {
+
+        private final Object key;
+
+        private final Object value;
+
+        private final int hash;
+
+        private final int weight;
+
+        private final long expireAt;
+
+        private volatile Timeout timeout;
+
+        /**
+         * the fields below are guarded by the lock of the shard
+         */
+        private boolean alive;
+
+        private byte queue;
+
+        private Node prev;
+
+        private Node next;
+
+        Node(Object key, Object value, int hash, int weight, long expireAt) {
+            this.key = key;
+            this.value = value;
+            this.hash = hash;
+            this.weight = weight;
+            this.expireAt = expireAt;
+        }
+    }
+
+    /**
+     * intrusive doubly linked list of nodes in access order, least recent first
+     */
+    private static final class AccessOrder {
+
+        private Node first;
+
+        private Node last;
+
+        void addLast(Node node) {
+            node.prev = last;
+            node.next = null;
+            if (last == null) {
+                first = node;
+            } else {
+                last.next = node;
+            }
+            last = node;
+        }
+
+        void remove(Node node) {
+            if (node.prev == null) {
+                first = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                last = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+        }
+
+        void moveToLast(Node node) {
+            if (node != last) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        Node peekFirst() {
+            return first;
+        }
+    }
+
+    private final class Shard {
+
+        private final ConcurrentHashMap<Object, Node> data = new ConcurrentHashMap<>();
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private final AtomicReferenceArray<Node> readBuffer = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+
+        private final AtomicLong readTail = new AtomicLong();
+
+        private volatile long readHead;
+
+        private final FrequencySketch sketch;
+
+        private final AccessOrder window = new AccessOrder();
+
+        private final AccessOrder probation = new AccessOrder();
+
+        private final AccessOrder protectedOrder = new AccessOrder();
+
+        private final long windowMaximum;
+
+        private final long mainMaximum;
+
+        private final long protectedMaximum;
+
+        private long windowWeight;
+
+        private long mainWeight;
+
+        private long protectedWeight;
+
+        Shard(long maximum) {
+            this.windowMaximum = Math.max(1, maximum / 100);
+            this.mainMaximum = Math.max(0, maximum - windowMaximum);
+            this.protectedMaximum = mainMaximum * 4 / 5;
+            this.sketch = new FrequencySketch(maximum);
+        }
+
+        void recordRead(Node node) {
+            long tail = readTail.get();
+            long pending = tail - readHead;
+            if (pending < READ_BUFFER_SIZE && readTail.compareAndSet(tail, tail + 1)) {
+                readBuffer.lazySet((int) tail & READ_BUFFER_MASK, node);
+                if (pending + 1 < READ_DRAIN_THRESHOLD) {
+                    return;
+                }
+            }
+            // the buffer is full or half full, the access may be lost which is fine for a frequency estimate
+            if (lock.tryLock()) {
+                try {
+                    drainReads();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        /**
+         * apply the recorded reads to the policy, under the lock
+         */
+        void drainReads() {
+            long head = readHead;
+            long tail = readTail.get();
+            for (; head < tail; head++) {
+                int index = (int) head & READ_BUFFER_MASK;
+                Node node = readBuffer.get(index);
+                if (node == null) {
+                    // claimed by a reader which has not stored it yet
+                    break;
+                }
+                readBuffer.lazySet(index, null);
+                onAccess(node);
+            }
+            readHead = head;
+        }
+
+        private void onAccess(Node node) {
+            if (!node.alive) {
+                return;
+            }
+            sketch.increment(node.hash);
+            if (node.queue == WINDOW) {
+                window.moveToLast(node);
+            } else if (node.queue == PROBATION) {
+                probation.remove(node);
+                node.queue = PROTECTED;
+                protectedOrder.addLast(node);
+                protectedWeight += node.weight;
+                while (protectedWeight > protectedMaximum) {
+                    Node demoted = protectedOrder.peekFirst();
+                    protectedOrder.remove(demoted);
+                    protectedWeight -= demoted.weight;
+                    demoted.queue = PROBATION;
+                    probation.addLast(demoted);
+                }
+            } else {
+                protectedOrder.moveToLast(node);
+            }
+        }
+
+        /**
+         * add a new node to the window, under the lock
+         */
+        void add(Node node) {
+            if (data.get(node.key) != node) {
+                // replaced by a concurrent put which got the lock first
+                return;
+            }
+            sketch.increment(node.hash);
+            node.alive = true;
+            node.queue = WINDOW;
+            window.addLast(node);
+            windowWeight += node.weight;
+            while (windowWeight > windowMaximum && window.peekFirst() != null) {
+                Node candidate = window.peekFirst();
+                window.remove(candidate);
+                windowWeight -= candidate.weight;
+                admit(candidate);
+            }
+        }
+
+        /**
+         * the candidate left the window, it enters the main space only if it is more popular than the entries it
+         * would evict
+         */
+        private void admit(Node candidate) {
+            candidate.queue = PROBATION;
+            while (mainWeight + candidate.weight > mainMaximum) {
+                Node victim = probation.peekFirst();
+                if (victim == null) {
+                    victim = protectedOrder.peekFirst();
+                }
+                if (victim == null || sketch.frequency(candidate.hash) <= sketch.frequency(victim.hash)) {
+                    candidate.alive = false;
+                    remove(candidate);
+                    evictions.increment();
+                    return;
+                }
+                unlink(victim);
+                remove(victim);
+                evictions.increment();
+            }
+            probation.addLast(candidate);
+            mainWeight += candidate.weight;
+        }
+
+        /**
+         * take a node out of the policy, under the lock
+         */
+        void unlink(Node node) {
+            if (!node.alive) {
+                return;
+            }
+            node.alive = false;
+            if (node.queue == WINDOW) {
+                window.remove(node);
+                windowWeight -= node.weight;
+            } else if (node.queue == PROBATION) {
+                probation.remove(node);
+                mainWeight -= node.weight;
+            } else {
+                protectedOrder.remove(node);
+                mainWeight -= node.weight;
+                protectedWeight -= node.weight;
+            }
+        }
+
+        private void remove(Node node) {
+            data.remove(node.key, node);
+            Timeout timeout = node.timeout;
+            if (timeout != null) {
+                timeout.cancel();
+            }
+        }
+
+        void expire(Node node) {
+            lock.lock();
+            try {
+                if (data.get(node.key) != node) {
+                    return;
+                }
+                unlink(node);
+                remove(node);
+                expirations.increment();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -17,16 +17,21 @@
 package org.apache.dubbo.cache.filter;
 
 import org.apache.dubbo.cache.CacheFactory;
+import org.apache.dubbo.cache.CacheKeyBuilder;
 import org.apache.dubbo.cache.support.expiring.ExpiringCacheFactory;
 import org.apache.dubbo.cache.support.jcache.JCacheFactory;
 import org.apache.dubbo.cache.support.lru.LruCacheFactory;
+import org.apache.dubbo.cache.support.offheap.OffHeapCacheFactory;
 import org.apache.dubbo.cache.support.threadlocal.ThreadLocalCacheFactory;
+import org.apache.dubbo.cache.support.tinylfu.TinyLfuCacheFactory;
 import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.extension.ExtensionLoader;
 import org.apache.dubbo.rpc.Invoker;
 import org.apache.dubbo.rpc.RpcInvocation;
 import org.apache.dubbo.rpc.RpcResult;
 
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -50,7 +55,9 @@ public class CacheFilterTest {
                 Arguments.of("lru", new LruCacheFactory()),
                 Arguments.of("jcache", new JCacheFactory()),
                 Arguments.of("threadlocal", new ThreadLocalCacheFactory()),
-                Arguments.of("expiring", new ExpiringCacheFactory())
+                Arguments.of("expiring", new ExpiringCacheFactory()),
+                Arguments.of("tinylfu", new TinyLfuCacheFactory()),
+                Arguments.of("offheap", new OffHeapCacheFactory())
         );
     }
 
@@ -133,4 +140,25 @@ public class CacheFilterTest {
         Assertions.assertEquals(rpcResult1.getValue(), null);
         Assertions.assertEquals(rpcResult2.getValue(), null);
     }
+
+    @Test
+    public void testArgumentsCacheKey() {
+        CacheFilter filter = new CacheFilter();
+        filter.setCacheFactory(new TinyLfuCacheFactory());
+        filter.setCacheKeyBuilder(ExtensionLoader.getExtensionLoader(CacheKeyBuilder.class).getAdaptiveExtension());
+        URL url = URL.valueOf("test://test:11/test?cache=tinylfu&cache.key=arguments");
+        given(invoker1.getUrl()).willReturn(url);
+        given(invoker2.getUrl()).willReturn(url);
+
+        RpcInvocation first = new RpcInvocation("echo1", new Class<?>[]{String.class, int[].class}, new Object[]{"arg", new int[]{1, 2}});
+        RpcInvocation second = new RpcInvocation("echo1", new Class<?>[]{String.class, int[].class}, new Object[]{"arg", new int[]{1, 2}});
+        RpcInvocation third = new RpcInvocation("echo1", new Class<?>[]{String.class, int[].class}, new Object[]{"arg", new int[]{1, 3}});
+        given(invoker1.invoke(first)).willReturn(new RpcResult("value1"));
+        given(invoker2.invoke(second)).willReturn(new RpcResult("value2"));
+        given(invoker2.invoke(third)).willReturn(new RpcResult("value3"));
+
+        Assertions.assertEquals("value1", filter.invoke(invoker1, first).getValue());
+        Assertions.assertEquals("value1", filter.invoke(invoker2, second).getValue());
+        Assertions.assertEquals("value3", filter.invoke(invoker2, third).getValue());
+    }
 }
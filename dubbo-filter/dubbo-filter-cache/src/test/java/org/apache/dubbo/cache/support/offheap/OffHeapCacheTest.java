@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.cache.support.offheap;
+
+import org.apache.dubbo.common.URL;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class OffHeapCacheTest {
+
+    private static final URL URL = org.apache.dubbo.common.URL.valueOf("test://test:11/test?cache=offheap");
+
+    @Test
+    public void testPutAndGet() {
+        OffHeapCache cache = new OffHeapCache(URL);
+        Map<String, Object> value = new HashMap<>();
+        value.put("name", "dubbo");
+        value.put("ids", new ArrayList<>(java.util.Arrays.asList(1, 2, 3)));
+        cache.put("key", value);
+
+        Object first = cache.get("key");
+        Assertions.assertEquals(value, first);
+        Assertions.assertNotSame(value, first);
+        Assertions.assertNotSame(first, cache.get("key"));
+        Assertions.assertNull(cache.get("absent"));
+
+        cache.put("key", "value2");
+        Assertions.assertEquals("value2", cache.get("key"));
+        Assertions.assertEquals(1, cache.size());
+        Assertions.assertEquals(3, cache.getHitCount());
+        Assertions.assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testBoundedByBytes() {
+        OffHeapCache cache = new OffHeapCache(URL, 16 * 1024, null);
+        Assertions.assertEquals(16 * 1024, cache.getCapacity());
+        String value = new String(new char[100]).replace('\0', 'x');
+        for (int i = 0; i < 10000; i++) {
+            cache.put(i, value);
+        }
+        Assertions.assertTrue(cache.size() < 16 * 1024 / 100, "size " + cache.size());
+        Assertions.assertTrue(cache.getEvictionCount() > 0);
+        Assertions.assertEquals(value, cache.get(9999));
+        Assertions.assertNull(cache.get(0));
+    }
+
+    @Test
+    public void testTooLarge() {
+        OffHeapCache cache = new OffHeapCache(URL, 16 * 1024, null);
+        cache.put("key", "small");
+        cache.put("key", new String(new char[2048]));
+        Assertions.assertNull(cache.get("key"));
+    }
+
+    @Test
+    public void testReadEntriesGetSecondChance() {
+        OffHeapCache cache = new OffHeapCache(URL, 64 * 1024, null);
+        String value = new String(new char[100]).replace('\0', 'x');
+        List<String> hot = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            hot.add("hot" + i);
+            cache.put("hot" + i, i);
+        }
+        for (int i = 0; i < 20000; i++) {
+            for (String key : hot) {
+                if (i % 100 == 0) {
+                    cache.get(key);
+                }
+            }
+            cache.put("scan" + i, value);
+        }
+        for (int i = 0; i < hot.size(); i++) {
+            Assertions.assertEquals(i, cache.get(hot.get(i)));
+        }
+        Assertions.assertNull(cache.get("scan0"));
+    }
+
+    @Test
+    public void testMappedFile() throws Exception {
+        File directory = Files.createTempDirectory("dubbo-cache").toFile();
+        directory.deleteOnExit();
+        OffHeapCache cache = new OffHeapCache(URL.addParameter("cache.directory", directory.getAbsolutePath())
+                .addParameter("cache.capacity", 1024 * 1024));
+        File[] files = directory.listFiles();
+        Assertions.assertNotNull(files);
+        Assertions.assertEquals(1, files.length);
+        Assertions.assertEquals(1024 * 1024, files[0].length());
+        files[0].deleteOnExit();
+
+        cache.put("key", "value");
+        Assertions.assertEquals("value", cache.get("key"));
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        OffHeapCache cache = new OffHeapCache(URL, 64 * 1024, null);
+        Thread[] threads = new Thread[4];
+        Throwable[] failures = new Throwable[threads.length];
+        for (int t = 0; t < threads.length; t++) {
+            int id = t;
+            threads[t] = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 20000; i++) {
+                        Integer key = (i * 31 + id) % 2048;
+                        Object value = cache.get(key);
+                        if (value == null) {
+                            cache.put(key, "value" + key);
+                        } else {
+                            Assertions.assertEquals("value" + key, value);
+                        }
+                    }
+                } catch (Throwable e) {
+                    failures[id] = e;
+                }
+            });
+            threads[t].start();
+        }
+        for (int t = 0; t < threads.length; t++) {
+            threads[t].join();
+            Assertions.assertNull(failures[t]);
+        }
+    }
+}
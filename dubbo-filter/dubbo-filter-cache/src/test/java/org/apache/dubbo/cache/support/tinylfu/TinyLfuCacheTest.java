@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.cache.support.tinylfu;
+
+import org.apache.dubbo.common.URL;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+public class TinyLfuCacheTest {
+
+    @Test
+    public void testPutAndGet() {
+        TinyLfuCache cache = new TinyLfuCache(URL.valueOf("test://test:11/test?cache=tinylfu"));
+        cache.put("key", "value");
+        Assertions.assertEquals("value", cache.get("key"));
+        Assertions.assertNull(cache.get("absent"));
+        cache.put("key", "value2");
+        Assertions.assertEquals("value2", cache.get("key"));
+        Assertions.assertEquals(1, cache.size());
+        Assertions.assertEquals(2, cache.getHitCount());
+        Assertions.assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testBoundedBySize() {
+        TinyLfuCache cache = new TinyLfuCache(URL.valueOf("test://test:11/test?cache=tinylfu&cache.size=100"));
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, i);
+        }
+        Assertions.assertTrue(cache.size() <= 100, "size " + cache.size());
+        Assertions.assertEquals(1000 - cache.size(), cache.getEvictionCount());
+    }
+
+    @Test
+    public void testBoundedByWeight() {
+        TinyLfuCache cache = new TinyLfuCache(100, 0, (key, value) -> ((String) value).length());
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, "0123456789");
+        }
+        Assertions.assertTrue(cache.size() <= 10, "size " + cache.size());
+        cache.put("huge", new String(new char[101]));
+        Assertions.assertNull(cache.get("huge"));
+    }
+
+    @Test
+    public void testFrequentEntriesSurviveScan() {
+        TinyLfuCache cache = new TinyLfuCache(100, 0, (key, value) -> 1);
+        for (int i = 0; i < 50; i++) {
+            cache.put("hot" + i, i);
+        }
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 50; i++) {
+                cache.get("hot" + i);
+            }
+        }
+        for (int i = 0; i < 10000; i++) {
+            cache.put("scan" + i, i);
+        }
+        int survivors = 0;
+        for (int i = 0; i < 50; i++) {
+            if (cache.get("hot" + i) != null) {
+                survivors++;
+            }
+        }
+        Assertions.assertTrue(survivors >= 45, "survivors " + survivors);
+    }
+
+    @Test
+    public void testExpiry() throws Exception {
+        TinyLfuCache cache = new TinyLfuCache(100, 200, (key, value) -> 1);
+        cache.put("key", "value");
+        Assertions.assertEquals("value", cache.get("key"));
+        Thread.sleep(300);
+        Assertions.assertNull(cache.get("key"));
+        Assertions.assertEquals(1, cache.getExpirationCount());
+
+        cache.put("other", "value");
+        long deadline = System.currentTimeMillis() + 5000;
+        while (cache.size() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        Assertions.assertEquals(0, cache.size());
+        Assertions.assertEquals(2, cache.getExpirationCount());
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        TinyLfuCache cache = new TinyLfuCache(1024, 0, (key, value) -> 1);
+        Assertions.assertTrue(cache.getShardCount() >= 1);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        Future<?>[] futures = new Future<?>[threads];
+        for (int t = 0; t < threads; t++) {
+            futures[t] = executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 20000; i++) {
+                    Integer key = random.nextInt(4096);
+                    Object value = cache.get(key);
+                    if (value == null) {
+                        cache.put(key, key);
+                    } else {
+                        Assertions.assertEquals(key, value);
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        Assertions.assertTrue(cache.size() <= 1024, "size " + cache.size());
+        Assertions.assertEquals(threads * 20000L, cache.getHitCount() + cache.getMissCount());
+    }
+}
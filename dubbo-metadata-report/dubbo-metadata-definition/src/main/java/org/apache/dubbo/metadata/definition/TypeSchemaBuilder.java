@@ -0,0 +1,284 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.metadata.definition;
+
+import org.apache.dubbo.common.beanutil.SchemaValue;
+import org.apache.dubbo.common.beanutil.TypeSchema;
+import org.apache.dubbo.metadata.definition.model.MethodDefinition;
+import org.apache.dubbo.metadata.definition.model.ServiceDefinition;
+import org.apache.dubbo.metadata.definition.model.TypeDefinition;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves the parameter types of a {@link ServiceDefinition} into {@link TypeSchema}s once, so that generic
+ * calls made with {@link org.apache.dubbo.common.Constants#GENERIC_SERIALIZATION_SCHEMA} can wrap their plain
+ * arguments in {@link SchemaValue}s without the provider's classes. An instance is immutable once built and
+ * may be shared between threads.
+ */
+public class TypeSchemaBuilder {
+
+    private static final Map<String, String> PRIMITIVE_DESCRIPTORS = new HashMap<String, String>();
+
+    static {
+        PRIMITIVE_DESCRIPTORS.put("boolean", "Z");
+        PRIMITIVE_DESCRIPTORS.put("byte", "B");
+        PRIMITIVE_DESCRIPTORS.put("char", "C");
+        PRIMITIVE_DESCRIPTORS.put("short", "S");
+        PRIMITIVE_DESCRIPTORS.put("int", "I");
+        PRIMITIVE_DESCRIPTORS.put("long", "J");
+        PRIMITIVE_DESCRIPTORS.put("float", "F");
+        PRIMITIVE_DESCRIPTORS.put("double", "D");
+    }
+
+    private final Map<String, TypeDefinition> types = new HashMap<String, TypeDefinition>();
+
+    private final Map<String, TypeSchema> schemas = new HashMap<String, TypeSchema>();
+
+    private final List<MethodDefinition> methods;
+
+    private final List<TypeSchema[]> parameterSchemas;
+
+    public TypeSchemaBuilder(ServiceDefinition definition) {
+        for (TypeDefinition type : definition.getTypes()) {
+            types.put(type.getType(), type);
+            addEnum(type);
+            // enums are not always listed as types themselves, but are described wherever they are a property
+            for (TypeDefinition property : type.getProperties().values()) {
+                addEnum(property);
+            }
+        }
+        methods = definition.getMethods();
+        parameterSchemas = new ArrayList<TypeSchema[]>(methods.size());
+        for (MethodDefinition method : methods) {
+            String[] parameterTypes = method.getParameterTypes();
+            TypeSchema[] schemas = new TypeSchema[parameterTypes == null ? 0 : parameterTypes.length];
+            for (int i = 0; i < schemas.length; i++) {
+                schemas[i] = build(parameterTypes[i]);
+            }
+            parameterSchemas.add(schemas);
+        }
+    }
+
+    /**
+     * @param parameterTypes the types as passed to {@link org.apache.dubbo.rpc.service.GenericService#$invoke},
+     *                       may be null when the method is not overloaded
+     * @return the parameter schemas of the method, or null if the definition has no such method
+     */
+    public TypeSchema[] getParameterSchemas(String methodName, String[] parameterTypes) {
+        TypeSchema[] found = null;
+        for (int i = 0; i < methods.size(); i++) {
+            MethodDefinition method = methods.get(i);
+            if (!method.getName().equals(methodName)) {
+                continue;
+            }
+            TypeSchema[] schemas = parameterSchemas.get(i);
+            if (parameterTypes == null) {
+                if (found != null) {
+                    throw new IllegalArgumentException("Method " + methodName + " is overloaded, parameter types are required");
+                }
+                found = schemas;
+            } else if (isSameTypes(method.getParameterTypes(), parameterTypes)) {
+                return schemas;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Wraps the arguments of a generic call in {@link SchemaValue}s of the method's parameter schemas.
+     */
+    public Object[] toSchemaValues(String methodName, String[] parameterTypes, Object[] args) {
+        TypeSchema[] schemas = getParameterSchemas(methodName, parameterTypes);
+        if (schemas == null) {
+            throw new IllegalArgumentException("No method " + methodName + " found in the service definition");
+        }
+        int length = args == null ? 0 : args.length;
+        if (schemas.length != length) {
+            throw new IllegalArgumentException("Method " + methodName + " takes " + schemas.length
+                    + " arguments, but " + length + " given");
+        }
+        Object[] values = new Object[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = new SchemaValue(args[i], schemas[i]);
+        }
+        return values;
+    }
+
+    private void addEnum(TypeDefinition definition) {
+        if (!definition.getEnums().isEmpty() && !schemas.containsKey(definition.getType())) {
+            String className = toBinaryName(definition.getType());
+            TypeSchema schema = new TypeSchema(className, TypeSchema.TYPE_ENUM);
+            schemas.put(definition.getType(), schema);
+            schemas.put(className, schema);
+        }
+    }
+
+    private TypeSchema build(String type) {
+        TypeSchema schema = schemas.get(type);
+        if (schema != null) {
+            return schema;
+        }
+        int genericStart = type.indexOf('<');
+        if (type.endsWith("[]")) {
+            TypeSchema itemSchema = build(type.substring(0, type.length() - 2));
+            schema = new TypeSchema(toArrayName(itemSchema.getClassName()), TypeSchema.TYPE_ARRAY);
+            schema.setItemSchema(itemSchema);
+        } else if (genericStart > 0 && type.endsWith(">")) {
+            String rawType = type.substring(0, genericStart);
+            List<String> arguments = splitArguments(type.substring(genericStart + 1, type.length() - 1));
+            if (arguments.size() == 2) {
+                schema = new TypeSchema(rawType, TypeSchema.TYPE_MAP);
+                schema.setKeySchema(build(arguments.get(0)));
+                schema.setItemSchema(build(arguments.get(1)));
+            } else if (arguments.size() == 1 && isCollection(rawType)) {
+                schema = new TypeSchema(rawType, TypeSchema.TYPE_COLLECTION);
+                schema.setItemSchema(build(arguments.get(0)));
+            } else {
+                schema = new TypeSchema(rawType, TypeSchema.TYPE_VALUE);
+            }
+        } else {
+            TypeDefinition definition = types.get(type);
+            if (definition == null) {
+                // array components are given by their canonical names
+                definition = types.get(toBinaryName(type));
+            }
+            // JDK classes may be described by their fields too, but are written by their own serializers
+            if (definition != null && !definition.getProperties().isEmpty() && !type.startsWith("java.")) {
+                schema = new TypeSchema(definition.getType(), TypeSchema.TYPE_BEAN);
+                // cached before its properties are built, so recursive types end up referring to themselves
+                schemas.put(type, schema);
+                schemas.put(definition.getType(), schema);
+                for (Map.Entry<String, TypeDefinition> entry : definition.getProperties().entrySet()) {
+                    schema.setProperty(entry.getKey(), build(entry.getValue().getType()));
+                }
+                return schema;
+            }
+            if (isCollection(type)) {
+                schema = new TypeSchema(type, TypeSchema.TYPE_COLLECTION);
+            } else if (isMap(type)) {
+                schema = new TypeSchema(type, TypeSchema.TYPE_MAP);
+            } else {
+                schema = new TypeSchema(type, TypeSchema.TYPE_VALUE);
+            }
+        }
+        schemas.put(type, schema);
+        return schema;
+    }
+
+    private static boolean isSameTypes(String[] definedTypes, String[] parameterTypes) {
+        int length = definedTypes == null ? 0 : definedTypes.length;
+        if (length != parameterTypes.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (!normalize(definedTypes[i]).equals(normalize(parameterTypes[i]))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Erases type arguments and nesting separators, as the definition holds canonical names for arrays and
+     * enums but binary names for other classes.
+     */
+    private static String normalize(String type) {
+        int genericStart = type.indexOf('<');
+        if (genericStart > 0) {
+            type = type.substring(0, genericStart);
+        }
+        return type.replace('$', '.');
+    }
+
+    /**
+     * Splits type arguments at the commas which are not nested in another argument list.
+     */
+    private static List<String> splitArguments(String arguments) {
+        List<String> result = new ArrayList<String>(2);
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < arguments.length(); i++) {
+            char c = arguments.charAt(i);
+            if (c == '<') {
+                depth++;
+            } else if (c == '>') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                result.add(arguments.substring(start, i).trim());
+                start = i + 1;
+            }
+        }
+        result.add(arguments.substring(start).trim());
+        return result;
+    }
+
+    /**
+     * Guesses the binary name of a nested class from its canonical name, taking the first segment which starts
+     * with an upper case letter for the outermost class.
+     */
+    private static String toBinaryName(String canonicalName) {
+        String[] segments = canonicalName.split("\\.");
+        StringBuilder buf = new StringBuilder(canonicalName.length());
+        boolean nested = false;
+        for (int i = 0; i < segments.length; i++) {
+            if (i > 0) {
+                buf.append(nested ? '$' : '.');
+            }
+            buf.append(segments[i]);
+            if (!segments[i].isEmpty() && Character.isUpperCase(segments[i].charAt(0))) {
+                nested = true;
+            }
+        }
+        return buf.toString();
+    }
+
+    private static String toArrayName(String componentName) {
+        if (componentName.startsWith("[")) {
+            return "[" + componentName;
+        }
+        String descriptor = PRIMITIVE_DESCRIPTORS.get(componentName);
+        return descriptor != null ? "[" + descriptor : "[L" + componentName + ";";
+    }
+
+    private static boolean isCollection(String type) {
+        return Collection.class.isAssignableFrom(forJdkName(type));
+    }
+
+    private static boolean isMap(String type) {
+        return Map.class.isAssignableFrom(forJdkName(type));
+    }
+
+    /**
+     * Loads JDK classes only, the others are not expected to be present on the caller's side.
+     */
+    private static Class<?> forJdkName(String type) {
+        if (type.startsWith("java.")) {
+            try {
+                return Class.forName(type);
+            } catch (ClassNotFoundException e) {
+                // fall through
+            }
+        }
+        return Object.class;
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.metadata.definition;
+
+import org.apache.dubbo.common.beanutil.SchemaValue;
+import org.apache.dubbo.common.beanutil.TypeSchema;
+import org.apache.dubbo.metadata.definition.service.ComplexObject;
+import org.apache.dubbo.metadata.definition.service.DemoService;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.Map;
+
+public class TypeSchemaBuilderTest {
+
+    private final TypeSchemaBuilder builder = new TypeSchemaBuilder(ServiceDefinitionBuilder.build(DemoService.class));
+
+    @Test
+    public void testParameterSchemas() {
+        TypeSchema[] schemas = builder.getParameterSchemas("findComplexObject", new String[]{"java.lang.String", "int",
+                "long", "java.lang.String[]", "java.util.List", ComplexObject.TestEnum.class.getName()});
+        Assertions.assertEquals(6, schemas.length);
+        Assertions.assertTrue(schemas[0].isValueType());
+        Assertions.assertEquals("int", schemas[1].getClassName());
+        Assertions.assertTrue(schemas[3].isArrayType());
+        Assertions.assertEquals(String[].class.getName(), schemas[3].getClassName());
+        Assertions.assertEquals("java.lang.String", schemas[3].getItemSchema().getClassName());
+        Assertions.assertTrue(schemas[4].isCollectionType());
+        Assertions.assertEquals("java.lang.Integer", schemas[4].getItemSchema().getClassName());
+        Assertions.assertTrue(schemas[5].isEnumType());
+        Assertions.assertEquals(ComplexObject.TestEnum.class.getName(), schemas[5].getClassName());
+
+        Assertions.assertSame(builder.getParameterSchemas("complexCompute", null)[1],
+                builder.getParameterSchemas("complexCompute", new String[]{"java.lang.String", ComplexObject.class.getName()})[1]);
+        Assertions.assertNull(builder.getParameterSchemas("complexCompute", new String[]{"java.lang.String"}));
+        Assertions.assertNull(builder.getParameterSchemas("notExist", null));
+    }
+
+    @Test
+    public void testBeanSchema() {
+        TypeSchema schema = builder.getParameterSchemas("complexCompute", null)[1];
+        Assertions.assertTrue(schema.isBeanType());
+        Assertions.assertEquals(ComplexObject.class.getName(), schema.getClassName());
+
+        Map<String, TypeSchema> properties = schema.getProperties();
+        Assertions.assertEquals(8, properties.size());
+        Assertions.assertEquals("long", properties.get("v").getClassName());
+        Assertions.assertTrue(properties.get("maps").isMapType());
+        Assertions.assertEquals("java.lang.String", properties.get("maps").getKeySchema().getClassName());
+        Assertions.assertEquals("java.lang.String", properties.get("maps").getItemSchema().getClassName());
+        Assertions.assertTrue(properties.get("testEnum").isEnumType());
+        Assertions.assertEquals(ComplexObject.TestEnum.class.getName(), properties.get("testEnum").getClassName());
+
+        TypeSchema inner = properties.get("innerObject");
+        Assertions.assertTrue(inner.isBeanType());
+        Assertions.assertEquals(ComplexObject.InnerObject.class.getName(), inner.getClassName());
+        Assertions.assertEquals("int", inner.getProperties().get("innerB").getClassName());
+
+        TypeSchema set = properties.get("innerObject2");
+        Assertions.assertTrue(set.isCollectionType());
+        Assertions.assertEquals("java.util.Set", set.getClassName());
+        Assertions.assertEquals(ComplexObject.InnerObject2.class.getName(), set.getItemSchema().getClassName());
+        Assertions.assertTrue(set.getItemSchema().isBeanType());
+
+        TypeSchema array = properties.get("innerObject3");
+        Assertions.assertTrue(array.isArrayType());
+        Assertions.assertEquals(ComplexObject.InnerObject3[].class.getName(), array.getClassName());
+        Assertions.assertEquals(ComplexObject.InnerObject3.class.getName(), array.getItemSchema().getClassName());
+        Assertions.assertTrue(array.getItemSchema().isBeanType());
+    }
+
+    @Test
+    public void testToSchemaValues() {
+        Map<String, Object> input = Collections.<String, Object>singletonMap("v", 1);
+        Object[] values = builder.toSchemaValues("complexCompute", null, new Object[]{"input", input});
+        Assertions.assertEquals(2, values.length);
+        Assertions.assertSame(input, ((SchemaValue) values[1]).getValue());
+        Assertions.assertTrue(((SchemaValue) values[1]).getSchema().isBeanType());
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> builder.toSchemaValues("complexCompute", null, new Object[]{"input"}));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> builder.toSchemaValues("notExist", null, new Object[0]));
+    }
+
+}
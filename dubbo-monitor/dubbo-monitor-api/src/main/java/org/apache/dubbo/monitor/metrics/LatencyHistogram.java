@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.monitor.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-memory histogram of latencies in microseconds, counted since its creation. (ThreadSafe)
+ * <p>
+ * Values are counted in one bucket per power of two, bucket <code>i</code> holds the values in
+ * <code>[2^(i-1), 2^i)</code>, so the count of the values below any power of two is exact. The counts are striped
+ * by thread so that concurrent records of a hot method rarely hit the same cache line.
+ */
+public class LatencyHistogram {
+
+    /**
+     * bucket 0 holds 0, the last bucket holds everything from 2^25 micros (about 33 seconds)
+     */
+    static final int BUCKETS = 27;
+
+    // rounded up to keep each stripe on its own cache lines
+    private static final int STRIDE = 32;
+
+    private static final int STRIPES = stripes(Runtime.getRuntime().availableProcessors());
+
+    private final AtomicLongArray counts = new AtomicLongArray(STRIPES * STRIDE);
+
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * @param micros a latency, negative values are counted as 0
+     */
+    public void record(long micros) {
+        int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        counts.incrementAndGet(stripe * STRIDE + bucket(micros));
+        if (micros > 0) {
+            sum.add(micros);
+        }
+    }
+
+    /**
+     * @return the number of the recorded values
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * @return the sum of the recorded values in microseconds
+     */
+    public long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * @param exponent 0 to 25
+     * @return the number of the recorded values below <code>2^exponent</code> microseconds
+     */
+    public long getCountBelow(int exponent) {
+        if (exponent < 0 || exponent >= BUCKETS - 1) {
+            throw new IllegalArgumentException("Illegal exponent " + exponent);
+        }
+        long count = 0;
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            for (int bucket = 0; bucket <= exponent; bucket++) {
+                count += counts.get(stripe * STRIDE + bucket);
+            }
+        }
+        return count;
+    }
+
+    static int bucket(long micros) {
+        if (micros <= 0) {
+            return 0;
+        }
+        return Math.min(64 - Long.numberOfLeadingZeros(micros), BUCKETS - 1);
+    }
+
+    private static int stripes(int processors) {
+        int stripes = 1;
+        while (stripes < processors && stripes < 16) {
+            stripes <<= 1;
+        }
+        return stripes;
+    }
+
+}
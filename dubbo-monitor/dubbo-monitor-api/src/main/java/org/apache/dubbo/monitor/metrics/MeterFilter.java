@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.monitor.metrics;
+
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.extension.Activate;
+import org.apache.dubbo.rpc.AsyncRpcResult;
+import org.apache.dubbo.rpc.Filter;
+import org.apache.dubbo.rpc.Invocation;
+import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.Result;
+import org.apache.dubbo.rpc.RpcException;
+import org.apache.dubbo.rpc.support.RpcUtils;
+
+/**
+ * MeterFilter. (SPI, Singleton, ThreadSafe)
+ * <p>
+ * Records the calls of the services with a <code>metrics</code> parameter into the meters of {@link MetricsRegistry}.
+ * A call fails when it throws or returns an exception, the calls of an asynchronous method end when their future
+ * completes. Nothing is allocated for a synchronous call.
+ */
+@Activate(group = {Constants.PROVIDER, Constants.CONSUMER}, value = Constants.METRICS_KEY)
+public class MeterFilter implements Filter {
+
+    @Override
+    public Result invoke(Invoker<?> invoker, Invocation invocation) throws RpcException {
+        MethodMetrics metrics = MetricsRegistry.getMethodMetrics(invoker.getUrl(), RpcUtils.getMethodName(invocation));
+        metrics.begin();
+        long start = System.nanoTime();
+        Result result;
+        try {
+            result = invoker.invoke(invocation);
+        } catch (Throwable t) {
+            metrics.end(System.nanoTime() - start, true);
+            throw t;
+        }
+        if (result instanceof AsyncRpcResult) {
+            ((AsyncRpcResult) result).getValueFuture().whenComplete((value, t) -> metrics.end(System.nanoTime() - start, t != null));
+        } else {
+            metrics.end(System.nanoTime() - start, result != null && result.hasException());
+        }
+        return result;
+    }
+
+}
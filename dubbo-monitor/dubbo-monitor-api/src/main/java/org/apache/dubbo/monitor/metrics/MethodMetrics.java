@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.monitor.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The meters of one method of a {@link ServiceMetrics}. (ThreadSafe)
+ */
+public class MethodMetrics {
+
+    private final String name;
+
+    private final LongAdder started = new LongAdder();
+
+    private final LongAdder failures = new LongAdder();
+
+    private final LatencyHistogram elapsed = new LatencyHistogram();
+
+    MethodMetrics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Count a call in, every call must be ended by {@link #end(long, boolean)}.
+     */
+    public void begin() {
+        started.increment();
+    }
+
+    /**
+     * @param elapsedNanos the time the call took
+     * @param failed       whether it ended with an exception
+     */
+    public void end(long elapsedNanos, boolean failed) {
+        if (failed) {
+            failures.increment();
+        }
+        elapsed.record(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the number of the calls begun and not ended yet
+     */
+    public long getActive() {
+        // the calls are ended after they are begun, so reading the ended ones first never gives a negative count
+        long ended = elapsed.getCount();
+        return started.sum() - ended;
+    }
+
+    /**
+     * @return the number of the ended calls
+     */
+    public long getRequests() {
+        return elapsed.getCount();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public LatencyHistogram getElapsed() {
+        return elapsed;
+    }
+
+}
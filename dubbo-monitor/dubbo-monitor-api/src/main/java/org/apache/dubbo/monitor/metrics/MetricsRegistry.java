@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.monitor.metrics;
+
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.rpc.Invoker;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The meters of the exported and referred services. (API, Static, ThreadSafe)
+ * <p>
+ * The meters of a service are registered with all its methods when its invoker is exported or referred, see
+ * {@link MetricsExporterListener} and {@link MetricsInvokerListener}, so that the calls only look them up. Invokers
+ * are mapped by their full URL string, which the URL caches. The meters outlive the invokers so that the counters
+ * never go backwards.
+ *
+ * @see MeterFilter
+ * @see PrometheusWriter
+ */
+public class MetricsRegistry {
+
+    // application, side and service key to the meters
+    private static final ConcurrentMap<String, ServiceMetrics> SERVICES = new ConcurrentHashMap<String, ServiceMetrics>();
+
+    // full url string of an invoker to the meters
+    private static final ConcurrentMap<String, ServiceMetrics> INVOKERS = new ConcurrentHashMap<String, ServiceMetrics>();
+
+    private MetricsRegistry() {
+    }
+
+    /**
+     * Register the meters of the invoker and of every method of its interface.
+     */
+    public static ServiceMetrics register(Invoker<?> invoker) {
+        ServiceMetrics metrics = getServiceMetrics(invoker.getUrl());
+        Class<?> type = invoker.getInterface();
+        if (type != null) {
+            for (Method method : type.getMethods()) {
+                metrics.getMethod(method.getName());
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Forget the invoker of the url, the meters of its service are kept.
+     */
+    public static void unregister(URL url) {
+        INVOKERS.remove(url.toFullString());
+    }
+
+    /**
+     * @param url the url of an invoker
+     * @return the meters of its service, registered on the fly for an invoker which has not been registered
+     */
+    public static ServiceMetrics getServiceMetrics(URL url) {
+        String key = url.toFullString();
+        ServiceMetrics metrics = INVOKERS.get(key);
+        if (metrics == null) {
+            metrics = INVOKERS.computeIfAbsent(key, k -> createServiceMetrics(url));
+        }
+        return metrics;
+    }
+
+    public static MethodMetrics getMethodMetrics(URL url, String method) {
+        return getServiceMetrics(url).getMethod(method);
+    }
+
+    public static Collection<ServiceMetrics> getServiceMetrics() {
+        return SERVICES.values();
+    }
+
+    private static ServiceMetrics createServiceMetrics(URL url) {
+        String application = url.getParameter(Constants.APPLICATION_KEY, "");
+        String side = url.getParameter(Constants.SIDE_KEY, Constants.PROVIDER_SIDE);
+        String service = url.getServiceKey();
+        return SERVICES.computeIfAbsent(application + "|" + side + "|" + service,
+                k -> new ServiceMetrics(application, side, service));
+    }
+
+}
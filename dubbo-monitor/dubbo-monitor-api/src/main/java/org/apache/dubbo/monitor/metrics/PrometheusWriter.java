@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.monitor.metrics;
+
+import java.util.Collection;
+
+/**
+ * Writes meters in the Prometheus text exposition format, version 0.0.4.
+ * <p>
+ * Every method is labelled with its application, side, service key and name. The latencies are exposed as a
+ * histogram in seconds with one bucket per power of two microseconds from 64us to about 33s.
+ */
+public class PrometheusWriter {
+
+    private static final int MIN_EXPONENT = 6;
+
+    private static final int MAX_EXPONENT = LatencyHistogram.BUCKETS - 2;
+
+    private static final String[] BOUNDS = new String[MAX_EXPONENT + 1];
+
+    static {
+        for (int exponent = MIN_EXPONENT; exponent <= MAX_EXPONENT; exponent++) {
+            BOUNDS[exponent] = String.valueOf((1L << exponent) / 1e6);
+        }
+    }
+
+    private PrometheusWriter() {
+    }
+
+    public static String write(Collection<ServiceMetrics> services) {
+        StringBuilder buf = new StringBuilder();
+        write(services, buf);
+        return buf.toString();
+    }
+
+    public static void write(Collection<ServiceMetrics> services, StringBuilder buf) {
+        header(buf, "dubbo_requests_total", "counter", "Calls ended.");
+        for (ServiceMetrics service : services) {
+            for (MethodMetrics method : service.getMethods()) {
+                sample(buf, "dubbo_requests_total", service, method, null, method.getRequests());
+            }
+        }
+        header(buf, "dubbo_failures_total", "counter", "Calls ended with an exception.");
+        for (ServiceMetrics service : services) {
+            for (MethodMetrics method : service.getMethods()) {
+                sample(buf, "dubbo_failures_total", service, method, null, method.getFailures());
+            }
+        }
+        header(buf, "dubbo_active", "gauge", "Calls in progress.");
+        for (ServiceMetrics service : services) {
+            for (MethodMetrics method : service.getMethods()) {
+                sample(buf, "dubbo_active", service, method, null, method.getActive());
+            }
+        }
+        header(buf, "dubbo_elapsed_seconds", "histogram", "Time taken by the ended calls.");
+        for (ServiceMetrics service : services) {
+            for (MethodMetrics method : service.getMethods()) {
+                LatencyHistogram elapsed = method.getElapsed();
+                // read the count first, the buckets never exceed it
+                long count = elapsed.getCount();
+                for (int exponent = MIN_EXPONENT; exponent <= MAX_EXPONENT; exponent++) {
+                    sample(buf, "dubbo_elapsed_seconds_bucket", service, method, BOUNDS[exponent],
+                            Math.min(elapsed.getCountBelow(exponent), count));
+                }
+                sample(buf, "dubbo_elapsed_seconds_bucket", service, method, "+Inf", count);
+                buf.append("dubbo_elapsed_seconds_sum");
+                labels(buf, service, method, null);
+                buf.append(' ').append(elapsed.getSum() / 1e6).append('\n');
+                sample(buf, "dubbo_elapsed_seconds_count", service, method, null, count);
+            }
+        }
+    }
+
+    private static void header(StringBuilder buf, String name, String type, String help) {
+        buf.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        buf.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder buf, String name, ServiceMetrics service, MethodMetrics method, String le, long value) {
+        buf.append(name);
+        labels(buf, service, method, le);
+        buf.append(' ').append(value).append('\n');
+    }
+
+    private static void labels(StringBuilder buf, ServiceMetrics service, MethodMetrics method, String le) {
+        buf.append('{');
+        label(buf, "application", service.getApplication()).append(',');
+        label(buf, "side", service.getSide()).append(',');
+        label(buf, "service", service.getService()).append(',');
+        label(buf, "method", method.getName());
+        if (le != null) {
+            buf.append(',');
+            label(buf, "le", le);
+        }
+        buf.append('}');
+    }
+
+    private static StringBuilder label(StringBuilder buf, String name, String value) {
+        buf.append(name).append("=\"");
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '\\' || c == '"') {
+                    buf.append('\\').append(c);
+                } else if (c == '\n') {
+                    buf.append("\\n");
+                } else {
+                    buf.append(c);
+                }
+            }
+        }
+        return buf.append('"');
+    }
+
+}
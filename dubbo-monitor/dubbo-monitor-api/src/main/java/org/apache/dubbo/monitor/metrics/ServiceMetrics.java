@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.monitor.metrics;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The meters of a service on one side, shared by all the invokers of the same application, side and service key.
+ * (ThreadSafe)
+ *
+ * @see MetricsRegistry
+ */
+public class ServiceMetrics {
+
+    private final String application;
+
+    private final String side;
+
+    private final String service;
+
+    private final ConcurrentMap<String, MethodMetrics> methods = new ConcurrentHashMap<String, MethodMetrics>();
+
+    ServiceMetrics(String application, String side, String service) {
+        this.application = application;
+        this.side = side;
+        this.service = service;
+    }
+
+    /**
+     * @param method a method name
+     * @return the meters of the method, created on the first call of a method which was not known at registration
+     */
+    public MethodMetrics getMethod(String method) {
+        MethodMetrics metrics = methods.get(method);
+        if (metrics == null) {
+            metrics = methods.computeIfAbsent(method, MethodMetrics::new);
+        }
+        return metrics;
+    }
+
+    public Collection<MethodMetrics> getMethods() {
+        return methods.values();
+    }
+
+    public String getApplication() {
+        return application;
+    }
+
+    public String getSide() {
+        return side;
+    }
+
+    public String getService() {
+        return service;
+    }
+
+}
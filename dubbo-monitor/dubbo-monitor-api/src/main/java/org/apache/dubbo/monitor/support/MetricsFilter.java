@@ -32,11 +32,23 @@ import org.apache.dubbo.rpc.RpcException;
 import org.apache.dubbo.rpc.support.RpcUtils;
 
 import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class MetricsFilter implements Filter {
 
     private static final Logger logger = LoggerFactory.getLogger(MetricsFilter.class);
 
+    private static final MetricName PROVIDER = new MetricName(Constants.DUBBO_PROVIDER, MetricLevel.MAJOR);
+
+    private static final MetricName CONSUMER = new MetricName(Constants.DUBBO_CONSUMER, MetricLevel.MAJOR);
+
+    // the method metric names are built once, by service and method name
+    private final ConcurrentMap<String, ConcurrentMap<String, MetricName>> providerMethods = new ConcurrentHashMap<String, ConcurrentMap<String, MetricName>>();
+
+    private final ConcurrentMap<String, ConcurrentMap<String, MetricName>> consumerMethods = new ConcurrentHashMap<String, ConcurrentMap<String, MetricName>>();
+
     @Override
     public Result invoke(Invoker<?> invoker, Invocation invocation) throws RpcException {
         RpcContext context = RpcContext.getContext();
@@ -73,25 +85,33 @@ public class MetricsFilter implements Filter {
         MetricName global;
         MetricName method;
         if (isProvider) {
-            global = new MetricName(Constants.DUBBO_PROVIDER, MetricLevel.MAJOR);
-            method = new MetricName(Constants.DUBBO_PROVIDER_METHOD, new HashMap<String, String>(4) {
-                {
-                    put(Constants.SERVICE, serviceName);
-                    put(Constants.METHOD, methodName);
-                }
-            }, MetricLevel.NORMAL);
+            global = PROVIDER;
+            method = getMethodMetricName(providerMethods, Constants.DUBBO_PROVIDER_METHOD, serviceName, methodName);
         } else {
-            global = new MetricName(Constants.DUBBO_CONSUMER, MetricLevel.MAJOR);
-            method = new MetricName(Constants.DUBBO_CONSUMER_METHOD, new HashMap<String, String>(4) {
-                {
-                    put(Constants.SERVICE, serviceName);
-                    put(Constants.METHOD, methodName);
-                }
-            }, MetricLevel.NORMAL);
+            global = CONSUMER;
+            method = getMethodMetricName(consumerMethods, Constants.DUBBO_CONSUMER_METHOD, serviceName, methodName);
         }
         setCompassQuantity(Constants.DUBBO_GROUP, result, duration, global, method);
     }
 
+    private MetricName getMethodMetricName(ConcurrentMap<String, ConcurrentMap<String, MetricName>> names, String key,
+                                           String serviceName, String methodName) {
+        ConcurrentMap<String, MetricName> methods = names.get(serviceName);
+        if (methods == null) {
+            methods = names.computeIfAbsent(serviceName, k -> new ConcurrentHashMap<String, MetricName>());
+        }
+        MetricName name = methods.get(methodName);
+        if (name == null) {
+            name = methods.computeIfAbsent(methodName, k -> {
+                Map<String, String> tags = new HashMap<String, String>(4);
+                tags.put(Constants.SERVICE, serviceName);
+                tags.put(Constants.METHOD, methodName);
+                return new MetricName(key, tags, MetricLevel.NORMAL);
+            });
+        }
+        return name;
+    }
+
     private void setCompassQuantity(String groupName, String result, long duration, MetricName... metricNames) {
         for (MetricName metricName : metricNames) {
             FastCompass compass = MetricManager.getFastCompass(groupName, metricName);
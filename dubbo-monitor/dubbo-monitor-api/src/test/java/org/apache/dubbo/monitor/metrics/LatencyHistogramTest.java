@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.monitor.metrics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBucket() {
+        Assertions.assertEquals(0, LatencyHistogram.bucket(-1));
+        Assertions.assertEquals(0, LatencyHistogram.bucket(0));
+        Assertions.assertEquals(1, LatencyHistogram.bucket(1));
+        Assertions.assertEquals(2, LatencyHistogram.bucket(2));
+        Assertions.assertEquals(2, LatencyHistogram.bucket(3));
+        Assertions.assertEquals(7, LatencyHistogram.bucket(127));
+        Assertions.assertEquals(8, LatencyHistogram.bucket(128));
+        Assertions.assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucket(1L << 25));
+        Assertions.assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucket(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testCountBelow() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(0);
+        histogram.record(63);
+        histogram.record(64);
+        histogram.record(1000);
+        histogram.record(1L << 30);
+
+        Assertions.assertEquals(5, histogram.getCount());
+        Assertions.assertEquals(63 + 64 + 1000 + (1L << 30), histogram.getSum());
+        Assertions.assertEquals(1, histogram.getCountBelow(0));
+        Assertions.assertEquals(2, histogram.getCountBelow(6));
+        Assertions.assertEquals(3, histogram.getCountBelow(7));
+        Assertions.assertEquals(4, histogram.getCountBelow(10));
+        Assertions.assertEquals(4, histogram.getCountBelow(25));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> histogram.getCountBelow(26));
+    }
+
+    @Test
+    public void testConcurrentRecord() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(new Thread(() -> {
+                for (int j = 0; j < 10000; j++) {
+                    histogram.record(j);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assertions.assertEquals(80000, histogram.getCount());
+        Assertions.assertEquals(8 * 128, histogram.getCountBelow(7));
+    }
+
+}
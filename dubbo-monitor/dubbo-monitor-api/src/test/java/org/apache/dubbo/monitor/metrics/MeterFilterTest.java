@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.monitor.metrics;
+
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.extension.ExtensionLoader;
+import org.apache.dubbo.monitor.service.DemoService;
+import org.apache.dubbo.rpc.AsyncRpcResult;
+import org.apache.dubbo.rpc.Filter;
+import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.InvokerListener;
+import org.apache.dubbo.rpc.RpcException;
+import org.apache.dubbo.rpc.RpcInvocation;
+import org.apache.dubbo.rpc.RpcResult;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class MeterFilterTest {
+
+    private final MeterFilter filter = new MeterFilter();
+
+    @SuppressWarnings("unchecked")
+    private Invoker<DemoService> mockInvoker(String application) {
+        Invoker<DemoService> invoker = mock(Invoker.class);
+        given(invoker.getInterface()).willReturn(DemoService.class);
+        given(invoker.getUrl()).willReturn(URL.valueOf("dubbo://127.0.0.1:20880/" + DemoService.class.getName()
+                + "?application=" + application + "&side=consumer&metrics=true&version=1.0.0"));
+        return invoker;
+    }
+
+    private MethodMetrics getMethod(ServiceMetrics service, String method) {
+        return service.getMethods().stream().filter(m -> m.getName().equals(method)).findFirst().orElse(null);
+    }
+
+    @Test
+    public void testActivate() {
+        URL url = URL.valueOf("dubbo://127.0.0.1:20880/" + DemoService.class.getName() + "?metrics=true");
+        List<Filter> filters = ExtensionLoader.getExtensionLoader(Filter.class).getActivateExtension(url, Constants.REFERENCE_FILTER_KEY, Constants.CONSUMER);
+        Assertions.assertTrue(filters.stream().anyMatch(f -> f instanceof MeterFilter));
+        List<InvokerListener> listeners = ExtensionLoader.getExtensionLoader(InvokerListener.class).getActivateExtension(url, Constants.INVOKER_LISTENER_KEY);
+        Assertions.assertTrue(listeners.stream().anyMatch(l -> l instanceof MetricsInvokerListener));
+
+        URL plain = URL.valueOf("dubbo://127.0.0.1:20880/" + DemoService.class.getName());
+        filters = ExtensionLoader.getExtensionLoader(Filter.class).getActivateExtension(plain, Constants.REFERENCE_FILTER_KEY, Constants.CONSUMER);
+        Assertions.assertFalse(filters.stream().anyMatch(f -> f instanceof MeterFilter));
+    }
+
+    @Test
+    public void testRegisterOnRefer() {
+        Invoker<DemoService> invoker = mockInvoker("refer");
+        new MetricsInvokerListener().referred(invoker);
+
+        ServiceMetrics service = MetricsRegistry.getServiceMetrics(invoker.getUrl());
+        Assertions.assertEquals("refer", service.getApplication());
+        Assertions.assertEquals(Constants.CONSUMER_SIDE, service.getSide());
+        Assertions.assertEquals(DemoService.class.getName() + ":1.0.0", service.getService());
+        Assertions.assertEquals(4, service.getMethods().size());
+        Assertions.assertNotNull(getMethod(service, "sayName"));
+        Assertions.assertTrue(MetricsRegistry.getServiceMetrics().contains(service));
+
+        // another invoker of the same service shares the meters
+        URL otherUrl = invoker.getUrl().setHost("127.0.0.2");
+        Invoker<DemoService> other = mockInvoker("refer");
+        given(other.getUrl()).willReturn(otherUrl);
+        Assertions.assertSame(service, MetricsRegistry.register(other));
+
+        new MetricsInvokerListener().destroyed(invoker);
+        Assertions.assertTrue(MetricsRegistry.getServiceMetrics().contains(service));
+    }
+
+    @Test
+    public void testSyncInvoke() {
+        Invoker<DemoService> invoker = mockInvoker("sync");
+        given(invoker.invoke(any())).willReturn(new RpcResult("hello"));
+        filter.invoke(invoker, new RpcInvocation("sayName", new Class<?>[]{String.class}, new Object[]{"dubbo"}));
+        given(invoker.invoke(any())).willReturn(new RpcResult(new IllegalStateException()));
+        filter.invoke(invoker, new RpcInvocation("sayName", new Class<?>[]{String.class}, new Object[]{"dubbo"}));
+        given(invoker.invoke(any())).willThrow(new RpcException(RpcException.TIMEOUT_EXCEPTION));
+        Assertions.assertThrows(RpcException.class,
+                () -> filter.invoke(invoker, new RpcInvocation("sayName", new Class<?>[]{String.class}, new Object[]{"dubbo"})));
+
+        MethodMetrics method = MetricsRegistry.getMethodMetrics(invoker.getUrl(), "sayName");
+        Assertions.assertEquals(3, method.getRequests());
+        Assertions.assertEquals(2, method.getFailures());
+        Assertions.assertEquals(0, method.getActive());
+    }
+
+    @Test
+    public void testAsyncInvoke() {
+        Invoker<DemoService> invoker = mockInvoker("async");
+        CompletableFuture<Object> succeeded = new CompletableFuture<Object>();
+        CompletableFuture<Object> failed = new CompletableFuture<Object>();
+        given(invoker.invoke(any())).willReturn(new AsyncRpcResult(succeeded), new AsyncRpcResult(failed));
+        filter.invoke(invoker, new RpcInvocation("echo", new Class<?>[]{int.class}, new Object[]{1}));
+        filter.invoke(invoker, new RpcInvocation("echo", new Class<?>[]{int.class}, new Object[]{2}));
+
+        MethodMetrics method = MetricsRegistry.getMethodMetrics(invoker.getUrl(), "echo");
+        Assertions.assertEquals(2, method.getActive());
+        Assertions.assertEquals(0, method.getRequests());
+
+        succeeded.complete(1);
+        failed.completeExceptionally(new IllegalStateException());
+        Assertions.assertEquals(0, method.getActive());
+        Assertions.assertEquals(2, method.getRequests());
+        Assertions.assertEquals(1, method.getFailures());
+    }
+
+    @Test
+    public void testGenericInvoke() {
+        Invoker<DemoService> invoker = mockInvoker("generic");
+        given(invoker.invoke(any())).willReturn(new RpcResult("hello"));
+        filter.invoke(invoker, new RpcInvocation(Constants.$INVOKE, new Class<?>[]{String.class, String[].class, Object[].class},
+                new Object[]{"sayName", new String[]{String.class.getName()}, new Object[]{"dubbo"}}));
+
+        Assertions.assertEquals(1, MetricsRegistry.getMethodMetrics(invoker.getUrl(), "sayName").getRequests());
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.monitor.metrics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+
+public class PrometheusWriterTest {
+
+    @Test
+    public void testWrite() {
+        ServiceMetrics service = new ServiceMetrics("demo", "provider", "group/org.apache.dubbo.DemoService:1.0.0");
+        MethodMetrics method = service.getMethod("sayHello");
+        method.begin();
+        method.end(TimeUnit.MICROSECONDS.toNanos(100), false);
+        method.begin();
+        method.end(TimeUnit.MILLISECONDS.toNanos(3), true);
+        method.begin();
+
+        String text = PrometheusWriter.write(Collections.singletonList(service));
+        String labels = "application=\"demo\",side=\"provider\",service=\"group/org.apache.dubbo.DemoService:1.0.0\",method=\"sayHello\"";
+        assertThat(text, containsString("# TYPE dubbo_requests_total counter\n"));
+        assertThat(text, containsString("dubbo_requests_total{" + labels + "} 2\n"));
+        assertThat(text, containsString("dubbo_failures_total{" + labels + "} 1\n"));
+        assertThat(text, containsString("dubbo_active{" + labels + "} 1\n"));
+        assertThat(text, containsString("# TYPE dubbo_elapsed_seconds histogram\n"));
+        assertThat(text, containsString("dubbo_elapsed_seconds_bucket{" + labels + ",le=\"6.4E-5\"} 0\n"));
+        assertThat(text, containsString("dubbo_elapsed_seconds_bucket{" + labels + ",le=\"1.28E-4\"} 1\n"));
+        assertThat(text, containsString("dubbo_elapsed_seconds_bucket{" + labels + ",le=\"0.002048\"} 1\n"));
+        assertThat(text, containsString("dubbo_elapsed_seconds_bucket{" + labels + ",le=\"0.004096\"} 2\n"));
+        assertThat(text, containsString("dubbo_elapsed_seconds_bucket{" + labels + ",le=\"+Inf\"} 2\n"));
+        assertThat(text, containsString("dubbo_elapsed_seconds_sum{" + labels + "} 0.0031\n"));
+        assertThat(text, containsString("dubbo_elapsed_seconds_count{" + labels + "} 2\n"));
+    }
+
+    @Test
+    public void testEscapeLabel() {
+        ServiceMetrics service = new ServiceMetrics("a\"b\\c\nd", "consumer", "DemoService");
+        service.getMethod("sayHello");
+        String text = PrometheusWriter.write(Collections.singletonList(service));
+        assertThat(text, containsString("application=\"a\\\"b\\\\c\\nd\""));
+        // no sample is broken over two lines
+        Assertions.assertFalse(text.contains("\nd\""), text);
+    }
+
+}
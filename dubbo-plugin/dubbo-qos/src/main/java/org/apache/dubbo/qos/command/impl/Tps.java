@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.qos.command.impl;
+
+import org.apache.dubbo.common.extension.ExtensionLoader;
+import org.apache.dubbo.qos.command.BaseCommand;
+import org.apache.dubbo.qos.command.CommandContext;
+import org.apache.dubbo.qos.command.annotation.Cmd;
+import org.apache.dubbo.qos.textui.TTable;
+import org.apache.dubbo.rpc.filter.tps.TPSLimiter;
+import org.apache.dubbo.rpc.filter.tps.TokenBucket;
+import org.apache.dubbo.rpc.filter.tps.TokenBucketTPSLimiter;
+
+@Cmd(name = "tps", summary = "show the token buckets of tps limit", example = {
+        "tps"
+})
+public class Tps implements BaseCommand {
+    @Override
+    public String execute(CommandContext commandContext, String[] args) {
+        TTable tTable = new TTable(new TTable.ColumnDefine[]{
+                new TTable.ColumnDefine(TTable.Align.LEFT),
+                new TTable.ColumnDefine(TTable.Align.MIDDLE),
+                new TTable.ColumnDefine(TTable.Align.MIDDLE),
+                new TTable.ColumnDefine(TTable.Align.MIDDLE),
+                new TTable.ColumnDefine(TTable.Align.MIDDLE),
+                new TTable.ColumnDefine(TTable.Align.MIDDLE)
+        });
+
+        //Header
+        tTable.addRow("Bucket", "RATE", "INTERVAL", "TOKENS", "ALLOWED", "REJECTED");
+
+        //Content
+        TPSLimiter limiter = ExtensionLoader.getExtensionLoader(TPSLimiter.class)
+                .getLoadedExtension(TokenBucketTPSLimiter.NAME);
+        if (limiter instanceof TokenBucketTPSLimiter) {
+            for (TokenBucket bucket : ((TokenBucketTPSLimiter) limiter).getBuckets()) {
+                tTable.addRow(bucket.getName(), bucket.getRate(), bucket.getInterval() + "ms", bucket.getTokens(),
+                        bucket.getAllowed(), bucket.getRejected());
+            }
+        }
+        return tTable.rendering();
+    }
+}
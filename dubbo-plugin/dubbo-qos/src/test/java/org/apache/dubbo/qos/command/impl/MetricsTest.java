@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.qos.command.impl;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.monitor.metrics.MetricsRegistry;
+import org.apache.dubbo.qos.command.CommandContext;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.mock;
+
+public class MetricsTest {
+    @Test
+    public void testExecute() throws Exception {
+        URL url = URL.valueOf("dubbo://127.0.0.1:20880/org.apache.dubbo.BarService?application=bar&side=provider&metrics=true");
+        MetricsRegistry.getMethodMetrics(url, "sayHello").begin();
+
+        Metrics metrics = new Metrics();
+        String output = metrics.execute(mock(CommandContext.class), null);
+        assertThat(output, containsString("# TYPE dubbo_elapsed_seconds histogram"));
+        assertThat(output, containsString("dubbo_active{application=\"bar\",side=\"provider\",service=\"org.apache.dubbo.BarService\",method=\"sayHello\"} 1"));
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.qos.command.impl;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.extension.ExtensionLoader;
+import org.apache.dubbo.qos.command.CommandContext;
+import org.apache.dubbo.rpc.RpcInvocation;
+import org.apache.dubbo.rpc.filter.tps.TPSLimiter;
+import org.apache.dubbo.rpc.filter.tps.TokenBucketTPSLimiter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.mock;
+
+public class TpsTest {
+    @Test
+    public void testExecute() throws Exception {
+        TPSLimiter limiter = ExtensionLoader.getExtensionLoader(TPSLimiter.class).getExtension(TokenBucketTPSLimiter.NAME);
+        URL url = URL.valueOf("dubbo://127.0.0.1:20880/org.apache.dubbo.BarService?tps=1");
+        RpcInvocation invocation = new RpcInvocation("sayHello", new Class<?>[0], new Object[0]);
+        limiter.isAllowable(url, invocation);
+        limiter.isAllowable(url, invocation);
+
+        Tps tps = new Tps();
+        String output = tps.execute(mock(CommandContext.class), null);
+        assertThat(output, containsString("org.apache.dubbo.BarService"));
+        assertThat(output, containsString("REJECTED"));
+        assertThat(output, containsString("60000ms"));
+    }
+}
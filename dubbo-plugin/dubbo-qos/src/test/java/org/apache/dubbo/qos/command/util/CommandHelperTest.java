@@ -19,9 +19,11 @@ package org.apache.dubbo.qos.command.util;
 import org.apache.dubbo.qos.command.GreetingCommand;
 import org.apache.dubbo.qos.command.impl.Help;
 import org.apache.dubbo.qos.command.impl.Ls;
+import org.apache.dubbo.qos.command.impl.Metrics;
 import org.apache.dubbo.qos.command.impl.Offline;
 import org.apache.dubbo.qos.command.impl.Online;
 import org.apache.dubbo.qos.command.impl.Quit;
+import org.apache.dubbo.qos.command.impl.Tps;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
 
@@ -44,7 +46,7 @@ public class CommandHelperTest {
     @Test
     public void testGetAllCommandClass() throws Exception {
         List<Class<?>> classes = CommandHelper.getAllCommandClass();
-        assertThat(classes, containsInAnyOrder(GreetingCommand.class, Help.class, Ls.class, Offline.class, Online.class, Quit.class));
+        assertThat(classes, containsInAnyOrder(GreetingCommand.class, Help.class, Ls.class, Metrics.class, Offline.class, Online.class, Quit.class, Tps.class));
     }
 
     @Test
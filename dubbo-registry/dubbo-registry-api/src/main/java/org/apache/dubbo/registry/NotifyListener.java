@@ -41,4 +41,18 @@ public interface NotifyListener {
      */
     void notify(List<URL> urls);
 
+    /**
+     * Triggered when the data of one type changed, along with the change since the previous notification of that type.
+     * <p>
+     * Registries which can tell the change call it instead of {@link #notify(List)}, with the same contract; a listener
+     * may apply the change instead of comparing the full data with its own. By default it is notified as a whole.
+     *
+     * @param urls    The full data of the type, as for {@link #notify(List)}.
+     * @param added   The urls which were not in the previous notification of the type.
+     * @param removed The urls of the previous notification of the type which are gone.
+     */
+    default void notify(List<URL> urls, List<URL> added, List<URL> removed) {
+        notify(urls);
+    }
+
 }
\ No newline at end of file
@@ -47,7 +47,6 @@ import org.apache.dubbo.rpc.model.ApplicationModel;
 import org.apache.dubbo.rpc.protocol.InvokerWrapper;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -56,6 +55,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import static org.apache.dubbo.common.Constants.APP_DYNAMIC_CONFIGURATORS_CATEGORY;
@@ -105,6 +105,9 @@ public class RegistryDirectory<T> extends AbstractDirectory<T> implements Notify
     private volatile Map<String, Invoker<T>> urlInvokerMap; // The initial value is null and the midway may be assigned to null, please use the local variable reference
     private volatile List<Invoker<T>> invokers;
 
+    // Map<providerUrl, url> cache notified provider url to the key of its invoker in urlInvokerMap, null when a key is shared by several provider urls.
+    private volatile Map<String, String> providerKeys; // The initial value is null and the midway may be assigned to null, please use the local variable reference
+
     // Set<invokerUrls> cache invokeUrls to invokers mapping.
     private volatile Set<URL> cachedInvokerUrls; // The initial value is null and the midway may be assigned to null, please use the local variable reference
 
@@ -218,6 +221,97 @@ public class RegistryDirectory<T> extends AbstractDirectory<T> implements Notify
         refreshOverrideAndInvoker(providerURLs);
     }
 
+    /**
+     * Apply the providers added and removed to the invokers: only the added providers are referred, and the router
+     * chain patches its address pools instead of routing every invoker again. Notifications of other categories,
+     * and changes which can't be applied on the current invokers, are handled by {@link #notify(List)}.
+     */
+    @Override
+    public synchronized void notify(List<URL> urls, List<URL> added, List<URL> removed) {
+        Map<String, Invoker<T>> oldUrlInvokerMap = this.urlInvokerMap; // local reference
+        Map<String, String> oldProviderKeys = this.providerKeys; // local reference
+        if (forbidden || CollectionUtils.isEmptyMap(oldUrlInvokerMap) || oldProviderKeys == null
+                || !isProviderUrls(urls)) {
+            notify(urls);
+            return;
+        }
+
+        Map<String, Invoker<T>> newUrlInvokerMap = new HashMap<>(oldUrlInvokerMap);
+        Map<String, String> newProviderKeys = new HashMap<>(oldProviderKeys);
+        Map<String, Invoker<T>> removedInvokers = new HashMap<>();
+        for (URL providerUrl : removed) {
+            String key = newProviderKeys.remove(providerUrl.toFullString());
+            Invoker<T> invoker = key == null ? null : newUrlInvokerMap.remove(key);
+            if (invoker != null) {
+                removedInvokers.put(key, invoker);
+            }
+        }
+
+        List<URL> addedProviderUrls = new ArrayList<>(added.size());
+        List<URL> addedUrls = new ArrayList<>(added.size());
+        Set<String> keys = new HashSet<>();
+        for (URL providerUrl : added) {
+            if (providerUrl == null || !isValidCategory(providerUrl) || !isNotCompatibleFor26x(providerUrl)
+                    || !isAccepted(providerUrl)) {
+                continue;
+            }
+            URL url = mergeUrl(providerUrl);
+            String key = url.toFullString(); // The parameter urls are sorted
+            if (newUrlInvokerMap.containsKey(key) || !keys.add(key)) { // Repeated url, see providerKeys
+                notify(urls);
+                return;
+            }
+            addedProviderUrls.add(providerUrl);
+            addedUrls.add(url);
+        }
+
+        List<Invoker<T>> addedInvokers = new ArrayList<>(addedUrls.size());
+        for (int i = 0; i < addedUrls.size(); i++) {
+            URL url = addedUrls.get(i);
+            String key = url.toFullString();
+            Invoker<T> invoker = removedInvokers.remove(key); // Removed and added again with the same parameters
+            if (invoker == null) {
+                invoker = refer(url, addedProviderUrls.get(i));
+                if (invoker == null) {
+                    continue;
+                }
+                addedInvokers.add(invoker);
+            }
+            newUrlInvokerMap.put(key, invoker);
+            newProviderKeys.put(addedProviderUrls.get(i).toFullString(), key);
+        }
+        if (newUrlInvokerMap.isEmpty()) {
+            notify(urls);
+            return;
+        }
+
+        List<Invoker<T>> newInvokers = routerChain.updateInvokers(addedInvokers, removedInvokers.values());
+        this.invokers = multiGroup ? toMergeInvokerList(newInvokers) : newInvokers;
+        this.urlInvokerMap = newUrlInvokerMap;
+        this.providerKeys = newProviderKeys;
+        Set<URL> localCachedInvokerUrls = this.cachedInvokerUrls; // local reference
+        if (localCachedInvokerUrls != null) {
+            removed.forEach(localCachedInvokerUrls::remove);
+            localCachedInvokerUrls.addAll(added);
+        }
+
+        for (Invoker<T> invoker : removedInvokers.values()) {
+            try {
+                invoker.destroy();
+                if (logger.isDebugEnabled()) {
+                    logger.debug("destroy invoker[" + invoker.getUrl() + "] success. ");
+                }
+            } catch (Exception e) {
+                logger.warn("destroy invoker[" + invoker.getUrl() + "] failed. " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private boolean isProviderUrls(List<URL> urls) {
+        URL url = urls.isEmpty() ? null : urls.get(0);
+        return url != null && !Constants.EMPTY_PROTOCOL.equals(url.getProtocol()) && UrlUtils.isProvider(url);
+    }
+
     private void refreshOverrideAndInvoker(List<URL> urls) {
         // mock zookeeper://xxx?mock=return null
         overrideDirectoryUrl();
@@ -256,13 +350,14 @@ public class RegistryDirectory<T> extends AbstractDirectory<T> implements Notify
             if (invokerUrls.isEmpty() && this.cachedInvokerUrls != null) {
                 invokerUrls.addAll(this.cachedInvokerUrls);
             } else {
-                this.cachedInvokerUrls = new HashSet<>();
+                this.cachedInvokerUrls = ConcurrentHashMap.newKeySet();
                 this.cachedInvokerUrls.addAll(invokerUrls);//Cached invoker urls, convenient for comparison
             }
             if (invokerUrls.isEmpty()) {
                 return;
             }
-            Map<String, Invoker<T>> newUrlInvokerMap = toInvokers(invokerUrls);// Translate url list to Invoker map
+            Map<String, String> newProviderKeys = new HashMap<>();
+            Map<String, Invoker<T>> newUrlInvokerMap = toInvokers(invokerUrls, newProviderKeys);// Translate url list to Invoker map
 
             /**
              * If the calculation is wrong, it is not processed.
@@ -284,6 +379,8 @@ public class RegistryDirectory<T> extends AbstractDirectory<T> implements Notify
             routerChain.setInvokers(newInvokers);
             this.invokers = multiGroup ? toMergeInvokerList(newInvokers) : newInvokers;
             this.urlInvokerMap = newUrlInvokerMap;
+            // a provider url can't be removed on its own when its invoker is shared with another one
+            this.providerKeys = newProviderKeys.size() == newUrlInvokerMap.size() ? newProviderKeys : null;
 
             try {
                 destroyUnusedInvokers(oldUrlInvokerMap, newUrlInvokerMap); // Close the unused Invoker
@@ -352,44 +449,24 @@ public class RegistryDirectory<T> extends AbstractDirectory<T> implements Notify
      * Turn urls into invokers, and if url has been refer, will not re-reference.
      *
      * @param urls
+     * @param providerKeys filled with the key of the invoker of each provider url
      * @return invokers
      */
-    private Map<String, Invoker<T>> toInvokers(List<URL> urls) {
+    private Map<String, Invoker<T>> toInvokers(List<URL> urls, Map<String, String> providerKeys) {
         Map<String, Invoker<T>> newUrlInvokerMap = new HashMap<>();
         if (urls == null || urls.isEmpty()) {
             return newUrlInvokerMap;
         }
         Set<String> keys = new HashSet<>();
-        String queryProtocols = this.queryMap.get(Constants.PROTOCOL_KEY);
         for (URL providerUrl : urls) {
-            // If protocol is configured at the reference side, only the matching protocol is selected
-            if (queryProtocols != null && queryProtocols.length() > 0) {
-                boolean accept = false;
-                String[] acceptProtocols = queryProtocols.split(",");
-                for (String acceptProtocol : acceptProtocols) {
-                    if (providerUrl.getProtocol().equals(acceptProtocol)) {
-                        accept = true;
-                        break;
-                    }
-                }
-                if (!accept) {
-                    continue;
-                }
-            }
-            if (Constants.EMPTY_PROTOCOL.equals(providerUrl.getProtocol())) {
-                continue;
-            }
-            if (!ExtensionLoader.getExtensionLoader(Protocol.class).hasExtension(providerUrl.getProtocol())) {
-                logger.error(new IllegalStateException("Unsupported protocol " + providerUrl.getProtocol() +
-                        " in notified url: " + providerUrl + " from registry " + getUrl().getAddress() +
-                        " to consumer " + NetUtils.getLocalHost() + ", supported protocol: " +
-                        ExtensionLoader.getExtensionLoader(Protocol.class).getSupportedExtensions()));
+            if (!isAccepted(providerUrl)) {
                 continue;
             }
             URL url = mergeUrl(providerUrl);
 
             String key = url.toFullString(); // The parameter urls are sorted
             if (keys.contains(key)) { // Repeated url
+                providerKeys.put(providerUrl.toFullString(), key);
                 continue;
             }
             keys.add(key);
@@ -397,30 +474,63 @@ public class RegistryDirectory<T> extends AbstractDirectory<T> implements Notify
             Map<String, Invoker<T>> localUrlInvokerMap = this.urlInvokerMap; // local reference
             Invoker<T> invoker = localUrlInvokerMap == null ? null : localUrlInvokerMap.get(key);
             if (invoker == null) { // Not in the cache, refer again
-                try {
-                    boolean enabled = true;
-                    if (url.hasParameter(Constants.DISABLED_KEY)) {
-                        enabled = !url.getParameter(Constants.DISABLED_KEY, false);
-                    } else {
-                        enabled = url.getParameter(Constants.ENABLED_KEY, true);
-                    }
-                    if (enabled) {
-                        invoker = new InvokerDelegate<>(protocol.refer(serviceType, url), url, providerUrl);
-                    }
-                } catch (Throwable t) {
-                    logger.error("Failed to refer invoker for interface:" + serviceType + ",url:(" + url + ")" + t.getMessage(), t);
-                }
-                if (invoker != null) { // Put new invoker in cache
-                    newUrlInvokerMap.put(key, invoker);
-                }
-            } else {
+                invoker = refer(url, providerUrl);
+            }
+            if (invoker != null) { // Put new invoker in cache
                 newUrlInvokerMap.put(key, invoker);
+                providerKeys.put(providerUrl.toFullString(), key);
             }
         }
         keys.clear();
         return newUrlInvokerMap;
     }
 
+    private boolean isAccepted(URL providerUrl) {
+        // If protocol is configured at the reference side, only the matching protocol is selected
+        String queryProtocols = this.queryMap.get(Constants.PROTOCOL_KEY);
+        if (queryProtocols != null && queryProtocols.length() > 0) {
+            boolean accept = false;
+            String[] acceptProtocols = queryProtocols.split(",");
+            for (String acceptProtocol : acceptProtocols) {
+                if (providerUrl.getProtocol().equals(acceptProtocol)) {
+                    accept = true;
+                    break;
+                }
+            }
+            if (!accept) {
+                return false;
+            }
+        }
+        if (Constants.EMPTY_PROTOCOL.equals(providerUrl.getProtocol())) {
+            return false;
+        }
+        if (!ExtensionLoader.getExtensionLoader(Protocol.class).hasExtension(providerUrl.getProtocol())) {
+            logger.error(new IllegalStateException("Unsupported protocol " + providerUrl.getProtocol() +
+                    " in notified url: " + providerUrl + " from registry " + getUrl().getAddress() +
+                    " to consumer " + NetUtils.getLocalHost() + ", supported protocol: " +
+                    ExtensionLoader.getExtensionLoader(Protocol.class).getSupportedExtensions()));
+            return false;
+        }
+        return true;
+    }
+
+    private Invoker<T> refer(URL url, URL providerUrl) {
+        try {
+            boolean enabled = true;
+            if (url.hasParameter(Constants.DISABLED_KEY)) {
+                enabled = !url.getParameter(Constants.DISABLED_KEY, false);
+            } else {
+                enabled = url.getParameter(Constants.ENABLED_KEY, true);
+            }
+            if (enabled) {
+                return new InvokerDelegate<>(protocol.refer(serviceType, url), url, providerUrl);
+            }
+        } catch (Throwable t) {
+            logger.error("Failed to refer invoker for interface:" + serviceType + ",url:(" + url + ")" + t.getMessage(), t);
+        }
+        return null;
+    }
+
     /**
      * Merge url parameters. the order is: override > -D >Consumer > Provider
      *
@@ -513,9 +623,9 @@ public class RegistryDirectory<T> extends AbstractDirectory<T> implements Notify
         // check deleted invoker
         List<String> deleted = null;
         if (oldUrlInvokerMap != null) {
-            Collection<Invoker<T>> newInvokers = newUrlInvokerMap.values();
+            // an invoker is only ever kept under the same key
             for (Map.Entry<String, Invoker<T>> entry : oldUrlInvokerMap.entrySet()) {
-                if (!newInvokers.contains(entry.getValue())) {
+                if (!newUrlInvokerMap.containsKey(entry.getKey())) {
                     if (deleted == null) {
                         deleted = new ArrayList<>();
                     }
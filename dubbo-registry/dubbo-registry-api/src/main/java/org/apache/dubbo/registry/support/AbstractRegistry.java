@@ -29,13 +29,6 @@ import org.apache.dubbo.registry.NotifyListener;
 import org.apache.dubbo.registry.Registry;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.RandomAccessFile;
-import java.nio.channels.FileChannel;
-import java.nio.channels.FileLock;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -56,14 +49,8 @@ import java.util.concurrent.atomic.AtomicReference;
  */
 public abstract class AbstractRegistry implements Registry {
 
-    // URL address separator, used in file cache, service provider URL separation
-    private static final char URL_SEPARATOR = ' ';
-    // URL address separated regular expression for parsing the service provider URL list in the file cache
-    private static final String URL_SPLIT = "\\s+";
     // Log output
     protected final Logger logger = LoggerFactory.getLogger(getClass());
-    // Local disk cache, where the special key value.registries records the list of registry centers, and the others are the list of notified service providers
-    private final Properties properties = new Properties();
     // File cache timing writing
     private final ExecutorService registryCacheExecutor = Executors.newFixedThreadPool(1, new NamedThreadFactory("DubboSaveRegistryCache", true));
     // Is it synchronized to save the file
@@ -75,6 +62,8 @@ public abstract class AbstractRegistry implements Registry {
     private URL registryUrl;
     // Local disk cache file
     private File file;
+    // Local disk cache, the list of notified service providers by service key, null without cache file
+    private RegistryCacheStore cacheStore;
 
     public AbstractRegistry(URL url) {
         setUrl(url);
@@ -91,6 +80,7 @@ public abstract class AbstractRegistry implements Registry {
             }
         }
         this.file = file;
+        this.cacheStore = file == null ? null : new RegistryCacheStore(file);
         // When starting the subscription center,
         // we need to read the local cache file for future Registry fault tolerance processing.
         loadProperties();
@@ -134,8 +124,11 @@ public abstract class AbstractRegistry implements Registry {
         return file;
     }
 
+    /**
+     * @return a copy of the local disk cache
+     */
     public Properties getCacheProperties() {
-        return properties;
+        return cacheStore == null ? new Properties() : cacheStore.toProperties();
     }
 
     public AtomicLong getLastCacheChanged() {
@@ -146,33 +139,12 @@ public abstract class AbstractRegistry implements Registry {
         if (version < lastCacheChanged.get()) {
             return;
         }
-        if (file == null) {
+        if (cacheStore == null) {
             return;
         }
         // Save
         try {
-            File lockfile = new File(file.getAbsolutePath() + ".lock");
-            if (!lockfile.exists()) {
-                lockfile.createNewFile();
-            }
-            try (RandomAccessFile raf = new RandomAccessFile(lockfile, "rw");
-                 FileChannel channel = raf.getChannel()) {
-                FileLock lock = channel.tryLock();
-                if (lock == null) {
-                    throw new IOException("Can not lock the registry cache file " + file.getAbsolutePath() + ", ignore and retry later, maybe multi java process use the file, please config: dubbo.registry.file=xxx.properties");
-                }
-                // Save
-                try {
-                    if (!file.exists()) {
-                        file.createNewFile();
-                    }
-                    try (FileOutputStream outputFile = new FileOutputStream(file)) {
-                        properties.store(outputFile, "Dubbo Registry Cache");
-                    }
-                } finally {
-                    lock.release();
-                }
-            }
+            cacheStore.flush();
         } catch (Throwable e) {
             if (version < lastCacheChanged.get()) {
                 return;
@@ -184,44 +156,33 @@ public abstract class AbstractRegistry implements Registry {
     }
 
     private void loadProperties() {
-        if (file != null && file.exists()) {
-            InputStream in = null;
+        if (cacheStore != null) {
             try {
-                in = new FileInputStream(file);
-                properties.load(in);
+                cacheStore.load();
                 if (logger.isInfoEnabled()) {
-                    logger.info("Load registry cache file " + file + ", data: " + properties);
+                    logger.info("Load registry cache file " + file + ", services: " + cacheStore.keys());
                 }
             } catch (Throwable e) {
                 logger.warn("Failed to load registry cache file " + file, e);
-            } finally {
-                if (in != null) {
-                    try {
-                        in.close();
-                    } catch (IOException e) {
-                        logger.warn(e.getMessage(), e);
-                    }
-                }
             }
         }
     }
 
     public List<URL> getCacheUrls(URL url) {
-        for (Map.Entry<Object, Object> entry : properties.entrySet()) {
-            String key = (String) entry.getKey();
-            String value = (String) entry.getValue();
-            if (key != null && key.length() > 0 && key.equals(url.getServiceKey())
-                    && (Character.isLetter(key.charAt(0)) || key.charAt(0) == '_')
-                    && value != null && value.length() > 0) {
-                String[] arr = value.trim().split(URL_SPLIT);
-                List<URL> urls = new ArrayList<>();
-                for (String u : arr) {
-                    urls.add(URL.valueOf(u));
-                }
-                return urls;
-            }
+        String key = url.getServiceKey();
+        if (cacheStore == null || key == null || key.length() == 0
+                || !(Character.isLetter(key.charAt(0)) || key.charAt(0) == '_')) {
+            return null;
+        }
+        List<String> values = cacheStore.get(key);
+        if (CollectionUtils.isEmpty(values)) {
+            return null;
+        }
+        List<URL> urls = new ArrayList<>(values.size());
+        for (String u : values) {
+            urls.add(URL.valueOf(u));
         }
-        return null;
+        return urls;
     }
 
     @Override
@@ -397,42 +358,110 @@ public abstract class AbstractRegistry implements Registry {
             List<URL> categoryList = entry.getValue();
             categoryNotified.put(category, categoryList);
             listener.notify(categoryList);
-            // We will update our cache file after each notification.
-            // When our Registry has a subscribe failure due to network jitter, we can return at least the existing cache URL.
+        }
+        // We will update our cache file after each notification.
+        // When our Registry has a subscribe failure due to network jitter, we can return at least the existing cache URL.
+        saveProperties(url);
+    }
+
+    /**
+     * Notify changes of one category from the Provider side, along with the urls added and removed since its last
+     * notification, see {@link NotifyListener#notify(List, List, List)}.
+     *
+     * @param url      consumer side url
+     * @param listener listener
+     * @param urls     latest urls of the category, all matching the consumer side url
+     * @param added    urls not in the last notification of the category
+     * @param removed  urls of the last notification of the category which are gone
+     */
+    protected void notify(URL url, NotifyListener listener, List<URL> urls, List<URL> added, List<URL> removed) {
+        if (url == null) {
+            throw new IllegalArgumentException("notify url == null");
+        }
+        if (listener == null) {
+            throw new IllegalArgumentException("notify listener == null");
+        }
+        if (CollectionUtils.isEmpty(urls)) {
+            logger.warn("Ignore empty notify urls for subscribe url " + url);
+            return;
+        }
+        if (logger.isInfoEnabled()) {
+            logger.info("Notify changed urls for subscribe url " + url + ", added: " + added + ", removed: " + removed);
+        }
+        String category = urls.get(0).getParameter(Constants.CATEGORY_KEY, Constants.DEFAULT_CATEGORY);
+        List<URL> previous = notified.computeIfAbsent(url, u -> new ConcurrentHashMap<>()).put(category, urls);
+        listener.notify(urls, added, removed);
+        if (previous == null) {
             saveProperties(url);
+        } else {
+            saveProperties(url, previous, urls, added, removed);
         }
     }
 
     private void saveProperties(URL url) {
-        if (file == null) {
+        if (cacheStore == null) {
             return;
         }
 
         try {
-            StringBuilder buf = new StringBuilder();
+            List<String> urls = new ArrayList<>();
             Map<String, List<URL>> categoryNotified = notified.get(url);
             if (categoryNotified != null) {
                 for (List<URL> us : categoryNotified.values()) {
                     for (URL u : us) {
-                        if (buf.length() > 0) {
-                            buf.append(URL_SEPARATOR);
-                        }
-                        buf.append(u.toFullString());
+                        urls.add(u.toFullString());
                     }
                 }
             }
-            properties.setProperty(url.getServiceKey(), buf.toString());
-            long version = lastCacheChanged.incrementAndGet();
-            if (syncSaveFile) {
-                doSaveProperties(version);
-            } else {
-                registryCacheExecutor.execute(new SaveProperties(version));
+            cacheStore.put(url.getServiceKey(), urls);
+            saveCache();
+        } catch (Throwable t) {
+            logger.warn(t.getMessage(), t);
+        }
+    }
+
+    /**
+     * Only journal the change of one category, with its empty url coming or going.
+     */
+    private void saveProperties(URL url, List<URL> previous, List<URL> urls, List<URL> added, List<URL> removed) {
+        if (cacheStore == null) {
+            return;
+        }
+
+        try {
+            List<String> addedUrls = new ArrayList<>(added.size() + 1);
+            List<String> removedUrls = new ArrayList<>(removed.size() + 1);
+            if (isEmptyUrls(urls) && !isEmptyUrls(previous)) {
+                addedUrls.add(urls.get(0).toFullString());
+            } else if (isEmptyUrls(previous) && !isEmptyUrls(urls)) {
+                removedUrls.add(previous.get(0).toFullString());
+            }
+            for (URL u : added) {
+                addedUrls.add(u.toFullString());
+            }
+            for (URL u : removed) {
+                removedUrls.add(u.toFullString());
             }
+            cacheStore.update(url.getServiceKey(), addedUrls, removedUrls);
+            saveCache();
         } catch (Throwable t) {
             logger.warn(t.getMessage(), t);
         }
     }
 
+    private static boolean isEmptyUrls(List<URL> urls) {
+        return urls.size() == 1 && Constants.EMPTY_PROTOCOL.equals(urls.get(0).getProtocol());
+    }
+
+    private void saveCache() {
+        long version = lastCacheChanged.incrementAndGet();
+        if (syncSaveFile) {
+            doSaveProperties(version);
+        } else {
+            registryCacheExecutor.execute(new SaveProperties(version));
+        }
+    }
+
     @Override
     public void destroy() {
         if (logger.isInfoEnabled()) {
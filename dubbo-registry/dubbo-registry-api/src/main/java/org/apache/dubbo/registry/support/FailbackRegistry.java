@@ -364,6 +364,27 @@ public abstract class FailbackRegistry extends AbstractRegistry {
         super.notify(url, listener, urls);
     }
 
+    @Override
+    protected void notify(URL url, NotifyListener listener, List<URL> urls, List<URL> added, List<URL> removed) {
+        if (url == null) {
+            throw new IllegalArgumentException("notify url == null");
+        }
+        if (listener == null) {
+            throw new IllegalArgumentException("notify listener == null");
+        }
+        try {
+            doNotify(url, listener, urls, added, removed);
+        } catch (Exception t) {
+            // The listener may have missed the change, so the retry notifies the full urls
+            addFailedNotified(url, listener, urls);
+            logger.error("Failed to notify for subscribe " + url + ", waiting for retry, cause: " + t.getMessage(), t);
+        }
+    }
+
+    protected void doNotify(URL url, NotifyListener listener, List<URL> urls, List<URL> added, List<URL> removed) {
+        super.notify(url, listener, urls, added, removed);
+    }
+
     @Override
     protected void recover() throws Exception {
         // register
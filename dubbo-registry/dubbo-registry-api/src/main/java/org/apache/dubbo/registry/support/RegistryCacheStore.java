@@ -0,0 +1,451 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.registry.support;
+
+import org.apache.dubbo.common.logger.Logger;
+import org.apache.dubbo.common.logger.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Local disk cache of the notified urls, by service key.
+ * <p>
+ * The cache is a snapshot file with an append-only journal next to it ({@code <file>.journal}). A change is only
+ * appended to the journal, and once the journal outgrows the snapshot, both are compacted into a new snapshot. The
+ * snapshot ends with an index of its entries and is memory mapped, so that loading it reads the index only and an
+ * entry is decoded when it is asked for. A cache file of the former {@link Properties} format is imported.
+ * <p>
+ * Journal records only set the presence of urls, so replaying records already compacted into the snapshot is harmless.
+ */
+public class RegistryCacheStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegistryCacheStore.class);
+
+    // "DRC" and the format version
+    private static final int MAGIC = 0x44524301;
+
+    // magic and index offset
+    private static final int HEADER_LENGTH = 8;
+
+    private static final byte PUT = 1;
+
+    private static final byte ADD = 2;
+
+    private static final byte REMOVE = 3;
+
+    private static final long MIN_COMPACT_LENGTH = 1024 * 1024;
+
+    // URL address separated regular expression for parsing the service provider URL list of the former cache file
+    private static final String URL_SPLIT = "\\s+";
+
+    private final File file;
+
+    private final File journal;
+
+    private final File lockfile;
+
+    private final Object flushLock = new Object();
+
+    // entries changed since the snapshot was loaded or written, the others are read from the snapshot
+    private final Map<String, Set<String>> entries = new HashMap<>();
+
+    // key -> {offset, length} of the entry in the snapshot
+    private Map<String, int[]> index = Collections.emptyMap();
+
+    private ByteBuffer snapshot;
+
+    private long snapshotLength;
+
+    private long journalLength;
+
+    private long compactLength = MIN_COMPACT_LENGTH;
+
+    // the former cache file is replaced by a snapshot at the first flush
+    private boolean imported;
+
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+
+    public RegistryCacheStore(File file) {
+        this.file = file;
+        this.journal = new File(file.getAbsolutePath() + ".journal");
+        this.lockfile = new File(file.getAbsolutePath() + ".lock");
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public File getJournal() {
+        return journal;
+    }
+
+    /**
+     * Map the snapshot and replay the journal on it.
+     */
+    public synchronized void load() throws IOException {
+        if (file.exists() && file.length() > 0 && !loadSnapshot()) {
+            importProperties();
+        }
+        if (journal.exists()) {
+            byte[] records = Files.readAllBytes(journal.toPath());
+            replay(ByteBuffer.wrap(records));
+            journalLength = records.length;
+        }
+    }
+
+    public synchronized Set<String> keys() {
+        Set<String> keys = new TreeSet<>(index.keySet());
+        keys.addAll(entries.keySet());
+        return keys;
+    }
+
+    /**
+     * @return the urls of the key, null if there is no entry of the key
+     */
+    public synchronized List<String> get(String key) {
+        Set<String> urls = entries.containsKey(key) ? entries.get(key) : read(key);
+        return urls == null ? null : new ArrayList<>(urls);
+    }
+
+    /**
+     * Replace the urls of the key.
+     */
+    public synchronized void put(String key, Collection<String> urls) {
+        entries.put(key, new LinkedHashSet<>(urls));
+        append(PUT, key, urls);
+    }
+
+    /**
+     * Add and remove urls of the key.
+     */
+    public synchronized void update(String key, Collection<String> added, Collection<String> removed) {
+        Set<String> urls = entries.computeIfAbsent(key, k -> {
+            Set<String> read = read(k);
+            return read == null ? new LinkedHashSet<>() : read;
+        });
+        if (!removed.isEmpty()) {
+            urls.removeAll(removed);
+            append(REMOVE, key, removed);
+        }
+        if (!added.isEmpty()) {
+            urls.addAll(added);
+            append(ADD, key, added);
+        }
+    }
+
+    public Properties toProperties() {
+        Properties properties = new Properties();
+        for (String key : keys()) {
+            List<String> urls = get(key);
+            if (urls != null) {
+                properties.setProperty(key, String.join(" ", urls));
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Append the changes to the journal, or compact the snapshot and the journal once the journal outgrows the
+     * snapshot. The files are locked meanwhile, against other processes using the same cache file.
+     */
+    public void flush() throws IOException {
+        synchronized (flushLock) {
+            byte[] records;
+            Map<String, List<String>> changed = null;
+            Map<String, int[]> snapshotIndex = null;
+            ByteBuffer snapshotBuffer = null;
+            synchronized (this) {
+                records = pending.toByteArray();
+                pending.reset();
+                if (imported || journalLength + records.length > Math.max(compactLength, snapshotLength)) {
+                    changed = new HashMap<>();
+                    for (Map.Entry<String, Set<String>> entry : entries.entrySet()) {
+                        changed.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+                    }
+                    snapshotIndex = index;
+                    snapshotBuffer = snapshot;
+                }
+            }
+            if (records.length == 0 && changed == null) {
+                return;
+            }
+            try (RandomAccessFile raf = new RandomAccessFile(lockfile, "rw");
+                 FileChannel channel = raf.getChannel()) {
+                FileLock lock = channel.tryLock();
+                if (lock == null) {
+                    throw new IOException("Can not lock the registry cache file " + file.getAbsolutePath() + ", ignore and retry later, maybe multi java process use the file, please config: dubbo.registry.file=xxx.properties");
+                }
+                try {
+                    if (changed == null || !compact(changed, snapshotIndex, snapshotBuffer)) {
+                        Files.write(journal.toPath(), records, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                        synchronized (this) {
+                            journalLength += records.length;
+                        }
+                    }
+                } finally {
+                    lock.release();
+                }
+            } catch (IOException | RuntimeException e) {
+                synchronized (this) {
+                    ByteArrayOutputStream restored = new ByteArrayOutputStream(records.length + pending.size());
+                    restored.write(records, 0, records.length);
+                    restored.write(pending.toByteArray(), 0, pending.size());
+                    pending = restored;
+                }
+                throw e;
+            }
+        }
+    }
+
+    private boolean compact(Map<String, List<String>> changed, Map<String, int[]> snapshotIndex, ByteBuffer snapshotBuffer) {
+        File tmp = new File(file.getAbsolutePath() + ".tmp");
+        try {
+            Map<String, int[]> newIndex = writeSnapshot(tmp, changed, snapshotIndex, snapshotBuffer);
+            try {
+                Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            new FileOutputStream(journal).close();
+            ByteBuffer newSnapshot = map(file);
+            synchronized (this) {
+                index = newIndex;
+                snapshot = newSnapshot;
+                snapshotLength = newSnapshot.capacity();
+                journalLength = 0;
+                compactLength = MIN_COMPACT_LENGTH;
+                imported = false;
+                // the captured entries are read from the new snapshot now, only those changed since stay on the heap
+                entries.entrySet().removeIf(entry -> isSame(entry.getValue(), changed.get(entry.getKey())));
+            }
+            return true;
+        } catch (IOException e) {
+            // e.g. a mapped file can't be replaced on windows, keep on appending to the journal
+            logger.warn("Failed to compact registry cache file " + file + ", cause: " + e.getMessage(), e);
+            tmp.delete();
+            synchronized (this) {
+                compactLength = Math.max(compactLength, journalLength) * 2;
+            }
+            return false;
+        }
+    }
+
+    private static boolean isSame(Set<String> urls, List<String> captured) {
+        if (captured == null || urls.size() != captured.size()) {
+            return false;
+        }
+        int i = 0;
+        for (String url : urls) {
+            if (!url.equals(captured.get(i++))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Map<String, int[]> writeSnapshot(File tmp, Map<String, List<String>> changed, Map<String, int[]> snapshotIndex,
+                                             ByteBuffer snapshotBuffer) throws IOException {
+        Map<String, int[]> newIndex = new HashMap<>();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(0);
+            for (Map.Entry<String, List<String>> entry : changed.entrySet()) {
+                int offset = out.size();
+                writeStrings(out, entry.getValue());
+                newIndex.put(entry.getKey(), new int[]{offset, out.size() - offset});
+            }
+            for (Map.Entry<String, int[]> entry : snapshotIndex.entrySet()) {
+                if (!changed.containsKey(entry.getKey())) {
+                    int[] position = entry.getValue();
+                    byte[] bytes = new byte[position[1]];
+                    ByteBuffer buffer = snapshotBuffer.duplicate();
+                    buffer.position(position[0]);
+                    buffer.get(bytes);
+                    newIndex.put(entry.getKey(), new int[]{out.size(), bytes.length});
+                    out.write(bytes);
+                }
+            }
+            int indexOffset = out.size();
+            out.writeInt(newIndex.size());
+            for (Map.Entry<String, int[]> entry : newIndex.entrySet()) {
+                writeString(out, entry.getKey());
+                out.writeInt(entry.getValue()[0]);
+                out.writeInt(entry.getValue()[1]);
+            }
+            out.flush();
+            try (RandomAccessFile raf = new RandomAccessFile(tmp, "rw")) {
+                raf.seek(4);
+                raf.writeInt(indexOffset);
+                raf.getFD().sync();
+            }
+        }
+        return newIndex;
+    }
+
+    private boolean loadSnapshot() throws IOException {
+        ByteBuffer buffer = map(file);
+        if (buffer.capacity() < HEADER_LENGTH || buffer.getInt(0) != MAGIC) {
+            return false;
+        }
+        try {
+            buffer.position(buffer.getInt(4));
+            int count = buffer.getInt();
+            Map<String, int[]> index = new HashMap<>(count * 4 / 3 + 1);
+            for (int i = 0; i < count; i++) {
+                String key = readString(buffer);
+                index.put(key, new int[]{buffer.getInt(), buffer.getInt()});
+            }
+            this.index = index;
+            this.snapshot = buffer;
+            this.snapshotLength = buffer.capacity();
+            return true;
+        } catch (RuntimeException e) {
+            throw new IOException("Invalid registry cache file " + file, e);
+        }
+    }
+
+    private void importProperties() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = new FileInputStream(file)) {
+            properties.load(in);
+        }
+        for (String key : properties.stringPropertyNames()) {
+            String value = properties.getProperty(key).trim();
+            Set<String> urls = new LinkedHashSet<>();
+            if (value.length() > 0) {
+                Collections.addAll(urls, value.split(URL_SPLIT));
+            }
+            entries.put(key, urls);
+        }
+        imported = true;
+    }
+
+    private void replay(ByteBuffer records) {
+        try {
+            while (records.remaining() >= 4) {
+                int length = records.getInt();
+                if (length < 0 || records.remaining() < length) {
+                    break; // the last record was not completely written
+                }
+                ByteBuffer record = records.slice();
+                record.limit(length);
+                records.position(records.position() + length);
+                byte op = record.get();
+                String key = readString(record);
+                List<String> urls = readStrings(record);
+                Set<String> entry = entries.computeIfAbsent(key, k -> {
+                    Set<String> read = read(k);
+                    return read == null ? new LinkedHashSet<>() : read;
+                });
+                if (op == PUT) {
+                    entry.clear();
+                    entry.addAll(urls);
+                } else if (op == ADD) {
+                    entry.addAll(urls);
+                } else if (op == REMOVE) {
+                    entry.removeAll(urls);
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Ignore the invalid end of registry cache journal " + journal + ", cause: " + e.getMessage(), e);
+        }
+    }
+
+    private Set<String> read(String key) {
+        int[] position = index.get(key);
+        if (position == null) {
+            return null;
+        }
+        ByteBuffer buffer = snapshot.duplicate();
+        buffer.position(position[0]);
+        return new LinkedHashSet<>(readStrings(buffer));
+    }
+
+    private void append(byte op, String key, Collection<String> urls) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(op);
+            writeString(out, key);
+            writeStrings(out, urls);
+            new DataOutputStream(pending).writeInt(bytes.size());
+            bytes.writeTo(pending);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // never happens for bytes in memory
+        }
+    }
+
+    private static ByteBuffer map(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static void writeStrings(DataOutputStream out, Collection<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static List<String> readStrings(ByteBuffer buffer) {
+        int size = buffer.getInt();
+        List<String> values = new ArrayList<>(Math.min(size, buffer.remaining() / 4));
+        for (int i = 0; i < size; i++) {
+            values.add(readString(buffer));
+        }
+        return values;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
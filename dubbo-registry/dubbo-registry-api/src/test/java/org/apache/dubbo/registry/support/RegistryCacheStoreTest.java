@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.registry.support;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+public class RegistryCacheStoreTest {
+
+    @Test
+    public void testJournal(@TempDir Path dir) throws Exception {
+        File file = dir.resolve("registry.cache").toFile();
+        RegistryCacheStore store = new RegistryCacheStore(file);
+        store.load();
+        Assertions.assertNull(store.get("com.foo.BarService"));
+
+        store.put("com.foo.BarService", Arrays.asList("dubbo://10.20.30.40:20880/com.foo.BarService",
+                "dubbo://10.20.30.41:20880/com.foo.BarService"));
+        store.update("com.foo.BarService", Collections.singletonList("dubbo://10.20.30.42:20880/com.foo.BarService"),
+                Collections.singletonList("dubbo://10.20.30.40:20880/com.foo.BarService"));
+        store.put("com.foo.BazService", Collections.singletonList("empty://10.20.30.1/com.foo.BazService"));
+        store.flush();
+        Assertions.assertFalse(file.exists());
+        Assertions.assertTrue(store.getJournal().length() > 0);
+
+        RegistryCacheStore loaded = new RegistryCacheStore(file);
+        loaded.load();
+        Assertions.assertEquals(Arrays.asList("dubbo://10.20.30.41:20880/com.foo.BarService",
+                "dubbo://10.20.30.42:20880/com.foo.BarService"), loaded.get("com.foo.BarService"));
+        Assertions.assertEquals(Collections.singletonList("empty://10.20.30.1/com.foo.BazService"), loaded.get("com.foo.BazService"));
+    }
+
+    @Test
+    public void testCompact(@TempDir Path dir) throws Exception {
+        File file = dir.resolve("registry.cache").toFile();
+        RegistryCacheStore store = new RegistryCacheStore(file);
+        store.load();
+        store.put("com.foo.BazService", Collections.singletonList("dubbo://10.20.30.40:20880/com.foo.BazService"));
+        store.flush();
+        Assertions.assertFalse(file.exists());
+
+        // outgrows the minimal compacted length
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            urls.add("dubbo://10.20." + (i / 250) + "." + (i % 250) + ":20880/com.foo.BarService?anyhost=true&application=foo"
+                    + "&dubbo=2.0.2&generic=false&interface=com.foo.BarService&methods=hello,world,foo,bar,baz"
+                    + "&pid=12345&revision=1.0.0&side=provider&timeout=3000&timestamp=1550000000000&version=1.0.0");
+        }
+        store.put("com.foo.BarService", urls);
+        store.flush();
+        Assertions.assertEquals(0, store.getJournal().length());
+        Assertions.assertTrue(file.length() > 1024 * 1024);
+        Assertions.assertEquals(urls, store.get("com.foo.BarService"));
+
+        store.update("com.foo.BarService", Collections.emptyList(), urls.subList(0, 2500));
+        store.update("com.foo.BazService", Collections.singletonList("dubbo://10.20.30.41:20880/com.foo.BazService"),
+                Collections.emptyList());
+        store.flush();
+        Assertions.assertTrue(store.getJournal().length() > 0);
+        Assertions.assertEquals(urls.subList(2500, 5000), store.get("com.foo.BarService"));
+
+        RegistryCacheStore loaded = new RegistryCacheStore(file);
+        loaded.load();
+        Assertions.assertEquals(urls.subList(2500, 5000), loaded.get("com.foo.BarService"));
+        Assertions.assertEquals(Arrays.asList("dubbo://10.20.30.40:20880/com.foo.BazService",
+                "dubbo://10.20.30.41:20880/com.foo.BazService"), loaded.get("com.foo.BazService"));
+    }
+
+    @Test
+    public void testImportProperties(@TempDir Path dir) throws Exception {
+        File file = dir.resolve("registry.cache").toFile();
+        Properties properties = new Properties();
+        properties.setProperty("com.foo.BarService", "dubbo://10.20.30.40:20880/com.foo.BarService dubbo://10.20.30.41:20880/com.foo.BarService");
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            properties.store(out, "Dubbo Registry Cache");
+        }
+
+        RegistryCacheStore store = new RegistryCacheStore(file);
+        store.load();
+        Assertions.assertEquals(Arrays.asList("dubbo://10.20.30.40:20880/com.foo.BarService",
+                "dubbo://10.20.30.41:20880/com.foo.BarService"), store.get("com.foo.BarService"));
+        Assertions.assertEquals(properties, store.toProperties());
+        store.flush();
+
+        RegistryCacheStore loaded = new RegistryCacheStore(file);
+        loaded.load();
+        Assertions.assertEquals(properties, loaded.toProperties());
+    }
+
+    @Test
+    public void testIncompleteJournal(@TempDir Path dir) throws Exception {
+        File file = dir.resolve("registry.cache").toFile();
+        RegistryCacheStore store = new RegistryCacheStore(file);
+        store.load();
+        store.put("com.foo.BarService", Collections.singletonList("dubbo://10.20.30.40:20880/com.foo.BarService"));
+        store.flush();
+        long length = store.getJournal().length();
+        store.put("com.foo.BarService", Collections.singletonList("dubbo://10.20.30.41:20880/com.foo.BarService"));
+        store.flush();
+        try (RandomAccessFile journal = new RandomAccessFile(store.getJournal(), "rw")) {
+            journal.setLength(length + 10);
+        }
+
+        RegistryCacheStore loaded = new RegistryCacheStore(file);
+        loaded.load();
+        Assertions.assertEquals(Collections.singletonList("dubbo://10.20.30.40:20880/com.foo.BarService"), loaded.get("com.foo.BarService"));
+    }
+}
@@ -44,6 +44,8 @@ import org.mockito.Mockito;
 import javax.script.ScriptEngineManager;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -896,6 +898,51 @@ public class RegistryDirectoryTest {
         Assertions.assertEquals(1, invokers3.size());
     }
 
+    /**
+     * Test notifying the providers added and removed
+     * It is expected that only the added providers are referred, and the others keep their invokers.
+     */
+    @Test
+    public void testNotify_Change_provider() {
+        RegistryDirectory registryDirectory = getRegistryDirectory();
+        invocation = new RpcInvocation();
+
+        URL url140 = SERVICEURL.setHost("10.20.30.140");
+        URL url141 = SERVICEURL.setHost("10.20.30.141");
+        URL url142 = SERVICEURL.setHost("10.20.30.142");
+        URL url143 = SERVICEURL.setHost("10.20.30.143").addParameter(Constants.ENABLED_KEY, "false");
+        registryDirectory.notify(Arrays.asList(url140, url141));
+        List<Invoker<?>> invokers = registryDirectory.list(invocation);
+        Assertions.assertEquals(2, invokers.size());
+        Invoker<?> invoker141 = invokers.get(0).getUrl().getHost().equals("10.20.30.141") ? invokers.get(0) : invokers.get(1);
+
+        registryDirectory.notify(Arrays.asList(url141, url142, url143), Arrays.asList(url142, url143), Arrays.asList(url140));
+        List<Invoker<?>> invokers2 = registryDirectory.list(invocation);
+        Assertions.assertEquals(2, invokers2.size());
+        Assertions.assertTrue(invokers2.contains(invoker141));
+        Assertions.assertEquals("10.20.30.142", invokers2.get(1 - invokers2.indexOf(invoker141)).getUrl().getHost());
+        Assertions.assertEquals(2, registryDirectory.getUrlInvokerMap().size());
+
+        registryDirectory.notify(Arrays.asList(url142, url143), Collections.emptyList(), Arrays.asList(url141));
+        List<Invoker<?>> invokers3 = registryDirectory.list(invocation);
+        Assertions.assertEquals(1, invokers3.size());
+        Assertions.assertEquals("10.20.30.142", invokers3.get(0).getUrl().getHost());
+
+        URL empty = URL.valueOf("empty://0.0.0.0/" + service + "?" + Constants.CATEGORY_KEY + "=" + Constants.PROVIDERS_CATEGORY);
+        registryDirectory.notify(Collections.singletonList(empty), Collections.emptyList(), Arrays.asList(url142, url143));
+        try {
+            registryDirectory.list(invocation);
+            fail();
+        } catch (RpcException e) {
+            Assertions.assertEquals(RpcException.FORBIDDEN_EXCEPTION, e.getCode());
+        }
+
+        registryDirectory.notify(Arrays.asList(url140), Arrays.asList(url140), Collections.emptyList());
+        List<Invoker<?>> invokers4 = registryDirectory.list(invocation);
+        Assertions.assertEquals(1, invokers4.size());
+        Assertions.assertEquals("10.20.30.140", invokers4.get(0).getUrl().getHost());
+    }
+
     /**
      * Test override disables a specified service provider through enable=false
      * It is expected that a specified service provider can be disable.
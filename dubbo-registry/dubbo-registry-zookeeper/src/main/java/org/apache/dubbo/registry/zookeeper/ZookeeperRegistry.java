@@ -33,7 +33,11 @@ import org.apache.dubbo.remoting.zookeeper.ZookeeperTransporter;
 import org.apache.dubbo.rpc.RpcException;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -157,13 +161,13 @@ public class ZookeeperRegistry extends FailbackRegistry {
                     }
                     ChildListener zkListener = listeners.get(listener);
                     if (zkListener == null) {
-                        listeners.putIfAbsent(listener, (parentPath, currentChilds) -> ZookeeperRegistry.this.notify(url, listener, toUrlsWithEmpty(url, parentPath, currentChilds)));
+                        listeners.putIfAbsent(listener, new CategoryListener(url, listener));
                         zkListener = listeners.get(listener);
                     }
                     zkClient.create(path, false);
                     List<String> children = zkClient.addChildListener(path, zkListener);
                     if (children != null) {
-                        urls.addAll(toUrlsWithEmpty(url, path, children));
+                        urls.addAll(((CategoryListener) zkListener).reset(path, children));
                     }
                 }
                 notify(url, listener, urls);
@@ -256,30 +260,114 @@ public class ZookeeperRegistry extends FailbackRegistry {
         List<URL> urls = new ArrayList<>();
         if (CollectionUtils.isNotEmpty(providers)) {
             for (String provider : providers) {
-                provider = URL.decode(provider);
-                if (provider.contains(Constants.PROTOCOL_SEPARATOR)) {
-                    URL url = URL.valueOf(provider);
-                    if (UrlUtils.isMatch(consumer, url)) {
-                        urls.add(url);
-                    }
+                URL url = toUrl(consumer, provider);
+                if (url != null) {
+                    urls.add(url);
                 }
             }
         }
         return urls;
     }
 
-    private List<URL> toUrlsWithEmpty(URL consumer, String path, List<String> providers) {
-        List<URL> urls = toUrlsWithoutEmpty(consumer, providers);
-        if (urls == null || urls.isEmpty()) {
-            int i = path.lastIndexOf(Constants.PATH_SEPARATOR);
-            String category = i < 0 ? path : path.substring(i + 1);
-            URL empty = URLBuilder.from(consumer)
-                    .setProtocol(Constants.EMPTY_PROTOCOL)
-                    .addParameter(Constants.CATEGORY_KEY, category)
-                    .build();
-            urls.add(empty);
+    private URL toUrl(URL consumer, String provider) {
+        provider = URL.decode(provider);
+        if (provider.contains(Constants.PROTOCOL_SEPARATOR)) {
+            URL url = URL.valueOf(provider);
+            if (UrlUtils.isMatch(consumer, url)) {
+                return url;
+            }
+        }
+        return null;
+    }
+
+    private URL toEmptyUrl(URL consumer, String path) {
+        int i = path.lastIndexOf(Constants.PATH_SEPARATOR);
+        String category = i < 0 ? path : path.substring(i + 1);
+        return URLBuilder.from(consumer)
+                .setProtocol(Constants.EMPTY_PROTOCOL)
+                .addParameter(Constants.CATEGORY_KEY, category)
+                .build();
+    }
+
+    /**
+     * Watches the category paths of one subscription. The urls of the children of every path are kept, so that a
+     * change only parses the new children and is notified along with the urls added and removed.
+     */
+    private class CategoryListener implements ChildListener {
+
+        private final URL url;
+
+        private final NotifyListener listener;
+
+        // path -> (child -> url, null for a child not matching the subscription)
+        private final Map<String, Map<String, URL>> categories = new HashMap<>();
+
+        CategoryListener(URL url, NotifyListener listener) {
+            this.url = url;
+            this.listener = listener;
+        }
+
+        /**
+         * Forget the previous children of the path, and returns the urls of the current ones for a full notification.
+         */
+        synchronized List<URL> reset(String path, List<String> children) {
+            Map<String, URL> current = new LinkedHashMap<>();
+            for (String child : children) {
+                current.put(child, toUrl(url, child));
+            }
+            categories.put(path, current);
+            return toUrls(path, current);
+        }
+
+        @Override
+        public synchronized void childChanged(String path, List<String> children) {
+            if (children == null) {
+                children = Collections.emptyList();
+            }
+            Map<String, URL> previous = categories.get(path);
+            if (previous == null) {
+                ZookeeperRegistry.this.notify(url, listener, reset(path, children));
+                return;
+            }
+            Map<String, URL> current = new LinkedHashMap<>();
+            List<URL> added = new ArrayList<>();
+            for (String child : children) {
+                URL childUrl;
+                if (previous.containsKey(child)) {
+                    childUrl = previous.get(child);
+                } else {
+                    childUrl = toUrl(url, child);
+                    if (childUrl != null) {
+                        added.add(childUrl);
+                    }
+                }
+                current.put(child, childUrl);
+            }
+            List<URL> removed = new ArrayList<>();
+            for (Map.Entry<String, URL> entry : previous.entrySet()) {
+                if (entry.getValue() != null && !current.containsKey(entry.getKey())) {
+                    removed.add(entry.getValue());
+                }
+            }
+            categories.put(path, current);
+            if (added.isEmpty() && removed.isEmpty()) {
+                return;
+            }
+            ZookeeperRegistry.this.notify(url, listener, toUrls(path, current), added, removed);
+        }
+
+        private List<URL> toUrls(String path, Map<String, URL> children) {
+            List<URL> urls = new ArrayList<>(children.size());
+            for (URL childUrl : children.values()) {
+                if (childUrl != null) {
+                    urls.add(childUrl);
+                }
+            }
+            if (urls.isEmpty()) {
+                urls.add(toEmptyUrl(url, path));
+            }
+            return urls;
         }
-        return urls;
     }
 
 }
@@ -31,10 +31,16 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
@@ -153,4 +159,37 @@ public class ZookeeperRegistryTest {
         zookeeperRegistry.register(serviceUrl);
         latch.await();
     }
+
+    @Test
+    public void testSubscribeNotifiesChange() throws InterruptedException {
+        URL otherUrl = serviceUrl.setHost("10.20.30.40");
+        BlockingQueue<List<List<URL>>> changes = new LinkedBlockingQueue<>();
+        zookeeperRegistry.register(serviceUrl);
+        zookeeperRegistry.subscribe(serviceUrl, new NotifyListener() {
+            @Override
+            public void notify(List<URL> urls) {
+                changes.add(Arrays.asList(urls, null, null));
+            }
+
+            @Override
+            public void notify(List<URL> urls, List<URL> added, List<URL> removed) {
+                changes.add(Arrays.asList(urls, added, removed));
+            }
+        });
+        List<List<URL>> change = changes.poll(10, TimeUnit.SECONDS);
+        assertThat(change.get(0), is(Collections.singletonList(serviceUrl)));
+        assertThat(change.get(1), nullValue());
+
+        zookeeperRegistry.register(otherUrl);
+        change = changes.poll(10, TimeUnit.SECONDS);
+        assertThat(new HashSet<>(change.get(0)), is(new HashSet<>(Arrays.asList(serviceUrl, otherUrl))));
+        assertThat(change.get(1), is(Collections.singletonList(otherUrl)));
+        assertThat(change.get(2), is(Collections.emptyList()));
+
+        zookeeperRegistry.unregister(serviceUrl);
+        change = changes.poll(10, TimeUnit.SECONDS);
+        assertThat(change.get(0), is(Collections.singletonList(otherUrl)));
+        assertThat(change.get(1), is(Collections.emptyList()));
+        assertThat(change.get(2), is(Collections.singletonList(serviceUrl)));
+    }
 }
@@ -21,4 +21,10 @@ public interface Decodeable {
 
     public void decode() throws Exception;
 
+    /**
+     * Releases what is kept for a later {@link #decode()}, called instead of it when the message is dropped.
+     */
+    default void release() {
+    }
+
 }
@@ -51,6 +51,20 @@ public class ChannelBufferInputStream extends InputStream {
         return buffer.readerIndex() - startIndex;
     }
 
+    /**
+     * Reads the remaining bytes of this stream as a {@link RetainedChannelBufferInputStream} sharing the memory of
+     * the underlying buffer, which must be closed once it has been read.
+     *
+     * @return the retained stream, or <code>null</code> if the underlying buffer is not a
+     * {@link RetainableChannelBuffer}, in which case nothing is read.
+     */
+    public RetainedChannelBufferInputStream readRetainedStream() throws IOException {
+        if (!(buffer instanceof RetainableChannelBuffer)) {
+            return null;
+        }
+        return new RetainedChannelBufferInputStream(((RetainableChannelBuffer) buffer).readRetainedSlice(available()));
+    }
+
     @Override
     public int available() throws IOException {
         return endIndex - buffer.readerIndex();
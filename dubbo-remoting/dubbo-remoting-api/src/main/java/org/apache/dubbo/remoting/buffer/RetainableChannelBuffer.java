@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.remoting.buffer;
+
+/**
+ * A {@link ChannelBuffer} backed by reference counted memory owned by the transport, e.g. a pooled netty buffer.
+ * Part of it can be kept after the decode call returns, without copying the bytes.
+ */
+public interface RetainableChannelBuffer extends ChannelBuffer {
+
+    /**
+     * Returns a slice of this buffer's readable bytes starting at the current <code>readerIndex</code> which
+     * shares the memory of this buffer and holds a reference to it, then increases the <code>readerIndex</code>
+     * by <code>length</code>. The slice must be {@link #release() released} once it has been read.
+     *
+     * @param length the size of the slice
+     * @return a retained slice
+     * @throws IndexOutOfBoundsException if <code>length</code> is greater than <code>this.readableBytes</code>
+     */
+    RetainableChannelBuffer readRetainedSlice(int length);
+
+    /**
+     * Decreases the reference count of the underlying memory.
+     *
+     * @return <code>true</code> if the underlying memory has been deallocated
+     */
+    boolean release();
+
+}
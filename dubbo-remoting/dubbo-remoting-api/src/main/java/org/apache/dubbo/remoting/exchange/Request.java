@@ -41,6 +41,8 @@ public class Request {
 
     private boolean mBroken = false;
 
+    private boolean mBatch = false;
+
     private Object mData;
 
     public Request() {
@@ -111,6 +113,17 @@ public class Request {
         this.mBroken = mBroken;
     }
 
+    /**
+     * @return whether the request was written in a batch, which the receiver may run in a single task
+     */
+    public boolean isBatch() {
+        return mBatch;
+    }
+
+    public void setBatch(boolean batch) {
+        mBatch = batch;
+    }
+
     public Object getData() {
         return mData;
     }
@@ -34,6 +34,7 @@ import org.apache.dubbo.remoting.buffer.ChannelBufferOutputStream;
 import org.apache.dubbo.remoting.exchange.Request;
 import org.apache.dubbo.remoting.exchange.Response;
 import org.apache.dubbo.remoting.exchange.support.DefaultFuture;
+import org.apache.dubbo.remoting.exchange.support.MultiMessage;
 import org.apache.dubbo.remoting.telnet.codec.TelnetCodec;
 import org.apache.dubbo.remoting.transport.CodecSupport;
 import org.apache.dubbo.remoting.transport.ExceedPayloadLimitException;
@@ -57,6 +58,8 @@ public class ExchangeCodec extends TelnetCodec {
     protected static final byte FLAG_TWOWAY = (byte) 0x40;
     protected static final byte FLAG_EVENT = (byte) 0x20;
     protected static final int SERIALIZATION_MASK = 0x1f;
+    // request flag, in the status byte which requests do not use otherwise.
+    protected static final byte FLAG_BATCH = (byte) 0x01;
     private static final Logger logger = LoggerFactory.getLogger(ExchangeCodec.class);
 
     public Short getMagicCode() {
@@ -69,6 +72,8 @@ public class ExchangeCodec extends TelnetCodec {
             encodeRequest(channel, buffer, (Request) msg);
         } else if (msg instanceof Response) {
             encodeResponse(channel, buffer, (Response) msg);
+        } else if (msg instanceof MultiMessage) {
+            encodeBatch(channel, buffer, (MultiMessage) msg);
         } else {
             super.encode(channel, buffer, msg);
         }
@@ -156,7 +161,7 @@ public class ExchangeCodec extends TelnetCodec {
                     } else if (res.isEvent()) {
                         data = decodeEventData(channel, in);
                     } else {
-                        data = decodeResponseData(channel, in, getRequestData(id));
+                        data = decodeResponseData(channel, in, getRequestData(channel, id));
                     }
                     res.setResult(data);
                 } else {
@@ -172,6 +177,7 @@ public class ExchangeCodec extends TelnetCodec {
             Request req = new Request(id);
             req.setVersion(Version.getProtocolVersion());
             req.setTwoWay((flag & FLAG_TWOWAY) != 0);
+            req.setBatch((header[3] & FLAG_BATCH) != 0);
             if ((flag & FLAG_EVENT) != 0) {
                 req.setEvent(true);
             }
@@ -196,7 +202,14 @@ public class ExchangeCodec extends TelnetCodec {
     }
 
     protected Object getRequestData(long id) {
-        DefaultFuture future = DefaultFuture.getFuture(id);
+        return getRequestData(DefaultFuture.getFuture(id));
+    }
+
+    protected Object getRequestData(Channel channel, long id) {
+        return getRequestData(DefaultFuture.getFuture(channel, id));
+    }
+
+    private static Object getRequestData(DefaultFuture future) {
         if (future == null) {
             return null;
         }
@@ -209,24 +222,16 @@ public class ExchangeCodec extends TelnetCodec {
 
     protected void encodeRequest(Channel channel, ChannelBuffer buffer, Request req) throws IOException {
         Serialization serialization = getSerialization(channel);
-        // header.
-        byte[] header = new byte[HEADER_LENGTH];
-        // set magic number.
-        Bytes.short2bytes(MAGIC, header);
-
         // set request and serialization flag.
-        header[2] = (byte) (FLAG_REQUEST | serialization.getContentTypeId());
+        byte flag = (byte) (FLAG_REQUEST | serialization.getContentTypeId());
 
         if (req.isTwoWay()) {
-            header[2] |= FLAG_TWOWAY;
+            flag |= FLAG_TWOWAY;
         }
         if (req.isEvent()) {
-            header[2] |= FLAG_EVENT;
+            flag |= FLAG_EVENT;
         }
 
-        // set request id.
-        Bytes.long2bytes(req.getId(), header, 4);
-
         // encode request data.
         int savedWriteIndex = buffer.writerIndex();
         buffer.writerIndex(savedWriteIndex + HEADER_LENGTH);
@@ -245,32 +250,48 @@ public class ExchangeCodec extends TelnetCodec {
         bos.close();
         int len = bos.writtenBytes();
         checkPayload(channel, len);
-        Bytes.int2bytes(len, header, 12);
 
-        // write
-        buffer.writerIndex(savedWriteIndex);
-        buffer.writeBytes(header); // write header.
-        buffer.writerIndex(savedWriteIndex + HEADER_LENGTH + len);
+        // write header in front of the body.
+        setHeader(buffer, savedWriteIndex, flag, req.isBatch() ? FLAG_BATCH : 0, req.getId(), len);
+    }
+
+    /**
+     * Writes the messages one after the other in the same buffer. A request which fails to encode is answered with a
+     * BAD_REQUEST response, without failing the others.
+     */
+    protected void encodeBatch(Channel channel, ChannelBuffer buffer, MultiMessage batch) throws IOException {
+        for (Object msg : batch) {
+            int savedWriteIndex = buffer.writerIndex();
+            try {
+                encode(channel, buffer, msg);
+            } catch (IOException | RuntimeException e) {
+                if (!(msg instanceof Request)) {
+                    throw e;
+                }
+                buffer.writerIndex(savedWriteIndex);
+                Request req = (Request) msg;
+                logger.warn("Fail to encode request: " + req + " of a batch, cause: " + e.getMessage(), e);
+                if (req.isTwoWay()) {
+                    Response r = new Response(req.getId(), req.getVersion());
+                    r.setStatus(Response.BAD_REQUEST);
+                    r.setErrorMessage(StringUtils.toString(e));
+                    DefaultFuture.received(channel, r);
+                }
+            }
+        }
     }
 
     protected void encodeResponse(Channel channel, ChannelBuffer buffer, Response res) throws IOException {
         int savedWriteIndex = buffer.writerIndex();
         try {
             Serialization serialization = getSerialization(channel);
-            // header.
-            byte[] header = new byte[HEADER_LENGTH];
-            // set magic number.
-            Bytes.short2bytes(MAGIC, header);
             // set request and serialization flag.
-            header[2] = serialization.getContentTypeId();
+            byte flag = serialization.getContentTypeId();
             if (res.isHeartbeat()) {
-                header[2] |= FLAG_EVENT;
+                flag |= FLAG_EVENT;
             }
             // set response status.
             byte status = res.getStatus();
-            header[3] = status;
-            // set request id.
-            Bytes.long2bytes(res.getId(), header, 4);
 
             buffer.writerIndex(savedWriteIndex + HEADER_LENGTH);
             ChannelBufferOutputStream bos = new ChannelBufferOutputStream(buffer);
@@ -294,11 +315,8 @@ public class ExchangeCodec extends TelnetCodec {
 
             int len = bos.writtenBytes();
             checkPayload(channel, len);
-            Bytes.int2bytes(len, header, 12);
-            // write
-            buffer.writerIndex(savedWriteIndex);
-            buffer.writeBytes(header); // write header.
-            buffer.writerIndex(savedWriteIndex + HEADER_LENGTH + len);
+            // write header in front of the body.
+            setHeader(buffer, savedWriteIndex, flag, status, res.getId(), len);
         } catch (Throwable t) {
             // clear buffer
             buffer.writerIndex(savedWriteIndex);
@@ -342,6 +360,22 @@ public class ExchangeCodec extends TelnetCodec {
         }
     }
 
+    /**
+     * Writes the header with absolute sets, leaving the reader and writer index of the buffer untouched.
+     */
+    private static void setHeader(ChannelBuffer buffer, int index, byte flag, byte status, long id, int len) {
+        buffer.setByte(index, MAGIC_HIGH);
+        buffer.setByte(index + 1, MAGIC_LOW);
+        buffer.setByte(index + 2, flag);
+        buffer.setByte(index + 3, status);
+        for (int i = 0; i < 8; i++) {
+            buffer.setByte(index + 4 + i, (int) (id >>> (56 - (i << 3))));
+        }
+        for (int i = 0; i < 4; i++) {
+            buffer.setByte(index + 12 + i, len >>> (24 - (i << 3)));
+        }
+    }
+
     @Override
     protected Object decodeData(ObjectInput in) throws IOException {
         return decodeRequestData(in);
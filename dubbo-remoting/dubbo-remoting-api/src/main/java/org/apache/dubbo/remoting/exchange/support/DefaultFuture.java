@@ -20,9 +20,7 @@ import org.apache.dubbo.common.Constants;
 import org.apache.dubbo.common.logger.Logger;
 import org.apache.dubbo.common.logger.LoggerFactory;
 import org.apache.dubbo.common.timer.HashedWheelTimer;
-import org.apache.dubbo.common.timer.Timeout;
 import org.apache.dubbo.common.timer.Timer;
-import org.apache.dubbo.common.timer.TimerTask;
 import org.apache.dubbo.common.utils.NamedThreadFactory;
 import org.apache.dubbo.remoting.Channel;
 import org.apache.dubbo.remoting.RemotingException;
@@ -34,23 +32,23 @@ import org.apache.dubbo.remoting.exchange.ResponseFuture;
 
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
  * DefaultFuture.
+ * <p>
+ * In-flight futures are kept per channel in an {@link InFlightTable}, and completed by a CAS on the response.
  */
 public class DefaultFuture implements ResponseFuture {
 
     private static final Logger logger = LoggerFactory.getLogger(DefaultFuture.class);
 
-    private static final Map<Long, Channel> CHANNELS = new ConcurrentHashMap<>();
+    private static final AtomicReferenceFieldUpdater<DefaultFuture, Response> RESPONSE_UPDATER =
+            AtomicReferenceFieldUpdater.newUpdater(DefaultFuture.class, Response.class, "response");
 
-    private static final Map<Long, DefaultFuture> FUTURES = new ConcurrentHashMap<>();
+    private static final AtomicReferenceFieldUpdater<DefaultFuture, ResponseCallback> CALLBACK_UPDATER =
+            AtomicReferenceFieldUpdater.newUpdater(DefaultFuture.class, ResponseCallback.class, "callback");
 
     public static final Timer TIME_OUT_TIMER = new HashedWheelTimer(
             new NamedThreadFactory("dubbo-future-timeout", true),
@@ -62,35 +60,25 @@ public class DefaultFuture implements ResponseFuture {
     private final Channel channel;
     private final Request request;
     private final int timeout;
-    private final Lock lock = new ReentrantLock();
-    private final Condition done = lock.newCondition();
     private final long start = System.currentTimeMillis();
+    private final InFlightTable table;
     private volatile long sent;
     private volatile Response response;
     private volatile ResponseCallback callback;
+    private int waiters;
 
     private DefaultFuture(Channel channel, Request request, int timeout) {
         this.channel = channel;
         this.request = request;
         this.id = request.getId();
         this.timeout = timeout > 0 ? timeout : channel.getUrl().getPositiveParameter(Constants.TIMEOUT_KEY, Constants.DEFAULT_TIMEOUT);
-        // put into waiting map.
-        FUTURES.put(id, this);
-        CHANNELS.put(id, channel);
-    }
-
-    /**
-     * check time out of the future
-     */
-    private static void timeoutCheck(DefaultFuture future) {
-        TimeoutCheckTask task = new TimeoutCheckTask(future);
-        TIME_OUT_TIMER.newTimeout(task, future.getTimeout(), TimeUnit.MILLISECONDS);
+        this.table = InFlightTable.of(channel);
     }
 
     /**
      * init a DefaultFuture
      * 1.init a DefaultFuture
-     * 2.timeout check
+     * 2.put it into the in-flight table of the channel, which also checks its timeout
      *
      * @param channel channel
      * @param request the request
@@ -99,21 +87,28 @@ public class DefaultFuture implements ResponseFuture {
      */
     public static DefaultFuture newFuture(Channel channel, Request request, int timeout) {
         final DefaultFuture future = new DefaultFuture(channel, request, timeout);
-        // timeout check
-        timeoutCheck(future);
+        future.table.put(future);
         return future;
     }
 
+    /**
+     * Looks the id up in the in-flight tables of all channels, prefer {@link #getFuture(Channel, long)}.
+     */
     public static DefaultFuture getFuture(long id) {
-        return FUTURES.get(id);
+        return InFlightTable.find(id);
+    }
+
+    public static DefaultFuture getFuture(Channel channel, long id) {
+        return InFlightTable.lookup(channel).get(id);
     }
 
     public static boolean hasFuture(Channel channel) {
-        return CHANNELS.containsValue(channel);
+        InFlightTable table = InFlightTable.get(channel);
+        return table != null && !table.isEmpty();
     }
 
     public static void sent(Channel channel, Request request) {
-        DefaultFuture future = FUTURES.get(request.getId());
+        DefaultFuture future = getFuture(channel, request.getId());
         if (future != null) {
             future.doSent();
         }
@@ -126,36 +121,34 @@ public class DefaultFuture implements ResponseFuture {
      * @param channel channel to close
      */
     public static void closeChannel(Channel channel) {
-        for (Map.Entry<Long, Channel> entry : CHANNELS.entrySet()) {
-            if (channel.equals(entry.getValue())) {
-                DefaultFuture future = getFuture(entry.getKey());
-                if (future != null && !future.isDone()) {
-                    Response disconnectResponse = new Response(future.getId());
-                    disconnectResponse.setStatus(Response.CHANNEL_INACTIVE);
-                    disconnectResponse.setErrorMessage("Channel " +
-                            channel +
-                            " is inactive. Directly return the unFinished request : " +
-                            future.getRequest());
-                    DefaultFuture.received(channel, disconnectResponse);
-                }
+        InFlightTable table = InFlightTable.get(channel);
+        if (table == null) {
+            return;
+        }
+        for (DefaultFuture future : table.futures()) {
+            if (!future.isDone()) {
+                Response disconnectResponse = new Response(future.getId());
+                disconnectResponse.setStatus(Response.CHANNEL_INACTIVE);
+                disconnectResponse.setErrorMessage("Channel " +
+                        channel +
+                        " is inactive. Directly return the unFinished request : " +
+                        future.getRequest());
+                DefaultFuture.received(channel, disconnectResponse);
             }
         }
+        InFlightTable.remove(channel);
     }
 
     public static void received(Channel channel, Response response) {
-        try {
-            DefaultFuture future = FUTURES.remove(response.getId());
-            if (future != null) {
-                future.doReceived(response);
-            } else {
-                logger.warn("The timeout response finally returned at "
-                        + (new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS").format(new Date()))
-                        + ", response " + response
-                        + (channel == null ? "" : ", channel: " + channel.getLocalAddress()
-                        + " -> " + channel.getRemoteAddress()));
-            }
-        } finally {
-            CHANNELS.remove(response.getId());
+        DefaultFuture future = InFlightTable.lookup(channel).remove(response.getId());
+        if (future != null) {
+            future.doReceived(response);
+        } else {
+            logger.warn("The timeout response finally returned at "
+                    + (new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS").format(new Date()))
+                    + ", response " + response
+                    + (channel == null ? "" : ", channel: " + channel.getLocalAddress()
+                    + " -> " + channel.getRemoteAddress()));
         }
     }
 
@@ -170,19 +163,20 @@ public class DefaultFuture implements ResponseFuture {
             timeout = Constants.DEFAULT_TIMEOUT;
         }
         if (!isDone()) {
-            long start = System.currentTimeMillis();
-            lock.lock();
-            try {
-                while (!isDone()) {
-                    done.await(timeout, TimeUnit.MILLISECONDS);
-                    if (isDone() || System.currentTimeMillis() - start > timeout) {
-                        break;
+            long deadline = System.currentTimeMillis() + timeout;
+            synchronized (this) {
+                waiters++;
+                try {
+                    long remaining = timeout;
+                    while (!isDone() && remaining > 0) {
+                        wait(remaining);
+                        remaining = deadline - System.currentTimeMillis();
                     }
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                } finally {
+                    waiters--;
                 }
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
-            } finally {
-                lock.unlock();
             }
             if (!isDone()) {
                 throw new TimeoutException(sent > 0, channel, getTimeoutMessage(false));
@@ -193,10 +187,10 @@ public class DefaultFuture implements ResponseFuture {
 
     public void cancel() {
         Response errorResult = new Response(id);
+        errorResult.setStatus(Response.CLIENT_ERROR);
         errorResult.setErrorMessage("request future has been canceled.");
-        response = errorResult;
-        FUTURES.remove(id);
-        CHANNELS.remove(id);
+        table.remove(id);
+        doReceived(errorResult);
     }
 
     @Override
@@ -209,47 +203,14 @@ public class DefaultFuture implements ResponseFuture {
         if (isDone()) {
             invokeCallback(callback);
         } else {
-            boolean isdone = false;
-            lock.lock();
-            try {
-                if (!isDone()) {
-                    this.callback = callback;
-                } else {
-                    isdone = true;
-                }
-            } finally {
-                lock.unlock();
-            }
-            if (isdone) {
+            this.callback = callback;
+            // the response may have arrived before the callback was visible to doReceived
+            if (isDone() && CALLBACK_UPDATER.compareAndSet(this, callback, null)) {
                 invokeCallback(callback);
             }
         }
     }
 
-    private static class TimeoutCheckTask implements TimerTask {
-
-        private DefaultFuture future;
-
-        TimeoutCheckTask(DefaultFuture future) {
-            this.future = future;
-        }
-
-        @Override
-        public void run(Timeout timeout) {
-            if (future == null || future.isDone()) {
-                return;
-            }
-            // create exception response.
-            Response timeoutResponse = new Response(future.getId());
-            // set timeout status.
-            timeoutResponse.setStatus(future.isSent() ? Response.SERVER_TIMEOUT : Response.CLIENT_TIMEOUT);
-            timeoutResponse.setErrorMessage(future.getTimeoutMessage(true));
-            // handle response.
-            DefaultFuture.received(future.getChannel(), timeoutResponse);
-
-        }
-    }
-
     private void invokeCallback(ResponseCallback c) {
         ResponseCallback callbackCopy = c;
         if (callbackCopy == null) {
@@ -297,14 +258,10 @@ public class DefaultFuture implements ResponseFuture {
         throw new RemotingException(channel, res.getErrorMessage());
     }
 
-    private long getId() {
+    long getId() {
         return id;
     }
 
-    private Channel getChannel() {
-        return channel;
-    }
-
     private boolean isSent() {
         return sent > 0;
     }
@@ -313,28 +270,41 @@ public class DefaultFuture implements ResponseFuture {
         return request;
     }
 
-    private int getTimeout() {
-        return timeout;
-    }
-
-    private long getStartTimestamp() {
-        return start;
+    long getDeadline() {
+        return start + timeout;
     }
 
     private void doSent() {
         sent = System.currentTimeMillis();
     }
 
+    /**
+     * Completes the future with a timeout response, called by the {@link InFlightTable} once the deadline passed.
+     */
+    void doTimeout() {
+        if (isDone()) {
+            return;
+        }
+        // create exception response.
+        Response timeoutResponse = new Response(id);
+        // set timeout status.
+        timeoutResponse.setStatus(isSent() ? Response.SERVER_TIMEOUT : Response.CLIENT_TIMEOUT);
+        timeoutResponse.setErrorMessage(getTimeoutMessage(true));
+        doReceived(timeoutResponse);
+    }
+
     private void doReceived(Response res) {
-        lock.lock();
-        try {
-            response = res;
-            done.signalAll();
-        } finally {
-            lock.unlock();
+        if (!RESPONSE_UPDATER.compareAndSet(this, null, res)) {
+            return;
         }
-        if (callback != null) {
-            invokeCallback(callback);
+        synchronized (this) {
+            if (waiters > 0) {
+                notifyAll();
+            }
+        }
+        ResponseCallback c = callback;
+        if (c != null && CALLBACK_UPDATER.compareAndSet(this, c, null)) {
+            invokeCallback(c);
         }
     }
 
@@ -0,0 +1,334 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.remoting.exchange.support;
+
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.timer.Timeout;
+import org.apache.dubbo.common.timer.TimerTask;
+import org.apache.dubbo.remoting.Channel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The requests of one channel still waiting for their response.
+ * <p>
+ * Futures live in a power of two array indexed by the low bits of the request id, sized to
+ * {@link Constants#INFLIGHT_WINDOW_KEY}, and spill over to a map when their slot is taken. Insertion and removal
+ * are single CAS operations. The table is kept as an attribute of the channel, and times out its own futures with
+ * one timer task, scheduled for the earliest deadline of the table instead of one per request.
+ * <p>
+ * The ids are also put in a wheel of buckets by the tick of their deadline, so that a scan only looks at the ids of
+ * the ticks gone by. An id is left in its bucket when its future is done, and dropped by the scan of its tick.
+ * <p>
+ * A table is only reachable from the static registry while it holds futures, so the table of a channel dropped
+ * without going through {@link DefaultFuture#closeChannel(Channel)} is released once its last future is done.
+ */
+final class InFlightTable implements TimerTask {
+
+    private static final String TABLE_KEY = InFlightTable.class.getName() + ".TABLE";
+
+    /**
+     * The tables holding at least one future, searched by the callers which do not know the channel of an id.
+     */
+    private static final Set<InFlightTable> TABLES = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Shared by the channels which do not keep attributes, e.g. a client not connected yet.
+     */
+    private static final InFlightTable DETACHED = new InFlightTable(Constants.DEFAULT_INFLIGHT_WINDOW);
+
+    /**
+     * The same as the tick of {@link DefaultFuture#TIME_OUT_TIMER}.
+     */
+    private static final long TICK_MILLIS = 30;
+
+    private static final int WHEEL_SIZE = 128;
+
+    private final AtomicReferenceArray<DefaultFuture> slots;
+
+    private final int mask;
+
+    private final ConcurrentMap<Long, DefaultFuture> overflow = new ConcurrentHashMap<>();
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    private volatile long nextScanAt = Long.MAX_VALUE;
+
+    private final Bucket[] wheel = new Bucket[WHEEL_SIZE];
+
+    /**
+     * The tick of the last scan, whose bucket may still be added to. Only used by the scans, which run one at a time.
+     */
+    private long scannedTick = System.currentTimeMillis() / TICK_MILLIS;
+
+    /**
+     * The ids timed out by a scan, reused by the next ones.
+     */
+    private long[] expired = new long[16];
+
+    private InFlightTable(int window) {
+        int capacity = Integer.highestOneBit(Math.max(window - 1, 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new Bucket();
+        }
+    }
+
+    /**
+     * @return the table of the channel, created on first use
+     */
+    static InFlightTable of(Channel channel) {
+        InFlightTable table = get(channel);
+        if (table != null) {
+            return table;
+        }
+        synchronized (InFlightTable.class) {
+            table = get(channel);
+            if (table == null) {
+                URL url = channel.getUrl();
+                int window = url == null ? Constants.DEFAULT_INFLIGHT_WINDOW
+                        : url.getPositiveParameter(Constants.INFLIGHT_WINDOW_KEY, Constants.DEFAULT_INFLIGHT_WINDOW);
+                table = new InFlightTable(window);
+                channel.setAttribute(TABLE_KEY, table);
+                if (get(channel) != table) {
+                    return DETACHED;
+                }
+            }
+            return table;
+        }
+    }
+
+    /**
+     * @return the table the futures of the channel were put in, the shared one if the channel has none
+     */
+    static InFlightTable lookup(Channel channel) {
+        InFlightTable table = get(channel);
+        return table != null ? table : DETACHED;
+    }
+
+    /**
+     * @return the table of the channel, or null if the channel never had a request in flight
+     */
+    static InFlightTable get(Channel channel) {
+        if (channel == null) {
+            return null;
+        }
+        Object table = channel.getAttribute(TABLE_KEY);
+        return table instanceof InFlightTable ? (InFlightTable) table : null;
+    }
+
+    /**
+     * Detaches the table from the channel, its remaining futures still time out.
+     */
+    static void remove(Channel channel) {
+        if (get(channel) != null) {
+            channel.removeAttribute(TABLE_KEY);
+        }
+    }
+
+    static boolean isTracked(InFlightTable table) {
+        return TABLES.contains(table);
+    }
+
+    /**
+     * Looks the id up in every table, for the callers which do not know the channel of the request.
+     */
+    static DefaultFuture find(long id) {
+        for (InFlightTable table : TABLES) {
+            DefaultFuture future = table.get(id);
+            if (future != null) {
+                return future;
+            }
+        }
+        return null;
+    }
+
+    void put(DefaultFuture future) {
+        long id = future.getId();
+        if (!slots.compareAndSet(index(id), null, future)) {
+            overflow.put(id, future);
+        }
+        if (size.getAndIncrement() == 0) {
+            track();
+        }
+        // a deadline already gone by goes to the bucket of now, which the next scan reads again
+        long tick = Math.max(future.getDeadline(), System.currentTimeMillis()) / TICK_MILLIS;
+        bucket(tick).add(id);
+        long at = (tick + 1) * TICK_MILLIS;
+        // the scan resets nextScanAt before reading the buckets, so either it sees this id or we schedule one
+        if (at < nextScanAt) {
+            scheduleScan(at);
+        }
+    }
+
+    DefaultFuture get(long id) {
+        DefaultFuture future = slots.get(index(id));
+        if (future != null && future.getId() == id) {
+            return future;
+        }
+        return overflow.get(id);
+    }
+
+    DefaultFuture remove(long id) {
+        int index = index(id);
+        DefaultFuture future = slots.get(index);
+        if (future != null && future.getId() == id) {
+            if (!slots.compareAndSet(index, future, null)) {
+                return null;
+            }
+        } else {
+            future = overflow.remove(id);
+            if (future == null) {
+                return null;
+            }
+        }
+        if (size.decrementAndGet() == 0) {
+            track();
+        }
+        return future;
+    }
+
+    boolean isEmpty() {
+        return size.get() == 0;
+    }
+
+    /**
+     * @return a copy of the futures of the table, to be completed when the channel closes
+     */
+    List<DefaultFuture> futures() {
+        List<DefaultFuture> futures = new ArrayList<>(size.get());
+        for (int i = 0; i < slots.length(); i++) {
+            DefaultFuture future = slots.get(i);
+            if (future != null) {
+                futures.add(future);
+            }
+        }
+        futures.addAll(overflow.values());
+        return futures;
+    }
+
+    @Override
+    public synchronized void run(Timeout timeout) {
+        nextScanAt = Long.MAX_VALUE;
+        long now = System.currentTimeMillis();
+        long nowTick = now / TICK_MILLIS;
+        for (long tick = Math.max(scannedTick, nowTick - WHEEL_SIZE + 1); tick <= nowTick; tick++) {
+            scan(bucket(tick), now);
+        }
+        scannedTick = nowTick;
+        for (long tick = nowTick; tick < nowTick + WHEEL_SIZE; tick++) {
+            if (!bucket(tick).isEmpty()) {
+                long at = (tick + 1) * TICK_MILLIS;
+                if (at < nextScanAt) {
+                    scheduleScan(at);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Times out the futures of the bucket whose deadline is reached, and drops the ids of the futures already done.
+     * The ids of the later rounds of the wheel are kept.
+     */
+    private void scan(Bucket bucket, long now) {
+        int count = 0;
+        synchronized (bucket) {
+            long[] ids = bucket.ids;
+            int kept = 0;
+            for (int i = 0; i < bucket.size; i++) {
+                DefaultFuture future = get(ids[i]);
+                if (future == null) {
+                    continue;
+                }
+                if (future.getDeadline() > now) {
+                    ids[kept++] = ids[i];
+                } else {
+                    if (count == expired.length) {
+                        expired = Arrays.copyOf(expired, count << 1);
+                    }
+                    expired[count++] = ids[i];
+                }
+            }
+            bucket.size = kept;
+        }
+        for (int i = 0; i < count; i++) {
+            DefaultFuture future = remove(expired[i]);
+            if (future != null) {
+                future.doTimeout();
+            }
+        }
+    }
+
+    /**
+     * Follows the table becoming empty or non empty. Every such transition calls this afterwards, so the last call
+     * sees the final state.
+     */
+    private synchronized void track() {
+        if (size.get() == 0) {
+            TABLES.remove(this);
+        } else {
+            TABLES.add(this);
+        }
+    }
+
+    private void scheduleScan(long at) {
+        nextScanAt = at;
+        DefaultFuture.TIME_OUT_TIMER.newTimeout(this, Math.max(at - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+    }
+
+    private int index(long id) {
+        return (int) id & mask;
+    }
+
+    private Bucket bucket(long tick) {
+        return wheel[(int) tick & (WHEEL_SIZE - 1)];
+    }
+
+    /**
+     * The ids whose deadline falls in the ticks of one slot of the wheel.
+     */
+    private static final class Bucket {
+
+        private long[] ids = new long[4];
+
+        private volatile int size;
+
+        synchronized void add(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size << 1);
+            }
+            ids[size] = id;
+            size = size + 1;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+    }
+
+}
@@ -44,6 +44,11 @@ final class HeaderExchangeChannel implements ExchangeChannel {
 
     private final Channel channel;
 
+    /**
+     * null unless the requests of the channel are written in batches
+     */
+    private final RequestBatcher batcher;
+
     private volatile boolean closed = false;
 
     HeaderExchangeChannel(Channel channel) {
@@ -51,6 +56,8 @@ final class HeaderExchangeChannel implements ExchangeChannel {
             throw new IllegalArgumentException("channel == null");
         }
         this.channel = channel;
+        URL url = channel.getUrl();
+        this.batcher = url != null && url.getParameter(Constants.BATCH_KEY, false) ? new RequestBatcher(channel, url) : null;
     }
 
     static HeaderExchangeChannel getOrAddChannel(Channel ch) {
@@ -92,6 +99,10 @@ final class HeaderExchangeChannel implements ExchangeChannel {
             request.setVersion(Version.getProtocolVersion());
             request.setTwoWay(false);
             request.setData(message);
+            if (batcher != null && !sent) {
+                batcher.add(request);
+                return;
+            }
             channel.send(request, sent);
         }
     }
@@ -112,6 +123,10 @@ final class HeaderExchangeChannel implements ExchangeChannel {
         req.setTwoWay(true);
         req.setData(request);
         DefaultFuture future = DefaultFuture.newFuture(channel, req, timeout);
+        if (batcher != null) {
+            batcher.add(req);
+            return future;
+        }
         try {
             channel.send(req);
         } catch (RemotingException e) {
@@ -128,6 +143,9 @@ final class HeaderExchangeChannel implements ExchangeChannel {
 
     @Override
     public void close() {
+        if (batcher != null) {
+            batcher.flush();
+        }
         try {
             channel.close();
         } catch (Throwable e) {
@@ -142,6 +160,9 @@ final class HeaderExchangeChannel implements ExchangeChannel {
             return;
         }
         closed = true;
+        if (batcher != null) {
+            batcher.flush();
+        }
         if (timeout > 0) {
             long start = System.currentTimeMillis();
             while (DefaultFuture.hasFuture(channel)
@@ -31,6 +31,7 @@ import org.apache.dubbo.remoting.exchange.ExchangeHandler;
 import org.apache.dubbo.remoting.exchange.Request;
 import org.apache.dubbo.remoting.exchange.Response;
 import org.apache.dubbo.remoting.exchange.support.DefaultFuture;
+import org.apache.dubbo.remoting.exchange.support.MultiMessage;
 import org.apache.dubbo.remoting.transport.ChannelHandlerDelegate;
 
 import java.net.InetSocketAddress;
@@ -172,6 +173,12 @@ public class HeaderExchangeHandler implements ChannelHandlerDelegate {
         if (message instanceof Request) {
             Request request = (Request) message;
             DefaultFuture.sent(channel, request);
+        } else if (message instanceof MultiMessage) {
+            for (Object obj : (MultiMessage) message) {
+                if (obj instanceof Request) {
+                    DefaultFuture.sent(channel, (Request) obj);
+                }
+            }
         }
         if (exception != null) {
             if (exception instanceof RuntimeException) {
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.remoting.exchange.support.header;
+
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.logger.Logger;
+import org.apache.dubbo.common.logger.LoggerFactory;
+import org.apache.dubbo.common.utils.NamedThreadFactory;
+import org.apache.dubbo.remoting.Channel;
+import org.apache.dubbo.remoting.exchange.Request;
+import org.apache.dubbo.remoting.exchange.Response;
+import org.apache.dubbo.remoting.exchange.support.DefaultFuture;
+import org.apache.dubbo.remoting.exchange.support.MultiMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Collects the requests sent on a channel during a short window and writes them together as a {@link MultiMessage},
+ * each request marked as batched so that the provider runs them in a single task. A batch is written when the window
+ * ends or as soon as it is full. The futures of the requests are created by the caller as usual, so timeouts and
+ * failures stay per request.
+ *
+ * @see Constants#BATCH_KEY
+ */
+final class RequestBatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestBatcher.class);
+
+    private static final ScheduledExecutorService FLUSHER = Executors.newSingleThreadScheduledExecutor(
+            new NamedThreadFactory("DubboRequestBatcher", true));
+
+    private final Channel channel;
+
+    private final long windowMicros;
+
+    private final int maxSize;
+
+    private final Queue<Request> queue = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    RequestBatcher(Channel channel, URL url) {
+        this.channel = channel;
+        this.windowMicros = Math.max(0, url.getParameter(Constants.BATCH_WINDOW_KEY, Constants.DEFAULT_BATCH_WINDOW));
+        this.maxSize = Math.max(1, url.getParameter(Constants.BATCH_SIZE_KEY, Constants.DEFAULT_BATCH_SIZE));
+    }
+
+    void add(Request request) {
+        request.setBatch(true);
+        queue.offer(request);
+        if (size.incrementAndGet() >= maxSize) {
+            flush();
+        } else if (scheduled.compareAndSet(false, true)) {
+            try {
+                FLUSHER.schedule(this::onWindowEnd, windowMicros, TimeUnit.MICROSECONDS);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                flush();
+            }
+        }
+    }
+
+    private void onWindowEnd() {
+        scheduled.set(false);
+        flush();
+    }
+
+    /**
+     * write all the pending requests, in batches of at most batch.size
+     */
+    void flush() {
+        List<Request> batch = new ArrayList<>(maxSize);
+        while (true) {
+            Request request;
+            while (batch.size() < maxSize && (request = queue.poll()) != null) {
+                batch.add(request);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            size.addAndGet(-batch.size());
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<Request> batch) {
+        try {
+            channel.send(batch.size() == 1 ? batch.get(0) : MultiMessage.createFromCollection(batch));
+        } catch (Throwable e) {
+            logger.warn("Failed to send a batch of " + batch.size() + " requests to " + channel.getRemoteAddress()
+                    + ", cause: " + e.getMessage(), e);
+            for (Request request : batch) {
+                if (request.isTwoWay()) {
+                    Response response = new Response(request.getId(), request.getVersion());
+                    response.setStatus(Response.CLIENT_ERROR);
+                    response.setErrorMessage("Failed to send request " + request + ", cause: " + e.getMessage());
+                    DefaultFuture.received(channel, response);
+                }
+            }
+        }
+    }
+}
@@ -25,6 +25,7 @@ import org.apache.dubbo.remoting.Decodeable;
 import org.apache.dubbo.remoting.RemotingException;
 import org.apache.dubbo.remoting.exchange.Request;
 import org.apache.dubbo.remoting.exchange.Response;
+import org.apache.dubbo.remoting.exchange.support.MultiMessage;
 
 public class DecodeHandler extends AbstractChannelHandlerDelegate {
 
@@ -36,6 +37,18 @@ public class DecodeHandler extends AbstractChannelHandlerDelegate {
 
     @Override
     public void received(Channel channel, Object message) throws RemotingException {
+        if (message instanceof MultiMessage) {
+            // a batch of requests dispatched as a single task, one failing does not prevent the others
+            for (Object obj : (MultiMessage) message) {
+                try {
+                    received(channel, obj);
+                } catch (Throwable t) {
+                    log.warn("Failed to handle message " + obj + " of a batch, channel is " + channel + ", cause: " + t.getMessage(), t);
+                }
+            }
+            return;
+        }
+
         if (message instanceof Decodeable) {
             decode(message);
         }
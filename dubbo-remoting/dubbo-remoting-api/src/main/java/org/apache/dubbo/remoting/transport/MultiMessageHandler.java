@@ -19,11 +19,15 @@ package org.apache.dubbo.remoting.transport;
 import org.apache.dubbo.remoting.Channel;
 import org.apache.dubbo.remoting.ChannelHandler;
 import org.apache.dubbo.remoting.RemotingException;
+import org.apache.dubbo.remoting.exchange.Request;
 import org.apache.dubbo.remoting.exchange.support.MultiMessage;
 
 /**
+ * Handles the messages decoded together one by one, except the consecutive requests written in a batch by the
+ * client which are passed on together, so that they are dispatched as a single task.
  *
  * @see MultiMessage
+ * @see Request#isBatch()
  */
 public class MultiMessageHandler extends AbstractChannelHandlerDelegate {
 
@@ -36,11 +40,34 @@ public class MultiMessageHandler extends AbstractChannelHandlerDelegate {
     public void received(Channel channel, Object message) throws RemotingException {
         if (message instanceof MultiMessage) {
             MultiMessage list = (MultiMessage) message;
+            MultiMessage batch = null;
             for (Object obj : list) {
+                if (isBatch(obj)) {
+                    if (batch == null) {
+                        batch = MultiMessage.create();
+                    }
+                    batch.addMessage(obj);
+                    continue;
+                }
+                if (batch != null) {
+                    received(channel, batch);
+                    batch = null;
+                }
                 handler.received(channel, obj);
             }
+            if (batch != null) {
+                received(channel, batch);
+            }
         } else {
             handler.received(channel, message);
         }
     }
+
+    private void received(Channel channel, MultiMessage batch) throws RemotingException {
+        handler.received(channel, batch.size() == 1 ? batch.get(0) : batch);
+    }
+
+    private static boolean isBatch(Object message) {
+        return message instanceof Request && ((Request) message).isBatch() && !((Request) message).isEvent();
+    }
 }
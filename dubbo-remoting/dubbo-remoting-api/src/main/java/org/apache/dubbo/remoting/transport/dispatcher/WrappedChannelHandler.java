@@ -26,7 +26,11 @@ import org.apache.dubbo.common.threadpool.ThreadPool;
 import org.apache.dubbo.common.utils.NamedThreadFactory;
 import org.apache.dubbo.remoting.Channel;
 import org.apache.dubbo.remoting.ChannelHandler;
+import org.apache.dubbo.remoting.Decodeable;
 import org.apache.dubbo.remoting.RemotingException;
+import org.apache.dubbo.remoting.exchange.Request;
+import org.apache.dubbo.remoting.exchange.Response;
+import org.apache.dubbo.remoting.exchange.support.MultiMessage;
 import org.apache.dubbo.remoting.transport.ChannelHandlerDelegate;
 
 import java.util.concurrent.ExecutorService;
@@ -117,4 +121,37 @@ public class WrappedChannelHandler implements ChannelHandlerDelegate {
         return cexecutor;
     }
 
+    /**
+     * Releases the undecoded data of a request which could not be dispatched, it will never reach the DecodeHandler.
+     */
+    protected static void releaseUndecoded(Object message) {
+        if (message instanceof MultiMessage) {
+            for (Object obj : (MultiMessage) message) {
+                releaseUndecoded(obj);
+            }
+        } else if (message instanceof Request) {
+            Object data = ((Request) message).getData();
+            if (data instanceof Decodeable) {
+                ((Decodeable) data).release();
+            }
+        }
+    }
+
+    /**
+     * Answers the two way requests of a batch which the thread pool rejected, so that the consumer does not wait for
+     * them until timeout.
+     */
+    protected void rejectBatch(Channel channel, MultiMessage batch, Throwable t) throws RemotingException {
+        String msg = "Server side(" + url.getIp() + "," + url.getPort() + ") thread pool is exhausted, detail msg:" + t.getMessage();
+        for (Object message : batch) {
+            if (message instanceof Request && ((Request) message).isTwoWay()) {
+                Request request = (Request) message;
+                Response response = new Response(request.getId(), request.getVersion());
+                response.setStatus(Response.SERVER_THREADPOOL_EXHAUSTED_ERROR);
+                response.setErrorMessage(msg);
+                channel.send(response);
+            }
+        }
+    }
+
 }
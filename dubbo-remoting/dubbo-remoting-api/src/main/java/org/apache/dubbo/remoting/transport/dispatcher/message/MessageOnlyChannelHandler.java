@@ -39,6 +39,7 @@ public class MessageOnlyChannelHandler extends WrappedChannelHandler {
         try {
             cexecutor.execute(new ChannelEventRunnable(channel, handler, ChannelState.RECEIVED, message));
         } catch (Throwable t) {
+            releaseUndecoded(message);
             throw new ExecutionException(message, channel, getClass() + " error when process received event .", t);
         }
     }
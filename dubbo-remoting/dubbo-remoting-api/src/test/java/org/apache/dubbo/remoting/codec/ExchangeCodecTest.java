@@ -25,15 +25,19 @@ import org.apache.dubbo.common.io.UnsafeByteArrayOutputStream;
 import org.apache.dubbo.common.serialize.ObjectOutput;
 import org.apache.dubbo.common.serialize.Serialization;
 import org.apache.dubbo.remoting.Channel;
+import org.apache.dubbo.remoting.RemotingException;
 import org.apache.dubbo.remoting.buffer.ChannelBuffer;
 import org.apache.dubbo.remoting.buffer.ChannelBuffers;
 import org.apache.dubbo.remoting.exchange.Request;
 import org.apache.dubbo.remoting.exchange.Response;
 import org.apache.dubbo.remoting.exchange.codec.ExchangeCodec;
+import org.apache.dubbo.remoting.exchange.support.DefaultFuture;
+import org.apache.dubbo.remoting.exchange.support.MultiMessage;
 import org.apache.dubbo.remoting.telnet.codec.TelnetCodec;
 
 import org.apache.dubbo.remoting.transport.CodecSupport;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -345,6 +349,43 @@ public class ExchangeCodecTest extends TelnetCodecTest {
         Assertions.assertEquals(person, obj.getData());
     }
 
+    @Test
+    public void test_Encode_Batch() throws Exception {
+        // the deprecated codecs write single messages only
+        Assumptions.assumeTrue(codec instanceof ExchangeCodec);
+        AbstractMockChannel channel = getCliendSideChannel(url.addParameter(Constants.PAYLOAD_KEY, 64));
+        Request first = new Request();
+        first.setData("hello");
+        first.setBatch(true);
+        Request tooLarge = new Request();
+        tooLarge.setData(new String(new char[128]));
+        tooLarge.setBatch(true);
+        DefaultFuture future = DefaultFuture.newFuture(channel, tooLarge, 1000);
+        Request last = new Request();
+        last.setData("world");
+        ChannelBuffer encodeBuffer = ChannelBuffers.dynamicBuffer(512);
+
+        codec.encode(channel, encodeBuffer, MultiMessage.createFromArray(first, tooLarge, last));
+
+        // the request too large is answered alone, the others are written
+        Assertions.assertTrue(future.isDone());
+        try {
+            future.get();
+            fail();
+        } catch (RemotingException e) {
+            Assertions.assertTrue(e.getMessage().contains("Data length too large: "));
+        }
+        Request decoded = (Request) codec.decode(channel, encodeBuffer);
+        Assertions.assertEquals(first.getId(), decoded.getId());
+        Assertions.assertTrue(decoded.isBatch());
+        Assertions.assertEquals("hello", decoded.getData());
+        decoded = (Request) codec.decode(channel, encodeBuffer);
+        Assertions.assertEquals(last.getId(), decoded.getId());
+        Assertions.assertFalse(decoded.isBatch());
+        Assertions.assertEquals("world", decoded.getData());
+        Assertions.assertEquals(0, encodeBuffer.readableBytes());
+    }
+
     @Test
     public void test_Encode_Response() throws IOException {
         ChannelBuffer encodeBuffer = ChannelBuffers.dynamicBuffer(1024);
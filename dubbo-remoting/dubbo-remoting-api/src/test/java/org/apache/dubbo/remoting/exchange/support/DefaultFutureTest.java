@@ -18,8 +18,10 @@
 package org.apache.dubbo.remoting.exchange.support;
 
 import org.apache.dubbo.remoting.Channel;
+import org.apache.dubbo.remoting.RemotingException;
 import org.apache.dubbo.remoting.TimeoutException;
 import org.apache.dubbo.remoting.exchange.Request;
+import org.apache.dubbo.remoting.exchange.ResponseCallback;
 import org.apache.dubbo.remoting.handler.MockedChannel;
 
 import org.junit.jupiter.api.Assertions;
@@ -47,6 +49,20 @@ public class DefaultFutureTest {
         //cancel a future
         future.cancel();
         Assertions.assertTrue(future.isDone(), "cancel a future failed!");
+        Assertions.assertThrows(RemotingException.class, future::get);
+
+        final Throwable[] caught = new Throwable[1];
+        future.setCallback(new ResponseCallback() {
+            @Override
+            public void done(Object response) {
+            }
+
+            @Override
+            public void caught(Throwable exception) {
+                caught[0] = exception;
+            }
+        });
+        Assertions.assertNotNull(caught[0], "a canceled future completed normally!");
     }
 
     /**
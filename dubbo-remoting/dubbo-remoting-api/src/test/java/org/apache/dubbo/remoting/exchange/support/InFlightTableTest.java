@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.remoting.exchange.support;
+
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.remoting.Channel;
+import org.apache.dubbo.remoting.exchange.Request;
+import org.apache.dubbo.remoting.exchange.Response;
+import org.apache.dubbo.remoting.handler.MockedChannel;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class InFlightTableTest {
+
+    @Test
+    public void testPerChannelTable() {
+        Channel channel = newChannel(4);
+        DefaultFuture future = DefaultFuture.newFuture(channel, new Request(), 3000);
+
+        InFlightTable table = InFlightTable.get(channel);
+        Assertions.assertNotNull(table);
+        Assertions.assertSame(table, InFlightTable.of(channel));
+        Assertions.assertSame(future, table.get(future.getId()));
+        Assertions.assertSame(future, DefaultFuture.getFuture(channel, future.getId()));
+        Assertions.assertTrue(DefaultFuture.hasFuture(channel));
+        Assertions.assertFalse(DefaultFuture.hasFuture(newChannel(4)));
+
+        Response response = new Response(future.getId());
+        response.setResult("ok");
+        DefaultFuture.received(channel, response);
+        Assertions.assertTrue(future.isDone());
+        Assertions.assertNull(table.get(future.getId()));
+        Assertions.assertFalse(DefaultFuture.hasFuture(channel));
+    }
+
+    @Test
+    public void testOverflow() {
+        Channel channel = newChannel(2);
+        DefaultFuture[] futures = new DefaultFuture[8];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = DefaultFuture.newFuture(channel, new Request(), 3000);
+        }
+        InFlightTable table = InFlightTable.get(channel);
+        Assertions.assertEquals(futures.length, table.futures().size());
+        for (DefaultFuture future : futures) {
+            Assertions.assertSame(future, table.get(future.getId()));
+        }
+        for (DefaultFuture future : futures) {
+            Assertions.assertSame(future, table.remove(future.getId()));
+            Assertions.assertNull(table.remove(future.getId()));
+        }
+        Assertions.assertTrue(table.isEmpty());
+    }
+
+    @Test
+    public void testCloseChannel() {
+        Channel channel = newChannel(4);
+        DefaultFuture first = DefaultFuture.newFuture(channel, new Request(), 3000);
+        DefaultFuture second = DefaultFuture.newFuture(channel, new Request(), 3000);
+        DefaultFuture other = DefaultFuture.newFuture(newChannel(4), new Request(), 3000);
+
+        DefaultFuture.closeChannel(channel);
+        Assertions.assertTrue(first.isDone());
+        Assertions.assertTrue(second.isDone());
+        Assertions.assertFalse(other.isDone());
+        Assertions.assertNull(InFlightTable.get(channel));
+        other.cancel();
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        Channel channel = newChannel(4);
+        DefaultFuture fast = DefaultFuture.newFuture(channel, new Request(), 100);
+        DefaultFuture slow = DefaultFuture.newFuture(channel, new Request(), 300);
+        DefaultFuture pending = DefaultFuture.newFuture(channel, new Request(), 10000);
+        DefaultFuture answered = DefaultFuture.newFuture(channel, new Request(), 200);
+        Response response = new Response(answered.getId());
+        response.setResult("ok");
+        DefaultFuture.received(channel, response);
+        long start = System.currentTimeMillis();
+        while (!slow.isDone() && System.currentTimeMillis() - start < 5000) {
+            Thread.sleep(10);
+        }
+        Assertions.assertTrue(fast.isDone());
+        Assertions.assertTrue(slow.isDone());
+        Assertions.assertEquals("ok", answered.get());
+        Assertions.assertFalse(pending.isDone());
+
+        pending.cancel();
+        Assertions.assertTrue(InFlightTable.get(channel).isEmpty());
+        Assertions.assertFalse(InFlightTable.isTracked(InFlightTable.get(channel)));
+    }
+
+    @Test
+    public void testReleasedWithoutClose() {
+        Channel channel = newChannel(4);
+        DefaultFuture future = DefaultFuture.newFuture(channel, new Request(), 3000);
+        InFlightTable table = InFlightTable.get(channel);
+        Assertions.assertTrue(InFlightTable.isTracked(table));
+        Assertions.assertSame(future, DefaultFuture.getFuture(future.getId()));
+
+        Response response = new Response(future.getId());
+        response.setResult("ok");
+        DefaultFuture.received(channel, response);
+        Assertions.assertFalse(InFlightTable.isTracked(table));
+        Assertions.assertNull(DefaultFuture.getFuture(future.getId()));
+
+        DefaultFuture.newFuture(channel, new Request(), 3000).cancel();
+        Assertions.assertFalse(InFlightTable.isTracked(table));
+    }
+
+    private static Channel newChannel(int window) {
+        final URL url = URL.valueOf("dubbo://127.0.0.1:20880/test").addParameter(Constants.INFLIGHT_WINDOW_KEY, window);
+        return new MockedChannel() {
+            @Override
+            public URL getUrl() {
+                return url;
+            }
+        };
+    }
+}
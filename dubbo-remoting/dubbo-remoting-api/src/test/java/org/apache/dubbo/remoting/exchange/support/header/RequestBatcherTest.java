@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.remoting.exchange.support.header;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.remoting.RemotingException;
+import org.apache.dubbo.remoting.exchange.Request;
+import org.apache.dubbo.remoting.exchange.ResponseFuture;
+import org.apache.dubbo.remoting.exchange.support.MultiMessage;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class RequestBatcherTest {
+
+    private static class RecordingChannel extends MockChannel {
+
+        private final URL url;
+
+        private final List<Object> sent = new CopyOnWriteArrayList<>();
+
+        private volatile RemotingException failure;
+
+        RecordingChannel(URL url) {
+            this.url = url;
+        }
+
+        @Override
+        public URL getUrl() {
+            return url;
+        }
+
+        @Override
+        public void send(Object message) throws RemotingException {
+            send(message, false);
+        }
+
+        @Override
+        public void send(Object message, boolean sent) throws RemotingException {
+            if (failure != null) {
+                throw failure;
+            }
+            this.sent.add(message);
+        }
+    }
+
+    private static void waitForSent(RecordingChannel channel, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (channel.sent.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    public void testNotBatchedByDefault() throws Exception {
+        RecordingChannel channel = new RecordingChannel(URL.valueOf("dubbo://localhost:20880"));
+        HeaderExchangeChannel exchangeChannel = new HeaderExchangeChannel(channel);
+        exchangeChannel.request("a", 1000);
+        exchangeChannel.request("b", 1000);
+        Assertions.assertEquals(2, channel.sent.size());
+        Assertions.assertFalse(((Request) channel.sent.get(0)).isBatch());
+    }
+
+    @Test
+    public void testFullBatchWrittenAtOnce() throws Exception {
+        RecordingChannel channel = new RecordingChannel(URL.valueOf("dubbo://localhost:20880?batch=true&batch.size=4&batch.window=10000000"));
+        HeaderExchangeChannel exchangeChannel = new HeaderExchangeChannel(channel);
+        List<ResponseFuture> futures = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            futures.add(exchangeChannel.request("request" + i, 1000));
+        }
+        Assertions.assertEquals(1, channel.sent.size());
+        MultiMessage batch = (MultiMessage) channel.sent.get(0);
+        Assertions.assertEquals(4, batch.size());
+        for (int i = 0; i < 4; i++) {
+            Request request = (Request) batch.get(i);
+            Assertions.assertTrue(request.isBatch());
+            Assertions.assertEquals("request" + i, request.getData());
+            Assertions.assertFalse(futures.get(i).isDone());
+        }
+        exchangeChannel.close(0);
+    }
+
+    @Test
+    public void testWindow() throws Exception {
+        RecordingChannel channel = new RecordingChannel(URL.valueOf("dubbo://localhost:20880?batch=true&batch.size=100&batch.window=1000"));
+        HeaderExchangeChannel exchangeChannel = new HeaderExchangeChannel(channel);
+        exchangeChannel.request("a", 1000);
+        exchangeChannel.request("b", 1000);
+        exchangeChannel.send(1);
+        waitForSent(channel, 1);
+        Assertions.assertEquals(1, channel.sent.size());
+        MultiMessage batch = (MultiMessage) channel.sent.get(0);
+        Assertions.assertEquals(3, batch.size());
+        Assertions.assertFalse(((Request) batch.get(2)).isTwoWay());
+
+        // a request alone in its window is written as is
+        exchangeChannel.request("c", 1000);
+        waitForSent(channel, 2);
+        Request request = (Request) channel.sent.get(1);
+        Assertions.assertEquals("c", request.getData());
+    }
+
+    @Test
+    public void testSendFailure() throws Exception {
+        RecordingChannel channel = new RecordingChannel(URL.valueOf("dubbo://localhost:20880?batch=true&batch.size=2&batch.window=10000000"));
+        channel.failure = new RemotingException(channel, "closed");
+        HeaderExchangeChannel exchangeChannel = new HeaderExchangeChannel(channel);
+        ResponseFuture first = exchangeChannel.request("a", 1000);
+        ResponseFuture second = exchangeChannel.request("b", 1000);
+        for (ResponseFuture future : new ResponseFuture[]{first, second}) {
+            Assertions.assertTrue(future.isDone());
+            try {
+                future.get();
+                Assertions.fail();
+            } catch (RemotingException e) {
+                Assertions.assertTrue(e.getMessage().contains("closed"));
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.remoting.transport;
+
+import org.apache.dubbo.remoting.Channel;
+import org.apache.dubbo.remoting.ChannelHandler;
+import org.apache.dubbo.remoting.RemotingException;
+import org.apache.dubbo.remoting.exchange.Request;
+import org.apache.dubbo.remoting.exchange.Response;
+import org.apache.dubbo.remoting.exchange.support.MultiMessage;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+
+public class MultiMessageHandlerTest {
+
+    private static Request request(boolean batch) {
+        Request request = new Request();
+        request.setBatch(batch);
+        request.setData("data");
+        return request;
+    }
+
+    private static class RecordingHandler extends ChannelHandlerAdapter {
+
+        private final List<Object> received = new ArrayList<>();
+
+        @Override
+        public void received(Channel channel, Object message) throws RemotingException {
+            received.add(message);
+            if (message instanceof Request && "fail".equals(((Request) message).getData())) {
+                throw new RemotingException(channel, "failed");
+            }
+        }
+    }
+
+    @Test
+    public void testBatchPassedOnTogether() throws Exception {
+        RecordingHandler handler = new RecordingHandler();
+        ChannelHandler multiMessageHandler = new MultiMessageHandler(handler);
+        Request single = request(false);
+        Request first = request(true);
+        Request second = request(true);
+        Response response = new Response(1);
+        Request alone = request(true);
+
+        multiMessageHandler.received(mock(Channel.class), MultiMessage.createFromArray(single, first, second, response, alone));
+
+        Assertions.assertEquals(4, handler.received.size());
+        Assertions.assertSame(single, handler.received.get(0));
+        MultiMessage batch = (MultiMessage) handler.received.get(1);
+        Assertions.assertEquals(2, batch.size());
+        Assertions.assertSame(first, batch.get(0));
+        Assertions.assertSame(second, batch.get(1));
+        Assertions.assertSame(response, handler.received.get(2));
+        Assertions.assertSame(alone, handler.received.get(3));
+    }
+
+    @Test
+    public void testBatchHandledOneByOne() throws Exception {
+        RecordingHandler handler = new RecordingHandler();
+        Request failing = request(true);
+        failing.setData("fail");
+        Request next = request(true);
+
+        new DecodeHandler(handler).received(mock(Channel.class), MultiMessage.createFromArray(failing, next));
+
+        Assertions.assertEquals(2, handler.received.size());
+        Assertions.assertSame(failing, handler.received.get(0));
+        Assertions.assertSame(next, handler.received.get(1));
+    }
+}
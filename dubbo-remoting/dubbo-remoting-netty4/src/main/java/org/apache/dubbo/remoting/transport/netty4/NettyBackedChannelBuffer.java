@@ -20,6 +20,7 @@ import org.apache.dubbo.common.utils.Assert;
 import org.apache.dubbo.remoting.buffer.ChannelBuffer;
 import org.apache.dubbo.remoting.buffer.ChannelBufferFactory;
 import org.apache.dubbo.remoting.buffer.ChannelBuffers;
+import org.apache.dubbo.remoting.buffer.RetainableChannelBuffer;
 
 import io.netty.buffer.ByteBuf;
 
@@ -28,7 +29,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 
-public class NettyBackedChannelBuffer implements ChannelBuffer {
+public class NettyBackedChannelBuffer implements RetainableChannelBuffer {
 
     private ByteBuf buffer;
 
@@ -38,6 +39,20 @@ public class NettyBackedChannelBuffer implements ChannelBuffer {
     }
 
 
+    ByteBuf nettyBuffer() {
+        return buffer;
+    }
+
+    @Override
+    public RetainableChannelBuffer readRetainedSlice(int length) {
+        return new NettyBackedChannelBuffer(buffer.readRetainedSlice(length));
+    }
+
+    @Override
+    public boolean release() {
+        return buffer.release();
+    }
+
     @Override
     public int capacity() {
         return buffer.capacity();
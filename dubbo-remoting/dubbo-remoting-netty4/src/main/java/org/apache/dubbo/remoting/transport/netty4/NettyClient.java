@@ -85,6 +85,10 @@ public class NettyClient extends AbstractClient {
                         .addLast("encoder", adapter.getEncoder())
                         .addLast("client-idle-handler", new IdleStateHandler(heartbeatInterval, 0, 0, MILLISECONDS))
                         .addLast("handler", nettyClientHandler);
+                if (getUrl().getParameter(Constants.FLUSH_CONSOLIDATION_KEY, Constants.DEFAULT_FLUSH_CONSOLIDATION)) {
+                    int limit = getUrl().getPositiveParameter(Constants.FLUSH_CONSOLIDATION_LIMIT_KEY, Constants.DEFAULT_FLUSH_CONSOLIDATION_LIMIT);
+                    NettyFlushCounter.addFlushConsolidation(ch.pipeline(), limit);
+                }
             }
         });
     }
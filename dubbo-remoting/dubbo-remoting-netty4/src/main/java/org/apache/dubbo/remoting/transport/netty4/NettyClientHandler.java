@@ -24,6 +24,7 @@ import org.apache.dubbo.common.utils.StringUtils;
 import org.apache.dubbo.remoting.ChannelHandler;
 import org.apache.dubbo.remoting.exchange.Request;
 import org.apache.dubbo.remoting.exchange.Response;
+import org.apache.dubbo.remoting.exchange.support.MultiMessage;
 
 import io.netty.channel.ChannelDuplexHandler;
 import io.netty.channel.ChannelHandlerContext;
@@ -87,6 +88,7 @@ public class NettyClientHandler extends ChannelDuplexHandler {
         super.write(ctx, msg, promise);
         final NettyChannel channel = NettyChannel.getOrAddChannel(ctx.channel(), url, handler);
         final boolean isRequest = msg instanceof Request;
+        final boolean isBatch = msg instanceof MultiMessage;
 
         // We add listeners to make sure our out bound event is correct.
         // If our out bound event has an error (in most cases the encoder fails),
@@ -104,6 +106,12 @@ public class NettyClientHandler extends ChannelDuplexHandler {
                     Request request = (Request) msg;
                     Response response = buildErrorResponse(request, t);
                     handler.received(channel, response);
+                } else if (t != null && isBatch) {
+                    for (Object obj : (MultiMessage) msg) {
+                        if (obj instanceof Request) {
+                            handler.received(channel, buildErrorResponse((Request) obj, t));
+                        }
+                    }
                 }
             } finally {
                 NettyChannel.removeChannelIfDisconnected(ctx.channel());
@@ -76,10 +76,16 @@ final public class NettyCodecAdapter {
 
     private class InternalDecoder extends ByteToMessageDecoder {
 
+        // the cumulation buffer only changes when it has to grow, so its wrapper is kept across reads
+        private NettyBackedChannelBuffer cumulation;
+
         @Override
         protected void decode(ChannelHandlerContext ctx, ByteBuf input, List<Object> out) throws Exception {
 
-            ChannelBuffer message = new NettyBackedChannelBuffer(input);
+            if (cumulation == null || cumulation.nettyBuffer() != input) {
+                cumulation = new NettyBackedChannelBuffer(input);
+            }
+            ChannelBuffer message = cumulation;
 
             NettyChannel channel = NettyChannel.getOrAddChannel(ctx.channel(), url, handler);
 
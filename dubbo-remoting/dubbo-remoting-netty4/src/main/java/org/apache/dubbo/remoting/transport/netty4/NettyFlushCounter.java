@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.remoting.transport.netty4;
+
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.flush.FlushConsolidationHandler;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the flushes passing through a point of the pipelines, to report how many flushes the
+ * {@link FlushConsolidationHandler} coalesces.
+ */
+@ChannelHandler.Sharable
+public class NettyFlushCounter extends ChannelOutboundHandlerAdapter {
+
+    /**
+     * Above the consolidation, counts the flushes requested by every {@link NettyChannel#send(Object, boolean)}.
+     */
+    private static final NettyFlushCounter REQUESTED = new NettyFlushCounter();
+
+    /**
+     * Below the consolidation, counts the flushes passed to the transport.
+     */
+    private static final NettyFlushCounter PASSED = new NettyFlushCounter();
+
+    private final LongAdder count = new LongAdder();
+
+    private NettyFlushCounter() {
+    }
+
+    /**
+     * Adds a {@link FlushConsolidationHandler} at the head of the pipeline, which passes a flush down once
+     * <code>limit</code> flushes are pending, when the current read loop completes, or at the latest by a task on the
+     * event loop of the channel.
+     */
+    public static void addFlushConsolidation(ChannelPipeline pipeline, int limit) {
+        pipeline.addFirst("flush-requested", REQUESTED);
+        pipeline.addFirst("flush-consolidation", new FlushConsolidationHandler(limit, true));
+        pipeline.addFirst("flush-passed", PASSED);
+    }
+
+    /**
+     * @return the number of flushes requested through all consolidating channels
+     */
+    public static long getWriteCount() {
+        return REQUESTED.count.sum();
+    }
+
+    /**
+     * @return the number of flushes actually passed to the transport by all consolidating channels
+     */
+    public static long getFlushCount() {
+        return PASSED.count.sum();
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) throws Exception {
+        count.increment();
+        ctx.flush();
+    }
+
+}
@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.remoting.transport.netty4;
+
+import org.apache.dubbo.common.extension.Activate;
+import org.apache.dubbo.common.status.Status;
+import org.apache.dubbo.common.status.StatusChecker;
+
+/**
+ * Reports how many flushes the flush consolidation has coalesced, see {@link NettyFlushCounter}.
+ */
+@Activate
+public class NettyFlushStatusChecker implements StatusChecker {
+
+    @Override
+    public Status check() {
+        long writes = NettyFlushCounter.getWriteCount();
+        if (writes == 0) {
+            return new Status(Status.Level.UNKNOWN);
+        }
+        long flushes = NettyFlushCounter.getFlushCount();
+        return new Status(Status.Level.OK, "writes:" + writes + ",flushes:" + flushes
+                + ",coalesced:" + (writes - flushes));
+    }
+
+}
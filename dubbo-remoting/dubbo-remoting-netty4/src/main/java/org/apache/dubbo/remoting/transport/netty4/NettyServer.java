@@ -96,6 +96,10 @@ public class NettyServer extends AbstractServer implements Server {
                                 .addLast("encoder", adapter.getEncoder())
                                 .addLast("server-idle-handler", new IdleStateHandler(0, 0, idleTimeout, MILLISECONDS))
                                 .addLast("handler", nettyServerHandler);
+                        if (getUrl().getParameter(Constants.FLUSH_CONSOLIDATION_KEY, Constants.DEFAULT_FLUSH_CONSOLIDATION)) {
+                            int limit = getUrl().getPositiveParameter(Constants.FLUSH_CONSOLIDATION_LIMIT_KEY, Constants.DEFAULT_FLUSH_CONSOLIDATION_LIMIT);
+                            NettyFlushCounter.addFlushConsolidation(ch.pipeline(), limit);
+                        }
                     }
                 });
         // bind
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.remoting.transport.netty4;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class NettyFlushCounterTest {
+
+    @Test
+    public void testFlushOncePerTick() {
+        Transport transport = new Transport();
+        EmbeddedChannel channel = newChannel(transport, 16);
+
+        channel.writeAndFlush("a");
+        channel.writeAndFlush("b");
+        channel.writeAndFlush("c");
+        Assertions.assertEquals(0, transport.flushes);
+        Assertions.assertTrue(transport.flushed.isEmpty());
+
+        channel.runPendingTasks();
+        Assertions.assertEquals(1, transport.flushes);
+        Assertions.assertEquals(Arrays.asList("a", "b", "c"), transport.flushed);
+        channel.finish();
+    }
+
+    @Test
+    public void testFlushWhenLimitReached() {
+        Transport transport = new Transport();
+        EmbeddedChannel channel = newChannel(transport, 2);
+
+        channel.writeAndFlush("a");
+        Assertions.assertEquals(0, transport.flushes);
+        channel.writeAndFlush("b");
+        Assertions.assertEquals(1, transport.flushes);
+        Assertions.assertEquals(Arrays.asList("a", "b"), transport.flushed);
+
+        channel.runPendingTasks();
+        Assertions.assertEquals(1, transport.flushes);
+        channel.finish();
+    }
+
+    @Test
+    public void testFlushOnReadComplete() {
+        Transport transport = new Transport();
+        EmbeddedChannel channel = newChannel(transport, 16);
+
+        channel.pipeline().fireChannelRead("request");
+        channel.writeAndFlush("a");
+        channel.writeAndFlush("b");
+        channel.runPendingTasks();
+        Assertions.assertEquals(0, transport.flushes);
+
+        channel.pipeline().fireChannelReadComplete();
+        Assertions.assertEquals(1, transport.flushes);
+        Assertions.assertEquals(Arrays.asList("a", "b"), transport.flushed);
+        Assertions.assertEquals("request", channel.readInbound());
+        channel.finish();
+    }
+
+    @Test
+    public void testFlushOnClose() {
+        Transport transport = new Transport();
+        EmbeddedChannel channel = newChannel(transport, 16);
+
+        channel.writeAndFlush("a");
+        channel.close();
+        Assertions.assertEquals(1, transport.flushes);
+        Assertions.assertEquals(Arrays.asList("a"), transport.flushed);
+    }
+
+    @Test
+    public void testStatistics() {
+        long writes = NettyFlushCounter.getWriteCount();
+        long flushes = NettyFlushCounter.getFlushCount();
+        EmbeddedChannel channel = newChannel(new Transport(), 16);
+
+        channel.writeAndFlush("a");
+        channel.writeAndFlush("b");
+        channel.runPendingTasks();
+        Assertions.assertTrue(NettyFlushCounter.getWriteCount() - writes >= 2);
+        Assertions.assertTrue(NettyFlushCounter.getFlushCount() - flushes >= 1);
+        channel.finish();
+    }
+
+    private static EmbeddedChannel newChannel(Transport transport, int limit) {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        NettyFlushCounter.addFlushConsolidation(channel.pipeline(), limit);
+        channel.pipeline().addFirst(transport);
+        return channel;
+    }
+
+    /**
+     * Buffers writes until they are flushed, the way a socket channel does.
+     */
+    private static class Transport extends ChannelOutboundHandlerAdapter {
+
+        private final List<Object> pending = new ArrayList<Object>();
+
+        private final List<Object> flushed = new ArrayList<Object>();
+
+        private int flushes;
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+            pending.add(msg);
+            promise.setSuccess();
+        }
+
+        @Override
+        public void flush(ChannelHandlerContext ctx) throws Exception {
+            flushes++;
+            flushed.addAll(pending);
+            pending.clear();
+        }
+    }
+}
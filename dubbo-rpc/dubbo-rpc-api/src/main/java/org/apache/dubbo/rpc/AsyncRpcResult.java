@@ -22,6 +22,7 @@ import org.apache.dubbo.common.logger.LoggerFactory;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 
 /**
@@ -163,6 +164,22 @@ public class AsyncRpcResult extends AbstractResult {
         return valueFuture;
     }
 
+    /**
+     * Run the action once the call ends, with its result or its failure. A failed request may complete the value
+     * future only, without a result, so the action may also run twice and must ignore all but the first run.
+     *
+     * @param action
+     */
+    public void whenComplete(BiConsumer<Result, Throwable> action) {
+        CompletableFuture<Result> rFuture = resultFuture;
+        rFuture.whenComplete(action);
+        valueFuture.whenComplete((v, t) -> {
+            if (t != null && !rFuture.isDone()) {
+                action.accept(null, t);
+            }
+        });
+    }
+
     public void thenApplyWithContext(Function<Result, Result> fn) {
         this.resultFuture = resultFuture.thenApply(fn.compose(beforeContext).andThen(afterContext));
     }
@@ -17,14 +17,23 @@
 package org.apache.dubbo.rpc;
 
 import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.utils.SlidingWindowHistogram;
 
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * URL statistics. (API, Cached, ThreadSafe)
+ * <p>
+ * Besides the totals, the elapsed time of the calls in the last minute is kept in a {@link SlidingWindowHistogram}.
+ * The statistics of a URL are removed when the last invoker holding them is destroyed, see
+ * {@link #retainStatus(URL)} and {@link #releaseStatus(URL)}. The statistics of a URL no invoker holds are not kept,
+ * each lookup gets new ones.
  *
  * @see org.apache.dubbo.rpc.filter.ActiveLimitFilter
  * @see org.apache.dubbo.rpc.filter.ExecuteLimitFilter
@@ -35,15 +44,26 @@ public class RpcStatus {
     private static final ConcurrentMap<String, RpcStatus> SERVICE_STATISTICS = new ConcurrentHashMap<String, RpcStatus>();
 
     private static final ConcurrentMap<String, ConcurrentMap<String, RpcStatus>> METHOD_STATISTICS = new ConcurrentHashMap<String, ConcurrentMap<String, RpcStatus>>();
+
+    // invokers holding the statistics of a url, invokers with another group or version share the statistics
+    private static final ConcurrentMap<String, Integer> OWNERS = new ConcurrentHashMap<String, Integer>();
+    private static final long WINDOW_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final int WINDOW_SLICES = 4;
+
+    private static final AtomicReferenceFieldUpdater<RpcStatus, SlidingWindowHistogram> WINDOW_UPDATER =
+            AtomicReferenceFieldUpdater.newUpdater(RpcStatus.class, SlidingWindowHistogram.class, "windowElapsed");
+
     private final ConcurrentMap<String, Object> values = new ConcurrentHashMap<String, Object>();
     private final AtomicInteger active = new AtomicInteger();
-    private final AtomicLong total = new AtomicLong();
-    private final AtomicInteger failed = new AtomicInteger();
-    private final AtomicLong totalElapsed = new AtomicLong();
-    private final AtomicLong failedElapsed = new AtomicLong();
+    private final LongAdder total = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder totalElapsed = new LongAdder();
+    private final LongAdder failedElapsed = new LongAdder();
     private final AtomicLong maxElapsed = new AtomicLong();
     private final AtomicLong failedMaxElapsed = new AtomicLong();
     private final AtomicLong succeededMaxElapsed = new AtomicLong();
+    // created by the first ended call, statuses are also looked up by load balances which never end calls
+    private volatile SlidingWindowHistogram windowElapsed;
 
     private RpcStatus() {
     }
@@ -55,11 +75,16 @@ public class RpcStatus {
     public static RpcStatus getStatus(URL url) {
         String uri = url.toIdentityString();
         RpcStatus status = SERVICE_STATISTICS.get(uri);
-        if (status == null) {
-            SERVICE_STATISTICS.putIfAbsent(uri, new RpcStatus());
-            status = SERVICE_STATISTICS.get(uri);
+        if (status != null) {
+            return status;
         }
-        return status;
+        // created under the owners of the url, so that a release does not miss them
+        RpcStatus[] created = new RpcStatus[1];
+        OWNERS.computeIfPresent(uri, (key, owners) -> {
+            created[0] = SERVICE_STATISTICS.computeIfAbsent(key, k -> new RpcStatus());
+            return owners;
+        });
+        return created[0] != null ? created[0] : new RpcStatus();
     }
 
     /**
@@ -78,16 +103,17 @@ public class RpcStatus {
     public static RpcStatus getStatus(URL url, String methodName) {
         String uri = url.toIdentityString();
         ConcurrentMap<String, RpcStatus> map = METHOD_STATISTICS.get(uri);
-        if (map == null) {
-            METHOD_STATISTICS.putIfAbsent(uri, new ConcurrentHashMap<String, RpcStatus>());
-            map = METHOD_STATISTICS.get(uri);
-        }
-        RpcStatus status = map.get(methodName);
-        if (status == null) {
-            map.putIfAbsent(methodName, new RpcStatus());
-            status = map.get(methodName);
+        RpcStatus status = map == null ? null : map.get(methodName);
+        if (status != null) {
+            return status;
         }
-        return status;
+        RpcStatus[] created = new RpcStatus[1];
+        OWNERS.computeIfPresent(uri, (key, owners) -> {
+            created[0] = METHOD_STATISTICS.computeIfAbsent(key, k -> new ConcurrentHashMap<String, RpcStatus>())
+                    .computeIfAbsent(methodName, k -> new RpcStatus());
+            return owners;
+        });
+        return created[0] != null ? created[0] : new RpcStatus();
     }
 
     /**
@@ -101,6 +127,42 @@ public class RpcStatus {
         }
     }
 
+    /**
+     * Remove the statistics of the url and of all its methods.
+     *
+     * @param url
+     */
+    public static void removeAllStatus(URL url) {
+        String uri = url.toIdentityString();
+        SERVICE_STATISTICS.remove(uri);
+        METHOD_STATISTICS.remove(uri);
+    }
+
+    /**
+     * Hold the statistics of the url for one more invoker or exporter.
+     *
+     * @param url
+     */
+    public static void retainStatus(URL url) {
+        OWNERS.merge(url.toIdentityString(), 1, Integer::sum);
+    }
+
+    /**
+     * Release the statistics of the url for one invoker, they are removed when no invoker holds them any more.
+     *
+     * @param url
+     */
+    public static void releaseStatus(URL url) {
+        OWNERS.computeIfPresent(url.toIdentityString(), (uri, owners) -> {
+            if (owners > 1) {
+                return owners - 1;
+            }
+            SERVICE_STATISTICS.remove(uri);
+            METHOD_STATISTICS.remove(uri);
+            return null;
+        });
+    }
+
     public static void beginCount(URL url, String methodName) {
         beginCount(url, methodName, Integer.MAX_VALUE);
     }
@@ -127,26 +189,48 @@ public class RpcStatus {
      * @param succeeded
      */
     public static void endCount(URL url, String methodName, long elapsed, boolean succeeded) {
-        endCount(getStatus(url), elapsed, succeeded);
-        endCount(getStatus(url, methodName), elapsed, succeeded);
+        // the statistics may have been removed with the invoker while the call was in flight
+        String uri = url.toIdentityString();
+        RpcStatus appStatus = SERVICE_STATISTICS.get(uri);
+        if (appStatus != null) {
+            endCount(appStatus, elapsed, succeeded);
+        }
+        ConcurrentMap<String, RpcStatus> map = METHOD_STATISTICS.get(uri);
+        RpcStatus methodStatus = map == null ? null : map.get(methodName);
+        if (methodStatus != null) {
+            endCount(methodStatus, elapsed, succeeded);
+        }
     }
 
     private static void endCount(RpcStatus status, long elapsed, boolean succeeded) {
         status.active.decrementAndGet();
-        status.total.incrementAndGet();
-        status.totalElapsed.addAndGet(elapsed);
-        if (status.maxElapsed.get() < elapsed) {
-            status.maxElapsed.set(elapsed);
-        }
+        status.total.increment();
+        status.totalElapsed.add(elapsed);
+        status.getWindowHistogram().record(elapsed);
+        updateMax(status.maxElapsed, elapsed);
         if (succeeded) {
-            if (status.succeededMaxElapsed.get() < elapsed) {
-                status.succeededMaxElapsed.set(elapsed);
-            }
+            updateMax(status.succeededMaxElapsed, elapsed);
         } else {
-            status.failed.incrementAndGet();
-            status.failedElapsed.addAndGet(elapsed);
-            if (status.failedMaxElapsed.get() < elapsed) {
-                status.failedMaxElapsed.set(elapsed);
+            status.failed.increment();
+            status.failedElapsed.add(elapsed);
+            updateMax(status.failedMaxElapsed, elapsed);
+        }
+    }
+
+    private SlidingWindowHistogram getWindowHistogram() {
+        SlidingWindowHistogram histogram = windowElapsed;
+        if (histogram == null) {
+            WINDOW_UPDATER.compareAndSet(this, null, new SlidingWindowHistogram(WINDOW_MILLIS, WINDOW_SLICES));
+            histogram = windowElapsed;
+        }
+        return histogram;
+    }
+
+    private static void updateMax(AtomicLong max, long elapsed) {
+        long current;
+        while ((current = max.get()) < elapsed) {
+            if (max.compareAndSet(current, elapsed)) {
+                return;
             }
         }
     }
@@ -171,6 +255,28 @@ public class RpcStatus {
         return values.get(key);
     }
 
+    /**
+     * set value if absent.
+     *
+     * @param key
+     * @param value
+     * @return the value kept
+     */
+    public Object setIfAbsent(String key, Object value) {
+        Object old = values.putIfAbsent(key, value);
+        return old != null ? old : value;
+    }
+
+    /**
+     * remove value.
+     *
+     * @param key
+     * @return value
+     */
+    public Object remove(String key) {
+        return values.remove(key);
+    }
+
     /**
      * get active.
      *
@@ -186,7 +292,7 @@ public class RpcStatus {
      * @return total
      */
     public long getTotal() {
-        return total.longValue();
+        return total.sum();
     }
 
     /**
@@ -195,7 +301,7 @@ public class RpcStatus {
      * @return total elapsed
      */
     public long getTotalElapsed() {
-        return totalElapsed.get();
+        return totalElapsed.sum();
     }
 
     /**
@@ -226,7 +332,7 @@ public class RpcStatus {
      * @return failed
      */
     public int getFailed() {
-        return failed.get();
+        return failed.intValue();
     }
 
     /**
@@ -235,7 +341,7 @@ public class RpcStatus {
      * @return failed elapsed
      */
     public long getFailedElapsed() {
-        return failedElapsed.get();
+        return failedElapsed.sum();
     }
 
     /**
@@ -312,5 +418,25 @@ public class RpcStatus {
         return getTotal();
     }
 
+    /**
+     * get the number of calls ended in the last minute.
+     *
+     * @return window total
+     */
+    public long getWindowTotal() {
+        SlidingWindowHistogram histogram = windowElapsed;
+        return histogram == null ? 0 : histogram.getCount();
+    }
+
+    /**
+     * get the elapsed time below which the given fraction of the calls ended in the last minute fall.
+     *
+     * @param quantile between 0 and 1, e.g. 0.99 for p99
+     * @return elapsed at the quantile, 0 if no call ended in the last minute
+     */
+    public long getWindowElapsed(double quantile) {
+        SlidingWindowHistogram histogram = windowElapsed;
+        return histogram == null ? 0 : histogram.getValueAtQuantile(quantile);
+    }
 
 }
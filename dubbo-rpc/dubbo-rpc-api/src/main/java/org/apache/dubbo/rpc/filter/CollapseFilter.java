@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.filter;
+
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.extension.Activate;
+import org.apache.dubbo.rpc.AsyncRpcResult;
+import org.apache.dubbo.rpc.Filter;
+import org.apache.dubbo.rpc.Invocation;
+import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.Result;
+import org.apache.dubbo.rpc.RpcContext;
+import org.apache.dubbo.rpc.RpcException;
+import org.apache.dubbo.rpc.RpcResult;
+import org.apache.dubbo.rpc.SimpleAsyncRpcResult;
+import org.apache.dubbo.rpc.support.RpcUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * CollapseFilter sends identical concurrent calls once from client side. While a call of a method is in flight, the
+ * calls of the same service and method with equal arguments wait for its result instead of being sent, synchronous
+ * callers block on it and asynchronous callers get a future completed with it. To use collapse filter, configure url
+ * with <b>collapse</b>, on the reference or on a method.
+ * <pre>
+ *     e.g. &lt;dubbo:reference interface="org.apache.dubbo.demo.DemoService" &gt;
+ *              &lt;dubbo:method name="sayHello" &gt; &lt;dubbo:parameter key="collapse" value="true" /&gt; &lt;/dubbo:method&gt;
+ *          &lt;/dubbo:reference&gt;
+ * </pre>
+ * Arguments are compared with {@link Arrays#deepEquals(Object[], Object[])}, and only calls with equal attachments are
+ * collapsed, so calls carrying e.g. another token or tag are sent on their own. The returned value is shared by all
+ * the callers, so only methods without side effects and returning values the callers do not modify should be
+ * collapsed.
+ *
+ * @see Filter
+ */
+@Activate(group = Constants.CONSUMER, value = Constants.COLLAPSE_KEY)
+public class CollapseFilter implements Filter {
+
+    private static final ConcurrentMap<String, LongAdder> COLLAPSED = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<CollapseKey, CompletableFuture<Result>> flights = new ConcurrentHashMap<>();
+
+    @Override
+    public Result invoke(Invoker<?> invoker, Invocation invocation) throws RpcException {
+        URL url = invoker.getUrl();
+        String methodName = invocation.getMethodName();
+        if (!url.getMethodParameter(methodName, Constants.COLLAPSE_KEY, false) || RpcUtils.isOneway(url, invocation)) {
+            return invoker.invoke(invocation);
+        }
+        CollapseKey key = new CollapseKey(url.getServiceKey(), methodName, invocation.getParameterTypes(),
+                invocation.getArguments(), invocation.getAttachments());
+        CompletableFuture<Result> flight = new CompletableFuture<>();
+        CompletableFuture<Result> leader = flights.putIfAbsent(key, flight);
+        if (leader != null) {
+            COLLAPSED.computeIfAbsent(getCounterKey(url, methodName), k -> new LongAdder()).increment();
+            return follow(leader, url, invocation);
+        }
+
+        Result result;
+        try {
+            result = invoker.invoke(invocation);
+        } catch (RuntimeException e) {
+            land(key, flight, null, e);
+            throw e;
+        }
+        if (result instanceof AsyncRpcResult) {
+            ((AsyncRpcResult) result).whenComplete((r, t) -> land(key, flight, r, t));
+        } else {
+            land(key, flight, result, null);
+        }
+        return result;
+    }
+
+    private void land(CollapseKey key, CompletableFuture<Result> flight, Result result, Throwable t) {
+        // later calls must not get this result once it is delivered
+        flights.remove(key, flight);
+        if (t != null) {
+            flight.completeExceptionally(t);
+        } else {
+            flight.complete(result);
+        }
+    }
+
+    private Result follow(CompletableFuture<Result> flight, URL url, Invocation invocation) {
+        boolean futureReturnType = RpcUtils.isReturnTypeFuture(invocation);
+        if (futureReturnType || RpcUtils.isAsync(url, invocation)) {
+            CompletableFuture<Object> valueFuture = new CompletableFuture<>();
+            CompletableFuture<Result> resultFuture = new CompletableFuture<>();
+            flight.whenComplete((r, t) -> {
+                Result copy = t != null ? new RpcResult(unwrap(t)) : copy(r);
+                resultFuture.complete(copy);
+                if (copy.hasException()) {
+                    valueFuture.completeExceptionally(copy.getException());
+                } else {
+                    valueFuture.complete(copy.getValue());
+                }
+            });
+            RpcContext.getContext().setFuture(valueFuture);
+            return futureReturnType ? new AsyncRpcResult(valueFuture, resultFuture, false)
+                    : new SimpleAsyncRpcResult(valueFuture, resultFuture, false);
+        }
+        RpcContext.getContext().setFuture(null);
+        String methodName = invocation.getMethodName();
+        int timeout = url.getMethodParameter(methodName, Constants.TIMEOUT_KEY, Constants.DEFAULT_TIMEOUT);
+        try {
+            return copy(flight.get(timeout, TimeUnit.MILLISECONDS));
+        } catch (ExecutionException e) {
+            Throwable cause = unwrap(e.getCause());
+            if (cause instanceof RpcException) {
+                throw (RpcException) cause;
+            }
+            throw new RpcException(cause.getMessage(), cause);
+        } catch (TimeoutException e) {
+            throw new RpcException(RpcException.TIMEOUT_EXCEPTION, "Waiting collapsed invoke timeout in client-side for service: "
+                    + url.getServiceKey() + ", method: " + methodName + ", timeout: " + timeout, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RpcException("Interrupted while waiting collapsed invoke for service: " + url.getServiceKey()
+                    + ", method: " + methodName, e);
+        }
+    }
+
+    private static Result copy(Result result) {
+        if (result == null) {
+            return new RpcResult();
+        }
+        RpcResult copy = result.hasException() ? new RpcResult(result.getException()) : new RpcResult(result.getValue());
+        copy.setAttachments(new HashMap<>(result.getAttachments()));
+        return copy;
+    }
+
+    private static Throwable unwrap(Throwable t) {
+        return t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+    }
+
+    private static String getCounterKey(URL url, String methodName) {
+        return url.getServiceKey() + "." + methodName;
+    }
+
+    /**
+     * @return the number of calls of the method which waited for an identical call instead of being sent
+     */
+    public static long getCollapsedCount(URL url, String methodName) {
+        LongAdder collapsed = COLLAPSED.get(getCounterKey(url, methodName));
+        return collapsed == null ? 0 : collapsed.sum();
+    }
+
+    private static final class CollapseKey {
+
+        private final String serviceKey;
+
+        private final String methodName;
+
+        private final Class<?>[] parameterTypes;
+
+        private final Object[] arguments;
+
+        // a copy, the invokers down the chain add their own attachments to the invocation
+        private final Map<String, String> attachments;
+
+        private final int hash;
+
+        CollapseKey(String serviceKey, String methodName, Class<?>[] parameterTypes, Object[] arguments,
+                    Map<String, String> attachments) {
+            this.serviceKey = serviceKey;
+            this.methodName = methodName;
+            this.parameterTypes = parameterTypes;
+            this.arguments = arguments;
+            this.attachments = attachments == null || attachments.isEmpty()
+                    ? Collections.<String, String>emptyMap() : new HashMap<>(attachments);
+            this.hash = 31 * (31 * (31 * Objects.hashCode(serviceKey) + methodName.hashCode())
+                    + Arrays.deepHashCode(arguments)) + this.attachments.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof CollapseKey)) {
+                return false;
+            }
+            CollapseKey other = (CollapseKey) obj;
+            return hash == other.hash
+                    && Objects.equals(serviceKey, other.serviceKey)
+                    && methodName.equals(other.methodName)
+                    && Arrays.equals(parameterTypes, other.parameterTypes)
+                    && Arrays.deepEquals(arguments, other.arguments)
+                    && attachments.equals(other.attachments);
+        }
+    }
+}
@@ -20,6 +20,7 @@ import org.apache.dubbo.common.Constants;
 import org.apache.dubbo.common.beanutil.JavaBeanAccessor;
 import org.apache.dubbo.common.beanutil.JavaBeanDescriptor;
 import org.apache.dubbo.common.beanutil.JavaBeanSerializeUtil;
+import org.apache.dubbo.common.beanutil.SchemaValue;
 import org.apache.dubbo.common.extension.Activate;
 import org.apache.dubbo.common.extension.ExtensionLoader;
 import org.apache.dubbo.common.io.UnsafeByteArrayInputStream;
@@ -42,6 +43,7 @@ import org.apache.dubbo.rpc.support.ProtocolUtils;
 
 import java.io.IOException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Type;
 
 /**
  * GenericInvokerFilter.
@@ -107,6 +109,18 @@ public class GenericFilter implements Filter {
                                             args[i].getClass().getName());
                         }
                     }
+                } else if (ProtocolUtils.isSchemaGenericSerialization(generic)) {
+                    // the arguments were written in the form of the parameter types, only the ones sent
+                    // without a schema, or not serialized at all, still need to be realized
+                    Type[] genericTypes = method.getGenericParameterTypes();
+                    for (int i = 0; i < args.length; i++) {
+                        if (args[i] instanceof SchemaValue) {
+                            args[i] = ((SchemaValue) args[i]).getValue();
+                        }
+                        if (!ReflectUtils.isCompatible(params[i], args[i])) {
+                            args[i] = PojoUtils.realize(args[i], params[i], genericTypes[i]);
+                        }
+                    }
                 }
                 Result result = invoker.invoke(new RpcInvocation(method, args, inv.getAttachments()));
                 if (result.hasException()
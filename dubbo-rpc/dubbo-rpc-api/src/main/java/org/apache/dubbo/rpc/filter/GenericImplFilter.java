@@ -20,6 +20,7 @@ import org.apache.dubbo.common.Constants;
 import org.apache.dubbo.common.beanutil.JavaBeanAccessor;
 import org.apache.dubbo.common.beanutil.JavaBeanDescriptor;
 import org.apache.dubbo.common.beanutil.JavaBeanSerializeUtil;
+import org.apache.dubbo.common.beanutil.SchemaValue;
 import org.apache.dubbo.common.extension.Activate;
 import org.apache.dubbo.common.logger.Logger;
 import org.apache.dubbo.common.logger.LoggerFactory;
@@ -164,6 +165,12 @@ public class GenericImplFilter implements Filter {
                         error(generic, JavaBeanDescriptor.class.getName(), arg.getClass().getName());
                     }
                 }
+            } else if (ProtocolUtils.isSchemaGenericSerialization(generic)) {
+                for (Object arg : args) {
+                    if (!(arg instanceof SchemaValue)) {
+                        error(generic, SchemaValue.class.getName(), arg.getClass().getName());
+                    }
+                }
             }
 
             ((RpcInvocation) invocation).setAttachment(
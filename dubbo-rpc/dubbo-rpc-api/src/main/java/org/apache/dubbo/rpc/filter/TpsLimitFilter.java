@@ -18,7 +18,10 @@
 package org.apache.dubbo.rpc.filter;
 
 import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
 import org.apache.dubbo.common.extension.Activate;
+import org.apache.dubbo.common.extension.ExtensionLoader;
+import org.apache.dubbo.common.utils.StringUtils;
 import org.apache.dubbo.rpc.Filter;
 import org.apache.dubbo.rpc.Invocation;
 import org.apache.dubbo.rpc.Invoker;
@@ -32,7 +35,7 @@ import org.apache.dubbo.rpc.filter.tps.TPSLimiter;
  * Service or method url can define <b>tps</b> or <b>tps.interval</b> to control this control.It use {@link DefaultTPSLimiter}
  * as it limit checker. If a provider service method is configured with <b>tps</b>(optionally with <b>tps.interval</b>),then
  * if invocation count exceed the configured <b>tps</b> value (default is -1 which means unlimited) then invocation will get
- * RpcException.
+ * RpcException. Another {@link TPSLimiter} extension can be selected with <b>tps.limiter</b>, e.g. <b>tokenbucket</b>.
  * */
 @Activate(group = Constants.PROVIDER, value = Constants.TPS_LIMIT_RATE_KEY)
 public class TpsLimitFilter implements Filter {
@@ -42,7 +45,7 @@ public class TpsLimitFilter implements Filter {
     @Override
     public Result invoke(Invoker<?> invoker, Invocation invocation) throws RpcException {
 
-        if (!tpsLimiter.isAllowable(invoker.getUrl(), invocation)) {
+        if (!getTpsLimiter(invoker.getUrl()).isAllowable(invoker.getUrl(), invocation)) {
             throw new RpcException(
                     "Failed to invoke service " +
                             invoker.getInterface().getName() +
@@ -54,4 +57,12 @@ public class TpsLimitFilter implements Filter {
         return invoker.invoke(invocation);
     }
 
+    private TPSLimiter getTpsLimiter(URL url) {
+        String name = url.getParameter(Constants.TPS_LIMITER_KEY);
+        if (StringUtils.isEmpty(name)) {
+            return tpsLimiter;
+        }
+        return ExtensionLoader.getExtensionLoader(TPSLimiter.class).getExtension(name);
+    }
+
 }
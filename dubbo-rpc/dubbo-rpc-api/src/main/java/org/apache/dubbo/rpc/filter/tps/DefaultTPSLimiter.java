@@ -31,6 +31,8 @@ import java.util.concurrent.ConcurrentMap;
  */
 public class DefaultTPSLimiter implements TPSLimiter {
 
+    public static final String NAME = "default";
+
     private final ConcurrentMap<String, StatItem> stats = new ConcurrentHashMap<String, StatItem>();
 
     @Override
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.filter.tps;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A token bucket of <b>rate</b> tokens refilled smoothly over <b>interval</b> milliseconds.
+ * <p>
+ * Instead of counting tokens, the bucket keeps the time at which it will be full again, shifted by one token
+ * interval for each acquired token. The refill is thus computed lazily from {@link System#nanoTime()} and acquiring
+ * a token is a single compare and set, with no state to reset at interval boundaries.
+ */
+public class TokenBucket {
+
+    private static final AtomicLongFieldUpdater<TokenBucket> FULL_TIME_UPDATER =
+            AtomicLongFieldUpdater.newUpdater(TokenBucket.class, "fullTime");
+
+    private final String name;
+
+    private final int rate;
+
+    private final long interval;
+
+    private final long intervalNanos;
+
+    // the time one token takes to refill
+    private final long tokenNanos;
+
+    private volatile long fullTime;
+
+    private final LongAdder allowed = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    TokenBucket(String name, int rate, long interval) {
+        this.name = name;
+        this.rate = rate;
+        this.interval = interval;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(interval);
+        this.tokenNanos = Math.max(intervalNanos / rate, 1);
+        this.fullTime = System.nanoTime();
+    }
+
+    public boolean tryAcquire() {
+        long now = System.nanoTime();
+        for (; ; ) {
+            long current = fullTime;
+            // a full bucket is refilled up to now, not before
+            long next = (current - now < 0 ? now : current) + tokenNanos;
+            if (next - now > intervalNanos) {
+                rejected.increment();
+                return false;
+            }
+            if (FULL_TIME_UPDATER.compareAndSet(this, current, next)) {
+                allowed.increment();
+                return true;
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getRate() {
+        return rate;
+    }
+
+    public long getInterval() {
+        return interval;
+    }
+
+    /**
+     * @return the tokens left in the bucket
+     */
+    public long getTokens() {
+        long empty = fullTime - System.nanoTime();
+        if (empty <= 0) {
+            return rate;
+        }
+        return Math.max((intervalNanos - empty) / tokenNanos, 0);
+    }
+
+    /**
+     * @return true once every token is refilled, the bucket then behaves like a new one
+     */
+    boolean isFull() {
+        return fullTime - System.nanoTime() <= 0;
+    }
+
+    public long getAllowed() {
+        return allowed.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    @Override
+    public String toString() {
+        return new StringBuilder(32).append("TokenBucket ")
+                .append("[name=").append(name).append(", ")
+                .append("rate = ").append(rate).append(", ")
+                .append("interval = ").append(interval).append("]")
+                .toString();
+    }
+
+}
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.filter.tps;
+
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.utils.StringUtils;
+import org.apache.dubbo.rpc.Invocation;
+import org.apache.dubbo.rpc.RpcContext;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * TokenBucketTPSLimiter limits the tps with a {@link TokenBucket}, which unlike {@link DefaultTPSLimiter} never
+ * exceeds <b>tps</b> calls per <b>tps.interval</b> and has no burst at interval boundaries.
+ * <p>
+ * A method configured with its own <b>tps</b> gets its own bucket, and with <b>tps.consumer</b> set to true every
+ * consumer gets its own bucket, the consumer being the <b>application</b> attachment of the invocation or else the
+ * remote host. Consumer buckets which have refilled all their tokens are dropped, so short-lived consumers do not
+ * accumulate.
+ *
+ * @see org.apache.dubbo.rpc.filter.TpsLimitFilter
+ */
+public class TokenBucketTPSLimiter implements TPSLimiter {
+
+    public static final String NAME = "tokenbucket";
+
+    // url identity -> method name, or the empty string for the limit of the service -> buckets
+    private final ConcurrentMap<String, ConcurrentMap<String, BucketGroup>> groups =
+            new ConcurrentHashMap<String, ConcurrentMap<String, BucketGroup>>();
+
+    @Override
+    public boolean isAllowable(URL url, Invocation invocation) {
+        String methodName = invocation.getMethodName();
+        int rate = url.getMethodParameter(methodName, Constants.TPS_LIMIT_RATE_KEY, -1);
+        if (rate <= 0) {
+            return true;
+        }
+        long interval = url.getMethodParameter(methodName, Constants.TPS_LIMIT_INTERVAL_KEY,
+                Constants.DEFAULT_TPS_LIMIT_INTERVAL);
+        boolean perConsumer = url.getParameter(Constants.TPS_LIMIT_CONSUMER_KEY, false);
+
+        String service = url.toIdentityString();
+        ConcurrentMap<String, BucketGroup> scopes = groups.get(service);
+        if (scopes == null) {
+            groups.putIfAbsent(service, new ConcurrentHashMap<String, BucketGroup>());
+            scopes = groups.get(service);
+        }
+        String scope = url.hasMethodParameter(methodName, Constants.TPS_LIMIT_RATE_KEY) ? methodName : "";
+        BucketGroup group = scopes.get(scope);
+        if (group == null || group.rate != rate || group.interval != interval || group.perConsumer != perConsumer) {
+            // rate or interval has changed, rebuild
+            String name = scope.isEmpty() ? service : service + "#" + scope;
+            BucketGroup created = new BucketGroup(name, rate, interval, perConsumer);
+            if (group == null) {
+                group = scopes.putIfAbsent(scope, created);
+                if (group == null) {
+                    group = created;
+                }
+            } else {
+                scopes.replace(scope, group, created);
+                group = scopes.get(scope);
+            }
+        }
+        return group.getBucket(invocation).tryAcquire();
+    }
+
+    /**
+     * @return the buckets in use, the bucket of a consumer is dropped once it is full again
+     */
+    public Collection<TokenBucket> getBuckets() {
+        List<TokenBucket> buckets = new ArrayList<TokenBucket>();
+        for (ConcurrentMap<String, BucketGroup> scopes : groups.values()) {
+            for (BucketGroup group : scopes.values()) {
+                if (group.bucket != null) {
+                    buckets.add(group.bucket);
+                } else {
+                    buckets.addAll(group.consumers.values());
+                }
+            }
+        }
+        return Collections.unmodifiableCollection(buckets);
+    }
+
+    private static String getConsumer(Invocation invocation) {
+        String application = invocation.getAttachment(Constants.APPLICATION_KEY);
+        if (StringUtils.isNotEmpty(application)) {
+            return application;
+        }
+        return RpcContext.getContext().getRemoteHost();
+    }
+
+    /**
+     * The bucket of a limit, or the buckets of its consumers.
+     * <p>
+     * A consumer bucket that has refilled all its tokens is no different from a new one, so such buckets are
+     * dropped, at most once per interval when another consumer shows up. The buckets kept are thus bounded by the
+     * consumers seen in the last intervals rather than by every consumer ever seen.
+     */
+    private static final class BucketGroup {
+
+        private static final AtomicLongFieldUpdater<BucketGroup> NEXT_SWEEP_UPDATER =
+                AtomicLongFieldUpdater.newUpdater(BucketGroup.class, "nextSweep");
+
+        private final String name;
+
+        private final int rate;
+
+        private final long interval;
+
+        private final long intervalNanos;
+
+        private final boolean perConsumer;
+
+        private final TokenBucket bucket;
+
+        private final ConcurrentMap<String, TokenBucket> consumers;
+
+        private volatile long nextSweep;
+
+        BucketGroup(String name, int rate, long interval, boolean perConsumer) {
+            this.name = name;
+            this.rate = rate;
+            this.interval = interval;
+            this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(interval);
+            this.perConsumer = perConsumer;
+            this.bucket = perConsumer ? null : new TokenBucket(name, rate, interval);
+            this.consumers = perConsumer ? new ConcurrentHashMap<String, TokenBucket>() : null;
+            this.nextSweep = System.nanoTime() + intervalNanos;
+        }
+
+        TokenBucket getBucket(Invocation invocation) {
+            if (bucket != null) {
+                return bucket;
+            }
+            String consumer = getConsumer(invocation);
+            TokenBucket consumerBucket = consumers.get(consumer);
+            if (consumerBucket == null) {
+                sweep();
+                TokenBucket created = new TokenBucket(name + "@" + consumer, rate, interval);
+                consumerBucket = consumers.putIfAbsent(consumer, created);
+                if (consumerBucket == null) {
+                    consumerBucket = created;
+                }
+            }
+            return consumerBucket;
+        }
+
+        private void sweep() {
+            long next = nextSweep;
+            long now = System.nanoTime();
+            if (now - next < 0 || !NEXT_SWEEP_UPDATER.compareAndSet(this, next, now + intervalNanos)) {
+                return;
+            }
+            for (Map.Entry<String, TokenBucket> entry : consumers.entrySet()) {
+                if (entry.getValue().isFull()) {
+                    consumers.remove(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+    }
+
+}
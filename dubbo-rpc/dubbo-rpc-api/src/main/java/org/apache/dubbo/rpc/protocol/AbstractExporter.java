@@ -20,6 +20,7 @@ import org.apache.dubbo.common.logger.Logger;
 import org.apache.dubbo.common.logger.LoggerFactory;
 import org.apache.dubbo.rpc.Exporter;
 import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.RpcStatus;
 
 /**
  * AbstractExporter.
@@ -43,6 +44,8 @@ public abstract class AbstractExporter<T> implements Exporter<T> {
             throw new IllegalStateException("service url == null");
         }
         this.invoker = invoker;
+        // the provider side filters count the calls by the url of the exported invoker
+        RpcStatus.retainStatus(invoker.getUrl());
     }
 
     @Override
@@ -57,6 +60,7 @@ public abstract class AbstractExporter<T> implements Exporter<T> {
         }
         unexported = true;
         getInvoker().destroy();
+        RpcStatus.releaseStatus(getInvoker().getUrl());
     }
 
     @Override
@@ -31,6 +31,7 @@ import org.apache.dubbo.rpc.RpcContext;
 import org.apache.dubbo.rpc.RpcException;
 import org.apache.dubbo.rpc.RpcInvocation;
 import org.apache.dubbo.rpc.RpcResult;
+import org.apache.dubbo.rpc.RpcStatus;
 import org.apache.dubbo.rpc.support.RpcUtils;
 
 import java.lang.reflect.InvocationTargetException;
@@ -74,6 +75,7 @@ public abstract class AbstractInvoker<T> implements Invoker<T> {
         this.type = type;
         this.url = url;
         this.attachment = attachment == null ? null : Collections.unmodifiableMap(attachment);
+        RpcStatus.retainStatus(url);
     }
 
     private static Map<String, String> convertAttachment(URL url, String[] keys) {
@@ -115,6 +117,7 @@ public abstract class AbstractInvoker<T> implements Invoker<T> {
             return;
         }
         setAvailable(false);
+        RpcStatus.releaseStatus(getUrl());
     }
 
     public boolean isDestroyed() {
@@ -47,6 +47,10 @@ public class ProtocolFilterWrapper implements Protocol {
     private static <T> Invoker<T> buildInvokerChain(final Invoker<T> invoker, String key, String group) {
         Invoker<T> last = invoker;
         List<Filter> filters = ExtensionLoader.getExtensionLoader(Filter.class).getActivateExtension(invoker.getUrl(), key, group);
+        if (Constants.COMPILED_FILTER_CHAIN.equals(invoker.getUrl().getParameter(Constants.FILTER_CHAIN_KEY))
+                && !filters.isEmpty() && filters.size() <= CompiledFilterChain.MAX_FILTERS) {
+            return new CompiledFilterChain<T>(invoker, filters);
+        }
         if (!filters.isEmpty()) {
             for (int i = filters.size() - 1; i >= 0; i--) {
                 final Filter filter = filters.get(i);
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc;
+
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class RpcStatusTest {
+
+    private final URL url = URL.valueOf("test://127.0.0.1:9090/org.apache.dubbo.rpc.DemoService");
+
+    @BeforeEach
+    public void setUp() {
+        RpcStatus.retainStatus(url);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RpcStatus.releaseStatus(url);
+    }
+
+    @Test
+    public void testCount() {
+        for (int i = 1; i <= 100; i++) {
+            Assertions.assertTrue(RpcStatus.beginCount(url, "echo", 0));
+            RpcStatus.endCount(url, "echo", i, i % 10 != 0);
+        }
+        RpcStatus status = RpcStatus.getStatus(url, "echo");
+        Assertions.assertEquals(0, status.getActive());
+        Assertions.assertEquals(100, status.getTotal());
+        Assertions.assertEquals(10, status.getFailed());
+        Assertions.assertEquals(5050, status.getTotalElapsed());
+        Assertions.assertEquals(100, status.getMaxElapsed());
+        Assertions.assertEquals(99, status.getSucceededMaxElapsed());
+        Assertions.assertEquals(100, status.getFailedMaxElapsed());
+        Assertions.assertEquals(100, status.getWindowTotal());
+        long p99 = status.getWindowElapsed(0.99);
+        Assertions.assertTrue(p99 >= 99 && p99 <= 127);
+        Assertions.assertEquals(100, RpcStatus.getStatus(url).getTotal());
+    }
+
+    @Test
+    public void testRemoveAllStatus() {
+        RpcStatus.beginCount(url, "echo");
+        RpcStatus.removeAllStatus(url);
+        // a call ending after its invoker is destroyed
+        RpcStatus.endCount(url, "echo", 1, true);
+        Assertions.assertEquals(0, RpcStatus.getStatus(url, "echo").getActive());
+        Assertions.assertEquals(0, RpcStatus.getStatus(url, "echo").getTotal());
+        Assertions.assertEquals(0, RpcStatus.getStatus(url, "echo").getWindowTotal());
+    }
+
+    @Test
+    public void testReleaseSharedStatus() {
+        URL shared = url.setPort(9092);
+        URL grouped = shared.addParameter(Constants.GROUP_KEY, "g1");
+        URL versioned = shared.addParameter(Constants.VERSION_KEY, "1.0.0");
+        RpcStatus.retainStatus(grouped);
+        RpcStatus.retainStatus(versioned);
+        RpcStatus.beginCount(versioned, "echo");
+
+        // destroying the invoker of one group keeps the calls of the other version counted
+        RpcStatus.releaseStatus(grouped);
+        RpcStatus.endCount(versioned, "echo", 1, true);
+        Assertions.assertEquals(0, RpcStatus.getStatus(versioned, "echo").getActive());
+        Assertions.assertEquals(1, RpcStatus.getStatus(versioned, "echo").getTotal());
+
+        RpcStatus.releaseStatus(versioned);
+        Assertions.assertEquals(0, RpcStatus.getStatus(versioned, "echo").getTotal());
+    }
+
+    @Test
+    public void testUnownedStatus() {
+        URL unowned = url.setPort(9091);
+        // a call looked up after its invoker is destroyed
+        RpcStatus.beginCount(unowned, "echo");
+        Assertions.assertNotSame(RpcStatus.getStatus(unowned), RpcStatus.getStatus(unowned));
+        Assertions.assertEquals(0, RpcStatus.getStatus(unowned, "echo").getActive());
+        RpcStatus.endCount(unowned, "echo", 1, true);
+        Assertions.assertEquals(0, RpcStatus.getStatus(unowned, "echo").getTotal());
+    }
+}
@@ -66,6 +66,8 @@ public class ActiveLimitFilterTest {
         final Invoker<ActiveLimitFilterTest> invoker = new BlockMyInvoker<ActiveLimitFilterTest>(url, 100);
         final Invocation invocation = new MockInvocation();
         final CountDownLatch latch = new CountDownLatch(1);
+        // the statistics of a url are kept while an invoker holds them
+        RpcStatus.retainStatus(url);
         for (int i = 0; i < 100; i++) {
             Thread thread = new Thread(new Runnable() {
 
@@ -94,6 +96,7 @@ public class ActiveLimitFilterTest {
             e.printStackTrace();
         }
         assertNotSame(0, count.intValue());
+        RpcStatus.releaseStatus(url);
     }
 
     @Test
@@ -110,6 +113,7 @@ public class ActiveLimitFilterTest {
         final Invocation invocation = new MockInvocation();
         RpcStatus.removeStatus(url);
         RpcStatus.removeStatus(url, invocation.getMethodName());
+        RpcStatus.retainStatus(url);
         for (int i = 0; i < totalThread; i++) {
             Thread thread = new Thread(new Runnable() {
                 public void run() {
@@ -139,6 +143,7 @@ public class ActiveLimitFilterTest {
             e.printStackTrace();
         }
         assertEquals(90, count.intValue());
+        RpcStatus.releaseStatus(url);
     }
 
     @Test
@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.filter;
+
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.rpc.AsyncRpcResult;
+import org.apache.dubbo.rpc.Filter;
+import org.apache.dubbo.rpc.Invocation;
+import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.Result;
+import org.apache.dubbo.rpc.RpcException;
+import org.apache.dubbo.rpc.RpcInvocation;
+import org.apache.dubbo.rpc.RpcResult;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class CollapseFilterTest {
+
+    private Filter collapseFilter = new CollapseFilter();
+
+    private static RpcInvocation invocation(String argument) {
+        return new RpcInvocation("echo", new Class<?>[]{String.class}, new Object[]{argument});
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Invoker<CollapseFilterTest> invoker(URL url, AtomicInteger count, Function<Invocation, Result> fn) {
+        Invoker<CollapseFilterTest> invoker = mock(Invoker.class);
+        given(invoker.getUrl()).willReturn(url);
+        given(invoker.invoke(any(Invocation.class))).willAnswer(answer -> {
+            count.incrementAndGet();
+            return fn.apply(answer.getArgument(0));
+        });
+        return invoker;
+    }
+
+    @Test
+    public void testCollapseSync() throws Exception {
+        URL url = URL.valueOf("test://test:11/test.CollapseSync?collapse=true&timeout=5000");
+        AtomicInteger count = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Invoker<CollapseFilterTest> invoker = invoker(url, count, inv -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new RpcException(e);
+            }
+            return new RpcResult("value-" + inv.getArguments()[0]);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        List<Future<Result>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(executor.submit(() -> collapseFilter.invoke(invoker, invocation("a"))));
+        }
+        long deadline = System.currentTimeMillis() + 5000;
+        while (CollapseFilter.getCollapsedCount(url, "echo") < 9 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(9, CollapseFilter.getCollapsedCount(url, "echo"));
+        release.countDown();
+        for (Future<Result> future : futures) {
+            Assertions.assertEquals("value-a", future.get(5, TimeUnit.SECONDS).getValue());
+        }
+        executor.shutdown();
+        Assertions.assertEquals(1, count.get());
+
+        // the flight has landed, the next call is sent
+        Assertions.assertEquals("value-a", collapseFilter.invoke(invoker, invocation("a")).getValue());
+        Assertions.assertEquals(2, count.get());
+    }
+
+    @Test
+    public void testDifferentArgumentsNotCollapsed() throws Exception {
+        URL url = URL.valueOf("test://test:11/test.CollapseArguments?collapse=true");
+        AtomicInteger count = new AtomicInteger();
+        CompletableFuture<Object> first = new CompletableFuture<>();
+        CompletableFuture<Object> second = new CompletableFuture<>();
+        Invoker<CollapseFilterTest> invoker = invoker(url, count,
+                inv -> new AsyncRpcResult("a".equals(inv.getArguments()[0]) ? first : second));
+
+        collapseFilter.invoke(invoker, invocation("a"));
+        collapseFilter.invoke(invoker, invocation("b"));
+        Assertions.assertEquals(2, count.get());
+        Assertions.assertEquals(0, CollapseFilter.getCollapsedCount(url, "echo"));
+        first.complete("a");
+        second.complete("b");
+    }
+
+    @Test
+    public void testDifferentAttachmentsNotCollapsed() throws Exception {
+        URL url = URL.valueOf("test://test:11/test.CollapseAttachments?collapse=true&async=true");
+        AtomicInteger count = new AtomicInteger();
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        Invoker<CollapseFilterTest> invoker = invoker(url, count, inv -> new AsyncRpcResult(future));
+
+        RpcInvocation first = invocation("a");
+        first.setAttachment(Constants.TOKEN_KEY, "first");
+        RpcInvocation second = invocation("a");
+        second.setAttachment(Constants.TOKEN_KEY, "second");
+        RpcInvocation same = invocation("a");
+        same.setAttachment(Constants.TOKEN_KEY, "first");
+        collapseFilter.invoke(invoker, first);
+        // the invokers down the chain add to the attachments of the call in flight
+        first.setAttachment(Constants.PATH_KEY, "test.CollapseAttachments");
+        collapseFilter.invoke(invoker, second);
+        collapseFilter.invoke(invoker, same);
+        Assertions.assertEquals(2, count.get());
+        Assertions.assertEquals(1, CollapseFilter.getCollapsedCount(url, "echo"));
+        future.complete("a");
+    }
+
+    @Test
+    public void testNotConfigured() {
+        URL url = URL.valueOf("test://test:11/test.CollapseNotConfigured");
+        AtomicInteger count = new AtomicInteger();
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        Invoker<CollapseFilterTest> invoker = invoker(url, count, inv -> new AsyncRpcResult(future));
+
+        collapseFilter.invoke(invoker, invocation("a"));
+        collapseFilter.invoke(invoker, invocation("a"));
+        Assertions.assertEquals(2, count.get());
+        future.complete("a");
+    }
+
+    @Test
+    public void testCollapseAsync() throws Exception {
+        URL url = URL.valueOf("test://test:11/test.CollapseAsync?collapse=true&async=true");
+        AtomicInteger count = new AtomicInteger();
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        Invoker<CollapseFilterTest> invoker = invoker(url, count, inv -> new AsyncRpcResult(future));
+
+        Result leader = collapseFilter.invoke(invoker, invocation("a"));
+        Result follower = collapseFilter.invoke(invoker, invocation("a"));
+        Assertions.assertEquals(1, count.get());
+        Assertions.assertTrue(follower instanceof AsyncRpcResult);
+        CompletableFuture<?> followerFuture = ((AsyncRpcResult) follower).getValueFuture();
+        Assertions.assertFalse(followerFuture.isDone());
+
+        future.complete("value");
+        Assertions.assertEquals("value", ((AsyncRpcResult) leader).getValueFuture().get(1, TimeUnit.SECONDS));
+        Assertions.assertEquals("value", followerFuture.get(1, TimeUnit.SECONDS));
+        Assertions.assertEquals("value", ((AsyncRpcResult) follower).getResultFuture().get(1, TimeUnit.SECONDS).getValue());
+        Assertions.assertEquals(1, CollapseFilter.getCollapsedCount(url, "echo"));
+    }
+
+    @Test
+    public void testCollapseFailure() throws Exception {
+        URL url = URL.valueOf("test://test:11/test.CollapseFailure?collapse=true&timeout=5000");
+        AtomicInteger count = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Invoker<CollapseFilterTest> invoker = invoker(url, count, inv -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new RpcException(e);
+            }
+            throw new RpcException(RpcException.NETWORK_EXCEPTION, "failed");
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<Result> leader = executor.submit(() -> collapseFilter.invoke(invoker, invocation("a")));
+        while (count.get() == 0) {
+            Thread.sleep(10);
+        }
+        Future<Result> follower = executor.submit(() -> collapseFilter.invoke(invoker, invocation("a")));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (CollapseFilter.getCollapsedCount(url, "echo") < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+        for (Future<Result> future : Arrays.asList(leader, follower)) {
+            try {
+                future.get(5, TimeUnit.SECONDS);
+                Assertions.fail();
+            } catch (ExecutionException e) {
+                Assertions.assertTrue(e.getCause() instanceof RpcException);
+                Assertions.assertTrue(((RpcException) e.getCause()).isNetwork());
+            }
+        }
+        executor.shutdown();
+        Assertions.assertEquals(1, count.get());
+    }
+}
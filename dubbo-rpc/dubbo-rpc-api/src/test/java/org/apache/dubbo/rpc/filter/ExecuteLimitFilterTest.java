@@ -74,6 +74,8 @@ public class ExecuteLimitFilterTest {
 
         URL url = URL.valueOf("test://test:11/test?accesslog=true&group=dubbo&version=1.1&executes=10");
         when(invoker.getUrl()).thenReturn(url);
+        // the statistics of a url are kept while an exporter holds them
+        RpcStatus.retainStatus(url);
 
         Invocation invocation = Mockito.mock(Invocation.class);
         when(invocation.getMethodName()).thenReturn("testExecuteLimitInvokeWitException");
@@ -84,6 +86,7 @@ public class ExecuteLimitFilterTest {
             Assertions.assertTrue(e instanceof RpcException);
         }
         Assertions.assertEquals(1, RpcStatus.getStatus(url, invocation.getMethodName()).getFailed());
+        RpcStatus.releaseStatus(url);
     }
 
     @Test
@@ -97,6 +100,7 @@ public class ExecuteLimitFilterTest {
 
         URL url = URL.valueOf("test://test:11/test?accesslog=true&group=dubbo&version=1.1&executes=" + maxExecute);
         final Invoker<ExecuteLimitFilter> invoker = new BlockMyInvoker<ExecuteLimitFilter>(url, 1000);
+        RpcStatus.retainStatus(url);
 
         final CountDownLatch latch = new CountDownLatch(1);
         for (int i = 0; i < totalExecute; i++) {
@@ -127,5 +131,6 @@ public class ExecuteLimitFilterTest {
         }
 
         Assertions.assertEquals(totalExecute - maxExecute, failed.get());
+        RpcStatus.releaseStatus(url);
     }
 }
@@ -18,6 +18,8 @@ package org.apache.dubbo.rpc.filter;
 
 import org.apache.dubbo.common.Constants;
 import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.beanutil.SchemaValue;
+import org.apache.dubbo.common.beanutil.TypeSchema;
 import org.apache.dubbo.rpc.*;
 import org.apache.dubbo.rpc.service.GenericService;
 import org.apache.dubbo.rpc.support.DemoService;
@@ -63,6 +65,41 @@ public class GenericFilterTest {
 
     }
 
+    @Test
+    public void testInvokeWithSchema() throws Exception {
+        Method genericInvoke = GenericService.class.getMethods()[0];
+
+        URL url = URL.valueOf("test://test:11/org.apache.dubbo.rpc.support.DemoService?" +
+                "accesslog=true&group=dubbo&version=1.1");
+        Invoker invoker = Mockito.mock(Invoker.class);
+        when(invoker.invoke(any(Invocation.class))).thenAnswer(
+                call -> new RpcResult(((Invocation) call.getArgument(0)).getArguments()[0]));
+        when(invoker.getUrl()).thenReturn(url);
+        when(invoker.getInterface()).thenReturn(DemoService.class);
+
+        // an argument deserialized by the schema is passed on as is
+        Person person = new Person("dubbo", 10);
+        RpcInvocation invocation = new RpcInvocation(Constants.$INVOKE, genericInvoke.getParameterTypes(),
+                new Object[]{"getPerson", new String[]{Person.class.getCanonicalName()}, new Object[]{person}});
+        invocation.setAttachment(Constants.GENERIC_KEY, Constants.GENERIC_SERIALIZATION_SCHEMA);
+        genericFilter.invoke(invoker, invocation);
+        Mockito.verify(invoker).invoke(Mockito.argThat(inv -> inv.getArguments()[0] == person));
+
+        // one which has not been serialized is realized
+        Map<String, Object> map = new HashMap<String, Object>();
+        map.put("name", "dubbo");
+        map.put("age", 10);
+        invocation = new RpcInvocation(Constants.$INVOKE, genericInvoke.getParameterTypes(),
+                new Object[]{"getPerson", new String[]{Person.class.getCanonicalName()},
+                        new Object[]{new SchemaValue(map, new TypeSchema(Person.class.getName(), TypeSchema.TYPE_BEAN))}});
+        invocation.setAttachment(Constants.GENERIC_KEY, Constants.GENERIC_SERIALIZATION_SCHEMA);
+        Result result = genericFilter.invoke(invoker, invocation);
+
+        Assertions.assertEquals(HashMap.class, result.getValue().getClass());
+        Assertions.assertEquals(Person.class.getName(), ((HashMap) result.getValue()).get("class"));
+        Assertions.assertEquals(10, ((HashMap) result.getValue()).get("age"));
+    }
+
     @Test
     public void testInvokeWithJavaException() throws Exception {
         Assertions.assertThrows(RpcException.class, () -> {
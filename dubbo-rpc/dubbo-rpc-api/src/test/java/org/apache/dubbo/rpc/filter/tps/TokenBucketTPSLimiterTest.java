@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.filter.tps;
+
+import org.apache.dubbo.common.Constants;
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.rpc.Invocation;
+import org.apache.dubbo.rpc.RpcInvocation;
+import org.apache.dubbo.rpc.support.MockInvocation;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TokenBucketTPSLimiterTest {
+
+    private TokenBucketTPSLimiter limiter = new TokenBucketTPSLimiter();
+
+    private URL url = URL.valueOf("test://test")
+            .addParameter(Constants.INTERFACE_KEY, "org.apache.dubbo.rpc.file.TpsService")
+            .addParameter(Constants.TPS_LIMIT_RATE_KEY, 2)
+            .addParameter(Constants.TPS_LIMIT_INTERVAL_KEY, 1000);
+
+    @Test
+    public void testIsAllowable() throws Exception {
+        Invocation invocation = new MockInvocation();
+        Assertions.assertTrue(limiter.isAllowable(url, invocation));
+        Assertions.assertTrue(limiter.isAllowable(url, invocation));
+        Assertions.assertFalse(limiter.isAllowable(url, invocation));
+
+        TokenBucket bucket = limiter.getBuckets().iterator().next();
+        Assertions.assertEquals(2, bucket.getAllowed());
+        Assertions.assertEquals(1, bucket.getRejected());
+        Assertions.assertEquals(0, bucket.getTokens());
+    }
+
+    @Test
+    public void testSmoothRefill() throws Exception {
+        Invocation invocation = new MockInvocation();
+        URL url = this.url.addParameter(Constants.TPS_LIMIT_RATE_KEY, 10).addParameter(Constants.TPS_LIMIT_INTERVAL_KEY, 200);
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertTrue(limiter.isAllowable(url, invocation));
+        }
+        Assertions.assertFalse(limiter.isAllowable(url, invocation));
+        // one token is refilled every 20ms, not all of them at the end of the interval
+        Thread.sleep(50);
+        Assertions.assertTrue(limiter.isAllowable(url, invocation));
+        Thread.sleep(250);
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertTrue(limiter.isAllowable(url, invocation));
+        }
+        Assertions.assertFalse(limiter.isAllowable(url, invocation));
+    }
+
+    @Test
+    public void testNoOvershoot() throws Exception {
+        URL url = this.url.addParameter(Constants.TPS_LIMIT_RATE_KEY, 100).addParameter(Constants.TPS_LIMIT_INTERVAL_KEY, 60000);
+        Invocation invocation = new MockInvocation();
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch end = new CountDownLatch(8);
+        for (int i = 0; i < 8; i++) {
+            new Thread(() -> {
+                try {
+                    start.await();
+                    for (int j = 0; j < 1000; j++) {
+                        if (limiter.isAllowable(url, invocation)) {
+                            allowed.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    // ignore
+                } finally {
+                    end.countDown();
+                }
+            }).start();
+        }
+        start.countDown();
+        end.await();
+        Assertions.assertEquals(100, allowed.get());
+    }
+
+    @Test
+    public void testMethodAndConsumerBuckets() throws Exception {
+        URL url = this.url.addParameter("echo." + Constants.TPS_LIMIT_RATE_KEY, 1)
+                .addParameter(Constants.TPS_LIMIT_CONSUMER_KEY, true);
+        RpcInvocation foo = new RpcInvocation("echo", new Class<?>[0], new Object[0]);
+        foo.setAttachment(Constants.APPLICATION_KEY, "foo");
+        RpcInvocation bar = new RpcInvocation("echo", new Class<?>[0], new Object[0]);
+        bar.setAttachment(Constants.APPLICATION_KEY, "bar");
+        RpcInvocation other = new RpcInvocation("other", new Class<?>[0], new Object[0]);
+        other.setAttachment(Constants.APPLICATION_KEY, "foo");
+
+        Assertions.assertTrue(limiter.isAllowable(url, foo));
+        Assertions.assertFalse(limiter.isAllowable(url, foo));
+        Assertions.assertTrue(limiter.isAllowable(url, bar));
+        Assertions.assertTrue(limiter.isAllowable(url, other));
+        Assertions.assertTrue(limiter.isAllowable(url, other));
+        Assertions.assertFalse(limiter.isAllowable(url, other));
+        Assertions.assertEquals(3, limiter.getBuckets().size());
+    }
+
+    @Test
+    public void testIdleConsumerBucketsDropped() throws Exception {
+        URL url = this.url.addParameter(Constants.TPS_LIMIT_RATE_KEY, 1)
+                .addParameter(Constants.TPS_LIMIT_INTERVAL_KEY, 50)
+                .addParameter(Constants.TPS_LIMIT_CONSUMER_KEY, true);
+        for (int i = 0; i < 100; i++) {
+            RpcInvocation invocation = new RpcInvocation("echo", new Class<?>[0], new Object[0]);
+            invocation.setAttachment(Constants.APPLICATION_KEY, "consumer" + i);
+            Assertions.assertTrue(limiter.isAllowable(url, invocation));
+        }
+        Assertions.assertEquals(100, limiter.getBuckets().size());
+
+        // every bucket is full again, the next new consumer drops them
+        Thread.sleep(100);
+        RpcInvocation invocation = new RpcInvocation("echo", new Class<?>[0], new Object[0]);
+        invocation.setAttachment(Constants.APPLICATION_KEY, "late");
+        Assertions.assertTrue(limiter.isAllowable(url, invocation));
+        Assertions.assertFalse(limiter.isAllowable(url, invocation));
+        Assertions.assertEquals(1, limiter.getBuckets().size());
+    }
+
+    @Test
+    public void testConfigChange() throws Exception {
+        Invocation invocation = new MockInvocation();
+        Assertions.assertTrue(limiter.isAllowable(url, invocation));
+        Assertions.assertTrue(limiter.isAllowable(url, invocation));
+        Assertions.assertFalse(limiter.isAllowable(url, invocation));
+        Assertions.assertTrue(limiter.isAllowable(url.addParameter(Constants.TPS_LIMIT_RATE_KEY, -1), invocation));
+    }
+}
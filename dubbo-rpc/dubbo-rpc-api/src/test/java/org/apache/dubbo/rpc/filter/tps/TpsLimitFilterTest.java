@@ -65,4 +65,19 @@ public class TpsLimitFilterTest {
         });
 
     }
+
+    @Test
+    public void testTokenBucket() throws Exception {
+        URL url = URL.valueOf("test://test");
+        url = url.addParameter(Constants.INTERFACE_KEY,
+                "org.apache.dubbo.rpc.file.TokenBucketTpsService");
+        url = url.addParameter(Constants.TPS_LIMIT_RATE_KEY, 5);
+        url = url.addParameter(Constants.TPS_LIMITER_KEY, TokenBucketTPSLimiter.NAME);
+        Invoker<TpsLimitFilterTest> invoker = new MyInvoker<TpsLimitFilterTest>(url);
+        Invocation invocation = new MockInvocation();
+        for (int i = 0; i < 5; i++) {
+            filter.invoke(invoker, invocation);
+        }
+        Assertions.assertThrows(RpcException.class, () -> filter.invoke(invoker, invocation));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.rpc.protocol;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.rpc.AsyncRpcResult;
+import org.apache.dubbo.rpc.Filter;
+import org.apache.dubbo.rpc.Invocation;
+import org.apache.dubbo.rpc.Invoker;
+import org.apache.dubbo.rpc.Result;
+import org.apache.dubbo.rpc.RpcException;
+import org.apache.dubbo.rpc.RpcInvocation;
+import org.apache.dubbo.rpc.RpcResult;
+import org.apache.dubbo.rpc.support.DemoService;
+import org.apache.dubbo.rpc.support.MyInvoker;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+public class CompiledFilterChainTest {
+
+    private final List<String> log = new ArrayList<>();
+
+    private final URL url = URL.valueOf("test://127.0.0.1:9999/" + DemoService.class.getName());
+
+    private final RpcInvocation invocation = new RpcInvocation("echo", new Class<?>[]{String.class}, new Object[]{"hello"});
+
+    private Filter recording(String name) {
+        return new Filter() {
+            @Override
+            public Result invoke(Invoker<?> invoker, Invocation invocation) throws RpcException {
+                log.add(name + ".invoke");
+                return invoker.invoke(invocation);
+            }
+
+            @Override
+            public Result onResponse(Result result, Invoker<?> invoker, Invocation invocation) {
+                log.add(name + ".onResponse");
+                return result;
+            }
+        };
+    }
+
+    private Filter passing(String name, Function<Result, Result> after) {
+        return (invoker, invocation) -> {
+            log.add(name + ".invoke");
+            return after.apply(invoker.invoke(invocation));
+        };
+    }
+
+    private Invoker<DemoService> invoker(Function<Invocation, Result> answer) {
+        return new MyInvoker<DemoService>(url) {
+            @Override
+            public Result invoke(Invocation invocation) throws RpcException {
+                return answer.apply(invocation);
+            }
+        };
+    }
+
+    @Test
+    public void testSyncResult() {
+        Invoker<DemoService> chain = new CompiledFilterChain<>(invoker(inv -> new RpcResult("world")),
+                Arrays.asList(recording("a"), passing("b", r -> r), recording("c")));
+
+        Assertions.assertEquals("world", chain.invoke(invocation).getValue());
+        Assertions.assertEquals(Arrays.asList("a.invoke", "b.invoke", "c.invoke", "c.onResponse", "a.onResponse"), log);
+    }
+
+    @Test
+    public void testShortCircuit() {
+        Filter b = (invoker, invocation) -> {
+            log.add("b.invoke");
+            return new RpcResult("cached");
+        };
+        Invoker<DemoService> chain = new CompiledFilterChain<>(invoker(inv -> new RpcResult("world")),
+                Arrays.asList(recording("a"), b, recording("c")));
+
+        Assertions.assertEquals("cached", chain.invoke(invocation).getValue());
+        Assertions.assertEquals(Arrays.asList("a.invoke", "b.invoke", "a.onResponse"), log);
+    }
+
+    @Test
+    public void testAsyncResult() throws Exception {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        Invoker<DemoService> chain = new CompiledFilterChain<>(invoker(inv -> new AsyncRpcResult(future)),
+                Arrays.asList(recording("a"), passing("b", r -> r), recording("c")));
+
+        AsyncRpcResult result = (AsyncRpcResult) chain.invoke(invocation);
+        Assertions.assertEquals(Arrays.asList("a.invoke", "b.invoke", "c.invoke"), log);
+
+        future.complete("world");
+        Assertions.assertEquals("world", result.getResultFuture().get().getValue());
+        Assertions.assertEquals(Arrays.asList("a.invoke", "b.invoke", "c.invoke", "c.onResponse", "a.onResponse"), log);
+    }
+
+    @Test
+    public void testReplacedAsyncResult() throws Exception {
+        CompletableFuture<Object> inner = new CompletableFuture<>();
+        CompletableFuture<Object> outer = new CompletableFuture<>();
+        Invoker<DemoService> chain = new CompiledFilterChain<>(invoker(inv -> new AsyncRpcResult(inner)),
+                Arrays.asList(recording("a"), passing("b", r -> new AsyncRpcResult(outer)), recording("c")));
+
+        AsyncRpcResult result = (AsyncRpcResult) chain.invoke(invocation);
+        inner.complete("inner");
+        Assertions.assertEquals(Arrays.asList("a.invoke", "b.invoke", "c.invoke", "c.onResponse"), log);
+
+        outer.complete("outer");
+        Assertions.assertEquals("outer", result.getResultFuture().get().getValue());
+        Assertions.assertEquals(Arrays.asList("a.invoke", "b.invoke", "c.invoke", "c.onResponse", "a.onResponse"), log);
+    }
+
+    @Test
+    public void testNestedCall() throws Exception {
+        List<Invoker<DemoService>> self = new ArrayList<>();
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        Invoker<DemoService> chain = new CompiledFilterChain<>(invoker(inv -> {
+            if (inv.getArguments()[0].equals("hello")) {
+                // a nested call through the same chain while the outer one is going on
+                Result nested = self.get(0).invoke(new RpcInvocation("echo", new Class<?>[]{String.class}, new Object[]{"nested"}));
+                log.add("nested=" + nested.getValue());
+                return new AsyncRpcResult(future);
+            }
+            return new RpcResult("nested");
+        }), Arrays.asList(recording("a"), recording("c")));
+        self.add(chain);
+
+        AsyncRpcResult result = (AsyncRpcResult) chain.invoke(invocation);
+        future.complete("world");
+        Assertions.assertEquals("world", result.getResultFuture().get().getValue());
+        Assertions.assertEquals(Arrays.asList("a.invoke", "c.invoke", "a.invoke", "c.invoke", "c.onResponse", "a.onResponse",
+                "nested=nested", "c.onResponse", "a.onResponse"), log);
+    }
+
+    @Test
+    public void testFailingFilter() throws Exception {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        Filter b = (invoker, invocation) -> {
+            invoker.invoke(invocation);
+            throw new RpcException("b failed");
+        };
+        Invoker<DemoService> chain = new CompiledFilterChain<>(invoker(inv -> new AsyncRpcResult(future)),
+                Arrays.asList(recording("a"), b, recording("c")));
+
+        Assertions.assertThrows(RpcException.class, () -> chain.invoke(invocation));
+        // the filters below the failing one were already called, they are still told about the response
+        future.complete("world");
+        Assertions.assertEquals(Arrays.asList("a.invoke", "c.invoke", "c.onResponse"), log);
+    }
+}
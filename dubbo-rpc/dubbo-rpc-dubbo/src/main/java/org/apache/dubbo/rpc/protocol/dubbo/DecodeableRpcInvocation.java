@@ -27,6 +27,7 @@ import org.apache.dubbo.common.utils.StringUtils;
 import org.apache.dubbo.remoting.Channel;
 import org.apache.dubbo.remoting.Codec;
 import org.apache.dubbo.remoting.Decodeable;
+import org.apache.dubbo.remoting.buffer.RetainedChannelBufferInputStream;
 import org.apache.dubbo.remoting.exchange.Request;
 import org.apache.dubbo.remoting.transport.CodecSupport;
 import org.apache.dubbo.rpc.RpcInvocation;
@@ -76,10 +77,20 @@ public class DecodeableRpcInvocation extends RpcInvocation implements Codec, Dec
                 request.setData(e);
             } finally {
                 hasDecoded = true;
+                release();
             }
         }
     }
 
+    @Override
+    public void release() {
+        InputStream is = inputStream;
+        if (is instanceof RetainedChannelBufferInputStream) {
+            inputStream = null;
+            ((RetainedChannelBufferInputStream) is).close();
+        }
+    }
+
     @Override
     public void encode(Channel channel, OutputStream output, Object message) throws IOException {
         throw new UnsupportedOperationException();
@@ -27,6 +27,7 @@ import org.apache.dubbo.common.serialize.ObjectOutput;
 import org.apache.dubbo.common.utils.ReflectUtils;
 import org.apache.dubbo.common.utils.StringUtils;
 import org.apache.dubbo.remoting.Channel;
+import org.apache.dubbo.remoting.buffer.ChannelBufferInputStream;
 import org.apache.dubbo.remoting.exchange.Request;
 import org.apache.dubbo.remoting.exchange.Response;
 import org.apache.dubbo.remoting.exchange.codec.ExchangeCodec;
@@ -86,12 +87,12 @@ public class DubboCodec extends ExchangeCodec {
                                 Constants.DECODE_IN_IO_THREAD_KEY,
                                 Constants.DEFAULT_DECODE_IN_IO_THREAD)) {
                             result = new DecodeableRpcResult(channel, res, is,
-                                    (Invocation) getRequestData(id), proto);
+                                    (Invocation) getRequestData(channel, id), proto);
                             result.decode();
                         } else {
                             result = new DecodeableRpcResult(channel, res,
                                     new UnsafeByteArrayInputStream(readMessageData(is)),
-                                    (Invocation) getRequestData(id), proto);
+                                    (Invocation) getRequestData(channel, id), proto);
                         }
                         data = result;
                     }
@@ -112,6 +113,7 @@ public class DubboCodec extends ExchangeCodec {
             Request req = new Request(id);
             req.setVersion(Version.getProtocolVersion());
             req.setTwoWay((flag & FLAG_TWOWAY) != 0);
+            req.setBatch((header[3] & FLAG_BATCH) != 0);
             if ((flag & FLAG_EVENT) != 0) {
                 req.setEvent(true);
             }
@@ -130,8 +132,7 @@ public class DubboCodec extends ExchangeCodec {
                         inv = new DecodeableRpcInvocation(channel, req, is, proto);
                         inv.decode();
                     } else {
-                        inv = new DecodeableRpcInvocation(channel, req,
-                                new UnsafeByteArrayInputStream(readMessageData(is)), proto);
+                        inv = new DecodeableRpcInvocation(channel, req, retainMessageData(channel, is), proto);
                     }
                     data = inv;
                 }
@@ -149,6 +150,21 @@ public class DubboCodec extends ExchangeCodec {
         }
     }
 
+    /**
+     * Keeps the request body for the decode on the business thread. With <code>decode.zero.copy</code> the body
+     * stays in the transport buffer and is released once decoded, otherwise it is copied.
+     */
+    private InputStream retainMessageData(Channel channel, InputStream is) throws IOException {
+        if (is instanceof ChannelBufferInputStream
+                && channel.getUrl().getParameter(Constants.DECODE_ZERO_COPY_KEY, Constants.DEFAULT_DECODE_ZERO_COPY)) {
+            InputStream retained = ((ChannelBufferInputStream) is).readRetainedStream();
+            if (retained != null) {
+                return retained;
+            }
+        }
+        return new UnsafeByteArrayInputStream(readMessageData(is));
+    }
+
     private byte[] readMessageData(InputStream is) throws IOException {
         if (is.available() > 0) {
             byte[] result = new byte[is.available()];
@@ -18,8 +18,10 @@ package org.apache.dubbo.rpc.protocol.dubbo;
 
 import org.apache.dubbo.remoting.exchange.ResponseCallback;
 import org.apache.dubbo.remoting.exchange.ResponseFuture;
+import org.apache.dubbo.remoting.exchange.support.DefaultFuture;
 import org.apache.dubbo.rpc.Result;
 import org.apache.dubbo.rpc.RpcException;
+import org.apache.dubbo.rpc.RpcResult;
 
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
@@ -62,14 +64,26 @@ public class FutureAdapter<V> extends CompletableFuture<V> {
         return future;
     }
 
+    /**
+     * Stop waiting for the response, the response arriving later is dropped. The request itself is not recalled from
+     * the provider.
+     */
     @Override
     public boolean cancel(boolean mayInterruptIfRunning) {
-        return false;
+        if (!super.cancel(mayInterruptIfRunning)) {
+            return false;
+        }
+        // let the filters waiting on the result see the call end
+        resultFuture.complete(new RpcResult(new RpcException("The request has been cancelled.")));
+        if (future instanceof DefaultFuture) {
+            ((DefaultFuture) future).cancel();
+        }
+        return true;
     }
 
     @Override
     public boolean isCancelled() {
-        return false;
+        return super.isCancelled();
     }
 
     @Override
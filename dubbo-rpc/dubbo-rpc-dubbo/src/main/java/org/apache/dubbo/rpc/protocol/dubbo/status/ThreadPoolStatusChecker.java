@@ -22,6 +22,7 @@ import org.apache.dubbo.common.extension.ExtensionLoader;
 import org.apache.dubbo.common.status.Status;
 import org.apache.dubbo.common.status.StatusChecker;
 import org.apache.dubbo.common.store.DataStore;
+import org.apache.dubbo.common.threadpool.support.virtual.VirtualThreadPoolExecutor;
 
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
@@ -63,6 +64,22 @@ public class ThreadPoolStatusChecker implements StatusChecker {
                         + ", active:" + tp.getActiveCount()
                         + ", task:" + tp.getTaskCount()
                         + ", service port: " + port);
+            } else if (executor instanceof VirtualThreadPoolExecutor) {
+                VirtualThreadPoolExecutor vp = (VirtualThreadPoolExecutor) executor;
+                Status.Level lvl = Status.Level.OK;
+                if (vp.getActiveCount() >= vp.getMaxConcurrency() - 1) {
+                    level = Status.Level.WARN;
+                    lvl = Status.Level.WARN;
+                }
+
+                if (msg.length() > 0) {
+                    msg.append(";");
+                }
+                msg.append("Pool status:" + lvl
+                        + ", max:" + vp.getMaxConcurrency()
+                        + ", virtual:" + vp.isVirtual()
+                        + ", active:" + vp.getActiveCount()
+                        + ", service port: " + port);
             }
         }
         return msg.length() == 0 ? new Status(Status.Level.UNKNOWN) : new Status(level, msg.toString());
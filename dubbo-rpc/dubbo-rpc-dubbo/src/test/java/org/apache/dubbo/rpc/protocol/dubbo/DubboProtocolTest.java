@@ -36,9 +36,14 @@ import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -152,6 +157,28 @@ public class DubboProtocolTest {
         assertEquals(remoteEecho.$echo("ok"), "ok");
     }
 
+    @Test
+    public void testDubboProtocolWithBatch() throws Exception {
+        DemoService service = new DemoServiceImpl();
+        protocol.export(proxy.getInvoker(service, DemoService.class, URL.valueOf("dubbo://127.0.0.1:9012/" + DemoService.class.getName())));
+        final DemoService batched = proxy.getProxy(protocol.refer(DemoService.class, URL.valueOf("dubbo://127.0.0.1:9012/" + DemoService.class.getName())
+                .addParameter(Constants.BATCH_KEY, true).addParameter(Constants.BATCH_SIZE_KEY, 4).addParameter("timeout", 3000l)));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> futures = new ArrayList<Future<String>>();
+            for (int i = 0; i < 64; i++) {
+                final String message = "batch" + i;
+                futures.add(executor.submit(() -> batched.echo(message)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                assertEquals("batch" + i, futures.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(batched.getSize(new String[]{"", "", ""}), 3);
+    }
+
     @Test
     public void testPerm() throws Exception {
         DemoService service = new DemoServiceImpl();
@@ -16,6 +16,7 @@
  */
 package org.apache.dubbo.rpc.protocol.dubbo.decode;
 
+import org.apache.dubbo.common.Constants;
 import org.apache.dubbo.common.URL;
 import org.apache.dubbo.common.extension.ExtensionLoader;
 import org.apache.dubbo.remoting.Codec2;
@@ -35,6 +36,8 @@ import org.apache.dubbo.rpc.protocol.dubbo.support.DemoService;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.channel.embedded.EmbeddedChannel;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -107,6 +110,68 @@ public class DubboTelnetDecodeTest {
         Assertions.assertEquals(1, dubbo.get());
     }
 
+    /**
+     * dubbo request decoded on the business thread straight from the netty buffer
+     *
+     * @throws InterruptedException
+     */
+    @Test
+    public void testDubboDecodeZeroCopy() throws InterruptedException, IOException {
+        ByteBuf dubboByteBuf = createDubboByteBuf();
+        AtomicInteger zeroCopy = new AtomicInteger(0);
+        AtomicInteger refCntWhenDecoded = new AtomicInteger(0);
+
+        EmbeddedChannel ch = null;
+        try {
+            Codec2 codec = ExtensionLoader.getExtensionLoader(Codec2.class).getExtension("dubbo");
+            URL url = new URL("dubbo", "localhost", 22226)
+                    .addParameter(Constants.DECODE_IN_IO_THREAD_KEY, false)
+                    .addParameter(Constants.DECODE_ZERO_COPY_KEY, true);
+            NettyCodecAdapter adapter = new NettyCodecAdapter(codec, url, new MockChannelHandler());
+
+            MockHandler mockHandler = new MockHandler(null,
+                    new MultiMessageHandler(
+                            new DecodeHandler(
+                                    new HeaderExchangeHandler(new ExchangeHandlerAdapter() {
+                                        @Override
+                                        public CompletableFuture<Object> reply(ExchangeChannel channel, Object msg) {
+                                            if (checkDubboDecoded(msg)) {
+                                                zeroCopy.incrementAndGet();
+                                            }
+                                            return null;
+                                        }
+                                    }))));
+
+            ch = new LocalEmbeddedChannel();
+            ch.pipeline()
+                    .addLast("decoder", adapter.getDecoder())
+                    .addLast("refCnt", new ChannelInboundHandlerAdapter() {
+                        @Override
+                        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                            refCntWhenDecoded.set(dubboByteBuf.refCnt());
+                            ctx.fireChannelRead(msg);
+                        }
+                    })
+                    .addLast("handler", mockHandler);
+
+            ch.writeInbound(dubboByteBuf);
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            if (ch != null) {
+                ch.close().await(200, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        TimeUnit.MILLISECONDS.sleep(100);
+
+        Assertions.assertEquals(1, zeroCopy.get());
+        // the decoder has dropped its reference already, the request body still holds a retained slice
+        Assertions.assertEquals(1, refCntWhenDecoded.get());
+        // released by the decoder once read and by the invocation once decoded
+        Assertions.assertEquals(0, dubboByteBuf.refCnt());
+    }
+
     /**
      * just telnet request
      *
@@ -16,6 +16,10 @@
  */
 package org.apache.dubbo.common.serialize.hessian2;
 
+import org.apache.dubbo.common.beanutil.SchemaValue;
+
+import com.alibaba.com.caucho.hessian.io.HessianProtocolException;
+import com.alibaba.com.caucho.hessian.io.Serializer;
 import com.alibaba.com.caucho.hessian.io.SerializerFactory;
 
 public class Hessian2SerializerFactory extends SerializerFactory {
@@ -30,4 +34,12 @@ public class Hessian2SerializerFactory extends SerializerFactory {
         return Thread.currentThread().getContextClassLoader();
     }
 
+    @Override
+    public Serializer getSerializer(Class cl) throws HessianProtocolException {
+        if (SchemaValue.class == cl) {
+            return SchemaValueSerializer.INSTANCE;
+        }
+        return super.getSerializer(cl);
+    }
+
 }
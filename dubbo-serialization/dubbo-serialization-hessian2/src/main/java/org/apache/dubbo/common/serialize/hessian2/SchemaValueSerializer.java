@@ -0,0 +1,316 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.common.serialize.hessian2;
+
+import org.apache.dubbo.common.beanutil.SchemaValue;
+import org.apache.dubbo.common.beanutil.TypeSchema;
+
+import com.alibaba.com.caucho.hessian.io.AbstractHessianOutput;
+import com.alibaba.com.caucho.hessian.io.AbstractSerializer;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes a {@link SchemaValue} in the form hessian2 would give an instance of the schema's type, so the
+ * provider reads its real classes while no instance of them is ever built on this side. Maps stand for
+ * beans, lists or arrays for arrays and collections, and names for enums; values of any other form are
+ * written as they are.
+ */
+public class SchemaValueSerializer extends AbstractSerializer {
+
+    public static final SchemaValueSerializer INSTANCE = new SchemaValueSerializer();
+
+    private static final Map<String, Class<?>> PRIMITIVES = new HashMap<String, Class<?>>();
+
+    static {
+        Class<?>[] primitives = {boolean.class, byte.class, char.class, short.class, int.class, long.class,
+                float.class, double.class};
+        for (Class<?> primitive : primitives) {
+            PRIMITIVES.put(primitive.getName(), primitive);
+        }
+    }
+
+    @Override
+    public void writeObject(Object obj, AbstractHessianOutput out) throws IOException {
+        SchemaValue schemaValue = (SchemaValue) obj;
+        write(schemaValue.getValue(), schemaValue.getSchema(), out);
+    }
+
+    private void write(Object value, TypeSchema schema, AbstractHessianOutput out) throws IOException {
+        if (value == null) {
+            out.writeNull();
+            return;
+        }
+        if (schema == null) {
+            out.writeObject(value);
+            return;
+        }
+        switch (schema.getType()) {
+            case TypeSchema.TYPE_BEAN:
+                if (value instanceof Map) {
+                    writeBean((Map<?, ?>) value, schema, out);
+                } else {
+                    out.writeObject(value);
+                }
+                break;
+            case TypeSchema.TYPE_ENUM:
+                if (value instanceof String) {
+                    writeEnum((String) value, schema, out);
+                } else {
+                    out.writeObject(value);
+                }
+                break;
+            case TypeSchema.TYPE_ARRAY:
+                writeArray(value, schema, out);
+                break;
+            case TypeSchema.TYPE_COLLECTION:
+                writeCollection(value, schema, out);
+                break;
+            case TypeSchema.TYPE_MAP:
+                writeMap(value, schema, out);
+                break;
+            default:
+                writeValue(value, schema.getClassName(), out);
+        }
+    }
+
+    private void writeBean(Map<?, ?> map, TypeSchema schema, AbstractHessianOutput out) throws IOException {
+        if (out.addRef(map)) {
+            return;
+        }
+        // every instance of a class must carry the same fields, so absent properties are written as null
+        Map<String, TypeSchema> properties = schema.getProperties();
+        int ref = out.writeObjectBegin(schema.getClassName());
+        if (ref < -1) {
+            for (Map.Entry<String, TypeSchema> entry : properties.entrySet()) {
+                out.writeString(entry.getKey());
+                write(map.get(entry.getKey()), entry.getValue(), out);
+            }
+            out.writeMapEnd();
+        } else {
+            if (ref == -1) {
+                out.writeClassFieldLength(properties.size());
+                for (String name : properties.keySet()) {
+                    out.writeString(name);
+                }
+                out.writeObjectBegin(schema.getClassName());
+            }
+            for (Map.Entry<String, TypeSchema> entry : properties.entrySet()) {
+                write(map.get(entry.getKey()), entry.getValue(), out);
+            }
+        }
+    }
+
+    private void writeEnum(String name, TypeSchema schema, AbstractHessianOutput out) throws IOException {
+        // the reader registers every enum it reads as a reference, but a name may stand for constants of
+        // different enums, so take a slot without making the name itself referable
+        out.addRef(new Object());
+        int ref = out.writeObjectBegin(schema.getClassName());
+        if (ref < -1) {
+            out.writeString("name");
+            out.writeString(name);
+            out.writeMapEnd();
+        } else {
+            if (ref == -1) {
+                out.writeClassFieldLength(1);
+                out.writeString("name");
+                out.writeObjectBegin(schema.getClassName());
+            }
+            out.writeString(name);
+        }
+    }
+
+    private void writeArray(Object value, TypeSchema schema, AbstractHessianOutput out) throws IOException {
+        TypeSchema itemSchema = schema.getItemSchema();
+        Collection<?> items = toCollection(value);
+        if (items == null) {
+            out.writeObject(value);
+            return;
+        }
+        Class<?> primitive = itemSchema == null ? null : PRIMITIVES.get(itemSchema.getClassName());
+        if (primitive != null) {
+            Object array = Array.newInstance(primitive, items.size());
+            int i = 0;
+            for (Object item : items) {
+                Array.set(array, i++, toPrimitive(item, primitive));
+            }
+            out.writeObject(array);
+            return;
+        }
+        if (out.addRef(value)) {
+            return;
+        }
+        boolean hasEnd = out.writeListBegin(items.size(), getArrayType(schema));
+        for (Object item : items) {
+            write(item, itemSchema, out);
+        }
+        if (hasEnd) {
+            out.writeListEnd();
+        }
+    }
+
+    private void writeCollection(Object value, TypeSchema schema, AbstractHessianOutput out) throws IOException {
+        Collection<?> items = toCollection(value);
+        if (items == null) {
+            out.writeObject(value);
+            return;
+        }
+        if (out.addRef(value)) {
+            return;
+        }
+        String className = schema.getClassName();
+        String type = "java.util.List".equals(className) || "java.util.ArrayList".equals(className)
+                || "java.util.Collection".equals(className) ? null : className;
+        boolean hasEnd = out.writeListBegin(items.size(), type);
+        for (Object item : items) {
+            write(item, schema.getItemSchema(), out);
+        }
+        if (hasEnd) {
+            out.writeListEnd();
+        }
+    }
+
+    private void writeMap(Object value, TypeSchema schema, AbstractHessianOutput out) throws IOException {
+        if (!(value instanceof Map)) {
+            out.writeObject(value);
+            return;
+        }
+        if (out.addRef(value)) {
+            return;
+        }
+        String className = schema.getClassName();
+        out.writeMapBegin("java.util.Map".equals(className) || "java.util.HashMap".equals(className) ? null : className);
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+            write(entry.getKey(), schema.getKeySchema(), out);
+            write(entry.getValue(), schema.getItemSchema(), out);
+        }
+        out.writeMapEnd();
+    }
+
+    private void writeValue(Object value, String className, AbstractHessianOutput out) throws IOException {
+        switch (className) {
+            case "boolean":
+            case "java.lang.Boolean":
+                out.writeBoolean(value instanceof Boolean ? (Boolean) value : Boolean.parseBoolean(value.toString()));
+                break;
+            case "byte":
+            case "java.lang.Byte":
+            case "short":
+            case "java.lang.Short":
+            case "int":
+            case "java.lang.Integer":
+                out.writeInt(toNumber(value).intValue());
+                break;
+            case "long":
+            case "java.lang.Long":
+                out.writeLong(toNumber(value).longValue());
+                break;
+            case "float":
+            case "java.lang.Float":
+            case "double":
+            case "java.lang.Double":
+                out.writeDouble(toNumber(value).doubleValue());
+                break;
+            case "char":
+            case "java.lang.Character":
+            case "java.lang.String":
+                out.writeString(value.toString());
+                break;
+            case "java.math.BigDecimal":
+                out.writeObject(value instanceof BigDecimal ? value : new BigDecimal(value.toString()));
+                break;
+            case "java.math.BigInteger":
+                out.writeObject(value instanceof BigInteger ? value : new BigInteger(value.toString()));
+                break;
+            case "java.util.Date":
+                if (value instanceof Number) {
+                    out.writeUTCDate(((Number) value).longValue());
+                } else {
+                    out.writeObject(value);
+                }
+                break;
+            default:
+                out.writeObject(value);
+        }
+    }
+
+    private static Collection<?> toCollection(Object value) {
+        if (value instanceof Collection) {
+            return (Collection<?>) value;
+        }
+        if (value instanceof Object[]) {
+            return Arrays.asList((Object[]) value);
+        }
+        return null;
+    }
+
+    private static Number toNumber(Object value) {
+        return value instanceof Number ? (Number) value : new BigDecimal(value.toString());
+    }
+
+    private static Object toPrimitive(Object value, Class<?> primitive) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null element in an array of " + primitive.getName());
+        }
+        if (primitive == boolean.class) {
+            return value instanceof Boolean ? value : Boolean.valueOf(value.toString());
+        }
+        if (primitive == char.class) {
+            return value instanceof Character ? value : value.toString().charAt(0);
+        }
+        Number number = toNumber(value);
+        if (primitive == int.class) {
+            return number.intValue();
+        } else if (primitive == long.class) {
+            return number.longValue();
+        } else if (primitive == double.class) {
+            return number.doubleValue();
+        } else if (primitive == float.class) {
+            return number.floatValue();
+        } else if (primitive == short.class) {
+            return number.shortValue();
+        }
+        return number.byteValue();
+    }
+
+    private static String getArrayType(TypeSchema schema) {
+        TypeSchema itemSchema = schema.getItemSchema();
+        if (itemSchema == null) {
+            return "[object";
+        }
+        if (itemSchema.isArrayType()) {
+            return "[" + getArrayType(itemSchema);
+        }
+        String className = itemSchema.getClassName();
+        if ("java.lang.String".equals(className)) {
+            return "[string";
+        } else if ("java.lang.Object".equals(className)) {
+            return "[object";
+        } else if ("java.util.Date".equals(className)) {
+            return "[date";
+        }
+        return "[" + className;
+    }
+
+}
@@ -31,11 +31,23 @@ import java.io.OutputStream;
  */
 public class KryoObjectOutput implements ObjectOutput, Cleanable {
 
+    /**
+     * The buffer of the last cleaned up output on this thread, handed over to the next one
+     */
+    private static final ThreadLocal<Output> OUTPUT_CACHE = new ThreadLocal<Output>();
+
     private Output output;
     private Kryo kryo;
 
     public KryoObjectOutput(OutputStream outputStream) {
-        output = new Output(outputStream);
+        Output cached = OUTPUT_CACHE.get();
+        if (cached != null) {
+            OUTPUT_CACHE.set(null);
+            cached.setOutputStream(outputStream);
+            output = cached;
+        } else {
+            output = new Output(outputStream);
+        }
         this.kryo = KryoUtils.get();
     }
 
@@ -114,5 +126,10 @@ public class KryoObjectOutput implements ObjectOutput, Cleanable {
     public void cleanup() {
         KryoUtils.release(kryo);
         kryo = null;
+        if (output != null) {
+            output.setOutputStream(null);
+            OUTPUT_CACHE.set(output);
+            output = null;
+        }
     }
 }
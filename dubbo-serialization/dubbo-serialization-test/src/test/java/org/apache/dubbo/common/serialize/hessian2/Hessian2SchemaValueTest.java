@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dubbo.common.serialize.hessian2;
+
+import org.apache.dubbo.common.URL;
+import org.apache.dubbo.common.beanutil.SchemaValue;
+import org.apache.dubbo.common.beanutil.TypeSchema;
+import org.apache.dubbo.common.serialize.ObjectInput;
+import org.apache.dubbo.common.serialize.ObjectOutput;
+import org.apache.dubbo.common.serialize.model.media.Image;
+import org.apache.dubbo.common.serialize.model.media.Media;
+import org.apache.dubbo.common.serialize.model.media.MediaContent;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class Hessian2SchemaValueTest {
+
+    private final Hessian2Serialization serialization = new Hessian2Serialization();
+
+    private final URL url = new URL("protocol", "1.1.1.1", 1234);
+
+    @Test
+    public void testBean() throws Exception {
+        TypeSchema string = new TypeSchema("java.lang.String", TypeSchema.TYPE_VALUE);
+        TypeSchema integer = new TypeSchema("int", TypeSchema.TYPE_VALUE);
+
+        TypeSchema media = new TypeSchema(Media.class.getName(), TypeSchema.TYPE_BEAN);
+        media.setProperty("uri", string);
+        media.setProperty("title", string);
+        media.setProperty("width", integer);
+        media.setProperty("height", integer);
+        media.setProperty("format", string);
+        media.setProperty("duration", new TypeSchema("long", TypeSchema.TYPE_VALUE));
+        media.setProperty("size", new TypeSchema("long", TypeSchema.TYPE_VALUE));
+        media.setProperty("bitrate", integer);
+        media.setProperty("hasBitrate", new TypeSchema("boolean", TypeSchema.TYPE_VALUE));
+        TypeSchema persons = new TypeSchema("java.util.List", TypeSchema.TYPE_COLLECTION);
+        persons.setItemSchema(string);
+        media.setProperty("persons", persons);
+        media.setProperty("player", new TypeSchema(Media.Player.class.getName(), TypeSchema.TYPE_ENUM));
+        media.setProperty("copyright", string);
+
+        TypeSchema image = new TypeSchema(Image.class.getName(), TypeSchema.TYPE_BEAN);
+        image.setProperty("uri", string);
+        image.setProperty("title", string);
+        image.setProperty("width", integer);
+        image.setProperty("height", integer);
+        image.setProperty("size", new TypeSchema(Image.Size.class.getName(), TypeSchema.TYPE_ENUM));
+        TypeSchema images = new TypeSchema("java.util.List", TypeSchema.TYPE_COLLECTION);
+        images.setItemSchema(image);
+
+        TypeSchema content = new TypeSchema(MediaContent.class.getName(), TypeSchema.TYPE_BEAN);
+        content.setProperty("media", media);
+        content.setProperty("images", images);
+
+        // parsed json: numbers as ints or strings, enums by name and absent properties left out
+        Map<String, Object> mediaMap = new HashMap<String, Object>();
+        mediaMap.put("uri", "http://javaone.com/keynote.mpg");
+        mediaMap.put("title", "Javaone Keynote");
+        mediaMap.put("width", 640);
+        mediaMap.put("height", "480");
+        mediaMap.put("format", "video/mpg4");
+        mediaMap.put("duration", 18000000);
+        mediaMap.put("size", 58982400L);
+        mediaMap.put("bitrate", 262144);
+        mediaMap.put("hasBitrate", true);
+        mediaMap.put("persons", Arrays.asList("Bill Gates", "Steve Jobs"));
+        mediaMap.put("player", "JAVA");
+        Map<String, Object> largeImage = new HashMap<String, Object>();
+        largeImage.put("uri", "http://javaone.com/keynote_large.jpg");
+        largeImage.put("title", "Javaone Keynote");
+        largeImage.put("width", 1024);
+        largeImage.put("height", 768);
+        largeImage.put("size", "LARGE");
+        Map<String, Object> smallImage = new HashMap<String, Object>(largeImage);
+        smallImage.put("uri", "http://javaone.com/keynote_small.jpg");
+        smallImage.put("size", "SMALL");
+        Map<String, Object> contentMap = new HashMap<String, Object>();
+        contentMap.put("media", mediaMap);
+        // the same map twice is written as a reference the second time
+        contentMap.put("images", Arrays.asList(largeImage, smallImage, largeImage));
+
+        MediaContent result = (MediaContent) roundTrip(new SchemaValue(contentMap, content), MediaContent.class);
+
+        Media expectedMedia = new Media("http://javaone.com/keynote.mpg", "Javaone Keynote", 640, 480, "video/mpg4",
+                18000000, 58982400, 262144, true, Arrays.asList("Bill Gates", "Steve Jobs"), Media.Player.JAVA, null);
+        Image expectedLarge = new Image("http://javaone.com/keynote_large.jpg", "Javaone Keynote", 1024, 768, Image.Size.LARGE);
+        Image expectedSmall = new Image("http://javaone.com/keynote_small.jpg", "Javaone Keynote", 1024, 768, Image.Size.SMALL);
+        Assertions.assertEquals(new MediaContent(expectedMedia, Arrays.asList(expectedLarge, expectedSmall, expectedLarge)), result);
+        Assertions.assertSame(result.images.get(0), result.images.get(2));
+    }
+
+    @Test
+    public void testArrayAndMap() throws Exception {
+        TypeSchema ints = new TypeSchema(int[].class.getName(), TypeSchema.TYPE_ARRAY);
+        ints.setItemSchema(new TypeSchema("int", TypeSchema.TYPE_VALUE));
+        Assertions.assertArrayEquals(new int[]{1, 2, 3},
+                (int[]) roundTrip(new SchemaValue(Arrays.asList(1, 2L, "3"), ints), int[].class));
+
+        TypeSchema image = new TypeSchema(Image.class.getName(), TypeSchema.TYPE_BEAN);
+        image.setProperty("uri", new TypeSchema("java.lang.String", TypeSchema.TYPE_VALUE));
+        image.setProperty("size", new TypeSchema(Image.Size.class.getName(), TypeSchema.TYPE_ENUM));
+        TypeSchema images = new TypeSchema(Image[].class.getName(), TypeSchema.TYPE_ARRAY);
+        images.setItemSchema(image);
+        TypeSchema map = new TypeSchema("java.util.Map", TypeSchema.TYPE_MAP);
+        map.setKeySchema(new TypeSchema("java.lang.Long", TypeSchema.TYPE_VALUE));
+        map.setItemSchema(images);
+
+        Map<String, Object> small = new HashMap<String, Object>();
+        small.put("uri", "small.jpg");
+        small.put("size", "SMALL");
+        List<Object> values = new ArrayList<Object>();
+        values.add(small);
+        values.add(null);
+        Map<Object, Object> input = new LinkedHashMap<Object, Object>();
+        input.put("1", values);
+
+        Map<?, ?> result = (Map<?, ?>) roundTrip(new SchemaValue(input, map), Map.class);
+        Image[] array = (Image[]) result.get(1L);
+        Assertions.assertEquals(2, array.length);
+        Assertions.assertEquals(new Image("small.jpg", null, 0, 0, Image.Size.SMALL), array[0]);
+        Assertions.assertNull(array[1]);
+    }
+
+    private Object roundTrip(Object value, Class<?> type) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutput output = serialization.serialize(url, bytes);
+        output.writeObject(value);
+        output.flushBuffer();
+        ObjectInput input = serialization.deserialize(url, new ByteArrayInputStream(bytes.toByteArray()));
+        return input.readObject(type);
+    }
+
+}